@@ -1,10 +1,13 @@
 package org.geogebra.common.jre.cas.giac;
 
+import org.geogebra.common.GeoGebraConstants;
 import org.geogebra.common.cas.CASparser;
 import org.geogebra.common.cas.error.TimeoutException;
 import org.geogebra.common.cas.giac.CASgiacB;
 import org.geogebra.common.cas.giac.binding.CASGiacBinding;
+import org.geogebra.common.cas.giac.binding.Context;
 import org.geogebra.common.jre.cas.giac.binding.CASGiacBindingJre;
+import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.util.debug.Log;
 
 /**
@@ -12,6 +15,11 @@ import org.geogebra.common.util.debug.Log;
  */
 public abstract class CASgiacJre extends CASgiacB {
 
+	private GiacDiskCache diskCache;
+	private Kernel kernel;
+	private boolean diskCacheOpen;
+	private volatile GiacWorkerPool<Context> workerPool;
+
     /**
      * @param casParser casParser
      */
@@ -56,6 +64,103 @@ public abstract class CASgiacJre extends CASgiacB {
         }
     }
 
+	/**
+	 * @param diskCache
+	 *            persistent cache for results, null to disable
+	 * @param kernel
+	 *            kernel whose settings may affect the results
+	 */
+	public void setDiskCache(GiacDiskCache diskCache, Kernel kernel) {
+		this.diskCache = diskCache;
+		this.kernel = kernel;
+		diskCacheOpen = false;
+	}
+
+	/**
+	 * Evaluate on a bounded set of worker threads with their own Giac contexts
+	 * rather than on a new thread per call; raw CAS calls from different
+	 * threads then run in parallel. Idle workers stop after a while, so the
+	 * pool does not need to be shut down with the CAS.
+	 *
+	 * @param workers
+	 *            number of workers, 0 to go back to one thread per call
+	 * @param queueCapacity
+	 *            maximal number of calls waiting for a worker
+	 * @return the pool (for metrics), null if disabled
+	 */
+	public GiacWorkerPool<Context> setWorkerCount(int workers,
+			int queueCapacity) {
+		if (workerPool != null) {
+			workerPool.shutdown();
+			workerPool = null;
+		}
+		if (workers > 0) {
+			workerPool = new GiacWorkerPool<>(
+					new GiacWorkerPool.Evaluator<Context>() {
+						@Override
+						public Context createContext() {
+							return newContext();
+						}
+
+						@Override
+						public String evaluate(String exp, long timeout,
+								Context context) {
+							return evalRaw(exp, timeout, context);
+						}
+
+						@Override
+						public void stop(Thread worker) {
+							stopThread(worker);
+						}
+					}, workers, queueCapacity);
+		}
+		return workerPool;
+	}
+
+	@Override
+	protected String evaluateRaw(String exp, long timeoutMillis0)
+			throws Throwable {
+		GiacWorkerPool<Context> pool = workerPool;
+		if (pool == null || !useThread()) {
+			return super.evaluateRaw(exp, timeoutMillis0);
+		}
+		return pool.evaluate(exp, timeoutMillis0);
+	}
+
+	@Override
+	protected String evaluate(String exp, long timeoutMillis0)
+			throws Throwable {
+		if (diskCache == null || !GiacDiskCache.isCacheable(exp)) {
+			return super.evaluate(exp, timeoutMillis0);
+		}
+		synchronized (diskCache) {
+			if (!diskCacheOpen) {
+				// results may change with new Giac or GeoGebra version
+				diskCache.open("giac "
+						+ super.evaluate("version()", timeoutMillis0)
+						+ ", GeoGebra " + GeoGebraConstants.VERSION_STRING);
+				diskCacheOpen = true;
+			}
+		}
+		// settings can change during the session, so they are part of the
+		// key rather than of the file fingerprint
+		String key = getSettingsFingerprint() + "\n" + exp;
+		String result = diskCache.get(key);
+		if (result == null) {
+			long start = System.nanoTime();
+			result = super.evaluate(exp, timeoutMillis0);
+			diskCache.put(key, result, System.nanoTime() - start);
+		}
+		return result;
+	}
+
+	private String getSettingsFingerprint() {
+		return "precision " + (kernel.useSignificantFigures
+				? kernel.getPrintFigures() + " figures"
+				: kernel.getPrintDecimals() + " decimals")
+				+ ", angle unit " + kernel.getAngleUnit();
+	}
+
     protected abstract boolean useThread();
 
     protected abstract void stopThread(Thread thread);
@@ -0,0 +1,372 @@
+package org.geogebra.common.jre.cas.giac;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Giac results stored in an append-only file, so that batch runs can reuse
+ * results of previous runs. The first line of the file contains a fingerprint
+ * (Giac and GeoGebra version); if it doesn't match the current one, the file
+ * is discarded. When the file gets bigger than the size limit, no more entries
+ * are added; on the next start only the newest entries are kept.
+ *
+ * Only one process should use the file at a time.
+ */
+public class GiacDiskCache {
+
+	private static final String HEADER = "# GeoGebra Giac cache ";
+
+	/**
+	 * Giac commands whose result changes between calls: random numbers, clock
+	 * and commands that read or change assumptions on variables.
+	 */
+	static final HashSet<String> NON_DETERMINISTIC = new HashSet<>(
+			Arrays.asList("rand", "random", "alea", "hasard", "randint",
+					"randvector", "ranv", "randmatrix", "ranm", "randpoly",
+					"randperm", "randexp", "randnorm", "randNorm",
+					"randbinomial", "randpoisson", "randgeometric",
+					"randchisquare", "randstudent", "randfisher",
+					"randmultinomial", "randMarkov", "randseed", "RandSeed",
+					"srand", "sample", "shuffle", "time", "clock", "assume",
+					"additionally", "supposons", "about", "purge"));
+
+	private final File file;
+	private final long maxBytes;
+	private String fingerprint;
+	private final HashMap<String, String> results = new HashMap<>();
+	private Writer writer;
+	private long bytes;
+	private boolean full;
+	private long hits;
+	private long misses;
+	private long missNanos;
+
+	/**
+	 * @param file
+	 *            cache file
+	 * @param maxBytes
+	 *            maximal file size in bytes
+	 */
+	public GiacDiskCache(File file, long maxBytes) {
+		this.file = file;
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Loads the file; entries stored with a different fingerprint are
+	 * discarded.
+	 *
+	 * @param newFingerprint
+	 *            Giac version and settings that may affect results
+	 */
+	public synchronized void open(String newFingerprint) {
+		String header = newFingerprint.replace('\n', ' ');
+		if (header.equals(fingerprint)) {
+			return;
+		}
+		close();
+		fingerprint = header;
+		results.clear();
+		full = false;
+		LinkedHashMap<String, String> loaded = new LinkedHashMap<>();
+		boolean valid = read(loaded);
+		if (!valid || file.length() > maxBytes) {
+			compact(loaded);
+		}
+		results.putAll(loaded);
+		try {
+			writer = new OutputStreamWriter(new FileOutputStream(file, true),
+					StandardCharsets.UTF_8);
+			bytes = file.length();
+		} catch (IOException e) {
+			Log.warn("Cannot write Giac cache " + file + ": " + e.getMessage());
+		}
+	}
+
+	private boolean read(LinkedHashMap<String, String> loaded) {
+		if (!file.exists()) {
+			return false;
+		}
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new FileInputStream(file), StandardCharsets.UTF_8))) {
+			if (!(HEADER + fingerprint).equals(reader.readLine())) {
+				Log.debug("Giac cache " + file + " is outdated");
+				return false;
+			}
+			String line;
+			while ((line = reader.readLine()) != null) {
+				int tab = line.indexOf('\t');
+				if (tab > 0) {
+					String key = unescape(line.substring(0, tab));
+					// keep insertion order of newest value
+					loaded.remove(key);
+					loaded.put(key, unescape(line.substring(tab + 1)));
+				}
+			}
+			return true;
+		} catch (IOException e) {
+			Log.warn("Cannot read Giac cache " + file + ": " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Rewrites the file with the newest entries that fit in half of the
+	 * limit.
+	 */
+	private void compact(LinkedHashMap<String, String> loaded) {
+		ArrayList<Map.Entry<String, String>> entries = new ArrayList<>(
+				loaded.entrySet());
+		long size = 0;
+		int first = entries.size();
+		while (first > 0) {
+			Map.Entry<String, String> entry = entries.get(first - 1);
+			long entrySize = line(entry.getKey(), entry.getValue())
+					.getBytes(StandardCharsets.UTF_8).length;
+			if (size + entrySize > maxBytes / 2) {
+				break;
+			}
+			size += entrySize;
+			first--;
+		}
+		loaded.clear();
+		try (Writer out = new OutputStreamWriter(new FileOutputStream(file),
+				StandardCharsets.UTF_8)) {
+			out.write(HEADER + fingerprint + "\n");
+			for (Map.Entry<String, String> entry : entries.subList(first,
+					entries.size())) {
+				out.write(line(entry.getKey(), entry.getValue()));
+				loaded.put(entry.getKey(), entry.getValue());
+			}
+		} catch (IOException e) {
+			Log.warn("Cannot write Giac cache " + file + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * @param input
+	 *            Giac input
+	 * @return cached result or null
+	 */
+	public synchronized String get(String input) {
+		String result = results.get(normalize(input));
+		if (result != null) {
+			hits++;
+		}
+		return result;
+	}
+
+	/**
+	 * Stores a result computed by Giac.
+	 *
+	 * @param input
+	 *            Giac input
+	 * @param result
+	 *            Giac result
+	 * @param nanos
+	 *            time Giac needed to compute the result
+	 */
+	public synchronized void put(String input, String result, long nanos) {
+		misses++;
+		missNanos += nanos;
+		if (result == null || writer == null || full) {
+			return;
+		}
+		String key = normalize(input);
+		results.put(key, result);
+		String line = line(key, result);
+		int lineBytes = line.getBytes(StandardCharsets.UTF_8).length;
+		if (bytes + lineBytes > maxBytes) {
+			Log.debug("Giac cache " + file + " is full");
+			full = true;
+			return;
+		}
+		try {
+			writer.write(line);
+			// keep results if the process gets killed
+			writer.flush();
+			bytes += lineBytes;
+		} catch (IOException e) {
+			Log.warn("Cannot write Giac cache " + file + ": " + e.getMessage());
+			full = true;
+		}
+	}
+
+	/**
+	 * Closes the file.
+	 */
+	public synchronized void close() {
+		if (writer != null) {
+			try {
+				writer.close();
+			} catch (IOException e) {
+				Log.debug(e.getMessage());
+			}
+			writer = null;
+		}
+	}
+
+	/**
+	 * @param input
+	 *            Giac input
+	 * @return whether the result is the same each time the input is evaluated,
+	 *         i.e. it doesn't call any of {@link #NON_DETERMINISTIC}
+	 */
+	public static boolean isCacheable(String input) {
+		boolean inString = false;
+		int start = -1;
+		for (int i = 0; i <= input.length(); i++) {
+			char c = i < input.length() ? input.charAt(i) : ' ';
+			if (c == '"' && (i == 0 || input.charAt(i - 1) != '\\')) {
+				inString = !inString;
+			}
+			boolean identifier = !inString
+					&& (Character.isLetterOrDigit(c) || c == '_');
+			if (identifier && start < 0) {
+				start = i;
+			} else if (!identifier && start >= 0) {
+				if (NON_DETERMINISTIC.contains(input.substring(start, i))) {
+					return false;
+				}
+				start = -1;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Trims the input and collapses whitespace outside of string literals.
+	 *
+	 * @param input
+	 *            Giac input
+	 * @return normalized input
+	 */
+	static String normalize(String input) {
+		String trimmed = input.trim();
+		StringBuilder sb = new StringBuilder(trimmed.length());
+		boolean inString = false;
+		boolean space = false;
+		for (int i = 0; i < trimmed.length(); i++) {
+			char c = trimmed.charAt(i);
+			if (!inString && Character.isWhitespace(c)) {
+				space = true;
+				continue;
+			}
+			if (space) {
+				sb.append(' ');
+				space = false;
+			}
+			if (c == '"' && (i == 0 || trimmed.charAt(i - 1) != '\\')) {
+				inString = !inString;
+			}
+			sb.append(c);
+		}
+		return sb.toString();
+	}
+
+	private static String line(String key, String value) {
+		return escape(key) + "\t" + escape(value) + "\n";
+	}
+
+	private static String escape(String s) {
+		StringBuilder sb = new StringBuilder(s.length());
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			switch (c) {
+			case '\\':
+				sb.append("\\\\");
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			default:
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+
+	private static String unescape(String s) {
+		StringBuilder sb = new StringBuilder(s.length());
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c == '\\' && i + 1 < s.length()) {
+				char next = s.charAt(++i);
+				switch (next) {
+				case 'n':
+					sb.append('\n');
+					break;
+				case 'r':
+					sb.append('\r');
+					break;
+				case 't':
+					sb.append('\t');
+					break;
+				default:
+					sb.append(next);
+				}
+			} else {
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @return number of results loaded from cache
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return number of results computed by Giac
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return ratio of results loaded from cache, 0 if nothing was evaluated
+	 */
+	public synchronized double getHitRatio() {
+		long lookups = hits + misses;
+		return lookups == 0 ? 0 : hits / (double) lookups;
+	}
+
+	/**
+	 * @return estimated CAS time saved by the cache in milliseconds, based on
+	 *         average time of results computed by Giac
+	 */
+	public synchronized long getSavedMillis() {
+		return misses == 0 ? 0 : hits * missNanos / misses / 1000000;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "Giac cache " + file + ": " + hits + " hits, " + misses
+				+ " misses, hit ratio " + Math.round(100 * getHitRatio())
+				+ "%, saved about " + getSavedMillis() + "ms";
+	}
+}
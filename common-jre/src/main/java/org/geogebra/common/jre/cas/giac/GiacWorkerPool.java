@@ -0,0 +1,366 @@
+package org.geogebra.common.jre.cas.giac;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.geogebra.common.cas.error.TimeoutException;
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Set of long-lived threads evaluating Giac expressions, each with its own
+ * Giac context. Replaces starting a new thread for every Giac call.
+ *
+ * Workers are started when tasks arrive and stop after being idle for a
+ * while, so a pool that is no longer used holds no threads. When a caller
+ * times out, the worker evaluating its task is stopped and replaced by a new
+ * one, so slow inputs cannot block the pool. The queue is bounded; callers
+ * wait for a free slot at most as long as their timeout.
+ *
+ * @param <C>
+ *            Giac context type
+ */
+public class GiacWorkerPool<C> {
+
+	/** extra time for Giac to report its own timeout */
+	private static final long GRACE_MILLIS = 500;
+	/** default time after which idle workers stop */
+	private static final long KEEP_ALIVE_MILLIS = 30000;
+	private static final int LATENCY_SAMPLES = 1024;
+
+	private final Evaluator<C> evaluator;
+	private final BlockingQueue<Task> queue;
+	/** current worker of each slot, null if none is running */
+	private final Thread[] workers;
+	private volatile boolean running = true;
+	private volatile long keepAliveMillis = KEEP_ALIVE_MILLIS;
+	private int idle;
+	private int started;
+
+	private final long[] latencies = new long[LATENCY_SAMPLES];
+	private int latencyCount;
+	private long completed;
+	private long timeouts;
+	private long rejected;
+	private long replaced;
+
+	/**
+	 * Evaluation backend, called from worker threads only.
+	 *
+	 * @param <C>
+	 *            Giac context type
+	 */
+	public interface Evaluator<C> {
+		/**
+		 * @return new context, created on the worker thread that will use it
+		 */
+		C createContext();
+
+		/**
+		 * @param exp
+		 *            expression
+		 * @param timeoutMillis
+		 *            timeout in milliseconds
+		 * @param context
+		 *            context of current worker
+		 * @return raw result
+		 */
+		String evaluate(String exp, long timeoutMillis, C context);
+
+		/**
+		 * Stops the evaluation of a worker whose caller timed out. The
+		 * worker is replaced anyway, its context is not used again.
+		 *
+		 * @param worker
+		 *            worker thread
+		 */
+		void stop(Thread worker);
+	}
+
+	private static class Task {
+		final String exp;
+		final long timeoutMillis;
+		final long created = System.nanoTime();
+		final CountDownLatch done = new CountDownLatch(1);
+		volatile boolean cancelled;
+		/** worker evaluating the task */
+		volatile Thread worker;
+		String result;
+		Throwable error;
+
+		Task(String exp, long timeoutMillis) {
+			this.exp = exp;
+			this.timeoutMillis = timeoutMillis;
+		}
+	}
+
+	/**
+	 * @param evaluator
+	 *            evaluation backend
+	 * @param workerCount
+	 *            maximal number of workers
+	 * @param queueCapacity
+	 *            maximal number of waiting tasks
+	 */
+	public GiacWorkerPool(Evaluator<C> evaluator, int workerCount,
+			int queueCapacity) {
+		this.evaluator = evaluator;
+		this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+		workers = new Thread[Math.max(1, workerCount)];
+	}
+
+	/**
+	 * @param keepAliveMillis
+	 *            time after which idle workers stop
+	 */
+	void setKeepAliveMillis(long keepAliveMillis) {
+		this.keepAliveMillis = keepAliveMillis;
+	}
+
+	/**
+	 * Starts a worker if there are more waiting tasks than idle workers.
+	 */
+	private synchronized void ensureWorker() {
+		if (!running || queue.size() <= idle) {
+			return;
+		}
+		for (int i = 0; i < workers.length; i++) {
+			if (workers[i] == null) {
+				final int slot = i;
+				workers[i] = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						work(slot);
+					}
+				}, "Giac worker " + started++);
+				workers[i].setDaemon(true);
+				workers[i].start();
+				return;
+			}
+		}
+	}
+
+	private synchronized boolean isCurrent(int slot) {
+		return running && workers[slot] == Thread.currentThread();
+	}
+
+	private void work(int slot) {
+		C context = null;
+		while (isCurrent(slot)) {
+			Task task;
+			synchronized (this) {
+				idle++;
+			}
+			try {
+				task = queue.poll(keepAliveMillis, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				task = null;
+			}
+			synchronized (this) {
+				idle--;
+				if (task == null) {
+					if (queue.isEmpty() || !running) {
+						retire(slot, Thread.currentThread());
+						return;
+					}
+					continue;
+				}
+				if (task.cancelled) {
+					continue;
+				}
+				task.worker = Thread.currentThread();
+			}
+			try {
+				if (context == null) {
+					context = evaluator.createContext();
+				}
+				task.result = evaluator.evaluate(task.exp, task.timeoutMillis,
+						context);
+			} catch (Throwable t) {
+				Log.debug("problem from JNI Giac: " + t);
+				task.error = t;
+			}
+			if (!task.cancelled) {
+				recordLatency(System.nanoTime() - task.created);
+			}
+			task.done.countDown();
+		}
+	}
+
+	/**
+	 * Frees the slot if the worker is still its current thread.
+	 */
+	private synchronized void retire(int slot, Thread worker) {
+		if (workers[slot] == worker) {
+			workers[slot] = null;
+		}
+	}
+
+	/**
+	 * Stops the worker of a task that timed out and starts a new one if
+	 * needed.
+	 */
+	private void replaceWorker(Task task) {
+		Thread worker;
+		synchronized (this) {
+			worker = task.worker;
+			int slot = Arrays.asList(workers).indexOf(worker);
+			if (worker == null || slot < 0 || task.done.getCount() == 0) {
+				return;
+			}
+			retire(slot, worker);
+			replaced++;
+		}
+		Log.debug("Replacing " + worker.getName());
+		worker.interrupt();
+		evaluator.stop(worker);
+		ensureWorker();
+	}
+
+	/**
+	 * Evaluates an expression on one of the workers, blocks until the result
+	 * is available.
+	 *
+	 * @param exp
+	 *            expression
+	 * @param timeoutMillis
+	 *            timeout in milliseconds
+	 * @return raw result
+	 * @throws Throwable
+	 *             {@link TimeoutException} if the queue is full or the result
+	 *             is not available in time, evaluation error otherwise
+	 */
+	public String evaluate(String exp, long timeoutMillis) throws Throwable {
+		if (!running) {
+			throw new IllegalStateException("Giac worker pool stopped");
+		}
+		Task task = new Task(exp, timeoutMillis);
+		long waitMillis = timeoutMillis + GRACE_MILLIS;
+		if (!queue.offer(task, waitMillis, TimeUnit.MILLISECONDS)) {
+			synchronized (this) {
+				rejected++;
+			}
+			throw new TimeoutException("Giac queue full");
+		}
+		ensureWorker();
+		long remaining = waitMillis - (System.nanoTime() - task.created)
+				/ 1000000;
+		if (!task.done.await(Math.max(remaining, 0), TimeUnit.MILLISECONDS)) {
+			task.cancelled = true;
+			synchronized (this) {
+				timeouts++;
+			}
+			replaceWorker(task);
+			Log.debug("Thread timeout from Giac");
+			throw new TimeoutException("Thread timeout from Giac");
+		}
+		if (task.error != null) {
+			throw task.error;
+		}
+		return task.result;
+	}
+
+	private synchronized void recordLatency(long nanos) {
+		latencies[(int) (completed % LATENCY_SAMPLES)] = nanos;
+		latencyCount = Math.min(latencyCount + 1, LATENCY_SAMPLES);
+		completed++;
+	}
+
+	/**
+	 * @return number of tasks waiting for a worker
+	 */
+	public int getQueueDepth() {
+		return queue.size();
+	}
+
+	/**
+	 * @return maximal number of workers
+	 */
+	public int getWorkerCount() {
+		return workers.length;
+	}
+
+	/**
+	 * @return number of running workers
+	 */
+	public synchronized int getRunningWorkerCount() {
+		int count = 0;
+		for (Thread worker : workers) {
+			if (worker != null) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @param percentile
+	 *            percentile between 0 and 100
+	 * @return latency (including time in queue) in milliseconds over the
+	 *         recent tasks, 0 if no task was completed
+	 */
+	public synchronized double getLatencyPercentile(double percentile) {
+		if (latencyCount == 0) {
+			return 0;
+		}
+		long[] sorted = Arrays.copyOf(latencies, latencyCount);
+		Arrays.sort(sorted);
+		int index = (int) Math.ceil(percentile / 100 * latencyCount) - 1;
+		index = Math.max(0, Math.min(latencyCount - 1, index));
+		return sorted[index] / 1E6;
+	}
+
+	/**
+	 * @return number of completed tasks
+	 */
+	public synchronized long getCompleted() {
+		return completed;
+	}
+
+	/**
+	 * @return number of tasks the caller stopped waiting for
+	 */
+	public synchronized long getTimeouts() {
+		return timeouts;
+	}
+
+	/**
+	 * @return number of workers stopped because their task timed out
+	 */
+	public synchronized long getReplaced() {
+		return replaced;
+	}
+
+	/**
+	 * @return number of tasks rejected because the queue was full
+	 */
+	public synchronized long getRejected() {
+		return rejected;
+	}
+
+	/**
+	 * Stops the workers; tasks still in the queue are not evaluated.
+	 */
+	public synchronized void shutdown() {
+		running = false;
+		for (int i = 0; i < workers.length; i++) {
+			if (workers[i] != null) {
+				workers[i].interrupt();
+				workers[i] = null;
+			}
+		}
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "Giac workers: " + workers.length + ", completed " + completed
+				+ ", timeouts " + timeouts + ", replaced " + replaced
+				+ ", rejected " + rejected
+				+ ", queue " + getQueueDepth() + ", latency p50 "
+				+ getLatencyPercentile(50) + "ms, p90 "
+				+ getLatencyPercentile(90) + "ms, p99 "
+				+ getLatencyPercentile(99) + "ms";
+	}
+}
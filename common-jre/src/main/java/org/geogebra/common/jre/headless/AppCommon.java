@@ -22,6 +22,7 @@ import org.geogebra.common.jre.io.MyXMLioCommon;
 import org.geogebra.common.jre.kernel.commands.CommandDispatcherJre;
 import org.geogebra.common.jre.main.LocalizationJre;
 import org.geogebra.common.jre.plugin.GgbAPIJre;
+import org.geogebra.common.jre.util.ParallelExecutorJre;
 import org.geogebra.common.jre.util.UtilFactoryJre;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.Kernel;
@@ -55,6 +56,7 @@ import org.geogebra.common.util.GTimer;
 import org.geogebra.common.util.GTimerListener;
 import org.geogebra.common.util.ImageManager;
 import org.geogebra.common.util.NormalizerMinimal;
+import org.geogebra.common.util.ParallelExecutor;
 import org.geogebra.common.util.StringUtil;
 import org.geogebra.common.util.debug.Log;
 
@@ -117,6 +119,7 @@ public class AppCommon extends App {
 		FormatFactory.setPrototypeIfNull(new FormatFactoryJre());
 		StringUtil.setPrototypeIfNull(new StringUtil());
 		UtilFactoryJre.setupRegexFactory();
+		ParallelExecutor.setPrototypeIfNull(new ParallelExecutorJre());
 	}
 
     @Override
@@ -0,0 +1,45 @@
+package org.geogebra.common.jre.io;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import org.geogebra.common.gui.view.spreadsheet.StreamingDataImport;
+
+/**
+ * Feeds comma or tab separated data from a reader into the spreadsheet in
+ * chunks, so that memory use does not depend on the size of the input.
+ */
+public class DataImportReader {
+
+	/** size of the chunks passed to the import */
+	public static final int CHUNK_SIZE = 64 * 1024;
+
+	/**
+	 * Reads all data (or until the import is cancelled) and finishes the
+	 * import. The reader is not closed.
+	 *
+	 * @param reader
+	 *            input
+	 * @param dataImport
+	 *            spreadsheet import
+	 * @return whether all cells were imported
+	 * @throws IOException
+	 *             if reading fails; cells read so far are kept
+	 */
+	public static boolean read(Reader reader, StreamingDataImport dataImport)
+			throws IOException {
+		char[] buffer = new char[CHUNK_SIZE];
+		boolean succ;
+		try {
+			int read;
+			while ((read = reader.read(buffer)) >= 0) {
+				if (!dataImport.feed(buffer, 0, read)) {
+					break;
+				}
+			}
+		} finally {
+			succ = dataImport.finish();
+		}
+		return succ;
+	}
+}
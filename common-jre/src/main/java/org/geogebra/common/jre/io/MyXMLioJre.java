@@ -40,6 +40,7 @@ import java.util.zip.ZipOutputStream;
 import org.geogebra.common.io.MyXMLHandler;
 import org.geogebra.common.io.MyXMLio;
 import org.geogebra.common.io.QDParser;
+import org.geogebra.common.io.XMLSnapshot;
 import org.geogebra.common.io.file.ByteArrayZipFile;
 import org.geogebra.common.io.file.ZipFile;
 import org.geogebra.common.jre.gui.MyImageJre;
@@ -65,6 +66,7 @@ public abstract class MyXMLioJre extends MyXMLio {
 	// private static XMLReaderFactory factory;
 
 	private QDParser xmlParser;
+	private boolean writeSnapshot;
 
 	/**
 	 * @param kernel
@@ -76,6 +78,15 @@ public abstract class MyXMLioJre extends MyXMLio {
 		super(kernel, cons);
 	}
 
+	/**
+	 * @param writeSnapshot
+	 *            whether saved files should contain an {@link XMLSnapshot} of
+	 *            the construction XML
+	 */
+	public void setWriteSnapshot(boolean writeSnapshot) {
+		this.writeSnapshot = writeSnapshot;
+	}
+
 	@Override
 	final protected void createXMLParser() {
 		xmlParser = new QDParser();
@@ -143,6 +154,33 @@ public abstract class MyXMLioJre extends MyXMLio {
 	 */
 	protected void processXMLBuffer(byte[] buffer, boolean clearConstruction,
 			boolean isGGTOrDefaults) throws Exception {
+		processXMLBuffer(buffer, null, clearConstruction, isGGTOrDefaults);
+	}
+
+	/**
+	 * Handles the XML file stored in buffer, using its snapshot if it matches.
+	 * 
+	 * @param buffer
+	 *            input buffer
+	 * @param snapshot
+	 *            {@link XMLSnapshot} of the buffer, may be null
+	 * @param clearConstruction
+	 *            whether to clear construction
+	 * @param isGGTOrDefaults
+	 *            whether this is just ggt/defaults (no construction)
+	 * @throws Exception
+	 *             on parsing error
+	 */
+	protected void processXMLBuffer(byte[] buffer, byte[] snapshot,
+			boolean clearConstruction, boolean isGGTOrDefaults)
+			throws Exception {
+		XMLSnapshot events = snapshot == null ? null
+				: XMLSnapshot.read(snapshot, buffer);
+		if (events != null) {
+			doParseXML(events, clearConstruction, isGGTOrDefaults, true, true,
+					true);
+			return;
+		}
 		// handle the data in the memory buffer
 		ByteArrayInputStream bs = new ByteArrayInputStream(buffer);
 		XMLStreamInputStream ir = new XMLStreamInputStream(bs);
@@ -273,11 +311,16 @@ public abstract class MyXMLioJre extends MyXMLio {
 			}
 
 			// write XML file for construction
+			String xml = getFullXML();
+			byte[] xmlBytes = xml.getBytes(Charsets.getUtf8());
 			zip.putNextEntry(new ZipEntry(XML_FILE));
-			osw.write(getFullXML());
-			osw.flush();
+			zip.write(xmlBytes);
 			zip.closeEntry();
 
+			if (writeSnapshot) {
+				writeSnapshotEntry(zip, xml, xmlBytes);
+			}
+
 			osw.close();
 			zip.close();
 		} catch (IOException e) {
@@ -287,6 +330,21 @@ public abstract class MyXMLioJre extends MyXMLio {
 		}
 	}
 
+	private static void writeSnapshotEntry(ZipOutputStream zip, String xml,
+			byte[] xmlBytes) throws IOException {
+		XMLSnapshot.Recorder recorder = new XMLSnapshot.Recorder();
+		try {
+			new QDParser().parse(recorder, new StringReader(xml));
+		} catch (Exception e) {
+			// the snapshot is optional
+			Log.debug(e);
+			return;
+		}
+		zip.putNextEntry(new ZipEntry(XML_FILE_SNAPSHOT));
+		zip.write(recorder.toByteArray(xmlBytes));
+		zip.closeEntry();
+	}
+
 	/**
 	 * Creates a zipped file containing the given macros in xml format plus all
 	 * their external images (e.g. icons).
@@ -574,6 +632,10 @@ public abstract class MyXMLioJre extends MyXMLio {
 	@Override
 	final protected void parseXML(MyXMLHandler xmlHandler, XMLStream stream)
 			throws Exception {
+		if (stream instanceof XMLSnapshot) {
+			((XMLSnapshot) stream).replay(xmlHandler);
+			return;
+		}
 		XMLStreamJre streamJre = (XMLStreamJre) stream;
 		xmlParser.parse(xmlHandler, streamJre.getReader());
 		streamJre.closeReader();
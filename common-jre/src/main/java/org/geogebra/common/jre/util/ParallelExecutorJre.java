@@ -0,0 +1,77 @@
+package org.geogebra.common.jre.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+
+import org.geogebra.common.util.ParallelExecutor;
+
+/**
+ * Parallel executor backed by a fork-join pool (desktop, headless).
+ */
+public class ParallelExecutorJre extends ParallelExecutor {
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Executor using one thread per available processor.
+	 */
+	public ParallelExecutorJre() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param parallelism
+	 *            number of worker threads
+	 */
+	public ParallelExecutorJre(int parallelism) {
+		pool = new ForkJoinPool(Math.max(1, parallelism));
+	}
+
+	@Override
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	@Override
+	public void invokeAll(List<? extends Runnable> tasks) {
+		if (tasks.size() < 2 || getParallelism() < 2
+				|| ForkJoinTask.inForkJoinPool()) {
+			// nested call from a worker: avoid waiting on our own pool
+			runSerially(tasks);
+			return;
+		}
+		List<Future<?>> futures = new ArrayList<>(tasks.size());
+		for (Runnable task : tasks) {
+			futures.add(pool.submit(task));
+		}
+		RuntimeException failure = null;
+		for (Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (ExecutionException e) {
+				if (failure == null) {
+					failure = e.getCause() instanceof RuntimeException
+							? (RuntimeException) e.getCause()
+							: new RuntimeException(e.getCause());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Stops the worker threads.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+}
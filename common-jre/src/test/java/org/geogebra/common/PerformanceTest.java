@@ -0,0 +1,9 @@
+package org.geogebra.common;
+
+/**
+ * JUnit category for benchmarks; they only log timings and are run by the
+ * perfTest task rather than with the unit tests.
+ */
+public interface PerformanceTest {
+	// marker
+}
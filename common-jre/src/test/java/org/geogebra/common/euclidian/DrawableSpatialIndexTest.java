@@ -0,0 +1,155 @@
+package org.geogebra.common.euclidian;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.PerformanceTest;
+import org.geogebra.common.Stopwatch;
+import org.geogebra.common.awt.GPoint;
+import org.geogebra.common.euclidian.event.PointerEventType;
+import org.geogebra.common.kernel.Construction;
+import org.geogebra.common.kernel.algos.AlgoJoinPointsSegment;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.geogebra.common.util.debug.Log;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+public class DrawableSpatialIndexTest extends BaseUnitTest {
+
+	private static final int THRESHOLD = 3;
+
+	@Test
+	public void candidatesShouldContainAllHits() {
+		EuclidianView view = getApp().getActiveEuclidianView();
+		createPointsAndSegments(view, 300, new Random(42));
+		view.repaintView();
+		// long segment, label next to a point
+		add("s=Segment((-5,-3),(5,4))");
+		add("B=(1,1)");
+		for (int x = 0; x < view.getWidth(); x += 7) {
+			for (int y = 0; y < view.getHeight(); y += 7) {
+				checkCandidates(view, x, y);
+			}
+		}
+	}
+
+	@Test
+	public void indexShouldFollowMovedPoints() {
+		EuclidianView view = getApp().getActiveEuclidianView();
+		GeoPoint point = new GeoPoint(getConstruction(), 0, 0, 1);
+		point.setLabel("A");
+		view.repaintView();
+		assertTrue(hitsAt(view, view.toScreenCoordX(0),
+				view.toScreenCoordY(0)).contains(point));
+		point.setCoords(3, 2, 1);
+		point.updateRepaint();
+		assertFalse(hitsAt(view, view.toScreenCoordX(0),
+				view.toScreenCoordY(0)).contains(point));
+		assertTrue(hitsAt(view, view.toScreenCoordX(3),
+				view.toScreenCoordY(2)).contains(point));
+		point.remove();
+		assertFalse(hitsAt(view, view.toScreenCoordX(3),
+				view.toScreenCoordY(2)).contains(point));
+		assertEquals(0, view.getDrawableIndex().size());
+	}
+
+	@Test
+	@Category(PerformanceTest.class)
+	public void hitTestBenchmark() {
+		EuclidianView view = getApp().getActiveEuclidianView();
+		Random random = new Random(42);
+		int threshold = getApp().getCapturingThreshold(PointerEventType.MOUSE);
+		for (int count : new int[] { 1000, 2000, 5000 }) {
+			getKernel().clearConstruction(true);
+			createPointsAndSegments(view, count, random);
+			view.repaintView();
+			int queries = 1000;
+			GPoint[] positions = new GPoint[queries];
+			for (int i = 0; i < queries; i++) {
+				positions[i] = new GPoint(random.nextInt(view.getWidth()),
+						random.nextInt(view.getHeight()));
+			}
+			Stopwatch stopwatch = new Stopwatch();
+			stopwatch.start();
+			int linearHits = 0;
+			for (GPoint p : positions) {
+				for (Drawable d : view.getAllDrawableList()) {
+					if (d.isEuclidianVisible() && (d.hit(p.x, p.y, threshold)
+							|| d.hitLabel(p.x, p.y))) {
+						linearHits++;
+					}
+				}
+			}
+			long linearTime = stopwatch.stop();
+			stopwatch.start();
+			int indexHits = 0;
+			for (GPoint p : positions) {
+				view.getHitDetector().setHits(p, PointerEventType.MOUSE);
+				indexHits += view.getHits().size();
+			}
+			long indexTime = stopwatch.stop();
+			Log.debug("Hit test, " + view.getAllDrawableList().size()
+					+ " drawables, " + queries + " queries: linear scan "
+					+ linearTime + "ms (" + linearHits + " hits), index "
+					+ indexTime + "ms (" + indexHits + " hits)");
+		}
+	}
+
+	private void checkCandidates(EuclidianView view, int x, int y) {
+		ArrayList<Drawable> candidates = view.getDrawableIndex()
+				.getCandidates(x, y, THRESHOLD);
+		DrawableList all = view.getAllDrawableList();
+		int last = -1;
+		for (Drawable d : candidates) {
+			int position = all.indexOf(d);
+			assertTrue(position > last);
+			last = position;
+		}
+		for (Drawable d : all) {
+			if (d.hit(x, y, THRESHOLD) || d.hitLabel(x, y)) {
+				assertTrue(d.getGeoElement() + " at " + x + "," + y,
+						candidates.contains(d));
+			}
+		}
+	}
+
+	private static Hits hitsAt(EuclidianView view, double x, double y) {
+		view.getHitDetector().setHits(new GPoint((int) x, (int) y),
+				PointerEventType.MOUSE);
+		return view.getHits();
+	}
+
+	private void createPointsAndSegments(EuclidianView view, int count,
+			Random random) {
+		Construction cons = getConstruction();
+		GeoPoint previous = null;
+		for (int i = 0; i < count; i++) {
+			double x;
+			double y;
+			if (previous != null && i % 3 == 0) {
+				// short segment starting at previous point
+				x = previous.getInhomX() + random.nextDouble() - 0.5;
+				y = previous.getInhomY() + random.nextDouble() - 0.5;
+			} else {
+				x = view.getXmin() + random.nextDouble()
+						* (view.getXmax() - view.getXmin());
+				y = view.getYmin() + random.nextDouble()
+						* (view.getYmax() - view.getYmin());
+			}
+			GeoPoint point = new GeoPoint(cons, x, y, 1);
+			point.setLabel(null);
+			if (previous != null && i % 3 == 0) {
+				GeoElement segment = new AlgoJoinPointsSegment(cons, previous,
+						point).getSegment();
+				segment.setLabel(null);
+			}
+			previous = point;
+		}
+	}
+}
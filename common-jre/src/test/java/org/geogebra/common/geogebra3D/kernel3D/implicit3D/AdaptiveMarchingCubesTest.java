@@ -0,0 +1,229 @@
+package org.geogebra.common.geogebra3D.kernel3D.implicit3D;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.geogebra.common.PerformanceTest;
+import org.geogebra.common.Stopwatch;
+import org.geogebra.common.jre.util.ParallelExecutorJre;
+import org.geogebra.common.util.debug.Log;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+public class AdaptiveMarchingCubesTest {
+
+	private static final double[] BOUNDS = { -2.63, 2.41, -2.55, 2.49, -2.4,
+			2.64, 500, 500, 500 };
+
+	private static final ImplicitSurfaceFunction SPHERE = (x, y,
+			z) -> x * x + y * y + z * z - 1.5;
+	private static final ImplicitSurfaceFunction ELLIPSOID = (x, y,
+			z) -> x * x / 3 + 4 * y * y + z * z - 1;
+	private static final ImplicitSurfaceFunction TORUS = (x, y, z) -> {
+		double r = Math.sqrt(x * x + y * y) - 1.2;
+		return r * r + z * z - 0.16;
+	};
+	private static final ImplicitSurfaceFunction TANGLECUBE = (x, y,
+			z) -> Math.pow(x, 4) - 5 * x * x + Math.pow(y, 4) - 5 * y * y
+					+ Math.pow(z, 4) - 5 * z * z + 11.8;
+	private static final ImplicitSurfaceFunction GYROID = (x, y,
+			z) -> Math.sin(3 * x) * Math.cos(3 * y)
+					+ Math.sin(3 * y) * Math.cos(3 * z)
+					+ Math.sin(3 * z) * Math.cos(3 * x);
+
+	@Test
+	public void closedSurfacesShouldGiveClosedMeshes() {
+		for (ImplicitSurfaceFunction f : new ImplicitSurfaceFunction[] {
+				SPHERE, TORUS, TANGLECUBE }) {
+			ImplicitSurfaceMesh mesh = new AdaptiveMarchingCubes()
+					.update(BOUNDS, new ImplicitSurfaceFunction[] { f });
+			assertTrue(mesh.getTriangleCount() > 100);
+			assertClosed(mesh);
+		}
+	}
+
+	@Test
+	public void trianglesShouldFaceAlongNormals() {
+		ImplicitSurfaceMesh mesh = new AdaptiveMarchingCubes().update(BOUNDS,
+				new ImplicitSurfaceFunction[] { SPHERE });
+		double[] v = mesh.getVertices();
+		double[] n = mesh.getNormals();
+		for (int i = 0; i < mesh.getVertexCount(); i++) {
+			double r = Math.sqrt(v[3 * i] * v[3 * i]
+					+ v[3 * i + 1] * v[3 * i + 1]
+					+ v[3 * i + 2] * v[3 * i + 2]);
+			assertEquals(Math.sqrt(1.5), r, 0.01);
+			for (int k = 0; k < 3; k++) {
+				assertEquals(v[3 * i + k] / r, n[3 * i + k], 1E-3);
+			}
+		}
+		int[] t = mesh.getIndices();
+		for (int i = 0; i < mesh.getTriangleCount(); i++) {
+			double[] normal = faceNormal(v, t[3 * i], t[3 * i + 1],
+					t[3 * i + 2]);
+			double dot = 0;
+			for (int k = 0; k < 3; k++) {
+				dot += normal[k] * v[3 * t[3 * i] + k];
+			}
+			assertTrue(dot > 0);
+		}
+	}
+
+	@Test
+	public void parallelMeshShouldMatchSerial() {
+		ImplicitSurfaceMesh serial = new AdaptiveMarchingCubes().update(BOUNDS,
+				new ImplicitSurfaceFunction[] { GYROID });
+		AdaptiveMarchingCubes mesher = new AdaptiveMarchingCubes();
+		ParallelExecutorJre executor = new ParallelExecutorJre(4);
+		mesher.setParallelExecutor(executor);
+		ImplicitSurfaceMesh parallel = mesher.update(BOUNDS,
+				new ImplicitSurfaceFunction[] { GYROID, GYROID, GYROID,
+						GYROID });
+		executor.shutdown();
+		assertEquals(serial.getVertexCount(), parallel.getVertexCount());
+		assertEquals(serial.getTriangleCount(), parallel.getTriangleCount());
+	}
+
+	@Test
+	public void smallSurfaceShouldBeFound() {
+		// much smaller than the coarse cubes, only seen by the octree
+		ImplicitSurfaceFunction small = (x, y, z) -> (x - 0.3) * (x - 0.3)
+				+ (y + 0.2) * (y + 0.2) + (z - 0.1) * (z - 0.1) - 0.0225;
+		AdaptiveMarchingCubes mesher = new AdaptiveMarchingCubes();
+		mesher.setResolution(5, 3, 0);
+		ImplicitSurfaceMesh mesh = mesher.update(BOUNDS,
+				new ImplicitSurfaceFunction[] { small });
+		assertTrue(mesh.getTriangleCount() > 0);
+		assertClosed(mesh);
+	}
+
+	@Test
+	@Category(PerformanceTest.class)
+	public void benchmark() {
+		String[] names = { "sphere", "ellipsoid", "torus", "tanglecube",
+				"gyroid" };
+		ImplicitSurfaceFunction[] functions = { SPHERE, ELLIPSOID, TORUS,
+				TANGLECUBE, GYROID };
+		ParallelExecutorJre executor = new ParallelExecutorJre();
+		int threads = executor.getParallelism();
+		// old uniform grid, uniform grid as fine as the octree, default
+		int[][] resolutions = { { 25, 0, 0 }, { 100, 0, 0 }, { 25, 2, 2 } };
+		double[] bounds = BOUNDS.clone();
+		Arrays.fill(bounds, 6, 9, 1000);
+		for (int s = 0; s < names.length; s++) {
+			ImplicitSurfaceFunction[] copies =
+					new ImplicitSurfaceFunction[threads];
+			for (int i = 0; i < threads; i++) {
+				copies[i] = functions[s];
+			}
+			for (int[] resolution : resolutions) {
+				AdaptiveMarchingCubes mesher = new AdaptiveMarchingCubes();
+				mesher.setResolution(resolution[0], resolution[1],
+						resolution[2]);
+				mesher.setParallelExecutor(executor);
+				Stopwatch stopwatch = new Stopwatch();
+				stopwatch.start();
+				ImplicitSurfaceMesh mesh = mesher.update(bounds, copies);
+				long time = stopwatch.stop();
+				Log.debug(names[s] + " " + resolution[0] + "/"
+						+ resolution[1] + "/" + resolution[2] + ": " + time
+						+ "ms, " + mesh.getTriangleCount() + " triangles, "
+						+ quality(mesh, functions[s]));
+			}
+		}
+		executor.shutdown();
+	}
+
+	/**
+	 * @return mean smallest angle, share of slivers and maximal distance to
+	 *         the surface (estimated by |f| / |grad f|)
+	 */
+	private static String quality(ImplicitSurfaceMesh mesh,
+			ImplicitSurfaceFunction f) {
+		double[] v = mesh.getVertices();
+		int[] t = mesh.getIndices();
+		double angles = 0;
+		int slivers = 0;
+		for (int i = 0; i < mesh.getTriangleCount(); i++) {
+			double min = Math.PI;
+			for (int k = 0; k < 3; k++) {
+				min = Math.min(min, angle(v, t[3 * i + k],
+						t[3 * i + (k + 1) % 3], t[3 * i + (k + 2) % 3]));
+			}
+			angles += min;
+			if (min < Math.toRadians(10)) {
+				slivers++;
+			}
+		}
+		double distance = 0;
+		double h = 1E-6;
+		for (int i = 0; i < mesh.getVertexCount(); i++) {
+			double x = v[3 * i];
+			double y = v[3 * i + 1];
+			double z = v[3 * i + 2];
+			double gx = f.evaluate(x + h, y, z) - f.evaluate(x - h, y, z);
+			double gy = f.evaluate(x, y + h, z) - f.evaluate(x, y - h, z);
+			double gz = f.evaluate(x, y, z + h) - f.evaluate(x, y, z - h);
+			double gradient = Math.sqrt(gx * gx + gy * gy + gz * gz) / (2 * h);
+			distance = Math.max(distance,
+					Math.abs(f.evaluate(x, y, z)) / gradient);
+		}
+		int count = Math.max(1, mesh.getTriangleCount());
+		return Math.toDegrees(angles / count) + " degrees smallest angle, "
+				+ 100.0 * slivers / count + "% below 10 degrees, "
+				+ distance + " max distance";
+	}
+
+	/**
+	 * @return angle at vertex a
+	 */
+	private static double angle(double[] v, int a, int b, int c) {
+		double dot = 0;
+		double lengthB = 0;
+		double lengthC = 0;
+		for (int k = 0; k < 3; k++) {
+			double ub = v[3 * b + k] - v[3 * a + k];
+			double uc = v[3 * c + k] - v[3 * a + k];
+			dot += ub * uc;
+			lengthB += ub * ub;
+			lengthC += uc * uc;
+		}
+		return Math.acos(
+				Math.max(-1, Math.min(1, dot / Math.sqrt(lengthB * lengthC))));
+	}
+
+	private static double[] faceNormal(double[] v, int a, int b, int c) {
+		double[] u = new double[3];
+		double[] w = new double[3];
+		for (int k = 0; k < 3; k++) {
+			u[k] = v[3 * b + k] - v[3 * a + k];
+			w[k] = v[3 * c + k] - v[3 * a + k];
+		}
+		return new double[] { u[1] * w[2] - u[2] * w[1],
+				u[2] * w[0] - u[0] * w[2], u[0] * w[1] - u[1] * w[0] };
+	}
+
+	/**
+	 * Checks that each directed edge is used once and its reverse once, so
+	 * the mesh is closed and consistently oriented.
+	 */
+	private static void assertClosed(ImplicitSurfaceMesh mesh) {
+		HashMap<Long, Integer> edges = new HashMap<>();
+		int[] t = mesh.getIndices();
+		for (int i = 0; i < 3 * mesh.getTriangleCount(); i++) {
+			int a = t[i];
+			int b = t[i % 3 == 2 ? i - 2 : i + 1];
+			assertTrue(a != b && a < mesh.getVertexCount());
+			long key = (long) a * mesh.getVertexCount() + b;
+			assertEquals(null, edges.put(key, i));
+		}
+		for (long key : edges.keySet()) {
+			long a = key / mesh.getVertexCount();
+			long b = key % mesh.getVertexCount();
+			assertTrue(edges.containsKey(b * mesh.getVertexCount() + a));
+		}
+	}
+}
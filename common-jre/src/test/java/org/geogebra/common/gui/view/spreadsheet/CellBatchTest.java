@@ -0,0 +1,194 @@
+package org.geogebra.common.gui.view.spreadsheet;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.ModeSetter;
+import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.View;
+import org.geogebra.common.kernel.geos.GProperty;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoElementSpreadsheet;
+import org.geogebra.common.kernel.kernelND.GeoElementND;
+import org.geogebra.common.main.App;
+import org.junit.Test;
+
+public class CellBatchTest extends BaseUnitTest {
+
+	private static final String[] SOURCES = { "A1+B1", "Sum(A1:B2)",
+			"\"x=\"+A1", "(A1, $B$1)", "If(A1>0, A1, -A1)", "A1 x^2 + B1",
+			"{A1, B2, 3}", "\"plain\"", "sqrt(A$1) + 0.1" };
+
+	@Test
+	public void relativeCopiesShouldMatchUnbatchedCopies() throws Exception {
+		List<String> expected = copyAll(false);
+		getKernel().clearConstruction(true);
+		assertEquals(expected, copyAll(true));
+	}
+
+	@Test
+	public void viewsShouldBeToldOnceAtTheEnd() throws Exception {
+		CountingView view = new CountingView();
+		getKernel().attach(view);
+		for (int row = 1; row <= 20; row++) {
+			add("A" + row + "=" + row);
+		}
+		GeoElement source = add("B1=A1+1");
+		view.adds = 0;
+		CellBatch batch = new CellBatch(getApp());
+		batch.start();
+		for (int row = 1; row < 20; row++) {
+			batch.copyRelative(source, null, 0, row, 0, 1);
+		}
+		// removed cells are never announced
+		lookup("B5").remove();
+		assertEquals(0, view.adds);
+		assertEquals(0, view.updates);
+		batch.end();
+		assertEquals(18, view.adds);
+		assertEquals("21", lookup("B20")
+				.toValueString(StringTemplate.defaultTemplate));
+		getKernel().detach(view);
+	}
+
+	private List<String> copyAll(boolean batched) throws Exception {
+		for (int row = 1; row <= 5; row++) {
+			add("A" + row + "=" + row);
+			add("B" + row + "=" + (10 * row));
+		}
+		// sources in row 1 of columns D, E, ...
+		List<GeoElement> sources = new ArrayList<>();
+		for (int i = 0; i < SOURCES.length; i++) {
+			sources.add(add(GeoElementSpreadsheet.getSpreadsheetCellName(i + 3,
+					0) + "=" + SOURCES[i]));
+		}
+		CellBatch batch = new CellBatch(getApp());
+		if (batched) {
+			batch.start();
+		}
+		List<String> labels = new ArrayList<>();
+		try {
+			for (int i = 0; i < sources.size(); i++) {
+				for (int dy = 1; dy < 4; dy++) {
+					GeoElementND copy = batched
+							? batch.copyRelative(sources.get(i), null, 0, dy, 0,
+									i + 3)
+							: RelativeCopy.doCopyNoStoringUndoInfo0(getKernel(),
+									getApp(), sources.get(i), null, 0, dy, 0,
+									i + 3);
+					labels.add(copy.getLabelSimple());
+				}
+			}
+		} finally {
+			batch.end();
+		}
+		List<String> xml = new ArrayList<>();
+		for (String label : labels) {
+			GeoElement cell = lookup(label);
+			// automatic colors of functions differ between runs
+			xml.add(cell.getDefinition(StringTemplate.xmlTemplate)
+					+ cell.getXML().replaceAll("<objColor[^>]*>", ""));
+		}
+		return xml;
+	}
+
+	private static class CountingView implements View {
+		protected int adds;
+		protected int updates;
+
+		@Override
+		public void add(GeoElement geo) {
+			adds++;
+		}
+
+		@Override
+		public void remove(GeoElement geo) {
+			// not counted
+		}
+
+		@Override
+		public void rename(GeoElement geo) {
+			// not counted
+		}
+
+		@Override
+		public void update(GeoElement geo) {
+			countUpdate(geo);
+		}
+
+		@Override
+		public void updateVisualStyle(GeoElement geo, GProperty prop) {
+			countUpdate(geo);
+		}
+
+		private void countUpdate(GeoElement geo) {
+			// elements are updated before they get a label
+			if (geo.isLabelSet()) {
+				updates++;
+			}
+		}
+
+		@Override
+		public void updateHighlight(GeoElementND geo) {
+			// not counted
+		}
+
+		@Override
+		public void updateAuxiliaryObject(GeoElement geo) {
+			countUpdate(geo);
+		}
+
+		@Override
+		public void repaintView() {
+			// not counted
+		}
+
+		@Override
+		public boolean suggestRepaint() {
+			return false;
+		}
+
+		@Override
+		public void reset() {
+			// not counted
+		}
+
+		@Override
+		public void clearView() {
+			// not counted
+		}
+
+		@Override
+		public void setMode(int mode, ModeSetter m) {
+			// not counted
+		}
+
+		@Override
+		public int getViewID() {
+			return App.VIEW_NONE;
+		}
+
+		@Override
+		public boolean hasFocus() {
+			return false;
+		}
+
+		@Override
+		public void startBatchUpdate() {
+			// not counted
+		}
+
+		@Override
+		public void endBatchUpdate() {
+			// not counted
+		}
+
+		@Override
+		public void updatePreviewFromInputBar(GeoElement[] geos) {
+			// not counted
+		}
+	}
+}
@@ -0,0 +1,175 @@
+package org.geogebra.common.gui.view.spreadsheet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.kernelND.GeoElementND;
+import org.junit.Test;
+
+public class StreamingDataImportTest extends BaseUnitTest {
+
+	private static final String CSV = "1,\"a,b\",x\r\n"
+			+ "\"say \"\"hi\"\"\", \"c\\\"d\"\n\n"
+			+ "\"two\nlines\",3\r4,";
+
+	@Test
+	public void chunkBoundariesShouldNotMatter() {
+		String expected = "[1|a,b|x][say \"hi\"|c\"d][][two\nlines|3][4|]";
+		assertEquals(expected, tokenize(CSV, CSV.length()));
+		for (int chunk = 1; chunk < 8; chunk++) {
+			assertEquals(expected, tokenize(CSV, chunk));
+		}
+	}
+
+	@Test
+	public void tabShouldBeDetected() {
+		assertEquals("[1,5|2][3|]", tokenize("1,5\t2\n3\t", 100));
+	}
+
+	@Test
+	public void numbersShouldBeParsedLikeStrings() {
+		String[] inputs = { "1", "-12", "+3", "0.25", "1,5", "-0,001",
+				"1,234", "12,345,678", "-123,456", "1.5E3", "2E-5", "7E+2",
+				".5", "5.", "0", "000123", "1234567890123456789",
+				"0.1234567890123456789", "1E300", "1E-320", "123456789E-30" };
+		for (String input : inputs) {
+			String adjusted = DataImport.adjustNumberString(input);
+			assertEquals(input, Double.parseDouble(adjusted), parse(input), 0);
+		}
+		String[] notNumbers = { "", "-", ".", "1.2.3", "1,2,3", "1,234.5",
+				"1e5", "E5", "1E", "50%", "a1", "1 2", "--1" };
+		for (String input : notNumbers) {
+			assertTrue(input, Double.isNaN(parse(input)));
+		}
+	}
+
+	@Test
+	public void cellsShouldMatchPastedCells() {
+		StreamingDataImport dataImport = new StreamingDataImport(getApp(), 0,
+				0);
+		String data = " 3 ,1,234,abc\n2.5E2,\"x,y\",-4\n50%,(1,2)";
+		assertTrue(feed(dataImport, data, 5));
+		assertEquals(10, dataImport.getCellCount());
+		String[] names = { "A1", "B1", "C1", "D1", "A2", "B2", "C2", "A3",
+				"B3", "C3" };
+		String[] values = { "3", "1", "234", "abc", "250", "x,y", "-4", "0.5",
+				"(1", "2)" };
+		List<String> xml = new ArrayList<>();
+		for (int i = 0; i < names.length; i++) {
+			GeoElement cell = lookup(names[i]);
+			assertEquals(values[i],
+					cell.toValueString(StringTemplate.defaultTemplate));
+			xml.add(cell.getXML());
+		}
+		getKernel().clearConstruction(true);
+		String[][] table = DataImport.parseExternalData(getApp(), data, true);
+		getApp().getSettings().getSpreadsheet().setEqualsRequired(true);
+		for (int row = 0; row < table.length; row++) {
+			for (int col = 0; col < table[row].length; col++) {
+				if (table[row][col].trim().length() > 0) {
+					try {
+						GeoElementND geo = RelativeCopy
+								.prepareAddingValueToTableNoStoringUndoInfo(
+										getKernel(), getApp(), table[row][col],
+										null, col, row, true);
+						geo.setAuxiliaryObject(true);
+					} catch (Exception e) {
+						throw new IllegalStateException(e);
+					}
+				}
+			}
+		}
+		for (int i = 0; i < names.length; i++) {
+			GeoElement pasted = lookup(names[i]);
+			assertEquals(names[i], xml.get(i), pasted.getXML());
+		}
+	}
+
+	@Test
+	public void importShouldBeCancellable() {
+		final StreamingDataImport dataImport = new StreamingDataImport(
+				getApp(), 0, 0);
+		final int[] progress = new int[1];
+		dataImport.setProgressListener(
+				new StreamingDataImport.ProgressListener() {
+					@Override
+					public void onProgress(int rows, long charsRead) {
+						progress[0] = rows;
+						dataImport.cancel();
+					}
+				});
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 3 * StreamingDataImport.BATCH_ROWS; i++) {
+			sb.append(i).append('\n');
+		}
+		assertFalse(feed(dataImport, sb.toString(), 4096));
+		assertEquals(StreamingDataImport.BATCH_ROWS, progress[0]);
+		assertEquals(StreamingDataImport.BATCH_ROWS,
+				dataImport.getCellCount());
+		assertTrue(getKernel().isNotifyViewsActive());
+	}
+
+	@Test
+	public void importShouldStopAtLastRow() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < Kernel.MAX_SPREADSHEET_ROWS_DESKTOP + 10; i++) {
+			sb.append(i).append('\n');
+		}
+		StreamingDataImport dataImport = new StreamingDataImport(getApp(), 0,
+				5);
+		char[] chars = sb.toString().toCharArray();
+		assertFalse(dataImport.feed(chars, 0, chars.length));
+		assertTrue(dataImport.finish());
+		assertEquals(Kernel.MAX_SPREADSHEET_ROWS_DESKTOP - 5,
+				dataImport.getCellCount());
+	}
+
+	private static boolean feed(StreamingDataImport dataImport, String data,
+			int chunk) {
+		char[] chars = data.toCharArray();
+		for (int i = 0; i < chars.length; i += chunk) {
+			if (!dataImport.feed(chars, i, Math.min(chunk, chars.length - i))) {
+				break;
+			}
+		}
+		return dataImport.finish();
+	}
+
+	private static double parse(String input) {
+		char[] chars = ("#" + input + "#").toCharArray();
+		return DataImport.parseNumber(chars, 1, input.length());
+	}
+
+	private static String tokenize(String data, int chunk) {
+		final StringBuilder sb = new StringBuilder();
+		DataImportTokenizer tokenizer = new DataImportTokenizer(
+				new DataImportTokenizer.CellHandler() {
+					@Override
+					public void cell(int row, int column, char[] text,
+							int start, int length) {
+						sb.append(column == 0 ? "[" : "|").append(text, start,
+								length);
+					}
+
+					@Override
+					public boolean endRow(int row, int columns) {
+						sb.append(columns == 0 ? "[]" : "]");
+						return true;
+					}
+				});
+		char[] chars = data.toCharArray();
+		for (int i = 0; i < chars.length; i += chunk) {
+			tokenizer.feed(chars, i, Math.min(chunk, chars.length - i));
+		}
+		tokenizer.finish();
+		return sb.toString();
+	}
+}
@@ -0,0 +1,105 @@
+package org.geogebra.common.jre.cas.giac;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GiacDiskCacheTest {
+
+	private File file;
+
+	@Before
+	public void createFile() throws IOException {
+		file = File.createTempFile("giac", ".cache");
+		assertTrue(file.delete());
+	}
+
+	@After
+	public void deleteFile() {
+		file.delete();
+	}
+
+	@Test
+	public void resultsShouldSurviveRestart() {
+		GiacDiskCache cache = new GiacDiskCache(file, 1 << 20);
+		cache.open("v1");
+		assertNull(cache.get("factor(x^2-1)"));
+		cache.put("factor(x^2-1)", "(x-1)*(x+1)", 1000000);
+		cache.put("\"a\tb\"\n", "line\\1\nline2", 1000000);
+		cache.close();
+
+		GiacDiskCache restarted = new GiacDiskCache(file, 1 << 20);
+		restarted.open("v1");
+		assertEquals("(x-1)*(x+1)", restarted.get("  factor(x^2-1)\n"));
+		assertEquals("line\\1\nline2", restarted.get("\"a\tb\""));
+		assertEquals(2, restarted.getHits());
+		restarted.close();
+	}
+
+	@Test
+	public void cacheShouldBeInvalidatedByNewVersion() {
+		GiacDiskCache cache = new GiacDiskCache(file, 1 << 20);
+		cache.open("v1");
+		cache.put("1+1", "2", 0);
+		cache.close();
+
+		GiacDiskCache upgraded = new GiacDiskCache(file, 1 << 20);
+		upgraded.open("v2");
+		assertNull(upgraded.get("1+1"));
+		upgraded.close();
+	}
+
+	@Test
+	public void cacheShouldRespectSizeLimit() {
+		GiacDiskCache cache = new GiacDiskCache(file, 1000);
+		cache.open("v1");
+		for (int i = 0; i < 100; i++) {
+			cache.put("expand((x+" + i + ")^2)", "x^2+" + 2 * i + "*x+" + i * i,
+					0);
+		}
+		cache.close();
+		assertTrue(file.length() <= 1000);
+
+		GiacDiskCache restarted = new GiacDiskCache(file, 1000);
+		restarted.open("v1");
+		assertEquals("x^2+2*x+1", restarted.get("expand((x+1)^2)"));
+		restarted.close();
+	}
+
+	@Test
+	public void normalizeShouldKeepStrings() {
+		assertEquals("f(x) + \"a  b\"",
+				GiacDiskCache.normalize("  f(x)   +\t\"a  b\"\n"));
+	}
+
+	@Test
+	public void randomResultsShouldNotBeCached() {
+		assertFalse(GiacDiskCache.isCacheable("randint(1,6)"));
+		assertFalse(GiacDiskCache.isCacheable("[assume(a>0),solve(a*x=1,x)]"));
+		assertTrue(GiacDiskCache.isCacheable("solve(x^2=4,x)"));
+		// only whole names count, also not within strings
+		assertTrue(GiacDiskCache.isCacheable("ggbtmpvartime+operand"));
+		assertTrue(GiacDiskCache.isCacheable("\"rand\""));
+	}
+
+	@Test
+	public void hitRatioShouldBeReported() {
+		GiacDiskCache cache = new GiacDiskCache(file, 1 << 20);
+		cache.open("v1");
+		cache.put("1+1", "2", 4000000);
+		cache.get("1+1");
+		cache.get("1+1");
+		cache.get("1+1");
+		assertEquals(0.75, cache.getHitRatio(), 1E-10);
+		assertEquals(12, cache.getSavedMillis());
+		cache.close();
+	}
+}
@@ -0,0 +1,176 @@
+package org.geogebra.common.jre.cas.giac;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.geogebra.common.cas.error.TimeoutException;
+import org.junit.After;
+import org.junit.Test;
+
+public class GiacWorkerPoolTest {
+
+	private GiacWorkerPool<String> pool;
+	private final Set<String> contexts = Collections
+			.synchronizedSet(new HashSet<String>());
+	private final Set<String> usedContexts = Collections
+			.synchronizedSet(new HashSet<String>());
+	private final Set<String> stopped = Collections
+			.synchronizedSet(new HashSet<String>());
+	private volatile String lastContext;
+
+	/** expression "sleep n" sleeps n ms, anything else is echoed */
+	private class FakeGiac implements GiacWorkerPool.Evaluator<String> {
+		@Override
+		public String createContext() {
+			String context = Thread.currentThread().getName();
+			contexts.add(context);
+			return context;
+		}
+
+		@Override
+		public String evaluate(String exp, long timeoutMillis,
+				String context) {
+			usedContexts.add(context);
+			lastContext = context;
+			if (exp.startsWith("sleep ")) {
+				try {
+					Thread.sleep(Long.parseLong(exp.substring(6)));
+				} catch (InterruptedException e) {
+					return "interrupted";
+				}
+				return "slept";
+			}
+			if ("error".equals(exp)) {
+				throw new IllegalArgumentException(exp);
+			}
+			return exp;
+		}
+
+		@Override
+		public void stop(Thread worker) {
+			stopped.add(worker.getName());
+		}
+	}
+
+	@After
+	public void shutdown() {
+		if (pool != null) {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void workersShouldBeReused() throws Throwable {
+		pool = new GiacWorkerPool<>(new FakeGiac(), 2, 10);
+		for (int i = 0; i < 50; i++) {
+			assertEquals("x+" + i, pool.evaluate("x+" + i, 1000));
+		}
+		assertTrue(contexts.size() <= 2);
+		assertEquals(contexts, usedContexts);
+		assertEquals(50, pool.getCompleted());
+		assertEquals(0, pool.getTimeouts());
+	}
+
+	@Test
+	public void timeoutShouldReplaceWorker() throws Throwable {
+		pool = new GiacWorkerPool<>(new FakeGiac(), 1, 10);
+		try {
+			pool.evaluate("sleep 10000", 0);
+			fail("timeout expected");
+		} catch (TimeoutException e) {
+			// expected
+		}
+		assertEquals(1, pool.getTimeouts());
+		assertEquals(1, pool.getReplaced());
+		assertEquals(1, stopped.size());
+		// a new worker with a new context takes the next task
+		assertEquals("x", pool.evaluate("x", 1000));
+		assertEquals(2, contexts.size());
+		assertFalse(stopped.contains(lastContext));
+	}
+
+	@Test
+	public void idleWorkersShouldStop() throws Throwable {
+		pool = new GiacWorkerPool<>(new FakeGiac(), 2, 10);
+		pool.setKeepAliveMillis(50);
+		assertEquals("x", pool.evaluate("x", 1000));
+		assertEquals(1, pool.getRunningWorkerCount());
+		Thread.sleep(500);
+		assertEquals(0, pool.getRunningWorkerCount());
+		// workers are started again when needed
+		assertEquals("y", pool.evaluate("y", 1000));
+	}
+
+	@Test
+	public void errorsShouldReachCaller() throws Throwable {
+		pool = new GiacWorkerPool<>(new FakeGiac(), 1, 10);
+		try {
+			pool.evaluate("error", 1000);
+			fail("error expected");
+		} catch (IllegalArgumentException e) {
+			assertEquals("error", e.getMessage());
+		}
+		assertEquals("y", pool.evaluate("y", 1000));
+	}
+
+	@Test
+	public void fullQueueShouldRejectCalls() throws Throwable {
+		pool = new GiacWorkerPool<>(new FakeGiac(), 1, 1);
+		final CountDownLatch started = new CountDownLatch(2);
+		List<Thread> callers = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			Thread caller = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					started.countDown();
+					try {
+						pool.evaluate("sleep 1000", 5000);
+					} catch (Throwable t) {
+						// ignore
+					}
+				}
+			});
+			caller.start();
+			callers.add(caller);
+		}
+		assertTrue(started.await(1, TimeUnit.SECONDS));
+		Thread.sleep(200);
+		// one task running, one waiting
+		assertEquals(1, pool.getQueueDepth());
+		try {
+			pool.evaluate("x", 0);
+			fail("queue full expected");
+		} catch (TimeoutException e) {
+			assertEquals(1, pool.getRejected());
+		}
+		for (Thread caller : callers) {
+			caller.join();
+		}
+		assertEquals(2, pool.getCompleted());
+	}
+
+	@Test
+	public void percentilesShouldBeOrdered() throws Throwable {
+		pool = new GiacWorkerPool<>(new FakeGiac(), 1, 10);
+		for (int i = 0; i < 10; i++) {
+			pool.evaluate("sleep " + i * 5, 1000);
+		}
+		double median = pool.getLatencyPercentile(50);
+		double max = pool.getLatencyPercentile(100);
+		assertTrue(median >= 20);
+		assertTrue(max >= 45);
+		assertTrue(pool.getLatencyPercentile(0) <= median);
+		assertTrue(median <= max);
+		assertTrue(pool.toString(), pool.toString().contains("p99"));
+	}
+}
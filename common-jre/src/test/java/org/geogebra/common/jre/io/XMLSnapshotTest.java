@@ -0,0 +1,191 @@
+package org.geogebra.common.jre.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.PerformanceTest;
+import org.geogebra.common.Stopwatch;
+import org.geogebra.common.io.MyXMLio;
+import org.geogebra.common.io.QDParser;
+import org.geogebra.common.io.XMLSnapshot;
+import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.util.Charsets;
+import org.geogebra.common.util.debug.Log;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+public class XMLSnapshotTest extends BaseUnitTest {
+
+	private static final File CORPUS = new File(
+			"../test/scripts/benchmark/compare/tests");
+
+	@Test
+	public void snapshotShouldLoadLikeXml() throws Exception {
+		add("A=(1,2)");
+		add("B=(3,-1)");
+		add("s=Segment(A,B)");
+		add("a=Slider(-5,5,0.1)");
+		add("f(x)=sin(x)+a x^2");
+		add("l={1,2,a}");
+		add("txt=\"<b> & 'quoted' é\"");
+		add("A1=3");
+		add("B1=A1^2");
+		add("P=Point(f)");
+		lookup("A").setCaption("x < \"y\" & z");
+		for (String label : new String[] { "s", "f", "a", "l", "txt", "B1",
+				"P" }) {
+			assertNotNull(label, lookup(label));
+		}
+		HashMap<String, byte[]> entries = save(true);
+		byte[] xml = entries.get(MyXMLio.XML_FILE);
+		byte[] snapshot = entries.get(MyXMLio.XML_FILE_SNAPSHOT);
+		assertNotNull(XMLSnapshot.read(snapshot, xml));
+
+		getIO().processXMLBuffer(xml, null, true, false);
+		String fromXml = getApp().getXML();
+		getIO().processXMLBuffer(xml, snapshot, true, false);
+		assertEquals(fromXml, getApp().getXML());
+		assertEquals("<b> & 'quoted' é", lookup("txt")
+				.toValueString(StringTemplate.defaultTemplate));
+		assertEquals("x < \"y\" & z", lookup("A").getCaptionSimple());
+	}
+
+	@Test
+	public void snapshotShouldBeOptional() throws Exception {
+		add("A=(1,2)");
+		assertNull(save(false).get(MyXMLio.XML_FILE_SNAPSHOT));
+	}
+
+	@Test
+	public void staleSnapshotShouldBeIgnored() throws Exception {
+		add("a=1");
+		HashMap<String, byte[]> entries = save(true);
+		byte[] snapshot = entries.get(MyXMLio.XML_FILE_SNAPSHOT);
+		byte[] xml = new String(entries.get(MyXMLio.XML_FILE),
+				Charsets.getUtf8()).replace("label=\"a\"", "label=\"b\"")
+						.getBytes(Charsets.getUtf8());
+		assertNull(XMLSnapshot.read(snapshot, xml));
+		getIO().processXMLBuffer(xml, snapshot, true, false);
+		assertNotNull(lookup("b"));
+	}
+
+	@Test
+	public void damagedSnapshotShouldBeIgnored() throws Exception {
+		add("a=1");
+		HashMap<String, byte[]> entries = save(true);
+		byte[] xml = entries.get(MyXMLio.XML_FILE);
+		byte[] snapshot = entries.get(MyXMLio.XML_FILE_SNAPSHOT);
+		for (int length = 0; length < snapshot.length; length += 7) {
+			byte[] truncated = new byte[length];
+			System.arraycopy(snapshot, 0, truncated, 0, length);
+			assertNull(XMLSnapshot.read(truncated, xml));
+		}
+		byte[] changed = snapshot.clone();
+		changed[changed.length - 1] = 99;
+		assertNull(XMLSnapshot.read(changed, xml));
+	}
+
+	@Test
+	@Category(PerformanceTest.class)
+	public void corpusBenchmark() throws Exception {
+		File[] files = CORPUS.listFiles();
+		Assume.assumeTrue(files != null);
+		List<byte[]> xmls = new ArrayList<>();
+		List<byte[]> snapshots = new ArrayList<>();
+		long xmlBytes = 0;
+		long snapshotBytes = 0;
+		for (File file : files) {
+			byte[] xml = file.getName().endsWith(".ggb")
+					? readEntry(file, MyXMLio.XML_FILE) : null;
+			if (xml != null) {
+				XMLSnapshot.Recorder recorder = new XMLSnapshot.Recorder();
+				new QDParser().parse(recorder, new StringReader(
+						new String(xml, Charsets.getUtf8())));
+				xmls.add(xml);
+				snapshots.add(recorder.toByteArray(xml));
+				xmlBytes += xml.length;
+				snapshotBytes += snapshots.get(snapshots.size() - 1).length;
+			}
+		}
+		// warm up
+		loadAll(xmls, null);
+		loadAll(xmls, snapshots);
+		long xmlTime = loadAll(xmls, null);
+		long snapshotTime = loadAll(xmls, snapshots);
+		Log.debug(xmls.size() + " files, XML " + xmlBytes + " bytes: "
+				+ xmlTime + "ms, snapshot " + snapshotBytes + " bytes: "
+				+ snapshotTime + "ms");
+	}
+
+	private long loadAll(List<byte[]> xmls, List<byte[]> snapshots) {
+		Stopwatch stopwatch = new Stopwatch();
+		stopwatch.start();
+		for (int i = 0; i < xmls.size(); i++) {
+			try {
+				getIO().processXMLBuffer(xmls.get(i),
+						snapshots == null ? null : snapshots.get(i), true,
+						false);
+			} catch (Exception | Error e) {
+				// some files use features the headless app lacks
+			}
+		}
+		return stopwatch.stop();
+	}
+
+	private MyXMLioJre getIO() {
+		return (MyXMLioJre) getApp().getXMLio();
+	}
+
+	private HashMap<String, byte[]> save(boolean withSnapshot)
+			throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		getIO().setWriteSnapshot(withSnapshot);
+		getIO().writeGeoGebraFile(out, false);
+		HashMap<String, byte[]> entries = new HashMap<>();
+		ZipInputStream zip = new ZipInputStream(
+				new ByteArrayInputStream(out.toByteArray()));
+		ZipEntry entry;
+		while ((entry = zip.getNextEntry()) != null) {
+			entries.put(entry.getName(), readAll(zip));
+		}
+		return entries;
+	}
+
+	private static byte[] readEntry(File file, String name) throws Exception {
+		try (ZipInputStream zip = new ZipInputStream(
+				new FileInputStream(file))) {
+			ZipEntry entry;
+			while ((entry = zip.getNextEntry()) != null) {
+				if (entry.getName().equals(name)) {
+					return readAll(zip);
+				}
+			}
+		}
+		return null;
+	}
+
+	private static byte[] readAll(InputStream in) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = in.read(buffer)) > 0) {
+			out.write(buffer, 0, read);
+		}
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,124 @@
+package org.geogebra.common.kernel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.main.SpreadsheetTableModel;
+import org.junit.Test;
+
+public class SpreadsheetCellIndexTest extends BaseUnitTest {
+
+	@Test
+	public void rangeQueriesShouldReturnCellsByColumn() {
+		SpreadsheetCellIndex index = new SpreadsheetCellIndex();
+		GeoElement[] cells = new GeoElement[6];
+		int[][] locations = { { 3, 7 }, { 0, 2 }, { 3, 1 }, { 0, 0 },
+				{ 40, 5 }, { 3, 4 } };
+		for (int i = 0; i < cells.length; i++) {
+			cells[i] = new GeoNumeric(getConstruction(), i);
+			index.put(cells[i], locations[i][0], locations[i][1]);
+		}
+		assertEquals(6, index.size());
+		assertSame(cells[5], index.get(3, 4));
+		assertNull(index.get(3, 5));
+		assertEquals("3 1 2 5", cellsIn(index, 0, 0, 3, 5));
+		assertEquals("2 5 0", cellsIn(index, 1, 1, 39, 100));
+		assertEquals(40, index.getHighestUsedColumn(100, 100));
+		assertEquals(3, index.getHighestUsedColumn(100, 4));
+		assertEquals(7, index.getHighestUsedRow(100, 100));
+		assertEquals(5, index.getHighestUsedRow(100, 6));
+		index.remove(cells[0], 3, 7);
+		// only removes the given cell
+		index.remove(cells[0], 3, 4);
+		assertEquals(5, index.size());
+		assertEquals(5, index.getHighestUsedRow(100, 100));
+		assertEquals("2 5", cellsIn(index, 3, 0, 3, 9999));
+	}
+
+	@Test
+	public void listenersShouldBeToldAboutTheirRange() {
+		SpreadsheetCellIndex index = new SpreadsheetCellIndex();
+		final StringBuilder events = new StringBuilder();
+		index.addRangeListener(new SpreadsheetCellIndex.RangeListener() {
+			@Override
+			public void cellAdded(GeoElement geo, int column, int row) {
+				events.append("+").append(column).append(row);
+			}
+
+			@Override
+			public void cellRemoved(GeoElement geo, int column, int row) {
+				events.append("-").append(column).append(row);
+			}
+
+			@Override
+			public void cellsChanged() {
+				events.append("*");
+			}
+		}, 1, 1, 2, 2);
+		GeoElement a = new GeoNumeric(getConstruction(), 1);
+		GeoElement b = new GeoNumeric(getConstruction(), 2);
+		index.put(a, 1, 1);
+		index.put(a, 3, 1);
+		index.put(b, 1, 1);
+		index.remove(a, 1, 1);
+		assertEquals("+11-11+11", events.toString());
+		index.startDeferringUpdates();
+		index.put(a, 2, 2);
+		index.put(a, 2, 1);
+		index.endDeferringUpdates();
+		assertEquals("+11-11+11*", events.toString());
+	}
+
+	@Test
+	public void cellRangesShouldFollowCells() {
+		add("A1=1");
+		add("A3=3");
+		GeoElement sum = add("s=Sum(A1:B3)");
+		assertEquals(4, sum.evaluateDouble(), 0);
+		add("B2=20");
+		assertEquals(24, sum.evaluateDouble(), 0);
+		add("A2=2");
+		assertEquals(26, sum.evaluateDouble(), 0);
+		add("Rename(A3, \"C3\")");
+		assertEquals(23, sum.evaluateDouble(), 0);
+		lookup("B2").remove();
+		assertEquals(3, sum.evaluateDouble(), 0);
+		add("Rename(C3, \"B3\")");
+		assertEquals("{1, 2, 3}",
+				add("A1:B3").toValueString(StringTemplate.defaultTemplate));
+	}
+
+	@Test
+	public void highestUsedCellShouldFollowRemovals() {
+		SpreadsheetTableModel model = getApp().getSpreadsheetTableModel();
+		add("B5=1");
+		add("D2=1");
+		assertEquals(3, model.getHighestUsedColumn());
+		assertEquals(4, model.getHighestUsedRow());
+		lookup("B5").remove();
+		assertEquals(3, model.getHighestUsedColumn());
+		assertEquals(1, model.getHighestUsedRow());
+		lookup("D2").remove();
+		assertEquals(-1, model.getHighestUsedColumn());
+		assertEquals(-1, model.getHighestUsedRow());
+	}
+
+	private static String cellsIn(SpreadsheetCellIndex index, int minColumn,
+			int minRow, int maxColumn, int maxRow) {
+		List<GeoElement> cells = new ArrayList<>();
+		index.getCells(minColumn, minRow, maxColumn, maxRow, cells);
+		StringBuilder sb = new StringBuilder();
+		for (GeoElement cell : cells) {
+			sb.append(sb.length() == 0 ? "" : " ")
+					.append((int) cell.evaluateDouble());
+		}
+		return sb.toString();
+	}
+}
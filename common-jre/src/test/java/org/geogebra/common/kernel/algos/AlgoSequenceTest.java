@@ -2,9 +2,14 @@ package org.geogebra.common.kernel.algos;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
 
 import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.jre.util.ParallelExecutorJre;
+import org.geogebra.common.kernel.StringTemplate;
 import org.geogebra.common.kernel.geos.GeoAngle;
+import org.geogebra.common.kernel.geos.GeoList;
+import org.geogebra.common.kernel.geos.GeoNumeric;
 import org.junit.Test;
 
 public class AlgoSequenceTest extends BaseUnitTest {
@@ -18,4 +23,54 @@ public class AlgoSequenceTest extends BaseUnitTest {
 		GeoAngle angle = addAvInput("list(1)");
 		assertThat(angle.showInEuclidianView(), is(true));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void termShouldBeEvaluatedForAllValues() {
+		add("a=2");
+		int size = 3 * NumericSequenceEvaluator.MIN_CHUNK;
+		GeoList list = add("l=Sequence(sin(k) + a k^2, k, 1, " + size + ")");
+		ParallelExecutorJre executor = new ParallelExecutorJre(4);
+		try {
+			((AlgoSequence) list.getParentAlgorithm())
+					.setParallelExecutor(executor);
+			assertTermValues(list, 2);
+			((GeoNumeric) lookup("a")).setValue(0);
+			lookup("a").updateRepaint();
+			// evaluated in 3 parallel chunks
+			assertTermValues(list, 0);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static void assertTermValues(GeoList list, double a) {
+		int size = 3 * NumericSequenceEvaluator.MIN_CHUNK;
+		assertEquals(size, list.size());
+		double[] values = list.getNumericValues();
+		for (int k = 1; k <= size; k++) {
+			assertEquals(Math.sin(k) + a * k * k, values[k - 1],
+					1E-12 * k * k);
+		}
+	}
+
+	@Test
+	public void termShouldUseSameValuesAsCascade() {
+		assertEquals("{0, 0.2, 0.4, 0.6, 0.8, 1, 1.2, 1.4, 1.6, 1.8, 2}",
+				valueOf("Sequence(2k, k, 0, 1, 0.1)"));
+		assertEquals("{?, 0, 1}", valueOf("Sequence(sqrt(k), k, -1, 1)"));
+	}
+
+	@Test
+	public void otherExpressionsShouldUseCascade() {
+		add("f(x)=x^2");
+		assertEquals("{1, 4, 9}", valueOf("Sequence(f(k), k, 1, 3)"));
+		assertEquals("{2, 3, 4}",
+				valueOf("Sequence(Element({1, 2, 3}, k) + 1, k, 1, 3)"));
+		assertEquals("{1, 2, 3}", valueOf("Sequence(k, k, 1, 3)"));
+	}
+
+	private String valueOf(String definition) {
+		GeoList list = add(definition);
+		return list.toValueString(StringTemplate.defaultTemplate);
+	}
+}
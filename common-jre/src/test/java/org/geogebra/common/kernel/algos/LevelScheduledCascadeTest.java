@@ -0,0 +1,144 @@
+package org.geogebra.common.kernel.algos;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.TreeSet;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.PerformanceTest;
+import org.geogebra.common.Stopwatch;
+import org.geogebra.common.kernel.Construction;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoLine;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.geogebra.common.kernel.geos.GeoVec3D;
+import org.geogebra.common.util.ParallelExecutor;
+import org.geogebra.common.util.debug.Log;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+public class LevelScheduledCascadeTest extends BaseUnitTest {
+
+	@Test
+	public void levelsShouldRespectDependencies() {
+		Construction cons = getConstruction();
+		GeoPoint a = new GeoPoint(cons, 0, 0, 1);
+		GeoPoint b = new GeoPoint(cons, 2, 0, 1);
+		AlgoMidpoint m = new AlgoMidpoint(cons, a, b);
+		AlgoDistancePoints d = new AlgoDistancePoints(cons, a, b);
+		AlgoMidpoint n = new AlgoMidpoint(cons, m.getPoint(), b);
+		AlgoJoinPoints g = new AlgoJoinPoints(cons, m.getPoint(),
+				n.getPoint());
+		AlgoMidpoint independent = new AlgoMidpoint(cons, a, b);
+		TreeSet<AlgoElement> algos = new TreeSet<>();
+		a.getAlgoUpdateSet().addAllToCollection(algos);
+		b.getAlgoUpdateSet().addAllToCollection(algos);
+
+		ArrayList<LevelScheduledCascade.Level> levels = LevelScheduledCascade
+				.splitIntoLevels(algos);
+		assertEquals(4, levels.size());
+		assertArrayEquals(new AlgoElement[] { m },
+				levels.get(0).algos.toArray());
+		assertArrayEquals(new AlgoElement[] { d },
+				levels.get(1).algos.toArray());
+		assertArrayEquals(new AlgoElement[] { n, independent },
+				levels.get(2).algos.toArray());
+		assertArrayEquals(new AlgoElement[] { g },
+				levels.get(3).algos.toArray());
+		assertTrue(levels.get(0).threadSafe);
+		assertTrue(!levels.get(1).threadSafe);
+	}
+
+	@Test
+	public void parallelCascadeShouldMatchSerial() {
+		ArrayList<GeoPoint> free = new ArrayList<>();
+		ArrayList<GeoVec3D> results = new ArrayList<>();
+		buildConstruction(500, free, results);
+		double[] serial = moveAndCollect(false, free, results, 1);
+		double[] parallel = moveAndCollect(true, free, results, 1);
+		assertArrayEquals(serial, parallel, 0);
+		// also exercise level scheduling on machines with a single core
+		moveAndCollect(false, free, results, 2);
+		TreeSet<AlgoElement> algos = new TreeSet<>();
+		movePoints(free, 1);
+		for (GeoPoint point : free) {
+			point.getAlgoUpdateSet().addAllToCollection(algos);
+		}
+		LevelScheduledCascade.updateAll(algos);
+		assertArrayEquals(serial, collect(results), 0);
+	}
+
+	@Test
+	@Category(PerformanceTest.class)
+	public void cascadeBenchmark() {
+		for (int groups : new int[] { 1000, 4000, 16000 }) {
+			getKernel().clearConstruction(true);
+			ArrayList<GeoPoint> free = new ArrayList<>();
+			ArrayList<GeoVec3D> results = new ArrayList<>();
+			buildConstruction(groups, free, results);
+			// warm up
+			moveAndCollect(false, free, results, 1);
+			moveAndCollect(true, free, results, 1);
+			Stopwatch stopwatch = new Stopwatch();
+			stopwatch.start();
+			double[] serial = moveAndCollect(false, free, results, 10);
+			long serialTime = stopwatch.stop();
+			stopwatch.start();
+			double[] parallel = moveAndCollect(true, free, results, 10);
+			long parallelTime = stopwatch.stop();
+			assertArrayEquals(serial, parallel, 0);
+			Log.debug("Cascade over " + groups * 4 + " algos on "
+					+ ParallelExecutor.getAvailableParallelism()
+					+ " threads: serial " + serialTime + "ms, parallel "
+					+ parallelTime + "ms");
+		}
+	}
+
+	private void buildConstruction(int groups, ArrayList<GeoPoint> free,
+			ArrayList<GeoVec3D> results) {
+		Construction cons = getConstruction();
+		for (int i = 0; i < groups; i++) {
+			GeoPoint a = new GeoPoint(cons, i, 0, 1);
+			GeoPoint b = new GeoPoint(cons, 0, i, 1);
+			GeoPoint m = new AlgoMidpoint(cons, a, b).getPoint();
+			GeoPoint n = new AlgoMidpoint(cons, m, b).getPoint();
+			GeoLine g = new AlgoJoinPoints(cons, m, n).getLine();
+			GeoLine h = new AlgoJoinPoints(cons, a, n).getLine();
+			free.add(a);
+			free.add(b);
+			results.add(n);
+			results.add(g);
+			results.add(h);
+		}
+	}
+
+	private double[] moveAndCollect(boolean parallel, ArrayList<GeoPoint> free,
+			ArrayList<GeoVec3D> results, int steps) {
+		getKernel().setParallelCascade(parallel);
+		for (int step = 1; step <= steps; step++) {
+			movePoints(free, step);
+			GeoElement.updateCascade(free, new TreeSet<AlgoElement>(), false);
+		}
+		getKernel().setParallelCascade(false);
+		return collect(results);
+	}
+
+	private static void movePoints(ArrayList<GeoPoint> free, int step) {
+		for (int i = 0; i < free.size(); i++) {
+			free.get(i).setCoords(i * step, Math.sqrt(i + step), 1);
+		}
+	}
+
+	private static double[] collect(ArrayList<GeoVec3D> results) {
+		double[] values = new double[results.size() * 3];
+		double[] coords = new double[3];
+		for (int i = 0; i < results.size(); i++) {
+			results.get(i).getCoords(coords);
+			System.arraycopy(coords, 0, values, 3 * i, 3);
+		}
+		return values;
+	}
+}
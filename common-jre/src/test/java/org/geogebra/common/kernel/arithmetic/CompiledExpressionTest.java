@@ -0,0 +1,128 @@
+package org.geogebra.common.kernel.arithmetic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.geos.GeoCurveCartesian;
+import org.geogebra.common.kernel.geos.GeoFunction;
+import org.geogebra.common.kernel.geos.GeoFunctionNVar;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.junit.Test;
+
+public class CompiledExpressionTest extends BaseUnitTest {
+
+	@Test
+	public void compiledValueShouldMatchInterpreter() {
+		String[] definitions = { "f(x)=3x^2-2x+1", "f(x)=sin(x)/x",
+				"f(x)=tan(x)+cos(2x)", "f(x)=exp(-x^2)*ln(abs(x))",
+				"f(x)=sqrt(x)+cbrt(x)", "f(x)=x^(1/3)", "f(x)=x^(-2/3)",
+				"f(x)=e^x-sinh(x)", "f(x)=sgn(x)*tanh(x)/cosh(x)",
+				"f(x)=lg(x)+ld(x)" };
+		for (String definition : definitions) {
+			Function function = ((GeoFunction) add(definition)).getFunction();
+			assertTrue(definition, function.isCompiled());
+			for (double x = -5; x <= 5; x += 0.37) {
+				double interpreted = interpret(function, x);
+				assertEquals(definition + " at " + x, interpreted,
+						function.value(x), 1E-12);
+			}
+		}
+	}
+
+	@Test
+	public void unsupportedExpressionShouldFallBack() {
+		Function function = ((GeoFunction) add("f(x)=If(x>0,x,-x)"))
+				.getFunction();
+		assertFalse(function.isCompiled());
+		assertEquals(2, function.value(-2), DELTA);
+		Function gamma = ((GeoFunction) add("g(x)=gamma(x)")).getFunction();
+		assertFalse(gamma.isCompiled());
+		assertEquals(6, gamma.value(4), 1E-10);
+	}
+
+	@Test
+	public void compiledExpressionShouldReadDependencies() {
+		add("a=2");
+		GeoFunction f = add("f(x)=a*x+1");
+		assertTrue(f.getFunction().isCompiled());
+		assertEquals(7, f.value(3), DELTA);
+		((GeoNumeric) lookup("a")).setValue(3);
+		assertEquals(10, f.value(3), DELTA);
+	}
+
+	@Test
+	public void compiledExpressionShouldBeInvalidatedOnChange() {
+		GeoFunction f = add("f(x)=x^2");
+		assertEquals(4, f.value(2), DELTA);
+		f.translate(1, 1);
+		assertEquals(2, f.value(2), DELTA);
+	}
+
+	@Test
+	public void curveTranslationShouldInvalidateCompiledExpression() {
+		GeoCurveCartesian curve = add("c=Curve(t^2+t, t^2-t, t, 0, 5)");
+		assertEquals(6, curve.getFun(0).value(2), DELTA);
+		assertEquals(2, curve.getFun(1).value(2), DELTA);
+		curve.translate(1, -3);
+		assertEquals(7, curve.getFun(0).value(2), DELTA);
+		assertEquals(-1, curve.getFun(1).value(2), DELTA);
+	}
+
+	@Test
+	public void multivariateShouldBeCompiled() {
+		GeoFunctionNVar f = add("f(x,y)=x^2+y^2-sin(x*y)");
+		FunctionNVar function = f.getFunction();
+		assertTrue(function.isCompiled());
+		assertEquals(13 - Math.sin(6), function.evaluate(2, 3), 1E-12);
+		assertEquals(13 - Math.sin(6),
+				function.evaluate(new double[] { 2, 3 }), 1E-12);
+	}
+
+	@Test
+	public void matrixTransformShouldInvalidateCompiledExpression() {
+		GeoFunctionNVar f = add("f(x,y)=x+y");
+		FunctionNVar function = f.getFunction();
+		assertEquals(5, function.evaluate(new double[] { 2, 3 }), DELTA);
+		function.matrixTransform(2, 0, 0, 0, 1, 0, 0, 0, 1);
+		assertEquals(4, function.evaluate(new double[] { 2, 3 }), DELTA);
+	}
+
+	@Test
+	public void traverseShouldInvalidateCompiledExpression() {
+		GeoFunctionNVar f = add("f(x,y)=2x+y");
+		FunctionNVar function = f.getFunction();
+		assertEquals(7, function.evaluate(new double[] { 2, 3 }), DELTA);
+		function.traverse(ev -> ev instanceof MyDouble
+				&& ((MyDouble) ev).getDouble() == 2
+						? new MyDouble(getKernel(), 5) : ev);
+		assertEquals(13, function.evaluate(new double[] { 2, 3 }), DELTA);
+	}
+
+	@Test
+	public void threadSafeEvaluatorShouldNotChangeVariables() {
+		GeoFunctionNVar f = add("f(x,y,z)=x^2+y^2-z*cos(x*y)");
+		FunctionNVar function = f.getFunction();
+		function.evaluate(new double[] { 1, 2, 3 });
+		CompiledExpression.Evaluator evaluator = function
+				.createThreadSafeEvaluator();
+		assertEquals(function.evaluate(new double[] { 4, 5, 6 }),
+				evaluator.evaluate(new double[] { 4, 5, 6 }), 1E-12);
+		function.evaluate(new double[] { 1, 2, 3 });
+		evaluator.evaluate(new double[] { 4, 5, 6 });
+		assertEquals(1, function.getFunctionVariables()[0].getDouble(),
+				DELTA);
+		GeoFunctionNVar root = add("g(x,y)=x^(1/3)+y");
+		assertNull(root.getFunction().createThreadSafeEvaluator());
+	}
+
+	private static double interpret(Function function, double x) {
+		function.getFunctionVariables()[0].set(x);
+		ExpressionValue ev = function.getExpression()
+				.evaluate(StringTemplate.defaultTemplate);
+		return ((NumberValue) ev).getDouble();
+	}
+}
@@ -0,0 +1,103 @@
+package org.geogebra.common.kernel.discrete;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class DijkstraTest {
+
+	@Test
+	public void weightedPathShouldAvoidLongEdges() {
+		// 0 - 1 - 2 - 3 and a long shortcut 0 - 3
+		CompactGraph graph = new CompactGraph(4, new int[] { 0, 1, 2, 0 },
+				new int[] { 1, 2, 3, 3 }, 4);
+		setWeights(graph, 1, 1, 1, 5);
+		Dijkstra dijkstra = new Dijkstra();
+		assertArrayEquals(new int[] { 0, 1, 2 },
+				dijkstra.getPath(graph, 0, 3, true));
+		assertArrayEquals(new int[] { 3 }, dijkstra.getPath(graph, 0, 3, false));
+		assertArrayEquals(new int[] { 2, 1, 0 },
+				dijkstra.getPath(graph, 3, 0, true));
+		graph.setWeight(0, 4);
+		assertArrayEquals(new int[] { 3 }, dijkstra.getPath(graph, 0, 3, true));
+	}
+
+	@Test
+	public void unusableEdgesShouldBeSkipped() {
+		CompactGraph graph = new CompactGraph(3, new int[] { 0, 1 },
+				new int[] { 1, 2 }, 2);
+		setWeights(graph, 1, Double.POSITIVE_INFINITY);
+		Dijkstra dijkstra = new Dijkstra();
+		assertNull(dijkstra.getPath(graph, 0, 2, true));
+		assertNull(dijkstra.getPath(graph, 0, 2, false));
+		assertNull(dijkstra.getPath(graph, 1, 1, true));
+	}
+
+	@Test
+	public void randomGraphsShouldMatchBellmanFord() {
+		Random random = new Random(3);
+		Dijkstra dijkstra = new Dijkstra();
+		for (int k = 0; k < 20; k++) {
+			int n = 50;
+			int m = 120;
+			int[] source = new int[m];
+			int[] target = new int[m];
+			for (int e = 0; e < m; e++) {
+				source[e] = random.nextInt(n);
+				target[e] = random.nextInt(n);
+			}
+			CompactGraph graph = new CompactGraph(n, source, target, m);
+			for (int e = 0; e < m; e++) {
+				graph.setWeight(e, random.nextDouble());
+			}
+			double[] expected = bellmanFord(graph, 0);
+			for (int v = 1; v < n; v++) {
+				int[] path = dijkstra.getPath(graph, 0, v, true);
+				if (path == null) {
+					assertEquals(Double.POSITIVE_INFINITY, expected[v], 0);
+				} else {
+					assertEquals(expected[v], length(graph, path, 0, v), 1E-12);
+				}
+			}
+		}
+	}
+
+	private static void setWeights(CompactGraph graph, double... weights) {
+		for (int e = 0; e < weights.length; e++) {
+			graph.setWeight(e, weights[e]);
+		}
+	}
+
+	private static double length(CompactGraph graph, int[] path, int start,
+			int end) {
+		double length = 0;
+		int vertex = start;
+		for (int edge : path) {
+			length += graph.getWeight(edge);
+			vertex = graph.getOpposite(edge, vertex);
+		}
+		assertEquals(end, vertex);
+		return length;
+	}
+
+	private static double[] bellmanFord(CompactGraph graph, int start) {
+		double[] distance = new double[graph.getVertexCount()];
+		Arrays.fill(distance, Double.POSITIVE_INFINITY);
+		distance[start] = 0;
+		for (int k = 0; k < graph.getVertexCount(); k++) {
+			for (int e = 0; e < graph.getEdgeCount(); e++) {
+				int a = graph.getSource(e);
+				int b = graph.getTarget(e);
+				double w = graph.getWeight(e);
+				distance[a] = Math.min(distance[a], distance[b] + w);
+				distance[b] = Math.min(distance[b], distance[a] + w);
+			}
+		}
+		return distance;
+	}
+}
@@ -0,0 +1,133 @@
+package org.geogebra.common.kernel.discrete;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.geogebra.common.PerformanceTest;
+import org.geogebra.common.Stopwatch;
+import org.geogebra.common.util.debug.Log;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+public class EuclideanMinimumSpanningTreeTest {
+
+	@Test
+	public void randomPointsShouldMatchPrim() {
+		Random random = new Random(42);
+		for (int n : new int[] { 2, 3, 10, 100, 1000 }) {
+			double[] x = new double[n];
+			double[] y = new double[n];
+			for (int i = 0; i < n; i++) {
+				x[i] = random.nextDouble() * 100;
+				y[i] = random.nextDouble() * 100;
+			}
+			checkTree(x, y, n);
+		}
+	}
+
+	@Test
+	public void gridShouldMatchPrim() {
+		// many cocircular points and equal edge lengths
+		int side = 30;
+		double[] x = new double[side * side];
+		double[] y = new double[side * side];
+		for (int i = 0; i < side * side; i++) {
+			x[i] = i % side;
+			y[i] = i / side;
+		}
+		checkTree(x, y, x.length);
+	}
+
+	@Test
+	public void collinearPointsShouldBeChained() {
+		double[] x = { 3, 1, 4, 1, 5, 9, 2, 6 };
+		double[] y = new double[x.length];
+		for (int i = 0; i < x.length; i++) {
+			y[i] = 2 * x[i] + 1;
+		}
+		checkTree(x, y, x.length);
+		assertEquals(8 * Math.sqrt(5), length(x, y,
+				EuclideanMinimumSpanningTree.compute(x, y, x.length)), 1E-12);
+	}
+
+	@Test
+	public void duplicatePointsShouldBeConnected() {
+		double[] x = { 0, 1, 0, 5, 1, 0 };
+		double[] y = { 0, 0, 1, 5, 0, 0 };
+		checkTree(x, y, x.length);
+	}
+
+	@Test
+	@Category(PerformanceTest.class)
+	public void scalingBenchmark() {
+		Random random = new Random(1);
+		for (int n = 1000; n <= 100000; n *= 10) {
+			double[] x = new double[n];
+			double[] y = new double[n];
+			for (int i = 0; i < n; i++) {
+				x[i] = random.nextDouble();
+				y[i] = random.nextDouble();
+			}
+			Stopwatch stopwatch = new Stopwatch();
+			stopwatch.start();
+			int[] edges = EuclideanMinimumSpanningTree.compute(x, y, n);
+			Log.debug("EMST of " + n + " points: " + stopwatch.stop() + "ms");
+			assertEquals(2 * (n - 1), edges.length);
+		}
+	}
+
+	private static void checkTree(double[] x, double[] y, int n) {
+		int[] edges = EuclideanMinimumSpanningTree.compute(x, y, n);
+		assertEquals(2 * (n - 1), edges.length);
+		// all points connected
+		int[] component = new int[n];
+		for (int i = 0; i < n; i++) {
+			component[i] = i;
+		}
+		for (int k = 0; k < n; k++) {
+			for (int i = 0; i < edges.length; i += 2) {
+				int min = Math.min(component[edges[i]],
+						component[edges[i + 1]]);
+				component[edges[i]] = min;
+				component[edges[i + 1]] = min;
+			}
+		}
+		int[] expected = new int[n];
+		assertEquals(Arrays.toString(expected), Arrays.toString(component));
+		assertEquals(primLength(x, y, n), length(x, y, edges), 1E-9);
+	}
+
+	private static double length(double[] x, double[] y, int[] edges) {
+		double length = 0;
+		for (int i = 0; i < edges.length; i += 2) {
+			length += Math.hypot(x[edges[i]] - x[edges[i + 1]],
+					y[edges[i]] - y[edges[i + 1]]);
+		}
+		return length;
+	}
+
+	private static double primLength(double[] x, double[] y, int n) {
+		boolean[] inTree = new boolean[n];
+		double[] best = new double[n];
+		Arrays.fill(best, Double.POSITIVE_INFINITY);
+		best[0] = 0;
+		double length = 0;
+		for (int k = 0; k < n; k++) {
+			int next = -1;
+			for (int i = 0; i < n; i++) {
+				if (!inTree[i] && (next < 0 || best[i] < best[next])) {
+					next = i;
+				}
+			}
+			inTree[next] = true;
+			length += best[next];
+			for (int i = 0; i < n; i++) {
+				best[i] = Math.min(best[i],
+						Math.hypot(x[i] - x[next], y[i] - y[next]));
+			}
+		}
+		return length;
+	}
+}
@@ -0,0 +1,156 @@
+package org.geogebra.common.kernel.discrete;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.geogebra.common.kernel.discrete.delaunay.DelaunayTriangulation;
+import org.geogebra.common.kernel.discrete.delaunay.PointDt;
+import org.geogebra.common.kernel.discrete.delaunay.TriangleDt;
+import org.junit.Test;
+
+public class IncrementalDelaunayTest {
+
+	@Test
+	public void dragsShouldMatchRebuild() {
+		Random random = new Random(7);
+		int n = 300;
+		double[] x = new double[n];
+		double[] y = new double[n];
+		for (int i = 0; i < n; i++) {
+			x[i] = random.nextDouble() * 100;
+			y[i] = random.nextDouble() * 100;
+		}
+		IncrementalDelaunay delaunay = new IncrementalDelaunay(false);
+		delaunay.update(x, y);
+		for (int k = 0; k < 500; k++) {
+			int i = random.nextInt(n);
+			x = x.clone();
+			y = y.clone();
+			x[i] += random.nextGaussian();
+			y[i] += random.nextGaussian();
+			assertEquals(edges(new IncrementalDelaunay(false).update(x, y)),
+					edges(delaunay.update(x, y)));
+		}
+		// only moves of points on the convex hull need a rebuild
+		assertTrue(delaunay.getRebuildCount() < 100);
+	}
+
+	@Test
+	public void pointMovedOntoAnotherShouldBeIgnored() {
+		double[] x = { 0, 4, 0, 4, 1, 3 };
+		double[] y = { 0, 0, 4, 4, 1, 2 };
+		IncrementalDelaunay delaunay = new IncrementalDelaunay(false);
+		delaunay.update(x, y);
+		double[] movedX = { 0, 4, 0, 4, 3, 3 };
+		double[] movedY = { 0, 0, 4, 4, 2, 2 };
+		assertEquals(5, delaunay.update(movedX, movedY).size());
+		assertEquals(6, delaunay.update(x, y).size());
+	}
+
+	@Test
+	public void distinctCoordsShouldBeKeptWhenMoving() {
+		double[] x = { 0, 4, 0, 4, 1, 3 };
+		double[] y = { 0, 0, 4, 4, 1, 2 };
+		IncrementalDelaunay delaunay = new IncrementalDelaunay(true);
+		delaunay.update(x, y);
+		double[] moved = { 0, 4, 0, 4, 3, 3 };
+		double[] movedY = { 0, 0, 4, 4, 3, 2 };
+		DelaunayTriangulation dt = delaunay.update(moved, movedY);
+		assertEquals(6, dt.size());
+		TreeSet<Double> xs = new TreeSet<>();
+		TreeSet<Double> ys = new TreeSet<>();
+		Iterator<PointDt> it = dt.verticesIterator();
+		while (it.hasNext()) {
+			PointDt p = it.next();
+			assertTrue(xs.add(p.x()));
+			assertTrue(ys.add(p.y()));
+		}
+	}
+
+	@Test
+	public void nearlyEqualPointsShouldBeMerged() {
+		double[] x = { 0, 4, 0, 4, 1, 1 + 1E-9 };
+		double[] y = { 0, 0, 4, 4, 1, 1 - 1E-9 };
+		assertEquals(5, new IncrementalDelaunay(true).update(x, y).size());
+		assertEquals(5, new IncrementalDelaunay(false).update(x, y).size());
+		x[5] = 1 + 1E-7;
+		assertEquals(6, new IncrementalDelaunay(true).update(x, y).size());
+	}
+
+	@Test
+	public void deletingFromGridShouldKeepEmptyCircumcircles() {
+		// cocircular points, the triangulation is not unique
+		int side = 8;
+		PointDt[] points = new PointDt[side * side];
+		for (int i = 0; i < points.length; i++) {
+			points[i] = new PointDt(i % side, i / side);
+		}
+		DelaunayTriangulation dt = new DelaunayTriangulation(points);
+		assertFalse(dt.deletePoint(points[0]));
+		for (int i = 1; i < side - 1; i++) {
+			assertTrue(dt.deletePoint(points[i * side + i]));
+			dt.insertPoint(new PointDt(i + 0.5, i + 0.5));
+		}
+		int triangles = 0;
+		Iterator<TriangleDt> it = dt.trianglesIterator();
+		while (it.hasNext()) {
+			TriangleDt t = it.next();
+			if (t.isHalfplane()) {
+				continue;
+			}
+			triangles++;
+			Iterator<PointDt> vertices = dt.verticesIterator();
+			while (vertices.hasNext()) {
+				PointDt p = vertices.next();
+				if (!t.isCorner(p)) {
+					assertFalse(strictlyInside(t, p));
+				}
+			}
+		}
+		// 2n - 2 - h triangles for n points, h of them on the hull
+		assertEquals(2 * side * side - 2 - 4 * (side - 1), triangles);
+	}
+
+	private static boolean strictlyInside(TriangleDt t, PointDt p) {
+		PointDt a = t.p1();
+		PointDt b = t.p2();
+		PointDt c = t.p3();
+		double adx = a.x() - p.x();
+		double ady = a.y() - p.y();
+		double bdx = b.x() - p.x();
+		double bdy = b.y() - p.y();
+		double cdx = c.x() - p.x();
+		double cdy = c.y() - p.y();
+		double det = (adx * adx + ady * ady) * (bdx * cdy - cdx * bdy)
+				+ (bdx * bdx + bdy * bdy) * (cdx * ady - adx * cdy)
+				+ (cdx * cdx + cdy * cdy) * (adx * bdy - bdx * ady);
+		double orientation = (b.x() - a.x()) * (c.y() - a.y())
+				- (b.y() - a.y()) * (c.x() - a.x());
+		return det * orientation > 1E-9;
+	}
+
+	private static TreeSet<String> edges(DelaunayTriangulation dt) {
+		TreeSet<String> edges = new TreeSet<>();
+		Iterator<TriangleDt> it = dt.trianglesIterator();
+		while (it.hasNext()) {
+			TriangleDt t = it.next();
+			if (t.isHalfplane()) {
+				continue;
+			}
+			int[] corners = { ((IndexedPoint) t.p1()).index,
+					((IndexedPoint) t.p2()).index,
+					((IndexedPoint) t.p3()).index };
+			for (int i = 0; i < 3; i++) {
+				int a = corners[i];
+				int b = corners[(i + 1) % 3];
+				edges.add(Math.min(a, b) + "-" + Math.max(a, b));
+			}
+		}
+		return edges;
+	}
+}
@@ -0,0 +1,136 @@
+package org.geogebra.common.kernel.discrete.tsp;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.geogebra.common.jre.util.ParallelExecutorJre;
+import org.junit.Test;
+
+public class TSPSolverTest {
+
+	private static final long NO_DEADLINE = 3600000;
+
+	@Test
+	public void smallToursShouldBeOptimal() {
+		Random random = new Random(11);
+		for (int k = 0; k < 20; k++) {
+			int n = 9;
+			double[] x = new double[n];
+			double[] y = new double[n];
+			for (int i = 0; i < n; i++) {
+				x[i] = random.nextDouble();
+				y[i] = random.nextDouble();
+			}
+			int[] tour = new TSPSolver().solve(x, y, n);
+			assertEquals(bruteForce(x, y, n), length(x, y, tour, n), 1E-9);
+		}
+	}
+
+	@Test
+	public void degenerateInputShouldGiveValidTours() {
+		double[] x = { 0, 3, 1, 2, 5, 4 };
+		double[] y = { 0, 3, 1, 2, 5, 4 };
+		int[] tour = new TSPSolver().solve(x, y, 6);
+		assertArrayEquals(new int[] { 0, 2, 3, 1, 5, 4 }, tour);
+		double[] duplicatesX = { 0, 1, 0, 1, 0, 1, 0.5 };
+		double[] duplicatesY = { 0, 0, 1, 1, 0, 0, 2 };
+		tour = new TSPSolver().solve(duplicatesX, duplicatesY, 7);
+		assertEquals(3 + Math.sqrt(5), length(duplicatesX, duplicatesY,
+				tour, 7), 1E-9);
+	}
+
+	@Test
+	public void warmStartShouldFollowDrag() {
+		Random random = new Random(2);
+		int n = 2000;
+		double[] x = new double[n];
+		double[] y = new double[n];
+		for (int i = 0; i < n; i++) {
+			x[i] = random.nextDouble();
+			y[i] = random.nextDouble();
+		}
+		// the search stops after a fixed number of kicks, not at the deadline
+		TSPSolver solver = new TSPSolver();
+		solver.setTimeBudget(NO_DEADLINE);
+		ParallelExecutorJre executor = new ParallelExecutorJre(4);
+		solver.setParallelExecutor(executor);
+		int[] tour = null;
+		try {
+			solver.solve(x, y, n);
+			for (int frame = 0; frame < 100; frame++) {
+				x[0] += 0.005;
+				y[0] += 0.002;
+				tour = solver.solve(x, y, n);
+			}
+		} finally {
+			executor.shutdown();
+		}
+		TSPSolver coldSolver = new TSPSolver();
+		coldSolver.setTimeBudget(NO_DEADLINE);
+		double cold = length(x, y, coldSolver.solve(x, y, n), n);
+		assertTrue(length(x, y, tour, n) < 1.02 * cold);
+	}
+
+	@Test
+	public void searchShouldStopAtDeadline() {
+		Random random = new Random(3);
+		int n = 20000;
+		double[] x = new double[n];
+		double[] y = new double[n];
+		for (int i = 0; i < n; i++) {
+			x[i] = random.nextDouble();
+			y[i] = random.nextDouble();
+		}
+		TSPSolver solver = new TSPSolver();
+		solver.setTimeBudget(0);
+		length(x, y, solver.solve(x, y, n), n);
+	}
+
+	/**
+	 * @return tour length, fails if the tour is not a permutation
+	 */
+	private static double length(double[] x, double[] y, int[] tour, int n) {
+		assertEquals(n, tour.length);
+		boolean[] visited = new boolean[n];
+		double length = 0;
+		for (int i = 0; i < n; i++) {
+			assertTrue(!visited[tour[i]]);
+			visited[tour[i]] = true;
+			int a = tour[i];
+			int b = tour[(i + 1) % n];
+			length += Math.hypot(x[a] - x[b], y[a] - y[b]);
+		}
+		return length;
+	}
+
+	private static double bruteForce(double[] x, double[] y, int n) {
+		int[] tour = new int[n];
+		for (int i = 0; i < n; i++) {
+			tour[i] = i;
+		}
+		return permute(x, y, tour, 1, n);
+	}
+
+	private static double permute(double[] x, double[] y, int[] tour, int k,
+			int n) {
+		if (k == n) {
+			return length(x, y, tour, n);
+		}
+		double best = Double.POSITIVE_INFINITY;
+		for (int i = k; i < n; i++) {
+			swap(tour, k, i);
+			best = Math.min(best, permute(x, y, tour, k + 1, n));
+			swap(tour, k, i);
+		}
+		return best;
+	}
+
+	private static void swap(int[] tour, int i, int j) {
+		int tmp = tour[i];
+		tour[i] = tour[j];
+		tour[j] = tmp;
+	}
+}
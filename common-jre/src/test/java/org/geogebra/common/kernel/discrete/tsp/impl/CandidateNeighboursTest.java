@@ -0,0 +1,80 @@
+package org.geogebra.common.kernel.discrete.tsp.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class CandidateNeighboursTest {
+
+	@Test
+	public void nearestShouldMatchBruteForce() {
+		Random random = new Random(4);
+		int n = 500;
+		double[] x = new double[n];
+		double[] y = new double[n];
+		for (int i = 0; i < n; i++) {
+			// wide strip, some cities share coordinates
+			x[i] = random.nextInt(1000);
+			y[i] = random.nextInt(10);
+		}
+		CandidateNeighbours candidates = CandidateNeighbours.nearest(x, y, n);
+		for (int v = 0; v < n; v++) {
+			assertArrayEquals(bruteForce(x, y, n, v),
+					distances(candidates, x, y, v), 0);
+		}
+	}
+
+	@Test
+	public void updateShouldAddMovedCityToNeighbours() {
+		Random random = new Random(5);
+		int n = 100;
+		double[] x = new double[n];
+		double[] y = new double[n];
+		for (int i = 0; i < n; i++) {
+			x[i] = random.nextDouble();
+			y[i] = random.nextDouble();
+		}
+		CandidateNeighbours candidates = CandidateNeighbours.nearest(x, y, n);
+		x[0] = x[50] + 1E-6;
+		y[0] = y[50];
+		candidates.update(0, x, y, n);
+		assertEquals(50, candidates.get(0, 0));
+		assertEquals(0, candidates.get(50, 0));
+		// other cities keep their candidates sorted
+		for (int v = 1; v < n; v++) {
+			double[] distances = distances(candidates, x, y, v);
+			double[] sorted = distances.clone();
+			Arrays.sort(sorted);
+			assertArrayEquals(sorted, distances, 0);
+		}
+	}
+
+	private static double[] bruteForce(double[] x, double[] y, int n,
+			int v) {
+		double[] all = new double[n - 1];
+		for (int u = 0, i = 0; u < n; u++) {
+			if (u != v) {
+				all[i++] = distance(x, y, v, u);
+			}
+		}
+		Arrays.sort(all);
+		return Arrays.copyOf(all, CandidateNeighbours.MAX_CANDIDATES);
+	}
+
+	private static double[] distances(CandidateNeighbours candidates,
+			double[] x, double[] y, int v) {
+		double[] distances = new double[candidates.getCount(v)];
+		for (int i = 0; i < distances.length; i++) {
+			distances[i] = distance(x, y, v, candidates.get(v, i));
+		}
+		return distances;
+	}
+
+	private static double distance(double[] x, double[] y, int a, int b) {
+		return Math.hypot(x[a] - x[b], y[a] - y[b]);
+	}
+}
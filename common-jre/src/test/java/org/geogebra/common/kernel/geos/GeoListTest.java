@@ -1,6 +1,9 @@
 package org.geogebra.common.kernel.geos;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import org.geogebra.common.BaseUnitTest;
 import org.geogebra.common.kernel.StringTemplate;
@@ -23,4 +26,51 @@ public class GeoListTest extends BaseUnitTest {
 		assertEquals("\\left(\\begin{array}{rr}a&2\\\\a + 2&4\\\\ \\end{array}\\right)",
 				matrix.toLaTeXString(true, StringTemplate.latexTemplate));
 	}
+
+	@Test
+	public void numberSequenceShouldUseArray() {
+		add("n=5");
+		GeoList list = add("l=Sequence(i^2, i, 1, n)");
+		assertNotNull(list.getNumericValues());
+		assertEquals("{1, 4, 9, 16, 25}",
+				list.toValueString(StringTemplate.defaultTemplate));
+		assertEquals(9, ((GeoNumeric) add("l(3)")).getDouble(), 0);
+		GeoNumeric element = (GeoNumeric) list.get(1);
+		lookup("n").set(add("3"));
+		lookup("n").updateCascade();
+		assertEquals("{1, 4, 9}",
+				list.toValueString(StringTemplate.defaultTemplate));
+		// element objects are kept when values change
+		assertSame(element, list.get(1));
+		assertEquals(4, element.getDouble(), 0);
+	}
+
+	@Test
+	public void statisticsShouldReadArray() {
+		add("l=Sequence(i, i, 1, 100)");
+		assertEquals(50.5, ((GeoNumeric) add("Mean(l)")).getDouble(), 1E-12);
+		assertEquals(50.5, ((GeoNumeric) add("Median(l)")).getDouble(), 0);
+		assertEquals(5050, ((GeoNumeric) add("Sum(l)")).getDouble(), 0);
+		assertEquals(833.25, ((GeoNumeric) add("Variance(l)")).getDouble(),
+				1E-9);
+		assertEquals(25, ((GeoNumeric) add("MAD(l)")).getDouble(), 1E-12);
+		assertEquals(25.25,
+				((GeoNumeric) add("Percentile(l, 0.25)")).getDouble(), 1E-12);
+		GeoList random = add("r=RandomUniform(2, 3, 1000)");
+		assertNotNull(random.getNumericValues());
+		assertEquals(2.5, ((GeoNumeric) add("Mean(r)")).getDouble(),
+				0.1);
+	}
+
+	@Test
+	public void modifiedListShouldStoreObjects() {
+		GeoList list = add("Sequence(i, i, 1, 3)");
+		GeoList copy = list.copy();
+		assertNotNull(copy.getNumericValues());
+		assertEquals(3, copy.size());
+		copy.add(new GeoNumeric(getConstruction(), 4));
+		assertNull(copy.getNumericValues());
+		assertEquals("{1, 2, 3, 4}",
+				copy.toValueString(StringTemplate.defaultTemplate));
+	}
 }
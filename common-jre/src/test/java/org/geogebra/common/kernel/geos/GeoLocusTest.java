@@ -0,0 +1,106 @@
+package org.geogebra.common.kernel.geos;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.MyPointBuffer;
+import org.geogebra.common.kernel.PathMover;
+import org.geogebra.common.kernel.PathParameter;
+import org.geogebra.common.kernel.SegmentType;
+import org.geogebra.common.kernel.algos.AlgoPerimeterLocus;
+import org.geogebra.common.kernel.matrix.Coords;
+import org.junit.Test;
+
+public class GeoLocusTest extends BaseUnitTest {
+
+	@Test
+	public void insertedPointsShouldBeBuffered() {
+		GeoLocus locus = square();
+		MyPointBuffer buffer = locus.getPointBuffer();
+		assertNotNull(buffer);
+		assertEquals(5, locus.getPointLength());
+		assertEquals(1, buffer.getX(1), 0);
+		assertEquals(SegmentType.MOVE_TO, buffer.getSegmentType(0));
+		assertTrue(buffer.getLineTo(4));
+		assertEquals(4, locus.getMaxParameter(), 0);
+		assertTrue(locus.isClosedPath());
+	}
+
+	@Test
+	public void getPointsShouldConvertBuffer() {
+		GeoLocus locus = square();
+		ArrayList<MyPoint> points = locus.getPoints();
+		assertNull(locus.getPointBuffer());
+		assertEquals(5, points.size());
+		assertEquals(1, points.get(2).y, 0);
+		assertEquals(SegmentType.MOVE_TO, points.get(0).getSegmentType());
+		// points added after conversion go to the list
+		locus.insertPoint(2, 2, SegmentType.LINE_TO);
+		assertEquals(6, locus.getPoints().size());
+		locus.clearPoints();
+		locus.insertPoint(3, 3, SegmentType.MOVE_TO);
+		assertNotNull(locus.getPointBuffer());
+	}
+
+	@Test
+	public void pathParameterShouldUseBuffer() {
+		GeoLocus locus = square();
+		GeoPoint point = new GeoPoint(getConstruction(), 2, 0.5, 1);
+		point.setPath(locus);
+		locus.pointChanged(point);
+		assertEquals(1, point.getInhomX(), 1E-10);
+		assertEquals(0.5, point.getInhomY(), 1E-10);
+		assertEquals(1.5, point.getPathParameter().t, 1E-10);
+		PathParameter pp = new PathParameter(2.25);
+		Coords buffered = new Coords(3);
+		locus.pathChanged(buffered, pp);
+		assertNotNull(locus.getPointBuffer());
+		// same result when points are stored as objects
+		locus.getPoints();
+		Coords objects = new Coords(3);
+		locus.pathChanged(objects, pp);
+		assertArrayEquals(objects.get(), buffered.get(), 0);
+	}
+
+	@Test
+	public void copyShouldKeepBuffer() {
+		GeoLocus locus = square();
+		GeoLocus copy = (GeoLocus) locus.copy();
+		assertNotNull(copy.getPointBuffer());
+		assertEquals(5, copy.getPointLength());
+		assertEquals(1, copy.getPoints().get(3).y, 0);
+	}
+
+	@Test
+	public void readingPointsShouldKeepBuffer() {
+		GeoLocus locus = square();
+		AlgoPerimeterLocus perimeter = new AlgoPerimeterLocus(
+				getConstruction(), locus);
+		assertEquals(4, perimeter.getResult().getValue(), 1E-10);
+		GeoPoint point = new GeoPoint(getConstruction(), 0.5, 0, 1);
+		point.setPath(locus);
+		PathMover mover = locus.createPathMover();
+		mover.init(point, 10);
+		assertTrue(mover.getNext(point));
+		assertEquals(0, point.getInhomY(), 1E-10);
+		assertNotNull(locus.getPointBuffer());
+	}
+
+	private GeoLocus square() {
+		GeoLocus locus = new GeoLocus(getConstruction());
+		locus.insertPoint(0, 0, SegmentType.MOVE_TO);
+		locus.insertPoint(1, 0, SegmentType.LINE_TO);
+		locus.insertPoint(1, 1, SegmentType.LINE_TO);
+		locus.insertPoint(0, 1, SegmentType.LINE_TO);
+		locus.insertPoint(0, 0, SegmentType.LINE_TO);
+		locus.setDefined(true);
+		return locus;
+	}
+}
@@ -0,0 +1,98 @@
+package org.geogebra.common.kernel.geos;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.stat.descriptive.rank.Percentile;
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.StringTemplate;
+import org.junit.Test;
+
+public class ListStatisticsTest extends BaseUnitTest {
+
+	@Test
+	public void sortedValuesShouldBeShared() {
+		GeoList list = add("l={3, 1, 2}");
+		ListStatistics stats = list.getStatistics();
+		double[] sorted = stats.getSorted();
+		assertEquals(2, sorted[1], 0);
+		assertSame(stats, list.getStatistics());
+		assertSame(sorted, list.getStatistics().getSorted());
+		add("SetValue(l, {5, 4, 0, 7})");
+		assertEquals(4, list.getStatistics().size());
+		assertEquals(4, list.getStatistics().getSorted()[1], 0);
+		assertEquals(4.5, list.getStatistics().getMedian(), 0);
+	}
+
+	@Test
+	public void statisticsShouldFollowUpdates() {
+		add("a=1");
+		add("l={a, 2, 3}");
+		GeoNumeric median = add("Median(l)");
+		GeoNumeric max = add("Max(l)");
+		GeoNumeric mean = add("Mean(l)");
+		add("SetValue(a, 10)");
+		assertEquals(3, median.getDouble(), 0);
+		assertEquals(10, max.getDouble(), 0);
+		assertEquals(5, mean.getDouble(), 0);
+	}
+
+	@Test
+	public void nonNumericListShouldHaveNoStatistics() {
+		GeoList list = add("{1, (1, 2)}");
+		assertNull(list.getStatistics());
+		assertEquals("?", valueOf("Median({1, (1, 2)})"));
+		assertEquals("?", valueOf("Q1({1, (1, 2)})"));
+	}
+
+	@Test
+	public void resultsShouldMatchPlainComputation() {
+		double[] data = new double[101];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = Math.round(100 * Math.sin(i * i)) / 10.0;
+		}
+		StringBuilder sb = new StringBuilder("data={");
+		for (int i = 0; i < data.length; i++) {
+			sb.append(i == 0 ? "" : ",").append(data[i]);
+		}
+		GeoList list = add(sb.append("}").toString());
+		ListStatistics stats = list.getStatistics();
+		double[] sorted = data.clone();
+		Arrays.sort(sorted);
+		for (double p : new double[] { 1, 10, 25, 33.3, 50, 99.5, 100 }) {
+			Percentile percentile = new Percentile();
+			percentile.setData(data);
+			assertEquals(percentile.evaluate(p), stats.getPercentile(p), 1E-12);
+		}
+		assertEquals(sorted[50], stats.getMedian(), 0);
+		assertEquals(sorted[0], stats.getMin(), 0);
+		assertEquals(sorted[100], stats.getMax(), 0);
+		double sum = 0;
+		for (double val : data) {
+			sum += val;
+		}
+		assertEquals(sum, stats.getSum(), 1E-10);
+	}
+
+	@Test
+	public void percentileShouldIgnoreUndefinedValues() {
+		GeoList list = add("l={2, ?, 1}");
+		assertEquals(1.5, list.getStatistics().getPercentile(50), 0);
+		assertEquals(2, list.getStatistics().getPercentile(100), 0);
+		assertEquals("1.5", valueOf("Percentile(l, 0.5)"));
+		assertEquals("?", valueOf("Percentile({?, ?}, 0.5)"));
+	}
+
+	@Test
+	public void sumShouldBeCompensated() {
+		GeoList list = add("Sequence(0.1, k, 1, 1000000)");
+		assertEquals(100000, list.getStatistics().getSum(), 1E-9);
+	}
+
+	private String valueOf(String definition) {
+		return add(definition).toValueString(StringTemplate.defaultTemplate);
+	}
+}
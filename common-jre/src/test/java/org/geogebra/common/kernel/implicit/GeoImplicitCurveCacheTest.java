@@ -0,0 +1,137 @@
+package org.geogebra.common.kernel.implicit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.PerformanceTest;
+import org.geogebra.common.Stopwatch;
+import org.geogebra.common.kernel.Construction;
+import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.util.debug.Log;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+public class GeoImplicitCurveCacheTest extends BaseUnitTest {
+
+	@Test
+	public void panShouldMatchFullRecompute() {
+		CountingCurve curve = curve("x^4+y^4-4x y-x^2 y=3");
+		for (int step = 0; step < 10; step++) {
+			curve.pan(0.37, -0.21);
+			ArrayList<MyPoint> cached = copy(curve.getLocus().getPoints());
+			curve.quadTree.clearCache();
+			curve.updatePath();
+			assertSamePoints(curve.getLocus().getPoints(), cached);
+		}
+	}
+
+	@Test
+	public void panShouldOnlyEvaluateExposedArea() {
+		CountingCurve curve = curve("sin(x)+cos(y)=0.5");
+		int full = curve.evaluations;
+		assertTrue(full > 0);
+		curve.evaluations = 0;
+		// pan by 10% of the view
+		curve.pan(1, 0);
+		assertTrue(curve.evaluations + " of " + full,
+				curve.evaluations < full / 4);
+		curve.evaluations = 0;
+		// curve change invalidates the cache
+		CountingCurve other = curve("sin(x)+cos(y)=0.6");
+		curve.set(other);
+		// all grid corners are evaluated again
+		assertTrue(curve.evaluations + " of " + full,
+				curve.evaluations >= full / 2);
+	}
+
+	@Test
+	@Category(PerformanceTest.class)
+	public void panBenchmark() {
+		CountingCurve curve = curve(
+				"x^6+y^6-3x^4 y+2x^2 y^3-x y^2+x^3-y=1");
+		Stopwatch stopwatch = new Stopwatch();
+		int steps = 100;
+		stopwatch.start();
+		for (int i = 0; i < steps; i++) {
+			curve.pan(0.05, 0.03);
+		}
+		long cachedTime = stopwatch.stop();
+		int cachedEvaluations = curve.evaluations;
+		curve.evaluations = 0;
+		stopwatch.start();
+		for (int i = 0; i < steps; i++) {
+			curve.quadTree.clearCache();
+			curve.pan(0.05, 0.03);
+		}
+		long fullTime = stopwatch.stop();
+		Log.debug(steps + " pans: cached " + cachedTime + "ms ("
+				+ cachedEvaluations + " evaluations), full " + fullTime
+				+ "ms (" + curve.evaluations + " evaluations)");
+		assertTrue(cachedEvaluations < curve.evaluations);
+	}
+
+	private CountingCurve curve(String equation) {
+		GeoImplicitCurve geo = add(equation);
+		CountingCurve curve = new CountingCurve(getConstruction());
+		curve.set(geo);
+		return curve;
+	}
+
+	private static ArrayList<MyPoint> copy(ArrayList<MyPoint> points) {
+		ArrayList<MyPoint> copy = new ArrayList<>();
+		for (MyPoint point : points) {
+			copy.add(point.copy());
+		}
+		return copy;
+	}
+
+	private static void assertSamePoints(ArrayList<MyPoint> expected,
+			ArrayList<MyPoint> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).x, actual.get(i).x, 1E-12);
+			assertEquals(expected.get(i).y, actual.get(i).y, 1E-12);
+			assertEquals(expected.get(i).getSegmentType(),
+					actual.get(i).getSegmentType());
+		}
+	}
+
+	private static class CountingCurve extends GeoImplicitCurve {
+		private final double[] bounds = { -10, 10, -7.5, 7.5, 40, 40 };
+		private int evaluations;
+
+		CountingCurve(Construction cons) {
+			super(cons);
+			// evaluation counts must not depend on timing
+			setPreviewEnabled(false);
+		}
+
+		@Override
+		protected double[] getViewBounds() {
+			return bounds;
+		}
+
+		@Override
+		protected boolean isEvaluationThreadSafe() {
+			// counter is not synchronized
+			return false;
+		}
+
+		@Override
+		public double evaluateImplicitCurve(double x, double y, int factor) {
+			evaluations++;
+			return super.evaluateImplicitCurve(x, y, factor);
+		}
+
+		void pan(double dx, double dy) {
+			bounds[0] += dx;
+			bounds[1] += dx;
+			bounds[2] += dy;
+			bounds[3] += dy;
+			euclidianViewUpdate();
+		}
+	}
+}
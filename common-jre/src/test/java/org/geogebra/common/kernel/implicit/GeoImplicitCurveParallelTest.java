@@ -0,0 +1,132 @@
+package org.geogebra.common.kernel.implicit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.PerformanceTest;
+import org.geogebra.common.Stopwatch;
+import org.geogebra.common.jre.util.ParallelExecutorJre;
+import org.geogebra.common.kernel.Construction;
+import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.util.debug.Log;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+public class GeoImplicitCurveParallelTest extends BaseUnitTest {
+
+	private static final String[] CURVES = {
+			"x^8+y^8-3x^5 y^2+2x^2 y^5-x y^3+x^3-y=4",
+			"(x^2+y^2)^5-20x^4 y^4+x^3-5y=7",
+			"x^12-y^11+3x^7 y^4-x^2 y^9+x y-2=0" };
+
+	private ParallelExecutorJre serialExecutor;
+	private ParallelExecutorJre executor;
+
+	@Before
+	public void createExecutors() {
+		serialExecutor = new ParallelExecutorJre(1);
+		executor = new ParallelExecutorJre(4);
+	}
+
+	@After
+	public void shutdownExecutors() {
+		serialExecutor.shutdown();
+		executor.shutdown();
+	}
+
+	@Test
+	public void parallelPlotShouldMatchSerial() {
+		for (String equation : CURVES) {
+			ViewCurve curve = curve(equation);
+			curve.plot(serialExecutor);
+			ArrayList<MyPoint> serial = copy(curve.getLocus().getPoints());
+			assertTrue(serial.size() > 0);
+			curve.plot(executor);
+			assertSamePoints(serial, curve.getLocus().getPoints());
+		}
+	}
+
+	@Test
+	@Category(PerformanceTest.class)
+	public void parallelPlotBenchmark() {
+		int cores = Math.max(2, Runtime.getRuntime().availableProcessors());
+		Stopwatch stopwatch = new Stopwatch();
+		for (String equation : CURVES) {
+			ViewCurve curve = curve(equation);
+			long serialTime = 0;
+			StringBuilder sb = new StringBuilder();
+			for (int threads = 1; threads <= cores; threads *= 2) {
+				ParallelExecutorJre pool = new ParallelExecutorJre(threads);
+				// warm up
+				curve.plot(pool);
+				stopwatch.start();
+				for (int i = 0; i < 10; i++) {
+					curve.plot(pool);
+				}
+				long time = stopwatch.stop();
+				pool.shutdown();
+				if (threads == 1) {
+					serialTime = Math.max(time, 1);
+				}
+				sb.append(", ").append(threads).append(" threads: ")
+						.append(time).append("ms (speedup ")
+						.append(Math.round(100.0 * serialTime / Math.max(time, 1))
+								/ 100.0)
+						.append(")");
+			}
+			Log.debug(equation + " on "
+					+ Runtime.getRuntime().availableProcessors() + " cores"
+					+ sb);
+		}
+	}
+
+	private ViewCurve curve(String equation) {
+		GeoImplicitCurve geo = add(equation);
+		ViewCurve curve = new ViewCurve(getConstruction());
+		curve.set(geo);
+		return curve;
+	}
+
+	private static ArrayList<MyPoint> copy(ArrayList<MyPoint> points) {
+		ArrayList<MyPoint> copy = new ArrayList<>();
+		for (MyPoint point : points) {
+			copy.add(point.copy());
+		}
+		return copy;
+	}
+
+	private static void assertSamePoints(ArrayList<MyPoint> expected,
+			ArrayList<MyPoint> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).x, actual.get(i).x, 0);
+			assertEquals(expected.get(i).y, actual.get(i).y, 0);
+			assertEquals(expected.get(i).getSegmentType(),
+					actual.get(i).getSegmentType());
+		}
+	}
+
+	private static class ViewCurve extends GeoImplicitCurve {
+		private final double[] bounds = { -3, 3, -2.25, 2.25, 120, 120 };
+
+		ViewCurve(Construction cons) {
+			super(cons);
+		}
+
+		@Override
+		protected double[] getViewBounds() {
+			return bounds;
+		}
+
+		void plot(ParallelExecutorJre executor) {
+			setParallelExecutor(executor);
+			quadTree.clearCache();
+			euclidianViewUpdate();
+		}
+	}
+}
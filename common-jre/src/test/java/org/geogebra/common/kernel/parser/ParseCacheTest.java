@@ -0,0 +1,99 @@
+package org.geogebra.common.kernel.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.util.Locale;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.jre.main.LocalizationJre;
+import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.arithmetic.ValidExpression;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParseCacheTest extends BaseUnitTest {
+
+	private ParseCache cache;
+	private GParser parser;
+
+	@Before
+	public void setupCache() {
+		cache = getKernel().getParseCache();
+		cache.clear();
+		parser = new GParser(getKernel(), getConstruction());
+	}
+
+	@Test
+	public void cachedCopyShouldMatchFreshParse() throws Exception {
+		String exp = "3x^2 - {1, (2, 3)} + a";
+		ValidExpression first = cache.parseGeoGebraExpression(parser, exp);
+		ValidExpression second = cache.parseGeoGebraExpression(parser, exp);
+		ValidExpression third = cache.parseGeoGebraExpression(parser, exp);
+		assertEquals(2, cache.getHits());
+		assertNotSame(second, third);
+		assertEquals(toString(parser.parseGeoGebraExpression(exp)),
+				toString(second));
+		assertEquals(toString(first), toString(third));
+		assertEquals(toString(cache.parseCmdExpression(parser, "(1, 2)")),
+				toString(cache.parseCmdExpression(parser, "(1, 2)")));
+	}
+
+	@Test
+	public void constructionDependentParseShouldNotBeCached()
+			throws Exception {
+		add("g(x)=x^2");
+		// function names, e and labels are looked up in the construction
+		for (String exp : new String[] { "g(2)", "sin(x)", "e^x",
+				"h(x) = x" }) {
+			cache.parseGeoGebraExpression(parser, exp);
+		}
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void languageChangeShouldClearCache() throws Exception {
+		cache.parseGeoGebraExpression(parser, "x^2");
+		assertEquals(1, cache.size());
+		((LocalizationJre) getLocalization()).setLocale(Locale.GERMAN);
+		cache.parseGeoGebraExpression(parser, "x^3");
+		assertEquals(1, cache.size());
+		getApp().updateCommandDictionary();
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void undoRedoShouldGiveSameConstruction() {
+		buildConstruction(20);
+		String withCache = undoRedo(1);
+		cache.setEnabled(false);
+		String withoutCache = undoRedo(1);
+		cache.setEnabled(true);
+		assertEquals(withoutCache, withCache);
+	}
+
+	private void buildConstruction(int size) {
+		getApp().setUndoActive(true);
+		for (int i = 0; i < size; i++) {
+			add("Polygon((" + i + ", 0), (" + i + ", 1), (" + (i + 1)
+					+ ", 1))");
+			add("Integral(x^2 + " + i + ", 0, 1)");
+			add("Curve(cos(t), sin(t) + " + i + ", t, 0, 2pi)");
+		}
+		getApp().storeUndoInfo();
+		add("extra=1");
+		getApp().storeUndoInfo();
+	}
+
+	private String undoRedo(int times) {
+		for (int i = 0; i < times; i++) {
+			getKernel().undo();
+			getKernel().redo();
+		}
+		return getApp().getXML();
+	}
+
+	private static String toString(ValidExpression exp) {
+		return exp.toString(StringTemplate.xmlTemplate);
+	}
+}
@@ -0,0 +1,225 @@
+package org.geogebra.common.main.undo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.PerformanceTest;
+import org.geogebra.common.Stopwatch;
+import org.geogebra.common.kernel.Construction;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.geogebra.common.util.debug.Log;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+public class DeltaAppStateTest extends BaseUnitTest {
+
+	@Test
+	public void stateShouldRestoreExactXml() {
+		DeltaEncoder encoder = new DeltaEncoder();
+		Random random = new Random(42);
+		ArrayList<String> elements = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			elements.add(element(i, random));
+		}
+		ArrayList<DeltaAppState> states = new ArrayList<>();
+		ArrayList<String> expected = new ArrayList<>();
+		for (int step = 0; step < 120; step++) {
+			int edits = 1 + random.nextInt(step % 10 == 0 ? 100 : 3);
+			for (int j = 0; j < edits; j++) {
+				int index = random.nextInt(elements.size());
+				switch (random.nextInt(3)) {
+				case 0:
+					elements.set(index, element(index, random));
+					break;
+				case 1:
+					elements.add(index, element(step * 1000 + j, random));
+					break;
+				default:
+					elements.remove(index);
+				}
+			}
+			String xml = toXml(elements);
+			states.add(encoder.encode(new StringBuilder(xml)));
+			expected.add(xml);
+		}
+		for (int i = 0; i < states.size(); i++) {
+			assertEquals(expected.get(i), states.get(i).getXml());
+		}
+	}
+
+	@Test
+	public void equalStatesShouldBeDetected() {
+		DeltaEncoder encoder = new DeltaEncoder();
+		String base = toXml(list("<a/>\n", "<b>\n\t<c/>\n</b>\n"));
+		String changed = toXml(list("<a/>\n", "<b>\n\t<d/>\n</b>\n"));
+		encoder.encode(base);
+		DeltaAppState first = encoder.encode(changed);
+		DeltaAppState second = encoder.encode(changed);
+		DeltaAppState third = encoder.encode(base);
+		assertTrue(first.equalsTo(second));
+		assertTrue(first.equalsTo(new StringAppState(changed)));
+		assertFalse(first.equalsTo(third));
+		assertTrue(third.isSnapshot() || third.getDeltaSize() > 0);
+	}
+
+	@Test
+	public void undoRedoShouldUseDeltaStates() {
+		getApp().setUndoActive(true);
+		GeoPoint point = add("A=(1,1)");
+		add("B=(2,2)");
+		add("s=Segment(A,B)");
+		getApp().storeUndoInfo();
+		point.setCoords(5, 5, 1);
+		point.updateRepaint();
+		getApp().storeUndoInfo();
+		UndoManager undoManager = getConstruction().getUndoManager();
+		assertTrue(undoManager.getCurrentUndoInfo() instanceof DeltaAppState);
+		undoManager.undo();
+		assertEquals(1, ((GeoPoint) lookup("A")).getInhomX(), DELTA);
+		undoManager.redo();
+		assertEquals(5, ((GeoPoint) lookup("A")).getInhomX(), DELTA);
+	}
+
+	@Test
+	public void historyShouldRespectMemoryBudget() {
+		getApp().setUndoActive(true);
+		UndoManager undoManager = getConstruction().getUndoManager();
+		for (int i = 0; i < 50; i++) {
+			add("P_{" + i + "}=(" + i + ",1)");
+		}
+		getApp().storeUndoInfo();
+		for (int i = 0; i < 10; i++) {
+			add("Q_{" + i + "}=(" + i + ",2)");
+			getApp().storeUndoInfo();
+		}
+		DefaultUndoManager manager = (DefaultUndoManager) undoManager;
+		long budget = 3 * manager.getMemoryUsage();
+		undoManager.setMemoryBudget(budget);
+		for (int i = 10; i < 60; i++) {
+			add("Q_{" + i + "}=(" + i + ",2)");
+			getApp().storeUndoInfo();
+		}
+		// current and previous state are always kept
+		assertTrue(manager.getMemoryUsage() <= budget
+				|| undoManager.getHistorySize() <= 1);
+		assertTrue(undoManager.getHistorySize() < 60);
+		undoManager.undo();
+		assertEquals(59, countQ());
+	}
+
+	@Test
+	public void sharedBaseShouldNotCausePruning() {
+		getApp().setUndoActive(true);
+		UndoManager undoManager = getConstruction().getUndoManager();
+		for (int i = 0; i < 50; i++) {
+			add("P_{" + i + "}=(" + i + ",1)");
+		}
+		getApp().storeUndoInfo();
+		DeltaAppState state = (DeltaAppState) undoManager.undoInfoList
+				.getLast().getAppState();
+		// deltas fit, but the base shared with the current state does not
+		undoManager.setMemoryBudget(state.getBase().size / 2);
+		for (int i = 0; i < 5; i++) {
+			add("Q_{" + i + "}=(" + i + ",2)");
+			getApp().storeUndoInfo();
+		}
+		assertTrue(undoManager.getHistorySize() >= 5);
+	}
+
+	@Test
+	@Category(PerformanceTest.class)
+	public void undoMemoryAndTimeMeasurement() {
+		getApp().setUndoActive(true);
+		Construction cons = getConstruction();
+		for (int count : new int[] { 1000, 5000 }) {
+			getKernel().clearConstruction(true);
+			ArrayList<GeoPoint> points = new ArrayList<>();
+			for (int i = 0; i < count; i++) {
+				GeoPoint point = new GeoPoint(cons, i, i % 7, 1);
+				point.setLabel(null);
+				points.add(point);
+			}
+			Random random = new Random(42);
+			int edits = 100;
+			long stringSize = 0;
+			Stopwatch stopwatch = new Stopwatch();
+			long xmlTime = 0;
+			long stringTime = 0;
+			long deltaTime = 0;
+			DeltaEncoder encoder = new DeltaEncoder();
+			ArrayList<DeltaAppState> states = new ArrayList<>();
+			for (int i = 0; i < edits; i++) {
+				GeoPoint point = points.get(random.nextInt(count));
+				point.setCoords(random.nextDouble(), random.nextDouble(), 1);
+				point.updateRepaint();
+				stopwatch.start();
+				StringBuilder xml = cons.getCurrentUndoXML(true);
+				xmlTime += stopwatch.stop();
+				stopwatch.start();
+				StringAppState stringState = new StringAppState(
+						xml.toString());
+				stringTime += stopwatch.stop();
+				stringSize += 2L * stringState.getXml().length();
+				stopwatch.start();
+				states.add(encoder.encode(xml));
+				deltaTime += stopwatch.stop();
+			}
+			long deltaSize = 0;
+			ArrayList<DeltaAppState.Snapshot> bases = new ArrayList<>();
+			for (DeltaAppState state : states) {
+				deltaSize += state.getDeltaSize();
+				if (!bases.contains(state.getBase())) {
+					bases.add(state.getBase());
+					deltaSize += state.getBase().size;
+				}
+			}
+			stopwatch.start();
+			String restored = states.get(edits - 1).getXml();
+			long restoreTime = stopwatch.stop();
+			assertEquals(cons.getCurrentUndoXML(true).toString(), restored);
+			// XML serialization is needed by both approaches
+			Log.debug(count + " points, " + edits + " undo points, XML "
+					+ xmlTime + "ms: strings " + stringSize / 1024 + "kB in "
+					+ stringTime + "ms, deltas " + deltaSize / 1024 + "kB in "
+					+ deltaTime + "ms (rebuild " + restoreTime + "ms)");
+			assertTrue(deltaSize < stringSize);
+		}
+	}
+
+	private int countQ() {
+		int count = 0;
+		for (int i = 0; i < 60; i++) {
+			if (lookup("Q_{" + i + "}") != null) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static ArrayList<String> list(String... chunks) {
+		ArrayList<String> list = new ArrayList<>();
+		for (String chunk : chunks) {
+			list.add(chunk);
+		}
+		return list;
+	}
+
+	private static String element(int label, Random random) {
+		return "<element label=\"a" + label + "\">\n\t<coords x=\""
+				+ random.nextInt(100) + "\"/>\n</element>\n";
+	}
+
+	private static String toXml(ArrayList<String> elements) {
+		StringBuilder sb = new StringBuilder("<geogebra>\n<construction>\n");
+		for (String element : elements) {
+			sb.append(element);
+		}
+		sb.append("</construction>\n</geogebra>");
+		return sb.toString();
+	}
+}
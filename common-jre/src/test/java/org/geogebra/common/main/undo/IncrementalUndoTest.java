@@ -0,0 +1,108 @@
+package org.geogebra.common.main.undo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IncrementalUndoTest extends BaseUnitTest {
+
+	@Before
+	public void setupUndo() {
+		getApp().setUndoActive(true);
+		getKernel().getConstruction().initUndoInfo();
+	}
+
+	@Test
+	public void moveShouldKeepObjects() {
+		GeoPoint a = add("A=(1,2)");
+		add("B=(3,1)");
+		GeoElement segment = add("s=Segment(A,B)");
+		GeoElement length = add("l=Length(s)");
+		getApp().storeUndoInfo();
+		a.setCoords(4, 5, 1);
+		a.updateCascade();
+		getApp().storeUndoInfo();
+		getKernel().undo();
+		assertSame(a, lookup("A"));
+		assertSame(segment, lookup("s"));
+		assertSame(length, lookup("l"));
+		assertEquals("(1, 2)", value("A"));
+		assertEquals(Math.sqrt(5), length.evaluateDouble(), 1E-12);
+		getKernel().redo();
+		assertSame(a, lookup("A"));
+		assertEquals("(4, 5)", value("A"));
+		assertEquals(Math.sqrt(17), length.evaluateDouble(), 1E-12);
+	}
+
+	@Test
+	public void undoCreationShouldOnlyRemoveNewObjects() {
+		GeoElement a = add("A=(1,2)");
+		GeoElement text = add("t=\"hello\"");
+		getApp().storeUndoInfo();
+		add("B=(3,1)");
+		add("s=Segment(A,B)");
+		getApp().storeUndoInfo();
+		getKernel().undo();
+		assertNull(lookup("B"));
+		assertNull(lookup("s"));
+		assertSame(a, lookup("A"));
+		getKernel().redo();
+		assertSame(a, lookup("A"));
+		assertSame(text, lookup("t"));
+		assertEquals("Segment(A, B)", lookup("s")
+				.getDefinition(StringTemplate.defaultTemplate));
+	}
+
+	@Test
+	public void styleChangeShouldKeepObjects() {
+		add("A=(1,2)");
+		GeoElement circle = add("c=Circle(A,2)");
+		getApp().storeUndoInfo();
+		circle.setLineThickness(9);
+		circle.setEuclidianVisible(false);
+		getApp().storeUndoInfo();
+		getKernel().undo();
+		assertSame(circle, lookup("c"));
+		assertEquals(true, circle.isEuclidianVisible());
+		getKernel().redo();
+		assertEquals(9, circle.getLineThickness());
+	}
+
+	@Test
+	public void undoShouldRestoreStoredStates() {
+		String[] steps = { "A=(1,2)", "B=(3,1)", "s=Segment(A,B)",
+				"SetCoords(A,5,5)", "Delete(B)", "B=(3,1)",
+				"SetColor(A,\"red\")", "a=Slider(0,5)", "SetValue(a,3)",
+				"C=A+(a,0)", "Rename(A,\"D\")", "l={1,2}", "l={1,2,3}",
+				"f(x)=x^2+a", "f(x)=x^3", "Delete(a)" };
+		ArrayList<String> states = new ArrayList<>();
+		states.add(getApp().getXML());
+		for (String step : steps) {
+			add(step);
+			getApp().storeUndoInfo();
+			states.add(getApp().getXML());
+		}
+		for (int i = states.size() - 2; i >= 0; i--) {
+			getKernel().undo();
+			assertEquals(steps[Math.min(i, steps.length - 1)], states.get(i),
+					getApp().getXML());
+		}
+		for (int i = 1; i < states.size(); i++) {
+			getKernel().redo();
+			assertEquals(steps[i - 1], states.get(i), getApp().getXML());
+		}
+	}
+
+	private String value(String label) {
+		return lookup(label).toValueString(StringTemplate.editTemplate);
+	}
+}
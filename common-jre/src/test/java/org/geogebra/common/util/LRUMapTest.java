@@ -0,0 +1,94 @@
+package org.geogebra.common.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class LRUMapTest {
+
+	@Test
+	public void leastRecentlyUsedShouldBeEvicted() {
+		LRUMap<String, String> cache = new LRUMap<>(2);
+		cache.put("a", "1");
+		cache.put("b", "2");
+		assertEquals("1", cache.get("a"));
+		cache.put("c", "3");
+		assertNull(cache.get("b"));
+		assertEquals("1", cache.get("a"));
+		assertEquals("3", cache.get("c"));
+		assertEquals(1, cache.getEvictions());
+		assertEquals(3, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	public void cacheShouldRespectWeightLimit() {
+		LRUMap<String, String> cache = LRUMap.forStrings(100, 10);
+		cache.put("a", "1234");
+		cache.put("b", "1234");
+		assertEquals(10, cache.getWeight());
+		cache.put("c", "12");
+		assertNull(cache.get("a"));
+		assertEquals(8, cache.getWeight());
+		// replacing an entry updates the weight
+		cache.put("b", "1");
+		assertEquals(5, cache.getWeight());
+		// too big to be cached at all
+		cache.put("d", "12345678901");
+		assertNull(cache.get("d"));
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void nullValuesShouldBeStored() {
+		LRUMap<String, String> cache = LRUMap.forStrings(2, 10);
+		cache.put("a", null);
+		assertEquals(1, cache.size());
+		assertTrue(cache.containsKey("a"));
+		assertNull(cache.get("a"));
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getWeight());
+		assertNull(cache.remove("a"));
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getWeight());
+	}
+
+	@Test
+	public void cacheShouldSupportConcurrentAccess()
+			throws InterruptedException {
+		final LRUMap<String, String> cache = LRUMap.forStrings(50, 500);
+		ArrayList<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			final int seed = t;
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int i = 0; i < 10000; i++) {
+						String key = "k" + ((i * 7 + seed) % 100);
+						if (cache.get(key) == null) {
+							cache.put(key, key + "=" + i);
+						}
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(40000, cache.getHits() + cache.getMisses());
+		assertTrue(cache.size() <= 50);
+		assertTrue(cache.getWeight() <= 500);
+		long weight = 0;
+		for (Map.Entry<String, String> entry : cache.entries()) {
+			weight += entry.getKey().length() + entry.getValue().length();
+		}
+		assertEquals(weight, cache.getWeight());
+	}
+}
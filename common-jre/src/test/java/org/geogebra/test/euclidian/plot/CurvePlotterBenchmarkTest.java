@@ -0,0 +1,91 @@
+package org.geogebra.test.euclidian.plot;
+
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.geogebra.common.BaseUnitTest;
+import org.geogebra.common.PerformanceTest;
+import org.geogebra.common.Stopwatch;
+import org.geogebra.common.euclidian.EuclidianView;
+import org.geogebra.common.euclidian.plot.CurvePlotter;
+import org.geogebra.common.euclidian.plot.CurvePlotterOriginal;
+import org.geogebra.common.euclidian.plot.Gap;
+import org.geogebra.common.euclidian.plot.GeneralPathClippedForCurvePlotter;
+import org.geogebra.common.kernel.kernelND.CurveEvaluable;
+import org.geogebra.common.util.debug.Log;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+public class CurvePlotterBenchmarkTest extends BaseUnitTest {
+
+	private static final int FRAMES = 50;
+
+	@Test
+	@Category(PerformanceTest.class)
+	public void plotBenchmark() {
+		benchmark("tan(x)", -10, 10);
+		benchmark("1/x", -10, 10);
+		benchmark("sin(1/x)", -2, 2);
+		benchmark("Curve(t cos(t), t sin(t), t, 0, 60)", 0, 60);
+	}
+
+	private void benchmark(String definition, double tMin, double tMax) {
+		CurveEvaluable curve = add(definition);
+		EuclidianView view = getApp().getActiveEuclidianView();
+		GeneralPathClippedForCurvePlotter gp = new GeneralPathClippedForCurvePlotter(
+				view);
+		// warm up
+		for (int i = 0; i < FRAMES; i++) {
+			plot(true, curve, tMin, tMax, view, gp);
+			plot(false, curve, tMin, tMax, view, gp);
+		}
+		String original = measure(true, curve, tMin, tMax, view, gp);
+		String current = measure(false, curve, tMin, tMax, view, gp);
+		Log.debug(definition + ": original " + original + ", current "
+				+ current);
+	}
+
+	private String measure(boolean original, CurveEvaluable curve,
+			double tMin, double tMax, EuclidianView view,
+			GeneralPathClippedForCurvePlotter gp) {
+		long bytes = allocatedBytes();
+		Stopwatch stopwatch = new Stopwatch();
+		stopwatch.start();
+		for (int i = 0; i < FRAMES; i++) {
+			plot(original, curve, tMin, tMax, view, gp);
+		}
+		long time = Math.max(stopwatch.stop(), 1);
+		long perFrame = (allocatedBytes() - bytes) / FRAMES;
+		assertTrue(gp.firstPoint() != null);
+		return FRAMES * 1000 / time + " frames/s, "
+				+ (bytes < 0 ? "?" : String.valueOf(perFrame / 1024))
+				+ " kB/frame";
+	}
+
+	private static void plot(boolean original, CurveEvaluable curve,
+			double tMin, double tMax, EuclidianView view,
+			GeneralPathClippedForCurvePlotter gp) {
+		gp.resetWithThickness(1);
+		if (original) {
+			CurvePlotterOriginal.plotCurve(curve, tMin, tMax, view, gp, true,
+					Gap.MOVE_TO);
+		} else {
+			CurvePlotter.plotCurve(curve, tMin, tMax, view, gp, true,
+					Gap.MOVE_TO);
+		}
+	}
+
+	/**
+	 * @return bytes allocated by current thread, -1 if not supported by JVM
+	 */
+	private static long allocatedBytes() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) bean)
+					.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+}
@@ -23,6 +23,14 @@ public class PathPlotterMock implements PathPlotter {
 		addLog("L ", pos);
 	}
 
+	@Override
+	public void polyline(double[] coords, int dimension, int count) {
+		for (int i = 0; i < count; i++) {
+			addLog("L ", new double[] { coords[i * dimension],
+					coords[i * dimension + 1] });
+		}
+	}
+
 	protected void addLog(String message, double[] pos) {
 		log.add(message + " " + pos[0] + ", " + pos[1]);
 	}
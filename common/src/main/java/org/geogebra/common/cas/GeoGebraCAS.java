@@ -6,7 +6,6 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -45,7 +44,7 @@ import org.geogebra.common.main.App;
 import org.geogebra.common.main.MyError.Errors;
 import org.geogebra.common.main.error.ErrorHelper;
 import org.geogebra.common.plugin.Operation;
-import org.geogebra.common.util.MaxSizeHashMap;
+import org.geogebra.common.util.LRUMap;
 import org.geogebra.common.util.debug.Log;
 
 import com.google.j2objc.annotations.Weak;
@@ -65,7 +64,7 @@ public class GeoGebraCAS implements GeoGebraCasInterface {
 
 	private ArrayList<String> varSwaps = new ArrayList<>();
 	// these variables are cached to gain some speed in getPolynomialCoeffs
-	private Map<String, String[]> getPolynomialCoeffsCache = new MaxSizeHashMap<>(
+	private LRUMap<String, String[]> getPolynomialCoeffsCache = new LRUMap<>(
 			Kernel.GEOGEBRA_CAS_CACHE_SIZE);
 	private StringBuilder getPolynomialCoeffsSB = new StringBuilder();
 	private StringBuilder sbPolyCoeffs = new StringBuilder();
@@ -589,11 +589,12 @@ public abstract class CASgiac implements CASGenericInterface {
 			return functionName;
 		}
 
-		private static void setDependency(CustomFunctions cf1,
-				CustomFunctions cf2) {
+		private static void setDependency(
+				List<Entry<CustomFunctions, CustomFunctions>> dependencies,
+				CustomFunctions cf1, CustomFunctions cf2) {
 			Entry<CustomFunctions, CustomFunctions> pair = new SimpleEntry<>(
 					cf1, cf2);
-			CustomFunctionsDependencies.add(pair);
+			dependencies.add(pair);
 		}
 
 		/**
@@ -602,22 +603,26 @@ public abstract class CASgiac implements CASGenericInterface {
 		 * function is loaded.
 		 */
 		public static void setDependencies() {
-			CustomFunctionsDependencies = new ArrayList<>();
-			setDependency(IMPLICIT_CURVE_COEFFS, COEFF_MATRIX);
-			setDependency(IMPLICIT_CURVE_COEFFS, COEFF_MATRICES);
-			setDependency(IMPLICIT_CURVE_COEFFS, FACTOR_SQR_FREE);
-			setDependency(GEOM_ELIM, PRIM_POLY);
-			setDependency(LOCUS_EQU, IMPLICIT_CURVE_COEFFS);
-			setDependency(LOCUS_EQU, GEOM_ELIM);
-			setDependency(LOCUS_EQU, JACOBI_PREPARE);
-			setDependency(JACOBI_PREPARE, IS_LINEAR);
-			setDependency(IS_LINEAR, IS_LINEAR_SUM);
-			setDependency(ENVELOPE_EQU, LOCUS_EQU);
-			setDependency(ENVELOPE_EQU, JACOBI_PREPARE);
-			setDependency(ENVELOPE_EQU, JACOBI_DET);
-			setDependency(AFACTOR_ALG_NUM, IRRED);
-			setDependency(ABSFACT, AFACTOR_ALG_NUM);
-			setDependency(COS_2PI_OVER_N_MINPOLY, FACTOR_SQR_FREE);
+			// build a new list so that Giac workers on other threads never
+			// see it half filled
+			List<Entry<CustomFunctions, CustomFunctions>> dependencies =
+					new ArrayList<>();
+			setDependency(dependencies, IMPLICIT_CURVE_COEFFS, COEFF_MATRIX);
+			setDependency(dependencies, IMPLICIT_CURVE_COEFFS, COEFF_MATRICES);
+			setDependency(dependencies, IMPLICIT_CURVE_COEFFS, FACTOR_SQR_FREE);
+			setDependency(dependencies, GEOM_ELIM, PRIM_POLY);
+			setDependency(dependencies, LOCUS_EQU, IMPLICIT_CURVE_COEFFS);
+			setDependency(dependencies, LOCUS_EQU, GEOM_ELIM);
+			setDependency(dependencies, LOCUS_EQU, JACOBI_PREPARE);
+			setDependency(dependencies, JACOBI_PREPARE, IS_LINEAR);
+			setDependency(dependencies, IS_LINEAR, IS_LINEAR_SUM);
+			setDependency(dependencies, ENVELOPE_EQU, LOCUS_EQU);
+			setDependency(dependencies, ENVELOPE_EQU, JACOBI_PREPARE);
+			setDependency(dependencies, ENVELOPE_EQU, JACOBI_DET);
+			setDependency(dependencies, AFACTOR_ALG_NUM, IRRED);
+			setDependency(dependencies, ABSFACT, AFACTOR_ALG_NUM);
+			setDependency(dependencies, COS_2PI_OVER_N_MINPOLY, FACTOR_SQR_FREE);
+			CustomFunctionsDependencies = dependencies;
 		}
 
 		/**
@@ -58,10 +58,34 @@ public abstract class CASgiacB extends CASgiac {
      * @return String from Giac
      */
     final String evalRaw(String exp0, long timeoutMilliseconds) {
+        return evalRaw(exp0, timeoutMilliseconds, context);
+    }
+
+	/**
+	 * @return new Giac context, independent of the main one
+	 */
+	protected Context newContext() {
+		return createBinding().createContext();
+	}
+
+	/**
+	 * Evaluates expression in given context; calls with different contexts
+	 * may run in parallel.
+	 *
+	 * @param exp0
+	 *            String to send to Giac
+	 * @param timeoutMilliseconds
+	 *            timeout in milliseconds
+	 * @param context
+	 *            Giac context
+	 * @return String from Giac
+	 */
+	protected final String evalRaw(String exp0, long timeoutMilliseconds,
+			Context context) {
         CASGiacBinding binding = createBinding();
         // #5439
         // reset Giac before each call
-        init(exp0, timeoutMilliseconds);
+        init(exp0, timeoutMilliseconds, context);
 
         String exp = wrapInevalfa(exp0);
 
@@ -91,7 +115,7 @@ public abstract class CASgiacB extends CASgiac {
 
 	}
 
-	private void init(String exp, long timeoutMilliseconds) {
+	private void init(String exp, long timeoutMilliseconds, Context context) {
         CASGiacBinding binding = createBinding();
         Gen g = binding.createGen(initString, context);
         g.eval(1, context);
@@ -154,18 +178,7 @@ public abstract class CASgiacB extends CASgiac {
     @Override
     protected String evaluate(final String exp, final long timeoutMillis0)
             throws Throwable {
-        Runnable evalFunction = new Runnable() {
-            @Override
-            public void run() {
-                threadResult = evalRaw(exp, timeoutMillis0);
-            }
-        };
-
-        threadResult = null;
-
-        callEvaluateFunction(evalFunction);
-
-        String ret = postProcess(threadResult);
+        String ret = postProcess(evaluateRaw(exp, timeoutMillis0));
 
         // Log.debug("giac output: " + ret);
         if (ret.contains("user interruption")) {
@@ -176,6 +189,30 @@ public abstract class CASgiacB extends CASgiac {
         return ret;
     }
 
+	/**
+	 * @param exp
+	 *            String to send to Giac
+	 * @param timeoutMillis0
+	 *            timeout in milliseconds
+	 * @return raw result from Giac
+	 * @throws Throwable
+	 *             exception
+	 */
+	protected String evaluateRaw(final String exp, final long timeoutMillis0)
+			throws Throwable {
+		Runnable evalFunction = new Runnable() {
+			@Override
+			public void run() {
+				threadResult = evalRaw(exp, timeoutMillis0);
+			}
+		};
+
+		threadResult = null;
+
+		callEvaluateFunction(evalFunction);
+		return threadResult;
+	}
+
 	/**
 	 * @param evaluateFunction
 	 *            function
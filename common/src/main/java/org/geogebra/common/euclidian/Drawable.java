@@ -226,6 +226,19 @@ public abstract class Drawable extends DrawableND {
 		return null;
 	}
 
+	/**
+	 * Returns screen area used by {@link DrawableSpatialIndex}:
+	 * {@link #hit(int, int, int)} has to be false for all points further than
+	 * twice the hit threshold from this rectangle. The label rectangle is
+	 * added by the index.
+	 * 
+	 * @return null when hit area is not known, this Drawable is then tested
+	 *         for every hit
+	 */
+	public @CheckForNull GRectangle getHitBounds() {
+		return null;
+	}
+
 	/**
 	 * Draws label of referenced geo
 	 * 
@@ -233,6 +246,19 @@ public abstract class Drawable extends DrawableND {
 	 *            graphics
 	 */
 	public final void drawLabel(GGraphics2D g2) {
+		double oldX = labelRectangle.getX();
+		double oldY = labelRectangle.getY();
+		double oldWidth = labelRectangle.getWidth();
+		double oldHeight = labelRectangle.getHeight();
+		drawLabelText(g2);
+		if (oldX != labelRectangle.getX() || oldY != labelRectangle.getY()
+				|| oldWidth != labelRectangle.getWidth()
+				|| oldHeight != labelRectangle.getHeight()) {
+			view.invalidateHitBounds(this);
+		}
+	}
+
+	private void drawLabelText(GGraphics2D g2) {
 		if (labelDesc == null) {
 			return;
 		}
@@ -0,0 +1,328 @@
+package org.geogebra.common.euclidian;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+
+import org.geogebra.common.awt.GRectangle;
+
+/**
+ * Uniform grid over screen bounds of drawables, used by {@link HitDetector}
+ * to only test drawables close to the pointer.
+ *
+ * Changes of drawables only mark them as dirty, the grid is brought up to date
+ * lazily by the next query. Drawables without
+ * {@link Drawable#getHitBounds()} are returned by every query, as are those
+ * waiting for an update.
+ */
+public class DrawableSpatialIndex {
+
+	/** size of grid cells in pixels */
+	public static final int CELL_SIZE = 64;
+
+	/** drawables covering more cells are treated as unbounded */
+	private static final int MAX_CELLS_PER_DRAWABLE = 256;
+
+	private static final Comparator<Entry> ORDER = new Comparator<Entry>() {
+		@Override
+		public int compare(Entry a, Entry b) {
+			return a.position - b.position;
+		}
+	};
+
+	private final DrawableList drawables;
+	private final HashMap<Drawable, Entry> entries = new HashMap<>();
+	private final HashMap<Long, ArrayList<Entry>> cells = new HashMap<>();
+	private final ArrayList<Entry> unbounded = new ArrayList<>();
+	private ArrayList<Entry> dirty = new ArrayList<>();
+	private ArrayList<Entry> stillDirty = new ArrayList<>();
+	private final ArrayList<Entry> candidateEntries = new ArrayList<>();
+	private final ArrayList<Drawable> candidates = new ArrayList<>();
+	private boolean orderChanged = false;
+	private int queryStamp = 0;
+
+	/**
+	 * @param drawables
+	 *            drawables of the view, defines order of query results
+	 */
+	public DrawableSpatialIndex(DrawableList drawables) {
+		this.drawables = drawables;
+	}
+
+	/**
+	 * @param drawable
+	 *            drawable added to the view
+	 */
+	public void add(Drawable drawable) {
+		if (entries.containsKey(drawable)) {
+			return;
+		}
+		Entry entry = new Entry(drawable);
+		entries.put(drawable, entry);
+		markDirty(entry);
+		orderChanged = true;
+	}
+
+	/**
+	 * @param drawable
+	 *            drawable removed from the view
+	 */
+	public void remove(Drawable drawable) {
+		Entry entry = entries.remove(drawable);
+		if (entry != null) {
+			removeFromCells(entry);
+			// may still be in the dirty list, skipped there
+			entry.removed = true;
+			orderChanged = true;
+		}
+	}
+
+	/**
+	 * Removes all drawables.
+	 */
+	public void clear() {
+		entries.clear();
+		cells.clear();
+		unbounded.clear();
+		dirty.clear();
+		orderChanged = false;
+	}
+
+	/**
+	 * Marks bounds of a drawable as outdated.
+	 *
+	 * @param drawable
+	 *            changed drawable
+	 */
+	public void invalidate(Drawable drawable) {
+		Entry entry = entries.get(drawable);
+		if (entry != null) {
+			markDirty(entry);
+		}
+	}
+
+	/**
+	 * Marks bounds of all drawables as outdated, e.g. after zooming.
+	 */
+	public void invalidateAll() {
+		for (Entry entry : entries.values()) {
+			markDirty(entry);
+		}
+	}
+
+	/**
+	 * Needs to be called when drawables were reordered.
+	 */
+	public void invalidateOrder() {
+		orderChanged = true;
+	}
+
+	/**
+	 * Collects drawables that may be hit at given position, in the order of
+	 * the drawable list. The returned list is reused by the next query.
+	 *
+	 * @param x
+	 *            x-coord in pixels
+	 * @param y
+	 *            y-coord in pixels
+	 * @param hitThreshold
+	 *            hit threshold
+	 * @return drawables that may be hit
+	 */
+	public ArrayList<Drawable> getCandidates(int x, int y, int hitThreshold) {
+		refresh();
+		queryStamp++;
+		candidateEntries.clear();
+		int margin = 2 * Math.max(hitThreshold, 0);
+		int minCol = toCell(x - margin);
+		int maxCol = toCell(x + margin);
+		int minRow = toCell(y - margin);
+		int maxRow = toCell(y + margin);
+		for (int col = minCol; col <= maxCol; col++) {
+			for (int row = minRow; row <= maxRow; row++) {
+				ArrayList<Entry> cell = cells.get(key(col, row));
+				if (cell != null) {
+					for (Entry entry : cell) {
+						collect(entry);
+					}
+				}
+			}
+		}
+		for (Entry entry : unbounded) {
+			collect(entry);
+		}
+		for (Entry entry : dirty) {
+			if (!entry.removed) {
+				collect(entry);
+			}
+		}
+		Collections.sort(candidateEntries, ORDER);
+		candidates.clear();
+		for (Entry entry : candidateEntries) {
+			candidates.add(entry.drawable);
+		}
+		return candidates;
+	}
+
+	/**
+	 * @return number of drawables in the index
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	private void collect(Entry entry) {
+		if (entry.stamp != queryStamp) {
+			entry.stamp = queryStamp;
+			candidateEntries.add(entry);
+		}
+	}
+
+	private void markDirty(Entry entry) {
+		if (!entry.dirty) {
+			entry.dirty = true;
+			dirty.add(entry);
+		}
+	}
+
+	private void refresh() {
+		if (orderChanged) {
+			for (int i = 0; i < drawables.size(); i++) {
+				Entry entry = entries.get(drawables.get(i));
+				if (entry != null) {
+					entry.position = i;
+				}
+			}
+			orderChanged = false;
+		}
+		if (dirty.isEmpty()) {
+			return;
+		}
+		stillDirty.clear();
+		for (Entry entry : dirty) {
+			if (entry.removed) {
+				continue;
+			}
+			removeFromCells(entry);
+			if (entry.drawable.needsUpdate()) {
+				// bounds will change on next repaint
+				stillDirty.add(entry);
+			} else {
+				entry.dirty = false;
+				addToCells(entry);
+			}
+		}
+		ArrayList<Entry> swap = dirty;
+		dirty = stillDirty;
+		stillDirty = swap;
+		stillDirty.clear();
+	}
+
+	private void addToCells(Entry entry) {
+		GRectangle bounds = entry.drawable.getHitBounds();
+		GRectangle label = entry.drawable.labelRectangle;
+		boolean hasLabel = label != null && label.getWidth() > 0
+				&& label.getHeight() > 0;
+		if (bounds == null || !isFinite(bounds)
+				|| (hasLabel && !isFinite(label))) {
+			addUnbounded(entry);
+			return;
+		}
+		double minX = bounds.getMinX();
+		double maxX = bounds.getMaxX();
+		double minY = bounds.getMinY();
+		double maxY = bounds.getMaxY();
+		if (hasLabel) {
+			minX = Math.min(minX, label.getMinX());
+			maxX = Math.max(maxX, label.getMaxX());
+			minY = Math.min(minY, label.getMinY());
+			maxY = Math.max(maxY, label.getMaxY());
+		}
+		entry.minCol = toCell(minX);
+		entry.maxCol = toCell(maxX);
+		entry.minRow = toCell(minY);
+		entry.maxRow = toCell(maxY);
+		long count = (entry.maxCol - (long) entry.minCol + 1)
+				* (entry.maxRow - (long) entry.minRow + 1);
+		if (count > MAX_CELLS_PER_DRAWABLE) {
+			addUnbounded(entry);
+			return;
+		}
+		for (int col = entry.minCol; col <= entry.maxCol; col++) {
+			for (int row = entry.minRow; row <= entry.maxRow; row++) {
+				Long key = key(col, row);
+				ArrayList<Entry> cell = cells.get(key);
+				if (cell == null) {
+					cell = new ArrayList<>(4);
+					cells.put(key, cell);
+				}
+				cell.add(entry);
+			}
+		}
+		entry.indexed = true;
+	}
+
+	private void addUnbounded(Entry entry) {
+		entry.unbounded = true;
+		unbounded.add(entry);
+	}
+
+	private void removeFromCells(Entry entry) {
+		if (entry.unbounded) {
+			unbounded.remove(entry);
+			entry.unbounded = false;
+		}
+		if (!entry.indexed) {
+			return;
+		}
+		for (int col = entry.minCol; col <= entry.maxCol; col++) {
+			for (int row = entry.minRow; row <= entry.maxRow; row++) {
+				Long key = key(col, row);
+				ArrayList<Entry> cell = cells.get(key);
+				if (cell != null) {
+					cell.remove(entry);
+					if (cell.isEmpty()) {
+						cells.remove(key);
+					}
+				}
+			}
+		}
+		entry.indexed = false;
+	}
+
+	private static boolean isFinite(GRectangle rect) {
+		return Math.abs(rect.getMinX()) < Integer.MAX_VALUE
+				&& Math.abs(rect.getMaxX()) < Integer.MAX_VALUE
+				&& Math.abs(rect.getMinY()) < Integer.MAX_VALUE
+				&& Math.abs(rect.getMaxY()) < Integer.MAX_VALUE;
+	}
+
+	private static int toCell(double coord) {
+		return (int) Math.floor(coord / CELL_SIZE);
+	}
+
+	private static Long key(int col, int row) {
+		return ((long) col << 32) | (row & 0xffffffffL);
+	}
+
+	private static final class Entry {
+		final Drawable drawable;
+		int minCol;
+		int maxCol;
+		int minRow;
+		int maxRow;
+		/** position in the drawable list */
+		int position;
+		/** last query that returned this */
+		int stamp;
+		boolean dirty;
+		boolean indexed;
+		boolean unbounded;
+		boolean removed;
+
+		Entry(Drawable drawable) {
+			this.drawable = drawable;
+		}
+	}
+}
@@ -289,6 +289,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 	private ArrayList<GeoPointND> stickyPointList = new ArrayList<>();
 
 	private DrawableList allDrawableList;
+	private DrawableSpatialIndex drawableIndex;
 
 	// on add: change resetLists()
 	/** list of background images */
@@ -606,6 +607,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		logToCrashlytics("EuclidianView.allDrawableList reinitialized at EuclidianView.init(",
 				"EuclidianController ec, int viewNo, EuclidianSettings settings)");
 		allDrawableList = new DrawableList(cmp);
+		drawableIndex = new DrawableSpatialIndex(allDrawableList);
 		bgImageList = new DrawableList(cmp);
 
 		initAxesValues();
@@ -1225,7 +1227,19 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 	 * @return (p2-p1) vector in screen coordinates
 	 */
 	public double[] getOnScreenDiff(double[] p1, double[] p2) {
-		double[] ret = new double[2];
+		return getOnScreenDiff(p1, p2, new double[2]);
+	}
+
+	/**
+	 * @param p1
+	 *            first point
+	 * @param p2
+	 *            second point
+	 * @param ret
+	 *            output array, same length as the points
+	 * @return ret filled with (p2-p1) vector in screen coordinates
+	 */
+	public double[] getOnScreenDiff(double[] p1, double[] p2, double[] ret) {
 		ret[0] = (p2[0] - p1[0]) * getXscale();
 		ret[1] = (p2[1] - p1[1]) * getYscale();
 		return ret;
@@ -1747,6 +1761,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 			return;
 		}
 		allDrawableList.updateAll();
+		drawableIndex.invalidateAll();
 		if (repaint) {
 			repaint();
 		}
@@ -1763,11 +1778,29 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		return allDrawableList;
 	}
 
+	/**
+	 * @return spatial index of all drawables
+	 */
+	public DrawableSpatialIndex getDrawableIndex() {
+		return drawableIndex;
+	}
+
+	/**
+	 * Notifies the spatial index that screen bounds of a drawable changed.
+	 * 
+	 * @param d
+	 *            drawable
+	 */
+	public void invalidateHitBounds(Drawable d) {
+		drawableIndex.invalidate(d);
+	}
+
 	/**
 	 * Called when the drawing priorities of the objects in the view have changed
 	 */
 	public void invalidateDrawableList() {
 		allDrawableList.sort();
+		drawableIndex.invalidateOrder();
 		repaintView();
 	}
 
@@ -1788,6 +1821,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		for (Drawable d : bgImageList) {
 			d.updateForView();
 		}
+		drawableIndex.invalidateAll();
 		isCrashlyticsLoggingEnabled = false;
 
 		GeoElement focused = app.getSelectionManager().getFocusedGroupElement();
@@ -1817,6 +1851,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		if (this.needsAllDrawablesUpdate) {
 			euclidianController.notifyCoordSystemMoved(coordSystemInfo);
 			allDrawableList.updateAll();
+			drawableIndex.invalidateAll();
 			repaint();
 		}
 	}
@@ -1950,6 +1985,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		Object d = drawableMap.get(geo);
 		if (d != null) {
 			((Drawable) d).update();
+			drawableIndex.invalidate((Drawable) d);
 			repaint();
 		}
 	}
@@ -1972,6 +2008,9 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 			} else {
 				d.update();
 			}
+			if (d instanceof Drawable) {
+				drawableIndex.invalidate((Drawable) d);
+			}
 			if (geo == app.getSelectionManager().getFocusedGroupElement()
 					&& focusedGroupGeoBoundingBox != null) {
 				focusedGroupGeoBoundingBox.setRectangle(d.getBoundsForStylebarPosition());
@@ -2034,6 +2073,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 				logToCrashlytics("EuclidianView.allDrawableList modified at ",
 						"EuclidianView.createAndAddDrawable(GeoElement geo) for", geo);
 				allDrawableList.add((Drawable) d);
+				drawableIndex.add((Drawable) d);
 			}
 			return true;
 		}
@@ -2177,6 +2217,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		logToCrashlytics(
 				"EuclidianView.allDrawableList modified at EuclidianView.remove(GeoElement geo)");
 		allDrawableList.remove(d);
+		drawableIndex.remove(d);
 		resetBoundingBoxes();
 
 		if (d instanceof RemoveNeeded) {
@@ -2280,6 +2321,11 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		if (p == null || getEuclidianController().isMultiSelection()) {
 			return null;
 		}
+		if (boundingBox == null) {
+			// only drawables owning the view's bounding box can be hit
+			hitHandler = EuclidianBoundingBoxHandler.UNDEFINED;
+			return null;
+		}
 		for (Drawable d : allDrawableList) {
 			hitHandler = d.hitBoundingBoxHandler(p.x, p.y, app.getCapturingThreshold(type));
 			if (hitHandler != EuclidianBoundingBoxHandler.UNDEFINED) {
@@ -2443,6 +2489,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		for (Drawable d : allDrawableList) {
 			d.updateFontSize();
 		}
+		drawableIndex.invalidateAll();
 		repaint();
 	}
 
@@ -4335,6 +4382,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 				"EuclidianView.allDrawableList modified at ",
 						"EuclidianView.addBackgroundImage(DrawImage img)");
 		allDrawableList.remove(img);
+		drawableIndex.remove(img);
 	}
 
 	/**
@@ -4347,6 +4395,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 				"EuclidianView.allDrawableList modified at ",
 						"EuclidianView.removeBackgroundImage(DrawImage img)");
 		allDrawableList.add(img);
+		drawableIndex.add(img);
 	}
 
 	/**
@@ -4357,6 +4406,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		stickyPointList.clear();
 		logToCrashlytics("EuclidianView.allDrawableList modified at EuclidianView.resetLists()");
 		allDrawableList.clear();
+		drawableIndex.clear();
 		bgImageList.clear();
 		previewFromInputBarGeos = null;
 		this.geosWaiting.clear();
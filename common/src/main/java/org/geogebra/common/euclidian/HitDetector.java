@@ -42,7 +42,9 @@ public class HitDetector {
 		}
 		boolean hitMask = false;
 
-		for (Drawable d : view.getAllDrawableList()) {
+		// candidates come in the same order as in the drawable list
+		for (Drawable d : view.getDrawableIndex().getCandidates(p.x, p.y,
+				hitThreshold)) {
 			if (d.isEuclidianVisible()) {
 				if (d.hit(p.x, p.y, hitThreshold)) {
 					GeoElement geo = d.getGeoElement();
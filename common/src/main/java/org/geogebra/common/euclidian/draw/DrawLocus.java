@@ -25,7 +25,9 @@ import org.geogebra.common.euclidian.plot.CurvePlotterUtils;
 import org.geogebra.common.euclidian.plot.GeneralPathClippedForCurvePlotter;
 import org.geogebra.common.factories.AwtFactory;
 import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.MyPointBuffer;
 import org.geogebra.common.kernel.algos.AlgoElement;
+import org.geogebra.common.kernel.geos.GeoLocus;
 import org.geogebra.common.kernel.geos.GeoLocusND;
 import org.geogebra.common.kernel.geos.GeoLocusStroke;
 import org.geogebra.common.kernel.geos.Traceable;
@@ -97,7 +99,7 @@ public class DrawLocus extends Drawable {
 			}
 		}
 
-		buildGeneralPath(locus.getPoints());
+		buildGeneralPath();
 
 		// line on screen?
 		if (!geo.isInverseFill() && !view.intersects(gp)) {
@@ -190,13 +192,17 @@ public class DrawLocus extends Drawable {
 				(int) bounds.getHeight() + 2 * BITMAP_PADDING, g2p);
 	}
 
-	private void buildGeneralPath(ArrayList<? extends MyPoint> pointList) {
+	private void buildGeneralPath() {
 		if (gp == null) {
 			gp = new GeneralPathClippedForCurvePlotter(view);
 		}
 		gp.resetWithThickness(geo.getLineThickness());
+		MyPointBuffer buffer = locus instanceof GeoLocus
+				? ((GeoLocus) locus).getPointBuffer() : null;
 		// Use the last plotted point for positioning the label:
-		labelPosition = CurvePlotterUtils.draw(gp, pointList, transformSys);
+		labelPosition = buffer == null
+				? CurvePlotterUtils.draw(gp, locus.getPoints(), transformSys)
+				: CurvePlotterUtils.draw(gp, buffer, transformSys);
 		/*
 		 * Due to numerical instability of the curve plotter algorithm this
 		 * position may be changing too quickly which results in an annoying
@@ -204,10 +210,12 @@ public class DrawLocus extends Drawable {
 		 * bottom-left position of the curve, that is, for which the sum of
 		 * coordinates is minimal.
 		 */
-		int plSize = pointList.size();
+		ArrayList<? extends MyPoint> pointList = buffer == null
+				? locus.getPoints() : null;
+		int plSize = buffer == null ? pointList.size() : buffer.size();
 		for (int i = 0; i < plSize; ++i) {
-			double px = ((MyPoint) pointList.get(i)).x;
-			double py = ((MyPoint) pointList.get(i)).y;
+			double px = buffer == null ? pointList.get(i).x : buffer.getX(i);
+			double py = buffer == null ? pointList.get(i).y : buffer.getY(i);
 			if (px + py < labelPosition[0] + labelPosition[1]) {
 				labelPosition[0] = px;
 				labelPosition[1] = py;
@@ -339,7 +347,9 @@ public class DrawLocus extends Drawable {
 	@Override
 	public ArrayList<GPoint2D> toPoints() {
 		ArrayList<GPoint2D> points = new ArrayList<>();
-		for (MyPoint pt : locus.getPoints()) {
+		MyPoint scratch = new MyPoint();
+		for (int i = 0; i < locus.getPointLength(); i++) {
+			MyPoint pt = locus.getPoint(i, scratch);
 			points.add(
 					new MyPoint(view.toScreenCoordXd(pt.getX()), view.toScreenCoordYd(pt.getY())));
 		}
@@ -348,6 +358,16 @@ public class DrawLocus extends Drawable {
 
 	@Override
 	public void fromPoints(ArrayList<GPoint2D> points) {
+		MyPointBuffer buffer = locus instanceof GeoLocus
+				? ((GeoLocus) locus).getPointBuffer() : null;
+		if (buffer != null) {
+			for (int i = 0; i < buffer.size(); i++) {
+				buffer.setLocation(i,
+						view.toRealWorldCoordX(points.get(i).getX()),
+						view.toRealWorldCoordY(points.get(i).getY()));
+			}
+			return;
+		}
 		int i = 0;
 		for (MyPoint pt : locus.getPoints()) {
 			pt.setLocation(view.toRealWorldCoordX(points.get(i).getX()),
@@ -536,6 +536,13 @@ public final class DrawPoint extends SetDrawable {
 				2 * selRadius, 2 * selRadius);
 	}
 
+	@Override
+	public GRectangle getHitBounds() {
+		int radius = Math.max(pointSize, SELECTION_RADIUS_MIN);
+		return AwtFactory.getPrototype().newRectangle((int) coords[0] - radius,
+				(int) coords[1] - radius, 2 * radius, 2 * radius);
+	}
+
 	@Override
 	public void setGeoElement(GeoElement geo) {
 		this.geo = geo;
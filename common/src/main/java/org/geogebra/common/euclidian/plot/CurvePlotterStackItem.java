@@ -16,12 +16,15 @@ public class CurvePlotterStackItem {
 	 * @param dyadic t of f(t)
 	 * @param depth of the bisection.
 	 * @param onScreen if the evaluated value on screen
-	 * @param eval f(t)
+	 * @param eval f(t), copied to the array owned by this item
 	 */
 	public void set(int dyadic, int depth, boolean onScreen, double[] eval) {
 		this.dyadic = dyadic;
 		this.depth = depth;
 		this.onScreen = onScreen;
-		this.eval = eval;
+		if (this.eval == null || this.eval.length != eval.length) {
+			this.eval = new double[eval.length];
+		}
+		System.arraycopy(eval, 0, this.eval, 0, eval.length);
 	}
 }
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 
 import org.apache.commons.math3.util.Cloner;
 import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.MyPointBuffer;
 import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.matrix.CoordSys;
 
@@ -21,8 +22,30 @@ public class CurvePlotterUtils {
 	 */
 	static public double[] draw(PathPlotter gp,
 			ArrayList<? extends MyPoint> pointList, CoordSys transformSys) {
+		return draw(gp, pointList, null, transformSys);
+	}
+
+	/**
+	 * draw points stored in arrays
+	 *
+	 * @param gp
+	 *            path plotter that actually draws the points list
+	 * @param buffer
+	 *            points
+	 * @param transformSys
+	 *            coordinte system to be applied on 2D points
+	 * @return last point drawn
+	 */
+	static public double[] draw(PathPlotter gp, MyPointBuffer buffer,
+			CoordSys transformSys) {
+		return draw(gp, null, buffer, transformSys);
+	}
+
+	private static double[] draw(PathPlotter gp,
+			ArrayList<? extends MyPoint> pointList, MyPointBuffer buffer,
+			CoordSys transformSys) {
 		double[] coords = gp.newDoubleArray();
-		int size = pointList.size();
+		int size = buffer == null ? pointList.size() : buffer.size();
 		if (!gp.supports(transformSys) || size == 0) {
 			return coords;
 		}
@@ -31,7 +54,11 @@ public class CurvePlotterUtils {
 		// points
 		boolean linetofirst = true;
 		double[] lastMove = null;
-		for (MyPoint p : pointList) {
+		// reused for buffered points
+		MyPoint scratch = new MyPoint();
+		for (int i = 0; i < size; i++) {
+			MyPoint p = buffer == null ? pointList.get(i)
+					: buffer.get(i, scratch);
 			// don't add infinite points
 			// otherwise hit-testing doesn't work
 			if (p.isFinite() && gp.copyCoords(p, coords, transformSys)) {
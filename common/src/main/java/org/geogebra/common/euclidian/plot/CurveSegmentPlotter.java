@@ -50,6 +50,13 @@ public class CurveSegmentPlotter {
 	private CurvePlotterStack stack;
 	private boolean onScreen;
 	private double[] divisors;
+	/** consecutive lineTo points, passed to the path plotter at once */
+	private double[] polyline;
+	private int polylineCount;
+	/** buffers for continuity check */
+	private double[] continuityLeft;
+	private double[] continuityRight;
+	private double[] continuityMiddle;
 
 	/**
 	 * Draws a parametric curve (x(t), y(t)) for t in [tMin, tMax].
@@ -177,10 +184,11 @@ public class CurveSegmentPlotter {
 				onScreen = view.isOnView(eval);
 
 				if (isUndefined(eval) && hasNoSingularity(params.t, divisors[LENGTH - 1])) {
+					flushPolyline();
 					return true;
 				}
 
-				evalRight = Cloner.clone(eval);
+				copy(eval, evalRight);
 				params.updateDiff(evalLeft, evalRight);
 				params.countDiffZeros = isDiffZero(params.diff) ? params.countDiffZeros + 1 : 0;
 
@@ -191,7 +199,7 @@ public class CurveSegmentPlotter {
 			drawSegment(params.t, params.left, info);
 
 			// remember last point in general path
-			evalLeft = Cloner.clone(evalRight);
+			copy(evalRight, evalLeft);
 			params.left = params.t;
 
 			// remember first point on screen for label position
@@ -208,14 +216,44 @@ public class CurveSegmentPlotter {
 
 			CurvePlotterStackItem item = stack.pop();
 			onScreen = item.onScreen;
-			evalRight = item.eval;
+			copy(item.eval, evalRight);
 			params.restoreFromStack(item);
 			params.updateDiff(evalLeft, evalRight);
 		} while (stack.hasItems()); // end of do-while loop for bisection stack
+		flushPolyline();
 		gp.endPlot();
 		return false;
 	}
 
+	private static void copy(double[] from, double[] to) {
+		System.arraycopy(from, 0, to, 0, from.length);
+	}
+
+	private void addToPolyline(double[] pos) {
+		int dimension = pos.length;
+		if (polyline == null) {
+			polyline = new double[64 * dimension];
+		} else if ((polylineCount + 1) * dimension > polyline.length) {
+			double[] bigger = new double[2 * polyline.length];
+			System.arraycopy(polyline, 0, bigger, 0, polylineCount * dimension);
+			polyline = bigger;
+		}
+		System.arraycopy(pos, 0, polyline, polylineCount * dimension,
+				dimension);
+		polylineCount++;
+	}
+
+	/**
+	 * Passes collected lineTo points to the path plotter; needs to be called
+	 * before any other call of the path plotter.
+	 */
+	private void flushPolyline() {
+		if (polylineCount > 0) {
+			gp.polyline(polyline, eval.length, polylineCount);
+			polylineCount = 0;
+		}
+	}
+
 	private boolean hasNoSingularity(double t, double interval) {
 		// check if c(t-eps) and c(t+eps) are both defined
 
@@ -232,16 +270,17 @@ public class CurveSegmentPlotter {
 		if (isLineTo(t, left, info)) {
 			// handle previous moveTo first
 			if (nextLineToNeedsMoveToFirst) {
+				flushPolyline();
 				gp.moveTo(move);
 				nextLineToNeedsMoveToFirst = false;
 			}
 
 			// draw line
-			gp.lineTo(evalRight);
+			addToPolyline(evalRight);
 		} else {
 			// moveTo: remember moveTo position to avoid multiple moveTo
 			// operations
-			move = Cloner.clone(evalRight);
+			copy(evalRight, move);
 			nextLineToNeedsMoveToFirst = true;
 		}
 	}
@@ -260,9 +299,10 @@ public class CurveSegmentPlotter {
 				lineTo = false;
 			} else if (info.isDistanceOrAngleInvalid()) {
 				// check for DISCONTINUITY
-				lineTo = isContinuous(curve, left, t, MAX_CONTINUITY_BISECTIONS);
+				lineTo = isContinuous(left, t);
 			}
 		} else if (moveToAllowed == Gap.CORNER) {
+			flushPolyline();
 			gp.corner(evalRight);
 		}
 		return lineTo;
@@ -422,6 +462,23 @@ public class CurveSegmentPlotter {
 	 */
 	public static boolean isContinuous(CurveEvaluable c, double from, double to,
 			int maxIterations) {
+		return isContinuous(c, from, to, maxIterations, c.newDoubleArray(),
+				c.newDoubleArray(), c.newDoubleArray());
+	}
+
+	private boolean isContinuous(double from, double to) {
+		if (continuityLeft == null) {
+			continuityLeft = curve.newDoubleArray();
+			continuityRight = curve.newDoubleArray();
+			continuityMiddle = curve.newDoubleArray();
+		}
+		return isContinuous(curve, from, to, MAX_CONTINUITY_BISECTIONS,
+				continuityLeft, continuityRight, continuityMiddle);
+	}
+
+	private static boolean isContinuous(CurveEvaluable c, double from,
+			double to, int maxIterations, double[] left, double[] right,
+			double[] middle) {
 		double tMin = from;
 		double tMax = to;
 		if (DoubleUtil.isEqual(tMin, tMax, Kernel.MAX_DOUBLE_PRECISION)) {
@@ -429,7 +486,6 @@ public class CurveSegmentPlotter {
 		}
 
 		// left = c(tMin)
-		double[] left = c.newDoubleArray();
 		c.evaluateCurve(tMin, left);
 		if (isUndefined(left)) {
 			// NaN or infinite: not continuous
@@ -437,7 +493,6 @@ public class CurveSegmentPlotter {
 		}
 
 		// right = c(tMax)
-		double[] right = c.newDoubleArray();
 		c.evaluateCurve(tMax, right);
 		if (isUndefined(right)) {
 			// NaN or infinite: not continuous
@@ -452,7 +507,6 @@ public class CurveSegmentPlotter {
 		double eps = initialDistance * 0.9;
 		double dist = Double.POSITIVE_INFINITY;
 		int iterations = 0;
-		double[] middle = c.newDoubleArray();
 
 		while (iterations++ < maxIterations && dist > eps) {
 			double m = (tMin + tMax) / 2;
@@ -1,9 +1,7 @@
 package org.geogebra.common.euclidian.plot;
 
-import java.util.ArrayList;
 import java.util.List;
 
-import org.apache.commons.math3.util.Cloner;
 import org.geogebra.common.awt.GPoint2D;
 import org.geogebra.common.euclidian.EuclidianView;
 import org.geogebra.common.euclidian.EuclidianViewInterfaceSlim;
@@ -30,6 +28,8 @@ public class GeneralPathClippedForCurvePlotter extends GeneralPathClipped
 
 	private boolean lineDrawn;
 	private Coords tmpCoords = new Coords(4);
+	/** reused for conversion to screen coordinates */
+	private final double[] screenCoords = new double[2];
 
 	/**
 	 * constructor
@@ -38,7 +38,7 @@ public class GeneralPathClippedForCurvePlotter extends GeneralPathClipped
 	 *            Euclidian view
 	 */
 	public GeneralPathClippedForCurvePlotter(EuclidianViewInterfaceSlim view) {
-		this(view, new ArrayList<MyPoint>());
+		this(view, null);
 	}
 
 	/**
@@ -47,7 +47,7 @@ public class GeneralPathClippedForCurvePlotter extends GeneralPathClipped
 	 * @param view
 	 *            Euclidian view
 	 * @param cache
-	 * 			  Point cache
+	 * 			  Point cache, may be null
 	 */
 	public GeneralPathClippedForCurvePlotter(EuclidianViewInterfaceSlim view, List<MyPoint> cache) {
 		super(view);
@@ -64,14 +64,33 @@ public class GeneralPathClippedForCurvePlotter extends GeneralPathClipped
 		drawTo(pos, SegmentType.MOVE_TO);
 	}
 
+	@Override
+	public void polyline(double[] coords, int dimension, int count) {
+		for (int i = 0; i < count; i++) {
+			double[] p = toScreenCoords(coords, i * dimension);
+			drawTo(p[0], p[1], SegmentType.LINE_TO);
+			addToCache(p, SegmentType.LINE_TO);
+		}
+	}
+
 	@Override
 	public void drawTo(double[] pos, SegmentType segmentType) {
-		double[] p = Cloner.clone(pos);
-		((EuclidianView) view).toScreenCoords(p);
+		double[] p = toScreenCoords(pos, 0);
 		drawTo(p[0], p[1], segmentType);
-		MyPoint myPoint = new MyPoint(p[0], p[1], segmentType);
+		addToCache(p, segmentType);
+	}
+
+	private double[] toScreenCoords(double[] pos, int offset) {
+		screenCoords[0] = pos[offset];
+		screenCoords[1] = pos[offset + 1];
+		((EuclidianView) view).toScreenCoords(screenCoords);
+		return screenCoords;
+	}
 
-		cache.add(myPoint);
+	private void addToCache(double[] p, SegmentType segmentType) {
+		if (cache != null) {
+			cache.add(new MyPoint(p[0], p[1], segmentType));
+		}
 	}
 
 	/**
@@ -139,8 +158,7 @@ public class GeneralPathClippedForCurvePlotter extends GeneralPathClipped
 
 	@Override
 	public void corner(double[] pos) {
-		double[] p = Cloner.clone(pos);
-		((EuclidianView) view).toScreenCoords(p);
+		double[] p = toScreenCoords(pos, 0);
 		corner(p[0], p[1]);
 	}
 
@@ -178,8 +196,7 @@ public class GeneralPathClippedForCurvePlotter extends GeneralPathClipped
 
 	@Override
 	public void firstPoint(double[] pos, Gap moveToAllowed) {
-		double[] p = Cloner.clone(pos);
-		((EuclidianView) view).toScreenCoords(p);
+		double[] p = toScreenCoords(pos, 0);
 		final double x0 = p[0];
 		final double y0 = p[1];
 
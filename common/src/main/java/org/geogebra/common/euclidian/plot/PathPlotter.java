@@ -32,6 +32,19 @@ public interface PathPlotter {
 	 */
 	public void lineTo(double[] pos);
 
+	/**
+	 * Calls {@link #lineTo(double[])} for a batch of points.
+	 * 
+	 * @param coords
+	 *            coordinates of the points, point i starts at index
+	 *            i * dimension
+	 * @param dimension
+	 *            number of coordinates per point
+	 * @param count
+	 *            number of points
+	 */
+	public void polyline(double[] coords, int dimension, int count);
+
 	/**
 	 * Calls gp.moveTo(x, y) only if the current point is not already at this
 	 * position.
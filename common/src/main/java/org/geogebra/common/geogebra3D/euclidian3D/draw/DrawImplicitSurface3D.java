@@ -6,13 +6,13 @@ import org.geogebra.common.geogebra3D.euclidian3D.Hitting;
 import org.geogebra.common.geogebra3D.euclidian3D.openGL.Manager;
 import org.geogebra.common.geogebra3D.euclidian3D.openGL.ManagerShaders.TypeElement;
 import org.geogebra.common.geogebra3D.euclidian3D.openGL.PlotterSurface;
+import org.geogebra.common.geogebra3D.euclidian3D.openGL.PlotterSurfaceElements;
 import org.geogebra.common.geogebra3D.euclidian3D.openGL.Renderer;
-import org.geogebra.common.geogebra3D.kernel3D.geos.GeoTriangulatedSurface3D;
-import org.geogebra.common.geogebra3D.kernel3D.geos.GeoTriangulatedSurface3D.SurfaceMover;
-import org.geogebra.common.geogebra3D.kernel3D.geos.GeoTriangulatedSurface3D.Triangle;
 import org.geogebra.common.geogebra3D.kernel3D.implicit3D.GeoImplicitSurface;
+import org.geogebra.common.geogebra3D.kernel3D.implicit3D.ImplicitSurfaceMesh;
 import org.geogebra.common.kernel.geos.GProperty;
 import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.matrix.CoordsDouble3;
 import org.geogebra.common.util.MyMath;
 
 /**
@@ -23,6 +23,18 @@ import org.geogebra.common.util.MyMath;
 public class DrawImplicitSurface3D extends Drawable3DSurfaces {
 	private final static double[] hitTestParams = new double[] { 0.5, 0.25,
 			0.75, 0.125, 0.375, 0.625, 0.875 };
+	/** indices are stored as short values */
+	private final static int MAX_VERTICES = Short.MAX_VALUE + 1;
+
+	private final CoordsDouble3[] points = { new CoordsDouble3(),
+			new CoordsDouble3(), new CoordsDouble3() };
+	private final CoordsDouble3[] normals = { new CoordsDouble3(),
+			new CoordsDouble3(), new CoordsDouble3() };
+	/** index of each mesh vertex in the current geometry */
+	private int[] localIndex = new int[0];
+	/** geometry in which the local index was set */
+	private int[] localStamp = new int[0];
+	private int stamp;
 
 	/**
 	 * create a new {@link DrawImplicitSurface3D} object
@@ -69,10 +81,9 @@ public class DrawImplicitSurface3D extends Drawable3DSurfaces {
 		geo.updateSurface(new double[] { v3d.getXmin(), v3d.getXmax(),
 				v3d.getYmin(), v3d.getYmax(), v3d.getZmin(), v3d.getZmax(),
 				v3d.getXscale(), v3d.getYscale(), v3d.getZscale() });
-		GeoTriangulatedSurface3D surf = geo.getSurface3D();
-		SurfaceMover surfaceMover = surf.getSurfaceMover();
+		ImplicitSurfaceMesh mesh = geo.getSurfaceMesh();
 
-		if (!surfaceMover.hasNext()) {
+		if (mesh.getTriangleCount() == 0) {
 			setSurfaceIndex(-1);
 			setGeometryIndex(-1);
 			return true;
@@ -82,17 +93,93 @@ public class DrawImplicitSurface3D extends Drawable3DSurfaces {
 		PlotterSurface s = m.getSurface();
 		setPackSurface(true);
 		s.start(getReusableSurfaceIndex());
+		if (s instanceof PlotterSurfaceElements) {
+			drawIndexed((PlotterSurfaceElements) s, mesh);
+		} else {
+			drawTriangles(s, m, mesh);
+		}
+		setSurfaceIndex(s.end());
+		endPacking();
+		return true;
+	}
+
+	/**
+	 * Draws the mesh as indexed geometries; since indices are short values a
+	 * new geometry is started whenever the vertices don't fit any more.
+	 */
+	private void drawIndexed(PlotterSurfaceElements s,
+			ImplicitSurfaceMesh mesh) {
+		int[] indices = mesh.getIndices();
+		double[] vertices = mesh.getVertices();
+		double[] meshNormals = mesh.getNormals();
+		if (localIndex.length < mesh.getVertexCount()) {
+			localIndex = new int[mesh.getVertexCount()];
+			localStamp = new int[mesh.getVertexCount()];
+			stamp = 0;
+		}
+		int triangleCount = mesh.getTriangleCount();
+		int start = 0;
+		while (start < triangleCount) {
+			// find the triangles that fit into this geometry
+			stamp++;
+			int vertexCount = 0;
+			int end = start;
+			while (end < triangleCount) {
+				int added = 0;
+				for (int k = 0; k < 3; k++) {
+					if (localStamp[indices[3 * end + k]] != stamp) {
+						added++;
+					}
+				}
+				if (vertexCount + added > MAX_VERTICES) {
+					break;
+				}
+				for (int k = 0; k < 3; k++) {
+					int v = indices[3 * end + k];
+					if (localStamp[v] != stamp) {
+						localStamp[v] = stamp;
+						localIndex[v] = vertexCount++;
+					}
+				}
+				end++;
+			}
 
+			s.startTriangles(3 * (end - start));
+			stamp++;
+			for (int i = 3 * start; i < 3 * end; i++) {
+				int v = indices[i];
+				if (localStamp[v] != stamp) {
+					// vertices are drawn in the order of their local index
+					localStamp[v] = stamp;
+					set(points[0], vertices, v);
+					set(normals[0], meshNormals, v);
+					s.normalDirect(normals[0]);
+					s.vertexDirect(points[0]);
+				}
+				s.drawIndex(localIndex[v]);
+			}
+			s.endGeometryDirect();
+			start = end;
+		}
+	}
+
+	private void drawTriangles(PlotterSurface s, Manager m,
+			ImplicitSurfaceMesh mesh) {
+		int[] indices = mesh.getIndices();
 		s.startTriangles();
-		while (surfaceMover.hasNext()) {
-			Triangle tri = surfaceMover.next();
-			s.triangle(tri.v1, tri.v2, tri.v3, tri.n1, tri.n2, tri.n3);
-        }
-        m.endGeometry(surfaceMover.getTrianglesCount(),
-                TypeElement.TRIANGLES);
-        setSurfaceIndex(s.end());
-        endPacking();
-		return true;
+		for (int t = 0; t < mesh.getTriangleCount(); t++) {
+			for (int k = 0; k < 3; k++) {
+				set(points[k], mesh.getVertices(), indices[3 * t + k]);
+				set(normals[k], mesh.getNormals(), indices[3 * t + k]);
+			}
+			s.triangle(points[0], points[1], points[2], normals[0],
+					normals[1], normals[2]);
+		}
+		m.endGeometry(mesh.getTriangleCount(), TypeElement.TRIANGLES);
+	}
+
+	private static void set(CoordsDouble3 coords, double[] values, int v) {
+		coords.set(values[3 * v], values[3 * v + 1], values[3 * v + 2]);
 	}
 
 	@Override
@@ -5,7 +5,9 @@ import org.geogebra.common.geogebra3D.euclidian3D.EuclidianView3D;
 import org.geogebra.common.geogebra3D.euclidian3D.openGL.PlotterBrush;
 import org.geogebra.common.geogebra3D.euclidian3D.openGL.Renderer;
 import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.MyPointBuffer;
 import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoLocus;
 import org.geogebra.common.kernel.geos.GeoLocusND;
 import org.geogebra.common.kernel.matrix.CoordSys;
 
@@ -58,7 +60,14 @@ public class DrawLocus3D extends Drawable3DCurves {
 		brush.setLength(1f);
 
 		try {
-            CurvePlotterUtils.draw(brush, getLocus().getPoints(), transformCoordSys);
+            MyPointBuffer buffer = locus instanceof GeoLocus
+                    ? ((GeoLocus) locus).getPointBuffer() : null;
+            if (buffer == null) {
+                CurvePlotterUtils.draw(brush, getLocus().getPoints(),
+                        transformCoordSys);
+            } else {
+                CurvePlotterUtils.draw(brush, buffer, transformCoordSys);
+            }
             setGeometryIndex(brush.end());
         } catch (Exception e) {
 		    setGeometryIndex(-1);
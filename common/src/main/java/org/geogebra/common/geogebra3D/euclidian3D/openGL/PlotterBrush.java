@@ -120,6 +120,7 @@ public class PlotterBrush implements PathPlotter {
 	private Coords vn2 = new Coords(3);
 
 	private Coords tmpDrawTo = Coords.createInhomCoorsInD3();
+	private double[] polylinePoint;
 
 	private Coords tmpCopyCoords;
 
@@ -1201,6 +1202,18 @@ public class PlotterBrush implements PathPlotter {
 		drawTo(pos, SegmentType.LINE_TO);
 	}
 
+	@Override
+	public void polyline(double[] coords, int dimension, int count) {
+		if (polylinePoint == null || polylinePoint.length != dimension) {
+			polylinePoint = new double[dimension];
+		}
+		for (int i = 0; i < count; i++) {
+			System.arraycopy(coords, i * dimension, polylinePoint, 0,
+					dimension);
+			lineTo(polylinePoint);
+		}
+	}
+
 	@Override
 	public void moveTo(double[] pos) {
 
@@ -0,0 +1,1054 @@
+package org.geogebra.common.geogebra3D.kernel3D.implicit3D;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.geogebra.common.kernel.arithmetic.MyDouble;
+import org.geogebra.common.util.ParallelExecutor;
+
+/**
+ * Marching cubes on an octree. The view box is split into coarse cubes which
+ * are only subdivided near the zero set, so the cost grows with the area of
+ * the surface rather than with the volume of the box. Triangles are created in
+ * cubes of the finest level only, which keeps the mesh free of cracks; cubes
+ * missed by the octree test are found by following the surface from cube to
+ * cube. Afterwards edges in strongly curved regions are split.
+ *
+ * The box is cut into slabs of coarse cubes along the z-axis which are meshed
+ * in parallel if the platform supports it. Values and vertices are cached per
+ * grid point and grid edge, so every vertex is computed once and shared by
+ * its triangles.
+ */
+final class AdaptiveMarchingCubes {
+
+	/** size of a coarse cube in pixels */
+	private static final int AVE_PXL = 40;
+	/** maximal number of coarse cubes per axis */
+	private static final int MAX_SUB_DIV = 25;
+	/** octree levels below the coarse cubes */
+	private static final int DEPTH = 2;
+	private static final int CURVATURE_PASSES = 2;
+	/** edges whose end normals differ by more than 15 degrees are split */
+	private static final double MIN_NORMAL_COS = Math.cos(Math.PI / 12);
+	/** step of the difference quotients, relative to the cube size */
+	private static final double GRADIENT_STEP = 1E-4;
+	private static final int NEWTON_STEPS = 2;
+
+	/*
+	 * Corners of a cube are numbered by their bits: bit 0 for x, bit 1 for y
+	 * and bit 2 for z. Edge 4 * axis + m runs along the axis, face 2 * axis +
+	 * side is orthogonal to it.
+	 */
+	/** corner of each edge with the smaller coordinates */
+	private static final int[] EDGE_CORNER = new int[12];
+	private static final int[] EDGE_AXIS = new int[12];
+	/** corners of each face as bit mask */
+	private static final int[] FACE_MASK = new int[6];
+	/** polygons for each sign configuration, as lists of edges */
+	private static final int[][][] POLYGONS = new int[256][][];
+
+	static {
+		for (int axis = 0; axis < 3; axis++) {
+			for (int m = 0; m < 4; m++) {
+				EDGE_AXIS[4 * axis + m] = axis;
+				EDGE_CORNER[4 * axis + m] = ((m & 1) << ((axis + 1) % 3))
+						| ((m >> 1) << ((axis + 2) % 3));
+			}
+		}
+		int[][] faces = new int[6][];
+		for (int f = 0; f < 6; f++) {
+			faces[f] = faceCorners(f / 2, f % 2);
+			for (int corner : faces[f]) {
+				FACE_MASK[f] |= 1 << corner;
+			}
+		}
+		for (int config = 0; config < 256; config++) {
+			POLYGONS[config] = polygons(config, faces);
+		}
+	}
+
+	private int maxSubDiv = MAX_SUB_DIV;
+	private int depth = DEPTH;
+	private int curvaturePasses = CURVATURE_PASSES;
+	private ParallelExecutor parallelExecutor;
+	private final ArrayList<SlabMesher> slabMeshers = new ArrayList<>();
+
+	/** grid of the finest level */
+	private double x0;
+	private double y0;
+	private double z0;
+	private double dx;
+	private double dy;
+	private double dz;
+	private int nx;
+	private int ny;
+	private int nz;
+	private int slabSize;
+	private double gradientStep;
+	/** cubes of the finest level that were examined */
+	private boolean[] visited;
+
+	/** mesh being built */
+	private double[] coords;
+	private double[] normals;
+	private int vertexCount;
+	private int[] triangles;
+	private int triangleCount;
+	/** ends of the edges split in the current pass */
+	private int[] splitEdges;
+
+	/**
+	 * @param executor
+	 *            executor for the slabs, null to use the platform default
+	 */
+	void setParallelExecutor(ParallelExecutor executor) {
+		this.parallelExecutor = executor;
+	}
+
+	/**
+	 * @param maxCoarse
+	 *            maximal number of coarse cubes per axis
+	 * @param levels
+	 *            octree levels below the coarse cubes
+	 * @param passes
+	 *            passes of edge splits in curved regions
+	 */
+	void setResolution(int maxCoarse, int levels, int passes) {
+		this.maxSubDiv = maxCoarse;
+		this.depth = levels;
+		this.curvaturePasses = passes;
+	}
+
+	/**
+	 * @return number of functions to pass to {@link #update} so that all
+	 *         cores are used
+	 */
+	int getParallelism() {
+		ParallelExecutor executor = getExecutor();
+		return executor == null ? 1 : executor.getParallelism();
+	}
+
+	private ParallelExecutor getExecutor() {
+		return parallelExecutor != null ? parallelExecutor
+				: ParallelExecutor.getPrototype();
+	}
+
+	/**
+	 * @param bounds
+	 *            {xmin, xmax, ymin, ymax, zmin, zmax, xscale, yscale, zscale}
+	 * @param functions
+	 *            one copy of the function for each thread; a single one to
+	 *            mesh in the current thread
+	 * @return mesh of the zero set within the bounds
+	 */
+	ImplicitSurfaceMesh update(double[] bounds,
+			ImplicitSurfaceFunction[] functions) {
+		if (!(bounds[1] > bounds[0] && bounds[3] > bounds[2]
+				&& bounds[5] > bounds[4])) {
+			return ImplicitSurfaceMesh.EMPTY;
+		}
+		slabSize = 1 << depth;
+		nx = coarse(bounds[0], bounds[1], bounds[6]) * slabSize;
+		ny = coarse(bounds[2], bounds[3], bounds[7]) * slabSize;
+		int slabs = coarse(bounds[4], bounds[5], bounds[8]);
+		nz = slabs * slabSize;
+		x0 = bounds[0];
+		y0 = bounds[2];
+		z0 = bounds[4];
+		dx = (bounds[1] - bounds[0]) / nx;
+		dy = (bounds[3] - bounds[2]) / ny;
+		dz = (bounds[5] - bounds[4]) / nz;
+		gradientStep = GRADIENT_STEP * Math.min(dx, Math.min(dy, dz));
+		visited = new boolean[nx * ny * nz];
+
+		while (slabMeshers.size() < functions.length) {
+			slabMeshers.add(new SlabMesher());
+		}
+		List<SlabMesher> tasks = slabMeshers.subList(0, functions.length);
+		for (int i = 0; i < functions.length; i++) {
+			tasks.get(i).start(functions[i], i, functions.length, slabs);
+		}
+		run(tasks);
+		// surface leaving a slab through cubes the octree test missed
+		SlabMesher serial = tasks.get(0);
+		int seq = slabs;
+		int[] pending = takeRequests(tasks);
+		while (pending.length > 0) {
+			Arrays.sort(pending);
+			int cubesPerSlab = nx * ny * slabSize;
+			int start = 0;
+			while (start < pending.length) {
+				int slab = pending[start] / cubesPerSlab;
+				int end = start;
+				while (end < pending.length
+						&& pending[end] / cubesPerSlab == slab) {
+					end++;
+				}
+				serial.meshSlab(slab, seq++, pending, start, end);
+				start = end;
+			}
+			pending = takeRequests(tasks);
+		}
+		merge(tasks);
+		visited = null;
+
+		normals = new double[coords.length];
+		runVertexTasks(0, functions, false);
+		for (int pass = 0; pass < curvaturePasses; pass++) {
+			int oldCount = vertexCount;
+			splitCurvedTriangles();
+			if (vertexCount == oldCount) {
+				break;
+			}
+			runVertexTasks(oldCount, functions, true);
+		}
+		fixMissingNormals();
+		ImplicitSurfaceMesh mesh = new ImplicitSurfaceMesh(
+				Arrays.copyOf(coords, 3 * vertexCount),
+				Arrays.copyOf(normals, 3 * vertexCount), vertexCount,
+				Arrays.copyOf(triangles, 3 * triangleCount), triangleCount);
+		coords = null;
+		normals = null;
+		triangles = null;
+		splitEdges = null;
+		return mesh;
+	}
+
+	private int coarse(double c1, double c2, double scale) {
+		int pixels = (int) Math.ceil(Math.abs(c2 - c1) * scale);
+		return Math.max(1, Math.min(maxSubDiv, pixels / AVE_PXL + 1));
+	}
+
+	private void run(List<? extends Runnable> tasks) {
+		ParallelExecutor executor = getExecutor();
+		if (executor == null || tasks.size() < 2) {
+			ParallelExecutor.runSerially(tasks);
+		} else {
+			executor.invokeAll(tasks);
+		}
+	}
+
+	/**
+	 * @return cubes that should be examined because the surface crosses into
+	 *         them from a neighbouring slab
+	 */
+	private int[] takeRequests(List<SlabMesher> tasks) {
+		int count = 0;
+		for (SlabMesher task : tasks) {
+			count += task.requestCount;
+		}
+		int[] pending = new int[count];
+		count = 0;
+		for (SlabMesher task : tasks) {
+			for (int i = 0; i < task.requestCount; i++) {
+				if (!visited[task.requests[i]]) {
+					pending[count++] = task.requests[i];
+				}
+			}
+			task.requestCount = 0;
+		}
+		return Arrays.copyOf(pending, count);
+	}
+
+	/**
+	 * Joins the slabs in slab order; vertices on the boundary of two slabs
+	 * are created by both, the first one is kept.
+	 */
+	private void merge(List<SlabMesher> tasks) {
+		ArrayList<Run> runs = new ArrayList<>();
+		int maxVertices = 0;
+		int maxTriangles = 0;
+		for (SlabMesher task : tasks) {
+			runs.addAll(task.runs);
+			maxVertices += task.vertexCount;
+			maxTriangles += task.triangleCount;
+			if (task.global == null
+					|| task.global.length < task.vertexCount) {
+				task.global = new int[task.vertexCount];
+			}
+		}
+		Collections.sort(runs, (a, b) -> Integer.compare(a.seq, b.seq));
+		int mask = 1;
+		while (mask < 2 * maxVertices) {
+			mask = 2 * mask + 1;
+		}
+		int[] keys = new int[mask + 1];
+		int[] indices = new int[mask + 1];
+		Arrays.fill(keys, -1);
+		coords = new double[3 * Math.max(1, maxVertices)];
+		triangles = new int[3 * Math.max(1, maxTriangles)];
+		vertexCount = 0;
+		triangleCount = 0;
+		for (Run run : runs) {
+			SlabMesher task = run.mesher;
+			for (int v = run.vertexStart; v < run.vertexEnd; v++) {
+				int key = task.vertexEdge[v];
+				int slot = (key ^ (key >>> 15)) & mask;
+				while (keys[slot] != -1 && keys[slot] != key) {
+					slot = (slot + 1) & mask;
+				}
+				if (keys[slot] == -1) {
+					keys[slot] = key;
+					indices[slot] = vertexCount;
+					System.arraycopy(task.coords, 3 * v, coords,
+							3 * vertexCount, 3);
+					vertexCount++;
+				}
+				task.global[v] = indices[slot];
+			}
+			for (int t = run.triangleStart; t < run.triangleEnd; t++) {
+				addTriangle(task.global[task.triangles[3 * t]],
+						task.global[task.triangles[3 * t + 1]],
+						task.global[task.triangles[3 * t + 2]]);
+			}
+		}
+	}
+
+	private void addTriangle(int a, int b, int c) {
+		if (a == b || b == c || c == a) {
+			return;
+		}
+		if (3 * triangleCount + 3 > triangles.length) {
+			triangles = Arrays.copyOf(triangles, 2 * triangles.length);
+		}
+		triangles[3 * triangleCount] = a;
+		triangles[3 * triangleCount + 1] = b;
+		triangles[3 * triangleCount + 2] = c;
+		triangleCount++;
+	}
+
+	private int addVertex(double x, double y, double z) {
+		if (3 * vertexCount + 3 > coords.length) {
+			coords = Arrays.copyOf(coords, 2 * coords.length);
+			normals = Arrays.copyOf(normals, 2 * normals.length);
+		}
+		coords[3 * vertexCount] = x;
+		coords[3 * vertexCount + 1] = y;
+		coords[3 * vertexCount + 2] = z;
+		return vertexCount++;
+	}
+
+	/**
+	 * Splits edges whose end normals differ too much; a triangle with one,
+	 * two or three split edges is replaced by two, three or four triangles,
+	 * so the mesh stays conforming. New vertices are placed at the edge
+	 * midpoints and projected later.
+	 */
+	private void splitCurvedTriangles() {
+		// edges as adjacency lists of their smaller end
+		int[] first = new int[vertexCount + 1];
+		for (int i = 0; i < 3 * triangleCount; i++) {
+			first[Math.min(triangles[i], triangles[next(i)]) + 1]++;
+		}
+		for (int v = 0; v < vertexCount; v++) {
+			first[v + 1] += first[v];
+		}
+		int[] end = Arrays.copyOf(first, vertexCount);
+		int[] other = new int[first[vertexCount]];
+		int[] midpoint = new int[other.length];
+		int oldCount = vertexCount;
+		splitEdges = new int[8];
+		for (int i = 0; i < 3 * triangleCount; i++) {
+			int a = Math.min(triangles[i], triangles[next(i)]);
+			int b = Math.max(triangles[i], triangles[next(i)]);
+			if (find(other, first[a], end[a], b) < 0) {
+				other[end[a]] = b;
+				midpoint[end[a]] = isCurved(a, b) ? split(a, b, oldCount)
+						: -1;
+				end[a]++;
+			}
+		}
+		if (vertexCount == oldCount) {
+			return;
+		}
+		int[] old = Arrays.copyOf(triangles, 3 * triangleCount);
+		int oldTriangles = triangleCount;
+		triangleCount = 0;
+		int[] v = new int[3];
+		int[] m = new int[3];
+		for (int t = 0; t < oldTriangles; t++) {
+			int marked = 0;
+			int split = 0;
+			int kept = 0;
+			for (int k = 0; k < 3; k++) {
+				v[k] = old[3 * t + k];
+			}
+			for (int k = 0; k < 3; k++) {
+				int a = Math.min(v[k], v[(k + 1) % 3]);
+				int b = Math.max(v[k], v[(k + 1) % 3]);
+				m[k] = midpoint[find(other, first[a], end[a], b)];
+				if (m[k] >= 0) {
+					marked++;
+					split = k;
+				} else {
+					kept = k;
+				}
+			}
+			splitTriangle(v, m, marked, split, kept);
+		}
+	}
+
+	private static int next(int i) {
+		return i % 3 == 2 ? i - 2 : i + 1;
+	}
+
+	private static int find(int[] other, int from, int to, int b) {
+		for (int i = from; i < to; i++) {
+			if (other[i] == b) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private boolean isCurved(int a, int b) {
+		double dot = 0;
+		double lengthA = 0;
+		double lengthB = 0;
+		for (int k = 0; k < 3; k++) {
+			dot += normals[3 * a + k] * normals[3 * b + k];
+			lengthA += normals[3 * a + k] * normals[3 * a + k];
+			lengthB += normals[3 * b + k] * normals[3 * b + k];
+		}
+		// zero normals are unknown
+		return lengthA > 0.5 && lengthB > 0.5 && dot < MIN_NORMAL_COS;
+	}
+
+	private int split(int a, int b, int oldCount) {
+		int mid = addVertex((coords[3 * a] + coords[3 * b]) / 2,
+				(coords[3 * a + 1] + coords[3 * b + 1]) / 2,
+				(coords[3 * a + 2] + coords[3 * b + 2]) / 2);
+		int i = 2 * (mid - oldCount);
+		if (i + 2 > splitEdges.length) {
+			splitEdges = Arrays.copyOf(splitEdges, 2 * splitEdges.length);
+		}
+		splitEdges[i] = a;
+		splitEdges[i + 1] = b;
+		return mid;
+	}
+
+	/**
+	 * @param v
+	 *            vertices, counter-clockwise
+	 * @param m
+	 *            midpoint of edge v[k] v[k + 1] or -1
+	 */
+	private void splitTriangle(int[] v, int[] m, int marked, int split,
+			int kept) {
+		switch (marked) {
+		case 0:
+			addTriangle(v[0], v[1], v[2]);
+			break;
+		case 1:
+			addTriangle(v[split], m[split], v[(split + 2) % 3]);
+			addTriangle(m[split], v[(split + 1) % 3], v[(split + 2) % 3]);
+			break;
+		case 2:
+			// quad a m1 m2 c and corner triangle m1 b m2
+			int a = v[(kept + 1) % 3];
+			int b = v[(kept + 2) % 3];
+			int c = v[kept];
+			int m1 = m[(kept + 1) % 3];
+			int m2 = m[(kept + 2) % 3];
+			addTriangle(m1, b, m2);
+			if (distanceSquared(a, m2) < distanceSquared(m1, c)) {
+				addTriangle(a, m1, m2);
+				addTriangle(a, m2, c);
+			} else {
+				addTriangle(a, m1, c);
+				addTriangle(m1, m2, c);
+			}
+			break;
+		default:
+			addTriangle(v[0], m[0], m[2]);
+			addTriangle(m[0], v[1], m[1]);
+			addTriangle(m[2], m[1], v[2]);
+			addTriangle(m[0], m[1], m[2]);
+		}
+	}
+
+	private double distanceSquared(int a, int b) {
+		double sum = 0;
+		for (int k = 0; k < 3; k++) {
+			double d = coords[3 * a + k] - coords[3 * b + k];
+			sum += d * d;
+		}
+		return sum;
+	}
+
+	/**
+	 * Computes normals of the vertices from index first on, in parallel;
+	 * vertices created by edge splits are projected onto the surface first.
+	 */
+	private void runVertexTasks(int first, ImplicitSurfaceFunction[] functions,
+			boolean project) {
+		int count = vertexCount - first;
+		ArrayList<VertexTask> tasks = new ArrayList<>(functions.length);
+		for (int i = 0; i < functions.length; i++) {
+			tasks.add(new VertexTask(functions[i],
+					first + (int) ((long) i * count / functions.length),
+					first + (int) ((long) (i + 1) * count / functions.length),
+					project ? first : -1));
+		}
+		run(tasks);
+	}
+
+	/**
+	 * Where the gradient is not defined (e.g. at the tip of a cone) the
+	 * normal is averaged from the adjacent triangles.
+	 */
+	private void fixMissingNormals() {
+		boolean[] missing = new boolean[vertexCount];
+		boolean any = false;
+		for (int v = 0; v < vertexCount; v++) {
+			missing[v] = normals[3 * v] == 0 && normals[3 * v + 1] == 0
+					&& normals[3 * v + 2] == 0;
+			any |= missing[v];
+		}
+		if (!any) {
+			return;
+		}
+		double[] n = new double[3];
+		for (int t = 0; t < triangleCount; t++) {
+			int a = triangles[3 * t];
+			int b = triangles[3 * t + 1];
+			int c = triangles[3 * t + 2];
+			faceNormal(a, b, c, n);
+			for (int k = 0; k < 3; k++) {
+				int vertex = triangles[3 * t + k];
+				if (missing[vertex]) {
+					for (int i = 0; i < 3; i++) {
+						normals[3 * vertex + i] += n[i];
+					}
+				}
+			}
+		}
+		for (int v = 0; v < vertexCount; v++) {
+			if (missing[v]) {
+				normalize(normals, 3 * v);
+			}
+		}
+	}
+
+	private void faceNormal(int a, int b, int c, double[] n) {
+		double ux = coords[3 * b] - coords[3 * a];
+		double uy = coords[3 * b + 1] - coords[3 * a + 1];
+		double uz = coords[3 * b + 2] - coords[3 * a + 2];
+		double vx = coords[3 * c] - coords[3 * a];
+		double vy = coords[3 * c + 1] - coords[3 * a + 1];
+		double vz = coords[3 * c + 2] - coords[3 * a + 2];
+		n[0] = uy * vz - uz * vy;
+		n[1] = uz * vx - ux * vz;
+		n[2] = ux * vy - uy * vx;
+	}
+
+	private static void normalize(double[] v, int offset) {
+		double length = Math.sqrt(v[offset] * v[offset]
+				+ v[offset + 1] * v[offset + 1]
+				+ v[offset + 2] * v[offset + 2]);
+		if (length > 0 && MyDouble.isFinite(length)) {
+			for (int k = 0; k < 3; k++) {
+				v[offset + k] /= length;
+			}
+		} else {
+			for (int k = 0; k < 3; k++) {
+				v[offset + k] = 0;
+			}
+		}
+	}
+
+	/**
+	 * @return corners of a face, counter-clockwise seen from outside the cube
+	 */
+	private static int[] faceCorners(int axis, int side) {
+		int u = 1 << ((axis + 1) % 3);
+		int v = 1 << ((axis + 2) % 3);
+		int c = side << axis;
+		return side == 1 ? new int[] { c, c | u, c | u | v, c | v }
+				: new int[] { c, c | v, c | u | v, c | u };
+	}
+
+	private static int edge(int c0, int c1) {
+		int axis = (c0 ^ c1) == 1 ? 0 : ((c0 ^ c1) == 2 ? 1 : 2);
+		int corner = Math.min(c0, c1);
+		return 4 * axis + ((corner >> ((axis + 1) % 3)) & 1)
+				+ 2 * ((corner >> ((axis + 2) % 3)) & 1);
+	}
+
+	/**
+	 * On each face the contour separates the positive corners, so that
+	 * neighbouring cubes agree on the segments of their common face (unlike
+	 * tables that use complement symmetry). The segments of all faces are
+	 * joined to closed polygons, oriented counter-clockwise seen from the
+	 * positive side.
+	 */
+	private static int[][] polygons(int config, int[][] faces) {
+		int[] nextEdge = new int[12];
+		Arrays.fill(nextEdge, -1);
+		int[] crossings = new int[4];
+		boolean[] entering = new boolean[4];
+		for (int[] face : faces) {
+			int count = 0;
+			for (int i = 0; i < 4; i++) {
+				int c0 = face[i];
+				int c1 = face[(i + 1) % 4];
+				boolean positive0 = (config & (1 << c0)) != 0;
+				boolean positive1 = (config & (1 << c1)) != 0;
+				if (positive0 != positive1) {
+					crossings[count] = edge(c0, c1);
+					entering[count] = positive1;
+					count++;
+				}
+			}
+			for (int i = 0; i < count; i++) {
+				if (entering[i]) {
+					nextEdge[crossings[(i + 1) % count]] = crossings[i];
+				}
+			}
+		}
+		ArrayList<int[]> polygons = new ArrayList<>();
+		boolean[] used = new boolean[12];
+		int[] polygon = new int[12];
+		for (int e = 0; e < 12; e++) {
+			int size = 0;
+			for (int f = e; nextEdge[f] >= 0 && !used[f]; f = nextEdge[f]) {
+				used[f] = true;
+				polygon[size++] = f;
+			}
+			if (size > 0) {
+				polygons.add(Arrays.copyOf(polygon, size));
+			}
+		}
+		return polygons.toArray(new int[0][]);
+	}
+
+	/**
+	 * Triangles and vertices of one slab (or of some cubes of it), stored in
+	 * the arrays of its mesher.
+	 */
+	private static final class Run {
+		final SlabMesher mesher;
+		final int seq;
+		final int vertexStart;
+		final int vertexEnd;
+		final int triangleStart;
+		final int triangleEnd;
+
+		Run(SlabMesher mesher, int seq, int vertexStart, int vertexEnd,
+				int triangleStart, int triangleEnd) {
+			this.mesher = mesher;
+			this.seq = seq;
+			this.vertexStart = vertexStart;
+			this.vertexEnd = vertexEnd;
+			this.triangleStart = triangleStart;
+			this.triangleEnd = triangleEnd;
+		}
+	}
+
+	/**
+	 * Meshes every n-th slab with its own copy of the function and its own
+	 * caches; cubes are only marked as visited within the own slabs.
+	 */
+	private final class SlabMesher implements Runnable {
+		private ImplicitSurfaceFunction function;
+		private int firstSlab;
+		private int slabStep;
+		private int slabs;
+
+		/** values at grid points of the current slab */
+		private double[] values;
+		private int[] valueStamp;
+		/** vertex of each grid edge of the current slab */
+		private int[] edgeVertex;
+		private int[] edgeStamp;
+		private int stamp;
+		/** first z-index of the current slab */
+		private int kBase;
+
+		private double[] coords = new double[3 * 64];
+		/** global grid edge of each vertex */
+		private int[] vertexEdge = new int[64];
+		private int vertexCount;
+		private int[] triangles = new int[3 * 64];
+		private int triangleCount;
+		/** cubes of other slabs the surface crosses into */
+		private int[] requests = new int[16];
+		private int requestCount;
+		private int[] stack = new int[64];
+		private int stackSize;
+		private final ArrayList<Run> runs = new ArrayList<>();
+		/** index of each vertex in the merged mesh */
+		private int[] global;
+		private final int[] polygon = new int[12];
+
+		void start(ImplicitSurfaceFunction f, int first, int step,
+				int slabCount) {
+			this.function = f;
+			this.firstSlab = first;
+			this.slabStep = step;
+			this.slabs = slabCount;
+			int points = (slabSize + 1) * (nx + 1) * (ny + 1);
+			if (values == null || values.length < points) {
+				values = new double[points];
+				valueStamp = new int[points];
+				edgeVertex = new int[3 * points];
+				edgeStamp = new int[3 * points];
+				stamp = 0;
+			}
+			vertexCount = 0;
+			triangleCount = 0;
+			requestCount = 0;
+			runs.clear();
+		}
+
+		@Override
+		public void run() {
+			for (int slab = firstSlab; slab < slabs; slab += slabStep) {
+				meshSlab(slab, slab, null, 0, 0);
+			}
+		}
+
+		/**
+		 * @param slab
+		 *            slab index
+		 * @param seq
+		 *            order of the result in the mesh
+		 * @param seeds
+		 *            cubes to start from, null to search the whole slab
+		 * @param from
+		 *            first seed
+		 * @param to
+		 *            end of seeds
+		 */
+		void meshSlab(int slab, int seq, int[] seeds, int from, int to) {
+			stamp++;
+			kBase = slab * slabSize;
+			int vertexStart = vertexCount;
+			int triangleStart = triangleCount;
+			if (seeds == null) {
+				for (int j = 0; j < ny; j += slabSize) {
+					for (int i = 0; i < nx; i += slabSize) {
+						refine(i, j, 0, slabSize);
+					}
+				}
+			} else {
+				for (int s = from; s < to; s++) {
+					push(seeds[s]);
+				}
+			}
+			while (stackSize > 0) {
+				polygonise(stack[--stackSize]);
+			}
+			runs.add(new Run(this, seq, vertexStart, vertexCount,
+					triangleStart, triangleCount));
+		}
+
+		/**
+		 * Subdivides the cube unless the values at its corners and center
+		 * show that it is far from the zero set: that is if they all have
+		 * the same sign and their variation is smaller than the smallest
+		 * absolute value.
+		 */
+		private void refine(int i, int j, int k, int size) {
+			if (size == 1) {
+				push((((kBase + k) * ny) + j) * nx + i);
+				return;
+			}
+			int half = size / 2;
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			double minAbs = Double.POSITIVE_INFINITY;
+			boolean positive = false;
+			boolean negative = false;
+			boolean invalid = false;
+			for (int c = 0; c < 9; c++) {
+				double v = c == 8 ? value(i + half, j + half, k + half)
+						: value(i + (c & 1) * size, j + ((c >> 1) & 1) * size,
+								k + (c >> 2) * size);
+				if (!MyDouble.isFinite(v)) {
+					invalid = true;
+					continue;
+				}
+				positive |= v > 0;
+				negative |= v <= 0;
+				min = Math.min(min, v);
+				max = Math.max(max, v);
+				minAbs = Math.min(minAbs, Math.abs(v));
+			}
+			if (!positive && !negative) {
+				return;
+			}
+			if (invalid || (positive && negative) || minAbs <= max - min) {
+				for (int c = 0; c < 8; c++) {
+					refine(i + (c & 1) * half, j + ((c >> 1) & 1) * half,
+							k + (c >> 2) * half, half);
+				}
+			}
+		}
+
+		private void push(int cube) {
+			if (visited[cube]) {
+				return;
+			}
+			visited[cube] = true;
+			if (stackSize == stack.length) {
+				stack = Arrays.copyOf(stack, 2 * stack.length);
+			}
+			stack[stackSize++] = cube;
+		}
+
+		private void polygonise(int cube) {
+			int i = cube % nx;
+			int j = (cube / nx) % ny;
+			int k = cube / (nx * ny) - kBase;
+			int config = 0;
+			for (int c = 0; c < 8; c++) {
+				double v = value(i + (c & 1), j + ((c >> 1) & 1),
+						k + (c >> 2));
+				if (!MyDouble.isFinite(v)) {
+					return;
+				}
+				if (v > 0) {
+					config |= 1 << c;
+				}
+			}
+			for (int[] edges : POLYGONS[config]) {
+				int size = 0;
+				for (int m = 0; m < edges.length; m++) {
+					int v = vertex(i, j, k, edges[m]);
+					if (size == 0 || polygon[size - 1] != v) {
+						polygon[size++] = v;
+					}
+				}
+				if (size > 1 && polygon[size - 1] == polygon[0]) {
+					size--;
+				}
+				if (size > 2) {
+					triangulate(size);
+				}
+			}
+			for (int f = 0; f < 6; f++) {
+				int corners = config & FACE_MASK[f];
+				if (corners != 0 && corners != FACE_MASK[f]) {
+					int step = 2 * (f % 2) - 1;
+					int axis = f / 2;
+					neighbour(i + (axis == 0 ? step : 0),
+							j + (axis == 1 ? step : 0),
+							k + (axis == 2 ? step : 0));
+				}
+			}
+		}
+
+		private void neighbour(int i, int j, int k) {
+			if (i < 0 || j < 0 || i >= nx || j >= ny || kBase + k < 0
+					|| kBase + k >= nz) {
+				return;
+			}
+			int cube = ((kBase + k) * ny + j) * nx + i;
+			if (k >= 0 && k < slabSize) {
+				push(cube);
+				return;
+			}
+			// other slabs may be running, checked after they finished
+			if (requestCount == requests.length) {
+				requests = Arrays.copyOf(requests, 2 * requests.length);
+			}
+			requests[requestCount++] = cube;
+		}
+
+		private double value(int i, int j, int k) {
+			int p = (k * (ny + 1) + j) * (nx + 1) + i;
+			if (valueStamp[p] != stamp) {
+				valueStamp[p] = stamp;
+				values[p] = function.evaluate(x0 + i * dx, y0 + j * dy,
+						z0 + (kBase + k) * dz);
+			}
+			return values[p];
+		}
+
+		/**
+		 * @return vertex on the given edge of cube (i, j, k), interpolated
+		 *         linearly between the corner values; zeros at grid points
+		 *         are shared by all edges of the point
+		 */
+		private int vertex(int i, int j, int k, int e) {
+			int axis = EDGE_AXIS[e];
+			int pi = i + (EDGE_CORNER[e] & 1);
+			int pj = j + ((EDGE_CORNER[e] >> 1) & 1);
+			int pk = k + (EDGE_CORNER[e] >> 2);
+			int qi = pi + (axis == 0 ? 1 : 0);
+			int qj = pj + (axis == 1 ? 1 : 0);
+			int qk = pk + (axis == 2 ? 1 : 0);
+			double fa = value(pi, pj, pk);
+			double fb = value(qi, qj, qk);
+			double t = fa / (fa - fb);
+			if (fa == 0 || fb == 0) {
+				// store as start of the x-edge of the grid point
+				if (fb == 0) {
+					pi = qi;
+					pj = qj;
+					pk = qk;
+				}
+				axis = 0;
+				t = 0;
+			}
+			int key = 3 * ((pk * (ny + 1) + pj) * (nx + 1) + pi) + axis;
+			if (edgeStamp[key] == stamp) {
+				return edgeVertex[key];
+			}
+			if (3 * vertexCount + 3 > coords.length) {
+				coords = Arrays.copyOf(coords, 2 * coords.length);
+				vertexEdge = Arrays.copyOf(vertexEdge, 2 * vertexEdge.length);
+			}
+			coords[3 * vertexCount] = x0 + (pi + (axis == 0 ? t : 0)) * dx;
+			coords[3 * vertexCount + 1] = y0
+					+ (pj + (axis == 1 ? t : 0)) * dy;
+			coords[3 * vertexCount + 2] = z0
+					+ (kBase + pk + (axis == 2 ? t : 0)) * dz;
+			vertexEdge[vertexCount] = 3
+					* (((kBase + pk) * (ny + 1) + pj) * (nx + 1) + pi) + axis;
+			edgeStamp[key] = stamp;
+			edgeVertex[key] = vertexCount;
+			return vertexCount++;
+		}
+
+		/**
+		 * Triangulates the polygon by cutting off the corner with the
+		 * shortest diagonal until a triangle is left.
+		 */
+		private void triangulate(int size) {
+			int n = size;
+			while (n > 3) {
+				int best = 0;
+				double bestLength = Double.POSITIVE_INFINITY;
+				for (int m = 0; m < n; m++) {
+					double length = distanceSquared(polygon[(m + n - 1) % n],
+							polygon[(m + 1) % n]);
+					if (length < bestLength) {
+						bestLength = length;
+						best = m;
+					}
+				}
+				addTriangle(polygon[(best + n - 1) % n], polygon[best],
+						polygon[(best + 1) % n]);
+				System.arraycopy(polygon, best + 1, polygon, best,
+						n - best - 1);
+				n--;
+			}
+			addTriangle(polygon[0], polygon[1], polygon[2]);
+		}
+
+		private double distanceSquared(int a, int b) {
+			double sum = 0;
+			for (int k = 0; k < 3; k++) {
+				double d = coords[3 * a + k] - coords[3 * b + k];
+				sum += d * d;
+			}
+			return sum;
+		}
+
+		private void addTriangle(int a, int b, int c) {
+			if (3 * triangleCount + 3 > triangles.length) {
+				triangles = Arrays.copyOf(triangles, 2 * triangles.length);
+			}
+			triangles[3 * triangleCount] = a;
+			triangles[3 * triangleCount + 1] = b;
+			triangles[3 * triangleCount + 2] = c;
+			triangleCount++;
+		}
+	}
+
+	/**
+	 * Computes normals from the gradient of the function for a range of
+	 * vertices; vertices created by edge splits are first moved onto the
+	 * surface by Newton steps along the gradient.
+	 */
+	private final class VertexTask implements Runnable {
+		private final ImplicitSurfaceFunction function;
+		private final int from;
+		private final int to;
+		/** first split vertex, -1 if there are no vertices to project */
+		private final int firstSplit;
+		private final double[] gradient = new double[3];
+
+		VertexTask(ImplicitSurfaceFunction function, int from, int to,
+				int firstSplit) {
+			this.function = function;
+			this.from = from;
+			this.to = to;
+			this.firstSplit = firstSplit;
+		}
+
+		@Override
+		public void run() {
+			for (int v = from; v < to; v++) {
+				if (firstSplit >= 0) {
+					project(v);
+				}
+				if (gradient(coords[3 * v], coords[3 * v + 1],
+						coords[3 * v + 2])) {
+					System.arraycopy(gradient, 0, normals, 3 * v, 3);
+					normalize(normals, 3 * v);
+				} else {
+					Arrays.fill(normals, 3 * v, 3 * v + 3, 0);
+				}
+			}
+		}
+
+		/**
+		 * Moves the midpoint of a split edge onto the surface, unless that
+		 * would move it by more than half of the edge length.
+		 */
+		private void project(int v) {
+			int i = 2 * (v - firstSplit);
+			double maxDistance = distanceSquared(splitEdges[i],
+					splitEdges[i + 1]) / 4;
+			double x = coords[3 * v];
+			double y = coords[3 * v + 1];
+			double z = coords[3 * v + 2];
+			for (int step = 0; step < NEWTON_STEPS; step++) {
+				double value = function.evaluate(x, y, z);
+				if (!MyDouble.isFinite(value) || !gradient(x, y, z)) {
+					break;
+				}
+				double t = value / (gradient[0] * gradient[0]
+						+ gradient[1] * gradient[1]
+						+ gradient[2] * gradient[2]);
+				double nx1 = x - t * gradient[0];
+				double ny1 = y - t * gradient[1];
+				double nz1 = z - t * gradient[2];
+				double ex = nx1 - coords[3 * v];
+				double ey = ny1 - coords[3 * v + 1];
+				double ez = nz1 - coords[3 * v + 2];
+				if (!(ex * ex + ey * ey + ez * ez <= maxDistance)) {
+					break;
+				}
+				x = nx1;
+				y = ny1;
+				z = nz1;
+			}
+			coords[3 * v] = x;
+			coords[3 * v + 1] = y;
+			coords[3 * v + 2] = z;
+		}
+
+		/**
+		 * @return whether the gradient (by central differences) is finite
+		 *         and not zero
+		 */
+		private boolean gradient(double x, double y, double z) {
+			double h = gradientStep;
+			gradient[0] = (function.evaluate(x + h, y, z)
+					- function.evaluate(x - h, y, z)) / (2 * h);
+			gradient[1] = (function.evaluate(x, y + h, z)
+					- function.evaluate(x, y - h, z)) / (2 * h);
+			gradient[2] = (function.evaluate(x, y, z + h)
+					- function.evaluate(x, y, z - h)) / (2 * h);
+			double length = gradient[0] * gradient[0]
+					+ gradient[1] * gradient[1] + gradient[2] * gradient[2];
+			return length > 0 && MyDouble.isFinite(length);
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package org.geogebra.common.geogebra3D.kernel3D.implicit3D;
+
+/**
+ * Function whose zero set is plotted; implementations don't need to be thread
+ * safe, each thread gets its own instance.
+ */
+interface ImplicitSurfaceFunction {
+
+	/**
+	 * @param x
+	 *            x-coordinate
+	 * @param y
+	 *            y-coordinate
+	 * @param z
+	 *            z-coordinate
+	 * @return value at (x, y, z)
+	 */
+	double evaluate(double x, double y, double z);
+}
@@ -0,0 +1,75 @@
+package org.geogebra.common.geogebra3D.kernel3D.implicit3D;
+
+/**
+ * Indexed triangle mesh: each vertex is stored once with its normal, each
+ * triangle as three vertex indices (counter-clockwise seen from the side the
+ * normals point to).
+ */
+public final class ImplicitSurfaceMesh {
+
+	/** mesh without triangles */
+	public static final ImplicitSurfaceMesh EMPTY = new ImplicitSurfaceMesh(
+			new double[0], new double[0], 0, new int[0], 0);
+
+	private final double[] vertices;
+	private final double[] normals;
+	private final int vertexCount;
+	private final int[] indices;
+	private final int triangleCount;
+
+	/**
+	 * @param vertices
+	 *            vertex coordinates (x, y, z) * vertexCount
+	 * @param normals
+	 *            unit normals (x, y, z) * vertexCount
+	 * @param vertexCount
+	 *            number of vertices
+	 * @param indices
+	 *            vertex indices, 3 * triangleCount
+	 * @param triangleCount
+	 *            number of triangles
+	 */
+	ImplicitSurfaceMesh(double[] vertices, double[] normals, int vertexCount,
+			int[] indices, int triangleCount) {
+		this.vertices = vertices;
+		this.normals = normals;
+		this.vertexCount = vertexCount;
+		this.indices = indices;
+		this.triangleCount = triangleCount;
+	}
+
+	/**
+	 * @return number of vertices
+	 */
+	public int getVertexCount() {
+		return vertexCount;
+	}
+
+	/**
+	 * @return number of triangles
+	 */
+	public int getTriangleCount() {
+		return triangleCount;
+	}
+
+	/**
+	 * @return vertex coordinates, x, y and z of vertex i at 3 * i
+	 */
+	public double[] getVertices() {
+		return vertices;
+	}
+
+	/**
+	 * @return unit normals, stored like the vertices
+	 */
+	public double[] getNormals() {
+		return normals;
+	}
+
+	/**
+	 * @return vertex indices of triangle t at 3 * t
+	 */
+	public int[] getIndices() {
+		return indices;
+	}
+}
@@ -0,0 +1,123 @@
+package org.geogebra.common.gui.view.spreadsheet;
+
+import java.util.HashMap;
+
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.arithmetic.Traversing.VariableCopier;
+import org.geogebra.common.kernel.arithmetic.ValidExpression;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.kernelND.GeoElementND;
+import org.geogebra.common.main.App;
+
+/**
+ * Creates many spreadsheet cells as one operation: views other than the
+ * spreadsheet model are told about new cells once at the end, rename
+ * listeners and cell ranges are updated once and relative copies of the
+ * same source reuse its parsed definition. Callers store the undo point.
+ *
+ * Usage: {@link #start()}, create cells, {@link #end()} (in a finally
+ * block).
+ */
+public class CellBatch {
+
+	private final App app;
+	private final Kernel kernel;
+	private final HashMap<GeoElement, ValidExpression> templates = new HashMap<>();
+	private final VariableCopier variableCopier;
+	private boolean oldBatchRunning;
+	private boolean running;
+
+	/**
+	 * @param app
+	 *            application
+	 */
+	public CellBatch(App app) {
+		this.app = app;
+		this.kernel = app.getKernel();
+		variableCopier = new VariableCopier(kernel);
+	}
+
+	/**
+	 * Starts the batch.
+	 */
+	public void start() {
+		if (running) {
+			return;
+		}
+		running = true;
+		oldBatchRunning = kernel.isSpreadsheetBatchRunning();
+		kernel.setSpreadsheetBatchRunning(true);
+		kernel.startDeferringAdd();
+		kernel.getConstruction().getSpreadsheetCells().startDeferringUpdates();
+	}
+
+	/**
+	 * Ends the batch and announces the new cells.
+	 */
+	public void end() {
+		if (!running) {
+			return;
+		}
+		running = false;
+		templates.clear();
+		kernel.getConstruction().getSpreadsheetCells().endDeferringUpdates();
+		kernel.endDeferringAdd();
+		if (!oldBatchRunning) {
+			kernel.setSpreadsheetBatchRunning(false);
+		}
+		app.repaintSpreadsheet();
+	}
+
+	/**
+	 * Relative copy of a cell, see
+	 * {@link RelativeCopy#doCopyNoStoringUndoInfo0(Kernel, App, GeoElement, GeoElementND, int, int, int, int)}
+	 * . The source must not change during the batch.
+	 *
+	 * @param value
+	 *            copied value
+	 * @param oldValue
+	 *            overwritten value
+	 * @param dx
+	 *            column difference
+	 * @param dy
+	 *            row difference
+	 * @param rowStart
+	 *            first row
+	 * @param columnStart
+	 *            first column
+	 * @return element copy
+	 * @throws Exception
+	 *             on parse problem, circular reference
+	 */
+	public GeoElementND copyRelative(GeoElement value, GeoElementND oldValue,
+			int dx, int dy, int rowStart, int columnStart) throws Exception {
+		return RelativeCopy.doCopyNoStoringUndoInfo0(kernel, app, value,
+				oldValue, dx, dy, rowStart, columnStart, this);
+	}
+
+	/**
+	 * @param source
+	 *            copied cell
+	 * @return copy of the parsed definition of the source, null if not
+	 *         parsed yet
+	 */
+	ValidExpression getTemplate(GeoElement source) {
+		ValidExpression template = templates.get(source);
+		return template == null ? null : copy(template);
+	}
+
+	/**
+	 * @param source
+	 *            copied cell
+	 * @param template
+	 *            parsed definition, a copy is stored
+	 */
+	void putTemplate(GeoElement source, ValidExpression template) {
+		templates.put(source, copy(template));
+	}
+
+	private ValidExpression copy(ValidExpression exp) {
+		// deepCopy shares variables, cell references are renamed in place
+		return (ValidExpression) exp.deepCopy(kernel).traverse(variableCopier);
+	}
+}
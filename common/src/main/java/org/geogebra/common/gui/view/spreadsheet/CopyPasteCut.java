@@ -417,11 +417,18 @@ public abstract class CopyPasteCut {
 		}
 
 		// paste data multiple times to fill in the selection rectangle (and
-		// maybe overflow a bit)
-		for (int c = column1; c <= column2; c += columnStep) {
-			for (int r = row1; r <= row2; r += rowStep) {
-				succ = succ && pasteExternal(data, c, r, maxColumn, maxRow);
+		// maybe overflow a bit); callers store the undo point
+		CellBatch batch = new CellBatch(app);
+		batch.start();
+		try {
+			for (int c = column1; c <= column2; c += columnStep) {
+				for (int r = row1; r <= row2; r += rowStep) {
+					succ = succ
+							&& pasteExternal(data, c, r, maxColumn, maxRow);
+				}
 			}
+		} finally {
+			batch.end();
 		}
 
 		app.getSettings().getSpreadsheet().setEqualsRequired(oldEqualsSetting);
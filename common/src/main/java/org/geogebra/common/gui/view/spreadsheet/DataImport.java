@@ -184,7 +184,7 @@ public class DataImport {
 	 * if the given string is a number that Geogebra's parser recognizes. If
 	 * cannot be parsed to a number, then the original string is returned.
 	 */
-	private static String adjustNumberString(String s) {
+	static String adjustNumberString(String s) {
 
 		if (s == null || "".equals(s)) {
 			return s;
@@ -214,4 +214,165 @@ public class DataImport {
 		return s;
 
 	}
+
+	/**
+	 * Same as adjustNumberString followed by parsing, but without creating
+	 * strings. Only handles plain decimal numbers with optional exponent.
+	 *
+	 * @param text
+	 *            buffer
+	 * @param start
+	 *            start of the (trimmed) number
+	 * @param length
+	 *            length of the number
+	 * @return value or NaN if the text is not a plain number
+	 */
+	static double parseNumber(char[] text, int start, int length) {
+		int end = start + length;
+		int i = start;
+		boolean negative = false;
+		if (i < end && (text[i] == '-' || text[i] == '+')) {
+			negative = text[i] == '-';
+			i++;
+		}
+		boolean grouped = isGroupedNumber(text, i, end);
+		long mantissa = 0;
+		int digits = 0;
+		int scale = 0;
+		boolean decimalPoint = false;
+		boolean exact = true;
+		for (; i < end; i++) {
+			char c = text[i];
+			if (c >= '0' && c <= '9') {
+				if (mantissa == 0 && c == '0') {
+					// leading zeros are not significant
+				} else if (digits < 15) {
+					mantissa = 10 * mantissa + (c - '0');
+					digits++;
+				} else {
+					exact = false;
+				}
+				if (decimalPoint) {
+					scale--;
+				}
+			} else if (c == ',' && grouped) {
+				continue;
+			} else if ((c == '.' || c == ',') && !decimalPoint) {
+				decimalPoint = true;
+			} else {
+				break;
+			}
+		}
+		int mantissaEnd = i;
+		if (!hasDigit(text, start, mantissaEnd)) {
+			return Double.NaN;
+		}
+		int exponent = 0;
+		if (i < end) {
+			if (text[i] != 'E' || grouped) {
+				return Double.NaN;
+			}
+			i++;
+			boolean negativeExponent = false;
+			if (i < end && (text[i] == '-' || text[i] == '+')) {
+				negativeExponent = text[i] == '-';
+				i++;
+			}
+			if (i == end) {
+				return Double.NaN;
+			}
+			for (; i < end; i++) {
+				char c = text[i];
+				if (c < '0' || c > '9') {
+					return Double.NaN;
+				}
+				exponent = Math.min(10 * exponent + (c - '0'), 100000);
+			}
+			if (negativeExponent) {
+				exponent = -exponent;
+			}
+		}
+		if (!exact) {
+			return parseDouble(text, start, mantissaEnd, exponent);
+		}
+		int power = scale + exponent;
+		double value = mantissa;
+		// mantissa and powers of ten up to 22 are exact, so the result is
+		// correctly rounded
+		if (power == 0 || mantissa == 0) {
+			// keep value
+		} else if (power > 0 && power <= 22) {
+			value *= POWERS_OF_TEN[power];
+		} else if (power < 0 && power >= -22) {
+			value /= POWERS_OF_TEN[-power];
+		} else {
+			return parseDouble(text, start, mantissaEnd, exponent);
+		}
+		return negative ? -value : value;
+	}
+
+	private static final double[] POWERS_OF_TEN = { 1E0, 1E1, 1E2, 1E3, 1E4,
+			1E5, 1E6, 1E7, 1E8, 1E9, 1E10, 1E11, 1E12, 1E13, 1E14, 1E15, 1E16,
+			1E17, 1E18, 1E19, 1E20, 1E21, 1E22 };
+
+	private static boolean hasDigit(char[] text, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (text[i] >= '0' && text[i] <= '9') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Same as the regex for thousands separators (sign already skipped).
+	 */
+	private static boolean isGroupedNumber(char[] text, int start, int end) {
+		int i = start;
+		while (i < end && i - start < 3 && text[i] >= '0' && text[i] <= '9') {
+			i++;
+		}
+		if (i == start) {
+			return false;
+		}
+		int groups = 0;
+		while (i < end) {
+			if (text[i] != ',' || i + 4 > end) {
+				return false;
+			}
+			for (int k = i + 1; k < i + 4; k++) {
+				if (text[k] < '0' || text[k] > '9') {
+					return false;
+				}
+			}
+			i += 4;
+			groups++;
+		}
+		return groups > 0;
+	}
+
+	/**
+	 * Slow path for long mantissas and large exponents.
+	 */
+	private static double parseDouble(char[] text, int start, int mantissaEnd,
+			int exponent) {
+		StringBuilder sb = new StringBuilder(mantissaEnd - start + 8);
+		for (int i = start; i < mantissaEnd; i++) {
+			char c = text[i];
+			if (c >= '0' && c <= '9' || c == '-' || c == '.') {
+				sb.append(c);
+			} else if (c == ',' && !isGroupedNumber(text,
+					text[start] == '-' || text[start] == '+' ? start + 1
+							: start,
+					mantissaEnd)) {
+				sb.append('.');
+			}
+		}
+		sb.append('E').append(exponent);
+		try {
+			return Double.parseDouble(sb.toString());
+		} catch (NumberFormatException e) {
+			return Double.NaN;
+		}
+	}
 }
@@ -0,0 +1,245 @@
+package org.geogebra.common.gui.view.spreadsheet;
+
+/**
+ * Splits comma or tab separated data into cells. The input may be passed in
+ * chunks of any size; cells and quoted sections may span chunks. Cell text is
+ * passed to the handler as a range of an internal buffer, no strings are
+ * created.
+ *
+ * Quoting follows the CSV conventions used by {@link DataImport}: a cell
+ * starting with a quote ends at the next single quote, doubled quotes and
+ * backslash-escaped quotes or backslashes stand for the character itself, and
+ * line breaks in quoted cells are kept.
+ */
+public class DataImportTokenizer {
+
+	private static final char QUOTE = '"';
+	private static final char ESCAPE = '\\';
+
+	private static final int UNQUOTED = 0;
+	private static final int QUOTED = 1;
+	/** quote found in quoted cell, either closing or doubled */
+	private static final int QUOTE_IN_QUOTED = 2;
+	/** escape character found in quoted cell */
+	private static final int ESCAPE_IN_QUOTED = 3;
+
+	private final CellHandler handler;
+	private char separator;
+	private int state = UNQUOTED;
+	private boolean afterCR;
+	private boolean rowHasContent;
+	private char[] cell = new char[64];
+	private int cellLength;
+	private int row;
+	private int column;
+	private long charsRead;
+	private boolean stopped;
+
+	/**
+	 * Receives the cells of the data.
+	 */
+	public interface CellHandler {
+		/**
+		 * Called for each cell, including empty cells between separators.
+		 *
+		 * @param row
+		 *            row index, starting at 0
+		 * @param column
+		 *            column index, starting at 0
+		 * @param text
+		 *            buffer with the cell text, only valid during the call
+		 * @param start
+		 *            offset of the text
+		 * @param length
+		 *            length of the text
+		 */
+		void cell(int row, int column, char[] text, int start, int length);
+
+		/**
+		 * Called at the end of each row, including empty lines.
+		 *
+		 * @param row
+		 *            row index
+		 * @param columns
+		 *            number of cells in the row
+		 * @return false to stop the tokenizer
+		 */
+		boolean endRow(int row, int columns);
+	}
+
+	/**
+	 * @param handler
+	 *            cell handler
+	 */
+	public DataImportTokenizer(CellHandler handler) {
+		this.handler = handler;
+	}
+
+	/**
+	 * Sets the separator; if not set, tab is used if the first chunk contains
+	 * a tab, comma otherwise.
+	 *
+	 * @param separator
+	 *            cell separator
+	 */
+	public void setSeparator(char separator) {
+		this.separator = separator;
+	}
+
+	/**
+	 * Tokenizes the next chunk of the input.
+	 *
+	 * @param chars
+	 *            input buffer
+	 * @param offset
+	 *            start of the chunk
+	 * @param length
+	 *            length of the chunk
+	 * @return false if the handler stopped the tokenizer
+	 */
+	public boolean feed(char[] chars, int offset, int length) {
+		if (separator == 0) {
+			separator = ',';
+			for (int i = offset; i < offset + length; i++) {
+				if (chars[i] == '\t') {
+					separator = '\t';
+					break;
+				}
+			}
+		}
+		int end = offset + length;
+		for (int i = offset; i < end && !stopped; i++) {
+			char c = chars[i];
+			charsRead++;
+			if (afterCR) {
+				afterCR = false;
+				if (c == '\n' && state == UNQUOTED) {
+					// second half of CRLF
+					continue;
+				}
+			}
+			switch (state) {
+			case QUOTED:
+				if (c == QUOTE) {
+					state = QUOTE_IN_QUOTED;
+				} else if (c == ESCAPE) {
+					state = ESCAPE_IN_QUOTED;
+				} else {
+					append(c);
+				}
+				break;
+			case ESCAPE_IN_QUOTED:
+				state = QUOTED;
+				if (c == QUOTE || c == ESCAPE) {
+					append(c);
+				} else {
+					// not an escape sequence, process c again
+					append(ESCAPE);
+					i--;
+					charsRead--;
+				}
+				break;
+			case QUOTE_IN_QUOTED:
+				if (c == QUOTE) {
+					append(c);
+					state = QUOTED;
+				} else {
+					// closing quote, process c again
+					state = UNQUOTED;
+					i--;
+					charsRead--;
+				}
+				break;
+			default:
+				unquoted(c);
+			}
+		}
+		return !stopped;
+	}
+
+	private void unquoted(char c) {
+		if (c == separator) {
+			endCell();
+		} else if (c == '\n' || c == '\r') {
+			afterCR = c == '\r';
+			endRow();
+		} else if (c == QUOTE && isBlank()) {
+			// leading white space before quote is dropped
+			cellLength = 0;
+			rowHasContent = true;
+			state = QUOTED;
+		} else {
+			append(c);
+		}
+	}
+
+	private boolean isBlank() {
+		for (int i = 0; i < cellLength; i++) {
+			if (cell[i] != ' ' && cell[i] != '\t') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void append(char c) {
+		if (cellLength == cell.length) {
+			char[] newCell = new char[2 * cell.length];
+			System.arraycopy(cell, 0, newCell, 0, cellLength);
+			cell = newCell;
+		}
+		cell[cellLength++] = c;
+		rowHasContent = true;
+	}
+
+	private void endCell() {
+		handler.cell(row, column, cell, 0, cellLength);
+		column++;
+		cellLength = 0;
+		rowHasContent = true;
+	}
+
+	private void endRow() {
+		if (rowHasContent) {
+			endCell();
+		}
+		if (!handler.endRow(row, column)) {
+			stopped = true;
+		}
+		row++;
+		column = 0;
+		rowHasContent = false;
+	}
+
+	/**
+	 * Handles the rest of the input after the last chunk; an unterminated
+	 * quoted cell ends here.
+	 */
+	public void finish() {
+		if (stopped) {
+			return;
+		}
+		if (state == ESCAPE_IN_QUOTED) {
+			append(ESCAPE);
+		}
+		state = UNQUOTED;
+		// no extra row for a line break at the end of input
+		if (rowHasContent) {
+			endRow();
+		}
+	}
+
+	/**
+	 * @return number of rows completed so far
+	 */
+	public int getRowCount() {
+		return row;
+	}
+
+	/**
+	 * @return number of characters processed so far
+	 */
+	public long getCharsRead() {
+		return charsRead;
+	}
+}
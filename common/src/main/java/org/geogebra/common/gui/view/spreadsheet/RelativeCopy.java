@@ -13,6 +13,7 @@ import org.geogebra.common.kernel.StringTemplate;
 import org.geogebra.common.kernel.arithmetic.Traversing;
 import org.geogebra.common.kernel.arithmetic.Traversing.SpreadsheetVariableRenamer;
 import org.geogebra.common.kernel.arithmetic.ValidExpression;
+import org.geogebra.common.kernel.commands.AlgebraProcessor;
 import org.geogebra.common.kernel.commands.EvalInfo;
 import org.geogebra.common.kernel.geos.GeoBoolean;
 import org.geogebra.common.kernel.geos.GeoElement;
@@ -26,6 +27,7 @@ import org.geogebra.common.kernel.geos.LabelManager;
 import org.geogebra.common.kernel.kernelND.GeoElementND;
 import org.geogebra.common.kernel.kernelND.GeoPointND;
 import org.geogebra.common.main.App;
+import org.geogebra.common.main.MyError;
 import org.geogebra.common.main.MyError.Errors;
 import org.geogebra.common.main.SpreadsheetTableModel;
 import org.geogebra.common.main.error.ErrorHandler;
@@ -48,6 +50,8 @@ public class RelativeCopy {
 	protected static final RegExp pattern2 = RegExp
 			.compile("(::|\\$)([A-Z]+)(::|\\$)([0-9]+)");
 	private static GeoElementND redefinedElement;
+	/** batch of the running drag copy */
+	private CellBatch batch;
 
 	/**
 	 * @param kernel
@@ -86,9 +90,11 @@ public class RelativeCopy {
 		// -|4|-
 		app.setWaitCursor();
 		Construction cons = kernel.getConstruction();
+		batch = new CellBatch(app);
 
 		try {
 			boolean success = false;
+			batch.start();
 
 			// collect all redefine operations
 			cons.startCollectingRedefineCalls();
@@ -291,6 +297,8 @@ public class RelativeCopy {
 			return false;
 		} finally {
 			cons.stopCollectingRedefineCalls();
+			batch.end();
+			batch = null;
 			app.setDefaultCursor();
 		}
 	}
@@ -366,7 +374,8 @@ public class RelativeCopy {
 					}
 
 					doCopyNoStoringUndoInfo0(kernel, app, geo,
-							getValue(app, p.x, dy1 + iy), 0, y - sy);
+							getValue(app, p.x, dy1 + iy), 0, y - sy, -1, -1,
+							batch);
 					// Application.debug(p.x+"");
 				}
 			}
@@ -422,7 +431,8 @@ public class RelativeCopy {
 					}
 
 					doCopyNoStoringUndoInfo0(kernel, app, geo,
-							getValue(app, dx1 + ix, p.y), x - sx, 0);
+							getValue(app, dx1 + ix, p.y), x - sx, 0, -1, -1,
+							batch);
 					// Application.debug(p.y+"");
 				}
 			}
@@ -478,6 +488,37 @@ public class RelativeCopy {
 	public static GeoElementND doCopyNoStoringUndoInfo0(Kernel kernel, App app,
 			GeoElement value, GeoElementND oldValue, int dx, int dy,
 			int rowStart, int columnStart) throws Exception {
+		return doCopyNoStoringUndoInfo0(kernel, app, value, oldValue, dx, dy,
+				rowStart, columnStart, null);
+	}
+
+	/**
+	 * @param kernel
+	 *            kernel
+	 * @param app
+	 *            application
+	 * @param value
+	 *            copied value
+	 * @param oldValue
+	 *            overwritten value
+	 * @param dx
+	 *            column difference
+	 * @param dy
+	 *            row difference
+	 * @param rowStart
+	 *            first row
+	 * @param columnStart
+	 *            first column
+	 * @param batch
+	 *            running batch, reuses the parsed definition of value; may be
+	 *            null
+	 * @return element copy
+	 * @throws Exception
+	 *             on parse problem, circular reference
+	 */
+	static GeoElementND doCopyNoStoringUndoInfo0(Kernel kernel, App app,
+			GeoElement value, GeoElementND oldValue, int dx, int dy,
+			int rowStart, int columnStart, CellBatch batch) throws Exception {
 		if (value == null) {
 			if (oldValue != null) {
 				MatchResult matcher = GeoElementSpreadsheet.spreadsheetPattern
@@ -492,45 +533,15 @@ public class RelativeCopy {
 			}
 			return null;
 		}
-		String text = null;
-
-		// make sure a/0.001 doesn't become a/0
-
 		StringTemplate highPrecision = StringTemplate.maxPrecision;
-		if (value.isPointOnPath() || value.isPointInRegion()) {
-			text = value.getDefinition(highPrecision);
-		} else if (value.isChangeable()) {
-			text = value.toValueString(highPrecision);
-		} else {
-			text = value.getDefinition(highPrecision);
-		}
-
-		// handle GeoText source value
-		if (value.isGeoText() && !((GeoText) value).isTextCommand()) {
-			// enclose text in quotes if we are copying an independent GeoText,
-			// e.g. "2+3"
-			if (value.isIndependent()) {
-				text = "\"" + text + "\"";
-			} else {
-
-				// check if 'text' parses to a GeoText
-				GeoText testGeoText = kernel.getAlgebraProcessor()
-						.evaluateToText(text, false, false);
-
-				// if it doesn't then force it to by adding +"" on the end
-				if (testGeoText == null) {
-					text = text + "+\"\"";
-				}
+		ValidExpression exp = batch == null ? null : batch.getTemplate(value);
+		if (exp == null) {
+			exp = parseDefinition(kernel, value);
+			if (batch != null) {
+				batch.putTemplate(value, exp);
 			}
 		}
 
-		// for E1 = Polynomial[D1] we need value.getCommandDescription();
-		// even though it's a GeoFunction
-		if (value.isGeoFunction() && "".equals(text)) {
-			// we need the definition without A1(x)= on the front
-			text = ((GeoFunction) value).toSymbolicString(highPrecision);
-		}
-
 		boolean freeImage = false;
 
 		if (value.isGeoImage()) {
@@ -539,15 +550,12 @@ public class RelativeCopy {
 				freeImage = true;
 			}
 		}
-		boolean oldFlag = kernel.isUsingInternalCommandNames();
-		kernel.setUseInternalCommandNames(true);
-		// FIXME maybe try-catch this?
-		ValidExpression exp = kernel.getParser().parseGeoGebraExpression(text);
-		kernel.setUseInternalCommandNames(oldFlag);
 
 		updateCellReferences(exp, dx, dy);
 
-		text = exp.toString(highPrecision);
+		String text = exp.toString(highPrecision);
+		// parsed text, only used for new cells
+		ValidExpression parsed = batch == null ? null : exp;
 
 		// condition to show object
 		GeoBoolean bool = value.getShowObjectCondition();
@@ -574,6 +582,7 @@ public class RelativeCopy {
 		// allow pasting blank strings
 		if ("".equals(text)) {
 			text = "\"\"";
+			parsed = null;
 		}
 
 		// make sure that non-GeoText elements are copied when the
@@ -618,7 +627,7 @@ public class RelativeCopy {
 			value2.updateRepaint();
 		} else {
 			value2 = prepareAddingValueToTableNoStoringUndoInfo(kernel, app,
-					text, oldValue, column0 + dx, row0 + dy, true);
+					text, parsed, oldValue, column0 + dx, row0 + dy, true);
 		}
 		if (value2 == null) {
 			return null;
@@ -713,6 +722,64 @@ public class RelativeCopy {
 		return value2;
 	}
 
+	/**
+	 * @param kernel
+	 *            kernel
+	 * @param value
+	 *            copied value
+	 * @return parsed definition of the copied value
+	 * @throws Exception
+	 *             on parse problem
+	 */
+	private static ValidExpression parseDefinition(Kernel kernel,
+			GeoElement value) throws Exception {
+		String text = null;
+
+		// make sure a/0.001 doesn't become a/0
+
+		StringTemplate highPrecision = StringTemplate.maxPrecision;
+		if (value.isPointOnPath() || value.isPointInRegion()) {
+			text = value.getDefinition(highPrecision);
+		} else if (value.isChangeable()) {
+			text = value.toValueString(highPrecision);
+		} else {
+			text = value.getDefinition(highPrecision);
+		}
+
+		// handle GeoText source value
+		if (value.isGeoText() && !((GeoText) value).isTextCommand()) {
+			// enclose text in quotes if we are copying an independent GeoText,
+			// e.g. "2+3"
+			if (value.isIndependent()) {
+				text = "\"" + text + "\"";
+			} else {
+
+				// check if 'text' parses to a GeoText
+				GeoText testGeoText = kernel.getAlgebraProcessor()
+						.evaluateToText(text, false, false);
+
+				// if it doesn't then force it to by adding +"" on the end
+				if (testGeoText == null) {
+					text = text + "+\"\"";
+				}
+			}
+		}
+
+		// for E1 = Polynomial[D1] we need value.getCommandDescription();
+		// even though it's a GeoFunction
+		if (value.isGeoFunction() && "".equals(text)) {
+			// we need the definition without A1(x)= on the front
+			text = ((GeoFunction) value).toSymbolicString(highPrecision);
+		}
+
+		boolean oldFlag = kernel.isUsingInternalCommandNames();
+		kernel.setUseInternalCommandNames(true);
+		// FIXME maybe try-catch this?
+		ValidExpression exp = kernel.getParser().parseGeoGebraExpression(text);
+		kernel.setUseInternalCommandNames(oldFlag);
+		return exp;
+	}
+
 	/**
 	 * Updates the cell references in text according to a relative copy in the
 	 * spreadsheet of offset (dx,dy) (changes only dependents of value) eg
@@ -896,6 +963,16 @@ public class RelativeCopy {
 
 	private static GeoElementND prepareNewValue(Kernel kernel, String name,
 			String inputText) throws Exception {
+		return prepareNewValue(kernel, name, inputText, null);
+	}
+
+	/**
+	 * @param parsed
+	 *            parsed text (without leading equal sign) to avoid parsing
+	 *            it again, may be null
+	 */
+	private static GeoElementND prepareNewValue(Kernel kernel, String name,
+			String inputText, ValidExpression parsed) throws Exception {
 		String text = inputText;
 		if (text == null) {
 			return null;
@@ -918,8 +995,11 @@ public class RelativeCopy {
 
 			// evaluate input text without an error dialog in case of unquoted
 			// text
-			newValues = kernel.getAlgebraProcessor()
-					.processAlgebraCommandNoExceptionsOrErrors(text, false);
+			newValues = parsed == null
+					? kernel.getAlgebraProcessor()
+							.processAlgebraCommandNoExceptionsOrErrors(text,
+									false)
+					: processParsed(kernel, parsed);
 
 			// check if text was the label of an existing geo
 			// toUpperCase() added to fix bug A1=1, enter just 'a1' or 'A1' into
@@ -993,6 +1073,23 @@ public class RelativeCopy {
 		return newValues[0];
 	}
 
+	/**
+	 * Same as processAlgebraCommandNoExceptionsOrErrors, for parsed input.
+	 */
+	private static GeoElementND[] processParsed(Kernel kernel,
+			ValidExpression parsed) {
+		AlgebraProcessor algebraProcessor = kernel.getAlgebraProcessor();
+		try {
+			return algebraProcessor.processAlgebraCommandNoExceptionHandling(
+					parsed, false, ErrorHelper.silent(), null,
+					algebraProcessor.getEvalInfo(false, false));
+		} catch (Exception e) {
+			return null;
+		} catch (MyError e) {
+			return null;
+		}
+	}
+
 	private static void updateOldValue(final Kernel kernel,
 			final GeoElementND oldValue, String name, String text0,
 			final AsyncOperation<GeoElementND> callback) throws Exception {
@@ -1142,6 +1239,14 @@ public class RelativeCopy {
 	public static GeoElementND prepareAddingValueToTableNoStoringUndoInfo(
 			Kernel kernel, App app, String inputText, GeoElementND oldValue,
 			int column, int row, boolean internal) throws Exception {
+		return prepareAddingValueToTableNoStoringUndoInfo(kernel, app,
+				inputText, null, oldValue, column, row, internal);
+	}
+
+	private static GeoElementND prepareAddingValueToTableNoStoringUndoInfo(
+			Kernel kernel, App app, String inputText, ValidExpression parsed,
+			GeoElementND oldValue, int column, int row, boolean internal)
+			throws Exception {
 		String text = inputText;
 		// get the cell name
 		String name = GeoElementSpreadsheet.getSpreadsheetCellName(column, row);
@@ -1165,6 +1270,7 @@ public class RelativeCopy {
 
 			if (!possibleString && !isNumber(text)) {
 				text = "\"" + text + "\"";
+				parsed = null;
 			}
 		}
 
@@ -1192,7 +1298,7 @@ public class RelativeCopy {
 			// this will be a new geo
 			kernel.setUseInternalCommandNames(internal);
 			if (oldValue == null) {
-				GeoElementND ret = prepareNewValue(kernel, name, text);
+				GeoElementND ret = prepareNewValue(kernel, name, text, parsed);
 				kernel.setUseInternalCommandNames(oldFlag);
 				return ret;
 			}
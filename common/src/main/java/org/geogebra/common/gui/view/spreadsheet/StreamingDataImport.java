@@ -0,0 +1,241 @@
+package org.geogebra.common.gui.view.spreadsheet;
+
+import org.geogebra.common.kernel.Construction;
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.arithmetic.ExpressionNode;
+import org.geogebra.common.kernel.arithmetic.MyDouble;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoElementSpreadsheet;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.kernelND.GeoElementND;
+import org.geogebra.common.main.App;
+import org.geogebra.common.main.settings.SpreadsheetSettings;
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Imports comma or tab separated data into the spreadsheet while it is read,
+ * so that the whole input never needs to be in memory. Cells are created like
+ * {@link CopyPasteCut#pasteExternal}, numbers directly from the input
+ * characters. Views are detached during the import and attached again in
+ * {@link #finish()}.
+ *
+ * Usage: call {@link #feed(char[], int, int)} for each chunk of the input,
+ * then {@link #finish()}, also if the import failed or was cancelled.
+ */
+public class StreamingDataImport implements DataImportTokenizer.CellHandler {
+
+	/** number of rows between progress reports */
+	public static final int BATCH_ROWS = 1000;
+
+	private final App app;
+	private final Kernel kernel;
+	private final Construction cons;
+	private final int column1;
+	private final int row1;
+	private final DataImportTokenizer tokenizer;
+	private ProgressListener listener;
+
+	private boolean started;
+	private boolean finished;
+	private boolean cancelled;
+	private boolean oldNotifyViews;
+	private boolean oldEqualsRequired;
+	private int cellCount;
+	private boolean succ = true;
+
+	/**
+	 * Receives progress reports, may cancel the import.
+	 */
+	public interface ProgressListener {
+		/**
+		 * Called after every {@link StreamingDataImport#BATCH_ROWS} rows and
+		 * at the end of the import.
+		 *
+		 * @param rows
+		 *            number of rows imported
+		 * @param charsRead
+		 *            number of characters processed
+		 */
+		void onProgress(int rows, long charsRead);
+	}
+
+	/**
+	 * @param app
+	 *            application
+	 * @param column1
+	 *            column of the upper left target cell
+	 * @param row1
+	 *            row of the upper left target cell
+	 */
+	public StreamingDataImport(App app, int column1, int row1) {
+		this.app = app;
+		this.kernel = app.getKernel();
+		this.cons = kernel.getConstruction();
+		this.column1 = column1;
+		this.row1 = row1;
+		this.tokenizer = new DataImportTokenizer(this);
+	}
+
+	/**
+	 * @param separator
+	 *            cell separator; by default it's detected from the first chunk
+	 */
+	public void setSeparator(char separator) {
+		tokenizer.setSeparator(separator);
+	}
+
+	/**
+	 * @param listener
+	 *            progress listener
+	 */
+	public void setProgressListener(ProgressListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Imports the next chunk of the input.
+	 *
+	 * @param chars
+	 *            input buffer
+	 * @param offset
+	 *            start of the chunk
+	 * @param length
+	 *            length of the chunk
+	 * @return false if no more input is needed (import cancelled or last
+	 *         spreadsheet row reached)
+	 */
+	public boolean feed(char[] chars, int offset, int length) {
+		if (cancelled || finished) {
+			return false;
+		}
+		if (!started) {
+			start();
+		}
+		return tokenizer.feed(chars, offset, length) && !cancelled;
+	}
+
+	/**
+	 * Stops the import after the current row; cells imported so far are kept.
+	 * May be called from the progress listener.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * @return whether the import was cancelled
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	private void start() {
+		started = true;
+		app.setWaitCursor();
+		SpreadsheetSettings settings = app.getSettings().getSpreadsheet();
+		oldEqualsRequired = settings.equalsRequired();
+		settings.setEqualsRequired(true);
+		oldNotifyViews = kernel.isNotifyViewsActive();
+		kernel.setNotifyViewsActive(false);
+		cons.getSpreadsheetCells().startDeferringUpdates();
+	}
+
+	/**
+	 * Imports the rest of the input and attaches the views again.
+	 *
+	 * @return whether all cells were imported successfully and the import was
+	 *         not cancelled
+	 */
+	public boolean finish() {
+		if (finished) {
+			return succ;
+		}
+		finished = true;
+		if (!started) {
+			return succ;
+		}
+		try {
+			if (!cancelled) {
+				tokenizer.finish();
+			}
+			if (listener != null) {
+				listener.onProgress(tokenizer.getRowCount(),
+						tokenizer.getCharsRead());
+			}
+		} finally {
+			cons.getSpreadsheetCells().endDeferringUpdates();
+			app.getSettings().getSpreadsheet()
+					.setEqualsRequired(oldEqualsRequired);
+			kernel.setNotifyViewsActive(oldNotifyViews);
+			app.repaintSpreadsheet();
+			app.setDefaultCursor();
+		}
+		return succ && !cancelled;
+	}
+
+	/**
+	 * @return number of cells created or changed
+	 */
+	public int getCellCount() {
+		return cellCount;
+	}
+
+	@Override
+	public void cell(int row, int column, char[] text, int start,
+			int length) {
+		int from = start;
+		int to = start + length;
+		while (from < to && text[from] <= ' ') {
+			from++;
+		}
+		while (to > from && text[to - 1] <= ' ') {
+			to--;
+		}
+		String name = GeoElementSpreadsheet.getSpreadsheetCellName(
+				column1 + column, row1 + row);
+		if (name == null) {
+			return;
+		}
+		GeoElement value0 = cons.lookupLabel(name);
+		try {
+			if (from == to) {
+				if (value0 != null) {
+					value0.removeOrSetUndefinedIfHasFixedDescendent();
+				}
+				return;
+			}
+			double value = DataImport.parseNumber(text, from, to - from);
+			if (!Double.isNaN(value) && value0 == null) {
+				GeoNumeric num = new GeoNumeric(cons, value);
+				// like numbers created by the parser
+				num.setDefinition(new ExpressionNode(kernel,
+						new MyDouble(kernel, value)));
+				num.setAuxiliaryObject(true);
+				num.setLabel(name);
+			} else {
+				String str = DataImport
+						.adjustNumberString(new String(text, from, to - from));
+				GeoElementND value2 = RelativeCopy
+						.prepareAddingValueToTableNoStoringUndoInfo(kernel, app,
+								str, value0, column1 + column, row1 + row, true);
+				if (value2 != null) {
+					value2.setAuxiliaryObject(true);
+				}
+			}
+			cellCount++;
+		} catch (Exception e) {
+			Log.debug(e);
+			succ = false;
+		}
+	}
+
+	@Override
+	public boolean endRow(int row, int columns) {
+		if (listener != null && (row + 1) % BATCH_ROWS == 0) {
+			listener.onProgress(row + 1, tokenizer.getCharsRead());
+		}
+		// rest of the input would not fit into the spreadsheet
+		return !cancelled
+				&& row1 + row + 1 < Kernel.MAX_SPREADSHEET_ROWS_DESKTOP;
+	}
+}
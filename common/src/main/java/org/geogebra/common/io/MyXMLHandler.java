@@ -3390,7 +3390,8 @@ public class MyXMLHandler implements DocHandler {
 					en = new ExpressionNode(kernel, geo1);
 				} else {
 					// parse argument expressions
-					en = parser.parseCmdExpression(arg);
+					en = kernel.getParseCache().parseCmdExpression(parser,
+							arg);
 				}
 				cmd.addArgument(en);
 			} catch (Exception e) {
@@ -3561,7 +3562,8 @@ public class MyXMLHandler implements DocHandler {
 		String type = attrs.get("type");
 		// parse expression and process it
 		try {
-			ValidExpression ve = parser.parseGeoGebraExpression(exp);
+			ValidExpression ve = kernel.getParseCache()
+					.parseGeoGebraExpression(parser, exp);
 			if (label != null) {
 				if ("X".equals(ve.getLabel())
 						&& cons.getRegisteredFunctionVariable() == null) {
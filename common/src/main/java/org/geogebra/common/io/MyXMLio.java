@@ -42,6 +42,11 @@ public abstract class MyXMLio {
 	 */
 	final public static String XML_FILE = "geogebra.xml";
 
+	/**
+	 * Optional zip entry with an {@link XMLSnapshot} of XML_FILE
+	 */
+	final public static String XML_FILE_SNAPSHOT = "geogebra_snapshot.bin";
+
 	/**
 	 * All xml output is zipped. The created zip archive contains an entry named
 	 * XML_FILE_MACRO for the macros
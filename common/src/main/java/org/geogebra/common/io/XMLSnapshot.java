@@ -0,0 +1,345 @@
+package org.geogebra.common.io;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Binary copy of the document events {@link QDParser} produces for an XML
+ * file. Replaying it to a {@link DocHandler} gives the same events without
+ * tokenizing the XML text; repeated tag names and attribute values are stored
+ * once.
+ *
+ * A snapshot remembers the length and checksum of the XML it was made from
+ * and is only used if they match the XML it is loaded with.
+ */
+public final class XMLSnapshot implements MyXMLio.XMLStream {
+
+	/** format version, snapshots with other versions are ignored */
+	public static final int VERSION = 1;
+
+	/** "GGBS" */
+	private static final int MAGIC = 0x47474253;
+
+	private static final int START_DOCUMENT = 1;
+	private static final int END_DOCUMENT = 2;
+	private static final int START_ELEMENT = 3;
+	private static final int END_ELEMENT = 4;
+	private static final int TEXT = 5;
+
+	private final String[] strings;
+	/** op codes, each followed by its string indices */
+	private final int[] events;
+
+	private XMLSnapshot(String[] strings, int[] events) {
+		this.strings = strings;
+		this.events = events;
+	}
+
+	/**
+	 * Collects the events of an XML file, feed it to
+	 * {@link QDParser#parse(DocHandler, java.io.Reader)}.
+	 */
+	public static class Recorder implements DocHandler {
+		private final HashMap<String, Integer> indices = new HashMap<>();
+		private final ArrayList<String> strings = new ArrayList<>();
+		private int[] events = new int[1024];
+		private int size;
+
+		@Override
+		public void startElement(String tag,
+				LinkedHashMap<String, String> attrs) {
+			add(START_ELEMENT);
+			addString(tag);
+			add(attrs.size());
+			for (Map.Entry<String, String> attr : attrs.entrySet()) {
+				addString(attr.getKey());
+				addString(attr.getValue());
+			}
+		}
+
+		@Override
+		public void endElement(String tag) {
+			add(END_ELEMENT);
+			addString(tag);
+		}
+
+		@Override
+		public void startDocument() {
+			add(START_DOCUMENT);
+		}
+
+		@Override
+		public void endDocument() {
+			add(END_DOCUMENT);
+		}
+
+		@Override
+		public void text(String str) {
+			add(TEXT);
+			addString(str);
+		}
+
+		private void addString(String str) {
+			Integer index = indices.get(str);
+			if (index == null) {
+				index = strings.size();
+				indices.put(str, index);
+				strings.add(str);
+			}
+			add(index);
+		}
+
+		private void add(int value) {
+			if (size == events.length) {
+				int[] newEvents = new int[2 * size];
+				System.arraycopy(events, 0, newEvents, 0, size);
+				events = newEvents;
+			}
+			events[size++] = value;
+		}
+
+		/**
+		 * @param xml
+		 *            bytes of the recorded XML
+		 * @return encoded snapshot
+		 */
+		public byte[] toByteArray(byte[] xml) {
+			Output out = new Output();
+			out.writeInt(MAGIC);
+			out.writeVarInt(VERSION);
+			out.writeVarInt(xml.length);
+			out.writeInt(checksum(xml));
+			out.writeVarInt(strings.size());
+			for (String str : strings) {
+				out.writeVarInt(str.length());
+				for (int i = 0; i < str.length(); i++) {
+					out.writeVarInt(str.charAt(i));
+				}
+			}
+			out.writeVarInt(size);
+			for (int i = 0; i < size; i++) {
+				out.writeVarInt(events[i]);
+			}
+			return out.toByteArray();
+		}
+	}
+
+	/**
+	 * @param snapshot
+	 *            encoded snapshot
+	 * @param xml
+	 *            bytes of the XML file stored with the snapshot
+	 * @return decoded snapshot, null if it has another version, was made from
+	 *         other XML or is damaged
+	 */
+	public static XMLSnapshot read(byte[] snapshot, byte[] xml) {
+		Input in = new Input(snapshot);
+		try {
+			if (in.readInt() != MAGIC || in.readVarInt() != VERSION) {
+				Log.debug("Unknown snapshot format");
+				return null;
+			}
+			if (in.readVarInt() != xml.length
+					|| in.readInt() != checksum(xml)) {
+				Log.debug("Snapshot does not match XML");
+				return null;
+			}
+			String[] strings = new String[in.readLength()];
+			StringBuilder sb = new StringBuilder();
+			for (int i = 0; i < strings.length; i++) {
+				sb.setLength(0);
+				int length = in.readLength();
+				for (int j = 0; j < length; j++) {
+					sb.append((char) in.readVarInt());
+				}
+				strings[i] = sb.toString();
+			}
+			int[] events = new int[in.readLength()];
+			for (int i = 0; i < events.length; i++) {
+				events[i] = in.readVarInt();
+			}
+			if (in.hasMore() || !isValid(events, strings.length)) {
+				Log.debug("Damaged snapshot");
+				return null;
+			}
+			return new XMLSnapshot(strings, events);
+		} catch (IndexOutOfBoundsException e) {
+			Log.debug("Damaged snapshot");
+			return null;
+		}
+	}
+
+	private static boolean isValid(int[] events, int stringCount) {
+		int i = 0;
+		while (i < events.length) {
+			int op = events[i++];
+			int strings;
+			if (op == START_ELEMENT) {
+				if (events.length - i < 2 || !isString(events[i], stringCount)
+						|| events[i + 1] < 0
+						|| events[i + 1] > (events.length - i) / 2) {
+					return false;
+				}
+				strings = 2 * events[i + 1];
+				i += 2;
+			} else if (op == END_ELEMENT || op == TEXT) {
+				strings = 1;
+			} else if (op == START_DOCUMENT || op == END_DOCUMENT) {
+				strings = 0;
+			} else {
+				return false;
+			}
+			if (strings > events.length - i) {
+				return false;
+			}
+			for (int j = 0; j < strings; j++) {
+				if (!isString(events[i++], stringCount)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static boolean isString(int index, int stringCount) {
+		return index >= 0 && index < stringCount;
+	}
+
+	/**
+	 * Sends the recorded events to a handler.
+	 *
+	 * @param handler
+	 *            handler
+	 * @throws Exception
+	 *             if the handler fails
+	 */
+	public void replay(DocHandler handler) throws Exception {
+		// like QDParser, the handler gets the same map for all elements
+		LinkedHashMap<String, String> attrs = new LinkedHashMap<>();
+		int i = 0;
+		while (i < events.length) {
+			switch (events[i++]) {
+			case START_DOCUMENT:
+				handler.startDocument();
+				break;
+			case END_DOCUMENT:
+				handler.endDocument();
+				break;
+			case START_ELEMENT:
+				String tag = strings[events[i++]];
+				int count = events[i++];
+				attrs.clear();
+				for (int j = 0; j < count; j++) {
+					attrs.put(strings[events[i]], strings[events[i + 1]]);
+					i += 2;
+				}
+				handler.startElement(tag, attrs);
+				break;
+			case END_ELEMENT:
+				handler.endElement(strings[events[i++]]);
+				break;
+			default:
+				handler.text(strings[events[i++]]);
+				break;
+			}
+		}
+	}
+
+	/**
+	 * @param xml
+	 *            XML bytes
+	 * @return FNV-1a hash of the bytes
+	 */
+	public static int checksum(byte[] xml) {
+		int hash = 0x811c9dc5;
+		for (byte b : xml) {
+			hash ^= b & 0xff;
+			// hash * 0x01000193 without overflowing doubles in JavaScript
+			hash += (hash << 1) + (hash << 4) + (hash << 7) + (hash << 8)
+					+ (hash << 24);
+		}
+		return hash;
+	}
+
+	private static class Output {
+		private byte[] bytes = new byte[4096];
+		private int size;
+
+		protected void writeByte(int b) {
+			if (size == bytes.length) {
+				byte[] newBytes = new byte[2 * size];
+				System.arraycopy(bytes, 0, newBytes, 0, size);
+				bytes = newBytes;
+			}
+			bytes[size++] = (byte) b;
+		}
+
+		protected void writeInt(int value) {
+			for (int shift = 24; shift >= 0; shift -= 8) {
+				writeByte(value >>> shift);
+			}
+		}
+
+		/** 7 bits per byte, high bit set if more bytes follow */
+		protected void writeVarInt(int value) {
+			int rest = value;
+			while ((rest & ~0x7f) != 0) {
+				writeByte((rest & 0x7f) | 0x80);
+				rest >>>= 7;
+			}
+			writeByte(rest);
+		}
+
+		protected byte[] toByteArray() {
+			byte[] result = new byte[size];
+			System.arraycopy(bytes, 0, result, 0, size);
+			return result;
+		}
+	}
+
+	private static class Input {
+		private final byte[] bytes;
+		private int pos;
+
+		protected Input(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		protected int readInt() {
+			int value = 0;
+			for (int i = 0; i < 4; i++) {
+				value = (value << 8) | (bytes[pos++] & 0xff);
+			}
+			return value;
+		}
+
+		protected int readVarInt() {
+			int value = 0;
+			for (int shift = 0; shift < 32; shift += 7) {
+				int b = bytes[pos++];
+				value |= (b & 0x7f) << shift;
+				if (b >= 0) {
+					return value;
+				}
+			}
+			throw new IndexOutOfBoundsException("varint too long");
+		}
+
+		/** length of an array, at most the number of remaining bytes */
+		protected int readLength() {
+			int length = readVarInt();
+			if (length < 0 || length > bytes.length - pos) {
+				throw new IndexOutOfBoundsException("length " + length);
+			}
+			return length;
+		}
+
+		protected boolean hasMore() {
+			return pos < bytes.length;
+		}
+	}
+}
@@ -12,6 +12,7 @@ import java.util.Stack;
 import java.util.TreeMap;
 import java.util.TreeSet;
 
+import org.geogebra.common.awt.GPoint;
 import org.geogebra.common.euclidian.EuclidianConstants;
 import org.geogebra.common.euclidian.EuclidianView;
 import org.geogebra.common.euclidian.LayerManager;
@@ -127,7 +128,12 @@ public class Construction {
 	private final ArrayList<ConstructionElement> ceList;
 
 	// AlgoElement List (for objects of type AlgoElement)
+	/** spreadsheet cells by location */
+	private final SpreadsheetCellIndex spreadsheetCells =
+			new SpreadsheetCellIndex();
 	private ArrayList<AlgoElement> algoList; // used in updateConstruction()
+	/** number of algos in algoList that want construction protocol updates */
+	private int protocolUpdateAlgoCount;
 
 	/** Table for (label, GeoElement) pairs, contains global variables */
 	protected HashMap<String, GeoElement> geoTable;
@@ -191,6 +197,8 @@ public class Construction {
 	private GeoElement outputGeo;
 
 	private TreeSet<String> registeredFV = new TreeSet<>();
+	/** counts label and function variable lookups, see ParseCache */
+	private int lookupCount;
 
 	private boolean fileLoading;
 	private boolean casCellUpdate = false;
@@ -782,6 +790,9 @@ public class Construction {
 	 * @return true iff there were any algos that wanted update
 	 */
 	private final boolean updateAllConstructionProtocolAlgorithms() {
+		if (protocolUpdateAlgoCount == 0) {
+			return false;
+		}
 		// update all algorithms
 		int size = algoList.size();
 		ArrayList<AlgoElement> updateAlgos = null;
@@ -979,6 +990,9 @@ public class Construction {
 	 */
 	public void addToAlgorithmList(AlgoElement algo) {
 		algoList.add(algo);
+		if (algo.wantsConstructionProtocolUpdate()) {
+			protocolUpdateAlgoCount++;
+		}
 	}
 
 	/**
@@ -997,7 +1011,9 @@ public class Construction {
 	 *            algo to be removed
 	 */
 	public void removeFromAlgorithmList(AlgoElement algo) {
-		algoList.remove(algo);
+		if (algoList.remove(algo) && algo.wantsConstructionProtocolUpdate()) {
+			protocolUpdateAlgoCount--;
+		}
 	}
 
 	/**
@@ -1186,6 +1202,7 @@ public class Construction {
 	 *            Element to be added
 	 */
 	public void addRandomGeo(GeoElement num) {
+		countLookup();
 		if (randomElements == null) {
 			randomElements = new TreeSet<>();
 		}
@@ -2013,6 +2030,7 @@ public class Construction {
 
 		geoTable.put(geo.getLabelSimple(), geo);
 		addToGeoSets(geo);
+		updateSpreadsheetCell(geo, true);
 	}
 
 	/**
@@ -2026,6 +2044,32 @@ public class Construction {
 	public void removeLabel(GeoElement geo) {
 		geoTable.remove(geo.getLabelSimple());
 		removeFromGeoSets(geo);
+		updateSpreadsheetCell(geo, false);
+	}
+
+	private void updateSpreadsheetCell(GeoElement geo, boolean add) {
+		String label = geo.getLabelSimple();
+		// cheap check before matching the cell name pattern
+		if (label == null || label.isEmpty()
+				|| !StringUtil.isDigit(label.charAt(label.length() - 1))) {
+			return;
+		}
+		GPoint location = GeoElementSpreadsheet.spreadsheetIndices(label);
+		if (location.x < 0 || location.y < 0) {
+			return;
+		}
+		if (add) {
+			spreadsheetCells.put(geo, location.x, location.y);
+		} else {
+			spreadsheetCells.remove(geo, location.x, location.y);
+		}
+	}
+
+	/**
+	 * @return index of spreadsheet cells by location
+	 */
+	public SpreadsheetCellIndex getSpreadsheetCells() {
+		return spreadsheetCells;
 	}
 
 	private void addToGeoSets(GeoElement geo) {
@@ -2160,6 +2204,7 @@ public class Construction {
 	 * @return may return null
 	 */
 	public GeoCasCell lookupCasCellLabel(String label) {
+		countLookup();
 		GeoCasCell geoCasCell = null;
 
 		// global var handling
@@ -2226,6 +2271,7 @@ public class Construction {
 	 * @return may return null
 	 */
 	protected GeoElement lookupLabel(String label, boolean allowAutoCreate) {
+		countLookup();
 		String label1 = label;
 		if (label1 == null) {
 			return null;
@@ -3058,10 +3104,12 @@ public class Construction {
 		intsM.clear();
 		ceList.clear();
 		algoList.clear();
+		protocolUpdateAlgoCount = 0;
 
 		geoSetConsOrder.clear();
 		geoSetWithCasCells.clear();
 		geoSetLabelOrder.clear();
+		spreadsheetCells.clear();
 
 		layerManager.clear();
 
@@ -3230,6 +3278,7 @@ public class Construction {
 	 *            local function variable
 	 */
 	public void registerFunctionVariable(String fv) {
+		countLookup();
 		if (fv == null) {
 			registeredFV.clear();
 		} else {
@@ -3245,6 +3294,7 @@ public class Construction {
 	 * @return whether s is among registered function variables
 	 */
 	public boolean isRegisteredFunctionVariable(String s) {
+		countLookup();
 		return registeredFV.contains(s);
 	}
 
@@ -3273,6 +3323,23 @@ public class Construction {
 		fileLoading = b;
 	}
 
+	/**
+	 * Counts lookups of labels and function variables and other operations
+	 * that make parse results depend on the construction.
+	 */
+	protected void countLookup() {
+		lookupCount++;
+	}
+
+	/**
+	 * @return number of label and function variable lookups so far; if it
+	 *         does not change while parsing, the result does not depend on
+	 *         the construction
+	 */
+	public int getLookupCount() {
+		return lookupCount;
+	}
+
 	/**
 	 * @return whether we are just loading a file
 	 */
@@ -7,6 +7,7 @@ import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.TreeSet;
 
@@ -74,6 +75,7 @@ import org.geogebra.common.kernel.kernelND.GeoVectorND;
 import org.geogebra.common.kernel.optimization.ExtremumFinder;
 import org.geogebra.common.kernel.optimization.ExtremumFinderI;
 import org.geogebra.common.kernel.parser.GParser;
+import org.geogebra.common.kernel.parser.ParseCache;
 import org.geogebra.common.kernel.parser.Parser;
 import org.geogebra.common.main.App;
 import org.geogebra.common.main.Localization;
@@ -87,7 +89,6 @@ import org.geogebra.common.plugin.script.GgbScript;
 import org.geogebra.common.plugin.script.Script;
 import org.geogebra.common.util.DoubleUtil;
 import org.geogebra.common.util.LRUMap;
-import org.geogebra.common.util.MaxSizeHashMap;
 import org.geogebra.common.util.MyMath;
 import org.geogebra.common.util.NumberFormatAdapter;
 import org.geogebra.common.util.ScientificFormatAdapter;
@@ -240,6 +241,8 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 
 	/** maximum CAS results cached */
 	final public static int GEOGEBRA_CAS_CACHE_SIZE = 500;
+	/** maximum total length of cached CAS inputs and results */
+	final public static long GEOGEBRA_CAS_CACHE_CHARS = 1 << 20;
 	private MySpecialDouble eulerConstant;
 
 	/** print precision */
@@ -355,10 +358,14 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	private boolean arcusFunctionCreatesAngle;
 	private ArrayList<AlgoElement> renameListenerAlgos;
 	private boolean spreadsheetBatchRunning;
+	/** added geos not yet announced to views, null if adding is not deferred */
+	private LinkedHashSet<GeoElement> deferredAdds;
+	private int deferAddDepth;
 	private StringBuilder stateForModeStarting;
 	private final GeoElementSpreadsheet ges = new GeoElementSpreadsheet();
 	private final ScheduledPreviewFromInputBar scheduledPreviewFromInputBar;
 	private boolean userStopsLoading = false;
+	private boolean parallelCascade = false;
 	private AnimationManager animationManager;
 
 	private StringBuilder sbFormat;
@@ -375,7 +382,8 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	private String libraryJavaScript = defaultLibraryJavaScript;
 
 	private boolean isSaving;
-	private MaxSizeHashMap<String, String> ggbCasCache;
+	private LRUMap<String, String> ggbCasCache;
+	private ParseCache parseCache;
 	/** min real world x for all views */
 	protected double[] xmin = new double[1];
 	/** max real world x for all views */
@@ -2818,16 +2826,35 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	}
 
 	/**
-	 * @return Hash map for caching CAS results.
+	 * @return cache for CAS results
 	 */
-	public MaxSizeHashMap<String, String> getCasCache() {
+	public LRUMap<String, String> getCasCache() {
 		if (ggbCasCache == null) {
-			ggbCasCache = new MaxSizeHashMap<>(
-					GEOGEBRA_CAS_CACHE_SIZE);
+			ggbCasCache = LRUMap.forStrings(GEOGEBRA_CAS_CACHE_SIZE,
+					GEOGEBRA_CAS_CACHE_CHARS);
 		}
 		return ggbCasCache;
 	}
 
+	/**
+	 * @return cache for parsed expressions of loaded files
+	 */
+	public ParseCache getParseCache() {
+		if (parseCache == null) {
+			parseCache = new ParseCache(this);
+		}
+		return parseCache;
+	}
+
+	/**
+	 * Removes parsed expressions, needed when command names change.
+	 */
+	public void clearParseCache() {
+		if (parseCache != null) {
+			parseCache.clear();
+		}
+	}
+
 	/**
 	 * @return Whether kernel is already using CAS caching.
 	 */
@@ -3765,6 +3792,28 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 		}
 	}
 
+	/**
+	 * @return whether update cascades may compute thread safe algorithms of
+	 *         the same dependency level in parallel
+	 */
+	public boolean isParallelCascade() {
+		return parallelCascade;
+	}
+
+	/**
+	 * Enables level scheduled updates, see
+	 * {@link org.geogebra.common.kernel.algos.LevelScheduledCascade}.
+	 * Only has effect on platforms that provide a
+	 * {@link org.geogebra.common.util.ParallelExecutor}.
+	 * 
+	 * @param parallelCascade
+	 *            whether to compute independent thread safe algorithms in
+	 *            parallel
+	 */
+	public void setParallelCascade(boolean parallelCascade) {
+		this.parallelCascade = parallelCascade;
+	}
+
 	/**
 	 * Currently, this method should rename every oldLabel to newLabel in
 	 * GgbScript-type objects, for use of CopyPaste and InsertFile
@@ -3833,9 +3882,13 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 				}
 
 			}
+			if (deferredAdds != null) {
+				deferredAdds.add(geo);
+			}
 			for (View view : views) {
-				if ((view.getViewID() != App.VIEW_CONSTRUCTION_PROTOCOL)
-						|| isNotifyConstructionProtocolViewAboutAddRemoveActive()) {
+				if (((view.getViewID() != App.VIEW_CONSTRUCTION_PROTOCOL)
+						|| isNotifyConstructionProtocolViewAboutAddRemoveActive())
+						&& !isDeferred(view, geo)) {
 					view.add(geo);
 				}
 			}
@@ -3844,6 +3897,57 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 		notifyRenameListenerAlgos();
 	}
 
+	/**
+	 * Starts collecting added elements; views are told about them in
+	 * {@link #endDeferringAdd()}, except views that index elements by
+	 * location (spreadsheet model). Updates, renames and removals of such
+	 * elements are not passed to the views either. Calls may be nested.
+	 */
+	public void startDeferringAdd() {
+		if (deferAddDepth++ == 0) {
+			deferredAdds = new LinkedHashSet<>();
+		}
+	}
+
+	/**
+	 * Tells views about all elements added since
+	 * {@link #startDeferringAdd()} in one batch update.
+	 */
+	public void endDeferringAdd() {
+		if (deferAddDepth == 0 || --deferAddDepth > 0) {
+			return;
+		}
+		LinkedHashSet<GeoElement> added = deferredAdds;
+		deferredAdds = null;
+		if (notifyViewsActive && !added.isEmpty()) {
+			notifyBatchUpdate();
+			for (View view : views) {
+				if (view instanceof UpdateLocationView
+						|| (view.getViewID() == App.VIEW_CONSTRUCTION_PROTOCOL
+								&& !isNotifyConstructionProtocolViewAboutAddRemoveActive())) {
+					continue;
+				}
+				for (GeoElement geo : added) {
+					view.add(geo);
+				}
+			}
+			notifyEndBatchUpdate();
+		}
+		notifyRenameListenerAlgos();
+	}
+
+	/**
+	 * @return whether adding elements is deferred
+	 */
+	public boolean isDeferringAdd() {
+		return deferredAdds != null;
+	}
+
+	private boolean isDeferred(View view, GeoElement geo) {
+		return deferredAdds != null && !(view instanceof UpdateLocationView)
+				&& deferredAdds.contains(geo);
+	}
+
 	/**
 	 * Notify views about adding polygon.
 	 */
@@ -3887,6 +3991,9 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 				this.deleteList.add(geo);
 			}
 			for (View view : views) {
+				if (isDeferred(view, geo)) {
+					continue;
+				}
 				if ((view.getViewID() != App.VIEW_CONSTRUCTION_PROTOCOL)
 						|| isNotifyConstructionProtocolViewAboutAddRemoveActive()) {
 					// needed for GGB-808
@@ -3898,6 +4005,9 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 					}
 				}
 			}
+			if (deferredAdds != null) {
+				deferredAdds.remove(geo);
+			}
 		}
 
 		notifyRenameListenerAlgos();
@@ -3949,7 +4059,9 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 		// event dispatcher should not collect calls to stay compatible with 4.0
 		if (notifyViewsActive) {
 			for (View view : views) {
-				view.update(geo);
+				if (!isDeferred(view, geo)) {
+					view.update(geo);
+				}
 			}
 		}
 	}
@@ -3967,7 +4079,7 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 				// we already told event dispatcher
 				if (view instanceof UpdateLocationView) {
 					((UpdateLocationView) view).updateLocation(geo);
-				} else {
+				} else if (!isDeferred(view, geo)) {
 					view.update(geo);
 				}
 			}
@@ -3985,7 +4097,9 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	public final void notifyUpdateVisualStyle(GeoElement geo, GProperty prop) {
 		if (notifyViewsActive) {
 			for (View view : views) {
-				view.updateVisualStyle(geo, prop);
+				if (!isDeferred(view, geo)) {
+					view.updateVisualStyle(geo, prop);
+				}
 			}
 		}
 	}
@@ -4013,7 +4127,9 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	public final void notifyUpdateAuxiliaryObject(GeoElement geo) {
 		if (notifyViewsActive) {
 			for (View view : views) {
-				view.updateAuxiliaryObject(geo);
+				if (!isDeferred(view, geo)) {
+					view.updateAuxiliaryObject(geo);
+				}
 			}
 		}
 	}
@@ -4027,7 +4143,9 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 	public final void notifyRename(GeoElement geo) {
 		if (notifyViewsActive) {
 			for (View view : views) {
-				view.rename(geo);
+				if (!isDeferred(view, geo)) {
+					view.rename(geo);
+				}
 			}
 		}
 
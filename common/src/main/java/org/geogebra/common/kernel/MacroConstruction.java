@@ -81,6 +81,7 @@ public class MacroConstruction extends Construction {
 	 */
 	@Override
 	protected final GeoElement lookupLabel(String label, boolean autoCreate) {
+		countLookup();
 		if (label == null) {
 			return null;
 		}
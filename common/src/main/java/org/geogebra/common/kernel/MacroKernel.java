@@ -22,7 +22,7 @@ import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.kernelND.GeoDirectionND;
 import org.geogebra.common.kernel.kernelND.GeoPlaneND;
 import org.geogebra.common.main.MyError;
-import org.geogebra.common.util.MaxSizeHashMap;
+import org.geogebra.common.util.LRUMap;
 
 /**
  * Kernel with its own construction for macros.
@@ -214,10 +214,10 @@ public class MacroKernel extends Kernel {
 	}
 
 	/**
-	 * @return Hash map for caching CAS results from parent kernel.
+	 * @return cache for CAS results from parent kernel.
 	 */
 	@Override
-	public MaxSizeHashMap<String, String> getCasCache() {
+	public LRUMap<String, String> getCasCache() {
 		return parentKernel.getCasCache();
 	}
 
@@ -130,26 +130,18 @@ public class MyPoint extends GPoint2D {
 	}
 
 	/**
-	 * Reuses the segmentType field (active iff LINE_TO)
-	 * @return whether it is an active point (for TSP solver)
-	 */
-	public boolean isActive() {
-		return segmentType == SegmentType.LINE_TO;
-	}
-
-	/**
-	 * Reuses the segmentType field (for TSP solver)
-	 * @param active if true, set segmentType to LINE_TO, otherwise to MOVE_TO
+	 * @return segment type
 	 */
-	public void setActive(boolean active) {
-		this.segmentType = active ? SegmentType.LINE_TO : SegmentType.MOVE_TO;
+	public SegmentType getSegmentType() {
+		return segmentType;
 	}
 
 	/**
-	 * @return segment type
+	 * @param segmentType
+	 *            segment type
 	 */
-	public SegmentType getSegmentType() {
-		return segmentType;
+	public void setSegmentType(SegmentType segmentType) {
+		this.segmentType = segmentType;
 	}
 
 	/**
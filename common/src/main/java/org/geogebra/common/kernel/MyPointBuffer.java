@@ -0,0 +1,174 @@
+package org.geogebra.common.kernel;
+
+import java.util.ArrayList;
+
+/**
+ * List of 2D path points stored in primitive arrays (x, y, segment type), to
+ * avoid one {@link MyPoint} object per point for big loci.
+ */
+public class MyPointBuffer {
+
+	private static final SegmentType[] TYPES = SegmentType.values();
+
+	private double[] xs;
+	private double[] ys;
+	private byte[] types;
+	private int size;
+
+	/**
+	 * Creates empty buffer
+	 */
+	public MyPointBuffer() {
+		this(16);
+	}
+
+	/**
+	 * @param capacity
+	 *            initial capacity
+	 */
+	public MyPointBuffer(int capacity) {
+		xs = new double[Math.max(capacity, 1)];
+		ys = new double[xs.length];
+		types = new byte[xs.length];
+	}
+
+	/**
+	 * Adds a point to the end of the buffer.
+	 *
+	 * @param x
+	 *            x-coord
+	 * @param y
+	 *            y-coord
+	 * @param segmentType
+	 *            segment type
+	 */
+	public void add(double x, double y, SegmentType segmentType) {
+		if (size == xs.length) {
+			int capacity = 2 * size;
+			double[] newXs = new double[capacity];
+			double[] newYs = new double[capacity];
+			byte[] newTypes = new byte[capacity];
+			System.arraycopy(xs, 0, newXs, 0, size);
+			System.arraycopy(ys, 0, newYs, 0, size);
+			System.arraycopy(types, 0, newTypes, 0, size);
+			xs = newXs;
+			ys = newYs;
+			types = newTypes;
+		}
+		xs[size] = x;
+		ys[size] = y;
+		types[size] = (byte) segmentType.ordinal();
+		size++;
+	}
+
+	/**
+	 * @param other
+	 *            buffer to copy
+	 */
+	public void set(MyPointBuffer other) {
+		clear();
+		for (int i = 0; i < other.size; i++) {
+			add(other.xs[i], other.ys[i], other.getSegmentType(i));
+		}
+	}
+
+	/**
+	 * @return number of points
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes all points, keeps the capacity.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Moves i-th point, keeps its segment type.
+	 *
+	 * @param i
+	 *            index
+	 * @param x
+	 *            new x-coord
+	 * @param y
+	 *            new y-coord
+	 */
+	public void setLocation(int i, double x, double y) {
+		xs[i] = x;
+		ys[i] = y;
+	}
+
+	/**
+	 * @param i
+	 *            index
+	 * @return x-coord of i-th point
+	 */
+	public double getX(int i) {
+		return xs[i];
+	}
+
+	/**
+	 * @param i
+	 *            index
+	 * @return y-coord of i-th point
+	 */
+	public double getY(int i) {
+		return ys[i];
+	}
+
+	/**
+	 * @param i
+	 *            index
+	 * @return segment type of i-th point
+	 */
+	public SegmentType getSegmentType(int i) {
+		return TYPES[types[i]];
+	}
+
+	/**
+	 * @param i
+	 *            index
+	 * @return lineTo flag of i-th point
+	 */
+	public boolean getLineTo(int i) {
+		return types[i] == SegmentType.LINE_TO.ordinal();
+	}
+
+	/**
+	 * Copies i-th point into existing object to avoid allocation.
+	 *
+	 * @param i
+	 *            index
+	 * @param point
+	 *            output point
+	 * @return the output point
+	 */
+	public MyPoint get(int i, MyPoint point) {
+		point.setLocation(xs[i], ys[i]);
+		point.setSegmentType(getSegmentType(i));
+		return point;
+	}
+
+	/**
+	 * @param i
+	 *            index
+	 * @return new point equal to the i-th point
+	 */
+	public MyPoint get(int i) {
+		return new MyPoint(xs[i], ys[i], getSegmentType(i));
+	}
+
+	/**
+	 * @param list
+	 *            list to which new point objects are added
+	 */
+	public void addTo(ArrayList<MyPoint> list) {
+		list.ensureCapacity(list.size() + size);
+		for (int i = 0; i < size; i++) {
+			list.add(get(i));
+		}
+	}
+}
@@ -12,8 +12,6 @@ the Free Software Foundation.
 
 package org.geogebra.common.kernel;
 
-import java.util.ArrayList;
-
 import org.geogebra.common.kernel.geos.GeoLocusND;
 import org.geogebra.common.kernel.geos.GeoLocusNDInterface;
 import org.geogebra.common.kernel.kernelND.GeoPointND;
@@ -26,7 +24,9 @@ import org.geogebra.common.kernel.kernelND.GeoPointND;
  */
 public class PathMoverLocus<T extends MyPoint> extends PathMoverGeneric {
 
-	private ArrayList<? extends MyPoint> myPointList;
+	private GeoLocusND<? extends MyPoint> locus;
+	private final MyPoint leftScratch = new MyPoint();
+	private final MyPoint rightScratch = new MyPoint();
 	private boolean noLineToSet;
 	private boolean lastNoLineToSet;
 
@@ -38,13 +38,13 @@ public class PathMoverLocus<T extends MyPoint> extends PathMoverGeneric {
 	 */
 	public PathMoverLocus(GeoLocusND<T> locus) {
 		super(locus);
-		myPointList = locus.getPoints();
+		this.locus = locus;
 	}
 
 	@Override
 	public void init(GeoPointND p, int min_steps) {
 		if (p.getPath() instanceof GeoLocusND) {
-			myPointList = ((GeoLocusNDInterface) p.getPath()).getPoints();
+			locus = ((GeoLocusNDInterface) p.getPath()).getLocus();
 		}
 		lastNoLineToSet = noLineToSet = false;
 		super.init(p, min_steps);
@@ -58,7 +58,7 @@ public class PathMoverLocus<T extends MyPoint> extends PathMoverGeneric {
 
 	@Override
 	protected void calcPoint(GeoPointND p) {
-		// curr_param is between 0 and myPointList.size()-1 now
+		// curr_param is between 0 and locus.getPointLength()-1 now
 		double param = curr_param;
 		PathParameter pp = p.getPathParameter();
 		pp.t = param;
@@ -66,14 +66,14 @@ public class PathMoverLocus<T extends MyPoint> extends PathMoverGeneric {
 		// PATH MOVER CHANGED PARAMETER (see PathMoverGeneric.calcPoint())
 		// get points left and right of path parameter
 		int leftIndex = (int) Math.max(0, Math.floor(param));
-		int rightIndex = (int) Math.min(myPointList.size() - 1,
+		int rightIndex = (int) Math.min(locus.getPointLength() - 1,
 				Math.ceil(param));
-		if (myPointList.isEmpty()) {
+		if (locus.getPointLength() == 0) {
 			p.setUndefined();
 			return;
 		}
-		MyPoint leftPoint = myPointList.get(leftIndex);
-		MyPoint rightPoint = myPointList.get(rightIndex);
+		MyPoint leftPoint = locus.getPoint(leftIndex, leftScratch);
+		MyPoint rightPoint = locus.getPoint(rightIndex, rightScratch);
 
 		// interpolate between leftPoint and rightPoint
 		double param1 = (param - leftIndex);
@@ -185,7 +185,7 @@ public class PathMoverLocus<T extends MyPoint> extends PathMoverGeneric {
 		}
 		if (curr_param < new_param) {
 			int leftIndexCurr = (int) Math.max(0, Math.floor(curr_param));
-			int rightIndexNew = (int) Math.min(myPointList.size() - 1,
+			int rightIndexNew = (int) Math.min(locus.getPointLength() - 1,
 					Math.ceil(new_param));
 			for (int i = leftIndexCurr + 1; i <= rightIndexNew; i++) {
 				if (isMoveTo(i)) {
@@ -194,7 +194,7 @@ public class PathMoverLocus<T extends MyPoint> extends PathMoverGeneric {
 			}
 		} else if (curr_param > new_param) {
 			int leftIndexNew = (int) Math.max(0, Math.floor(new_param));
-			int rightIndexCurr = (int) Math.min(myPointList.size() - 1,
+			int rightIndexCurr = (int) Math.min(locus.getPointLength() - 1,
 					Math.ceil(curr_param));
 			for (int i = leftIndexNew + 1; i <= rightIndexCurr; i++) {
 				if (isMoveTo(i)) {
@@ -214,7 +214,7 @@ public class PathMoverLocus<T extends MyPoint> extends PathMoverGeneric {
 	protected double borderParam(double param) {
 
 		if (curr_param < param) {
-			return Math.min(myPointList.size() - 1, Math.ceil(curr_param));
+			return Math.min(locus.getPointLength() - 1, Math.ceil(curr_param));
 		} else if (curr_param > param) {
 			return Math.max(0, Math.floor(curr_param));
 		}
@@ -222,9 +222,9 @@ public class PathMoverLocus<T extends MyPoint> extends PathMoverGeneric {
 		// from this, suppose param is already an index
 		int paramindex = (int) Math.round(param);
 		paramindex = Math.max(0, paramindex);
-		paramindex = Math.min(paramindex, myPointList.size() - 1);
+		paramindex = Math.min(paramindex, locus.getPointLength() - 1);
 		if (posOrientation) {
-			for (int i = paramindex + 2; i <= myPointList.size() - 1; i++) {
+			for (int i = paramindex + 2; i <= locus.getPointLength() - 1; i++) {
 				// lineTo at i == paramindex + 1 cannot happen
 				if (!isMoveTo(i)) {
 					return i - 1;
@@ -244,12 +244,13 @@ public class PathMoverLocus<T extends MyPoint> extends PathMoverGeneric {
 	}
 
 	private boolean isMoveTo(int i) {
-		return myPointList.get(i).getSegmentType() == SegmentType.MOVE_TO;
+		return locus.getPoint(i, leftScratch)
+				.getSegmentType() == SegmentType.MOVE_TO;
 	}
 
 	@Override
 	public boolean hasNext() {
-		if (myPointList.isEmpty()) {
+		if (locus.getPointLength() == 0) {
 			return false;
 		}
 		// check if we pass the start parameter
@@ -260,11 +261,11 @@ public class PathMoverLocus<T extends MyPoint> extends PathMoverGeneric {
 
 		if (posOrientation) {
 			if (next_param < max_param) {
-				int rightIndexNext = (int) Math.min(myPointList.size() - 1,
+				int rightIndexNext = (int) Math.min(locus.getPointLength() - 1,
 						Math.ceil(next_param));
 				if (isMoveTo(rightIndexNext)) {
 					next_param = max_param;
-					for (int i = rightIndexNext + 1; i <= myPointList.size()
+					for (int i = rightIndexNext + 1; i <= locus.getPointLength()
 							- 1; i++) {
 						if (!isMoveTo(i)) {
 							next_param = i - 1;
@@ -273,12 +274,13 @@ public class PathMoverLocus<T extends MyPoint> extends PathMoverGeneric {
 					}
 				}
 			} else if (next_param > max_param) {
-				int rightIndexNext = (int) Math.min(myPointList.size() - 1,
-						Math.ceil(next_param - myPointList.size() + 1));
-				double next_param_little = next_param - myPointList.size() + 1;
+				int rightIndexNext = (int) Math.min(locus.getPointLength() - 1,
+						Math.ceil(next_param - locus.getPointLength() + 1));
+				double next_param_little = next_param - locus.getPointLength()
+						+ 1;
 				if (isMoveTo(rightIndexNext)) {
 					next_param_little = max_param;
-					for (int i = rightIndexNext + 1; i <= myPointList.size()
+					for (int i = rightIndexNext + 1; i <= locus.getPointLength()
 							- 1; i++) {
 						if (!isMoveTo(i)) {
 							next_param_little = i - 1;
@@ -286,7 +288,7 @@ public class PathMoverLocus<T extends MyPoint> extends PathMoverGeneric {
 						}
 					}
 				}
-				next_param = next_param_little + myPointList.size() - 1;
+				next_param = next_param_little + locus.getPointLength() - 1;
 			}
 
 			hasNext = !(curr_param < start_param && next_param >= start_param
@@ -294,7 +296,7 @@ public class PathMoverLocus<T extends MyPoint> extends PathMoverGeneric {
 							&& next_param >= start_paramUP);
 		} else {
 			if (next_param > min_param) {
-				int rightIndexNext = (int) Math.min(myPointList.size() - 1,
+				int rightIndexNext = (int) Math.min(locus.getPointLength() - 1,
 						Math.ceil(next_param));
 				if (isMoveTo(rightIndexNext)) {
 					next_param = min_param;
@@ -306,9 +308,9 @@ public class PathMoverLocus<T extends MyPoint> extends PathMoverGeneric {
 					}
 				}
 			} else if (next_param < min_param) {
-				int rightIndexNext = (int) Math.min(myPointList.size() - 1,
-						Math.ceil(next_param + myPointList.size() - 1));
-				double next_param_big = next_param + myPointList.size() - 1;
+				int rightIndexNext = (int) Math.min(locus.getPointLength() - 1,
+						Math.ceil(next_param + locus.getPointLength() - 1));
+				double next_param_big = next_param + locus.getPointLength() - 1;
 				if (isMoveTo(rightIndexNext)) {
 					next_param_big = min_param;
 					for (int i = rightIndexNext - 1; i >= 1; i--) {
@@ -318,7 +320,7 @@ public class PathMoverLocus<T extends MyPoint> extends PathMoverGeneric {
 						}
 					}
 				}
-				next_param = next_param_big - myPointList.size() + 1;
+				next_param = next_param_big - locus.getPointLength() + 1;
 			}
 
 			hasNext = !(curr_param > start_param && next_param <= start_param
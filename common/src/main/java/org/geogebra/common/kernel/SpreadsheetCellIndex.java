@@ -0,0 +1,398 @@
+package org.geogebra.common.kernel;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.geogebra.common.kernel.geos.GeoElement;
+
+/**
+ * Sparse index of spreadsheet cells by (column, row). Each column keeps its
+ * occupied rows in a sorted array, so range queries and the highest used
+ * row / column depend on the number of occupied cells, not on the area of
+ * the range.
+ *
+ * Listeners can be registered for rectangular ranges; they are told about
+ * cells added to or removed from their range.
+ */
+public class SpreadsheetCellIndex {
+
+	private static final int INITIAL_CAPACITY = 8;
+
+	private Column[] columns = new Column[INITIAL_CAPACITY];
+	private int size;
+	private final ArrayList<Range> ranges = new ArrayList<>();
+	/** listeners with changes, null if not deferring */
+	private LinkedHashSet<RangeListener> deferred;
+	private int deferDepth;
+
+	/**
+	 * Listens to changes of the cells in a range.
+	 */
+	public interface RangeListener {
+		/**
+		 * @param geo
+		 *            new cell
+		 * @param column
+		 *            column
+		 * @param row
+		 *            row
+		 */
+		void cellAdded(GeoElement geo, int column, int row);
+
+		/**
+		 * @param geo
+		 *            removed cell
+		 * @param column
+		 *            column
+		 * @param row
+		 *            row
+		 */
+		void cellRemoved(GeoElement geo, int column, int row);
+
+		/**
+		 * Called instead of single changes after
+		 * {@link SpreadsheetCellIndex#endDeferringUpdates()}.
+		 */
+		void cellsChanged();
+	}
+
+	private static class Column {
+		private int[] rows = new int[INITIAL_CAPACITY];
+		private GeoElement[] cells = new GeoElement[INITIAL_CAPACITY];
+		private int size;
+
+		/**
+		 * @return index of row, or -(insertion point) - 1
+		 */
+		private int find(int row) {
+			// cells are mostly added at the end
+			if (size == 0 || rows[size - 1] < row) {
+				return -size - 1;
+			}
+			int low = 0;
+			int high = size - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				if (rows[mid] < row) {
+					low = mid + 1;
+				} else if (rows[mid] > row) {
+					high = mid - 1;
+				} else {
+					return mid;
+				}
+			}
+			return -low - 1;
+		}
+
+		private void insert(int index, int row, GeoElement geo) {
+			if (size == rows.length) {
+				int[] newRows = new int[2 * size];
+				GeoElement[] newCells = new GeoElement[2 * size];
+				System.arraycopy(rows, 0, newRows, 0, size);
+				System.arraycopy(cells, 0, newCells, 0, size);
+				rows = newRows;
+				cells = newCells;
+			}
+			System.arraycopy(rows, index, rows, index + 1, size - index);
+			System.arraycopy(cells, index, cells, index + 1, size - index);
+			rows[index] = row;
+			cells[index] = geo;
+			size++;
+		}
+
+		private void delete(int index) {
+			size--;
+			System.arraycopy(rows, index + 1, rows, index, size - index);
+			System.arraycopy(cells, index + 1, cells, index, size - index);
+			cells[size] = null;
+		}
+	}
+
+	private static class Range {
+		private final RangeListener listener;
+		private final int minColumn;
+		private final int minRow;
+		private final int maxColumn;
+		private final int maxRow;
+
+		protected Range(RangeListener listener, int minColumn, int minRow,
+				int maxColumn, int maxRow) {
+			this.listener = listener;
+			this.minColumn = minColumn;
+			this.minRow = minRow;
+			this.maxColumn = maxColumn;
+			this.maxRow = maxRow;
+		}
+
+		protected boolean contains(int column, int row) {
+			return column >= minColumn && column <= maxColumn && row >= minRow
+					&& row <= maxRow;
+		}
+	}
+
+	/**
+	 * Puts a cell into the index, replacing the previous cell at the same
+	 * location.
+	 *
+	 * @param geo
+	 *            cell
+	 * @param column
+	 *            column
+	 * @param row
+	 *            row
+	 */
+	public void put(GeoElement geo, int column, int row) {
+		if (column < 0 || row < 0) {
+			return;
+		}
+		if (column >= columns.length) {
+			Column[] newColumns = new Column[Math.max(2 * columns.length,
+					column + 1)];
+			System.arraycopy(columns, 0, newColumns, 0, columns.length);
+			columns = newColumns;
+		}
+		Column col = columns[column];
+		if (col == null) {
+			col = new Column();
+			columns[column] = col;
+		}
+		int index = col.find(row);
+		if (index >= 0) {
+			GeoElement old = col.cells[index];
+			if (old == geo) {
+				return;
+			}
+			col.cells[index] = geo;
+			fireRemoved(old, column, row);
+		} else {
+			col.insert(-index - 1, row, geo);
+			size++;
+		}
+		fireAdded(geo, column, row);
+	}
+
+	/**
+	 * Removes a cell from the index; does nothing if another cell is at the
+	 * location.
+	 *
+	 * @param geo
+	 *            cell
+	 * @param column
+	 *            column
+	 * @param row
+	 *            row
+	 */
+	public void remove(GeoElement geo, int column, int row) {
+		Column col = getColumn(column);
+		if (col == null) {
+			return;
+		}
+		int index = col.find(row);
+		if (index >= 0 && col.cells[index] == geo) {
+			col.delete(index);
+			size--;
+			fireRemoved(geo, column, row);
+		}
+	}
+
+	/**
+	 * @param column
+	 *            column
+	 * @param row
+	 *            row
+	 * @return cell at the location, null if empty
+	 */
+	public GeoElement get(int column, int row) {
+		Column col = getColumn(column);
+		if (col == null) {
+			return null;
+		}
+		int index = col.find(row);
+		return index >= 0 ? col.cells[index] : null;
+	}
+
+	private Column getColumn(int column) {
+		return column >= 0 && column < columns.length ? columns[column] : null;
+	}
+
+	/**
+	 * Adds the cells in a range to a list, column by column.
+	 *
+	 * @param minColumn
+	 *            first column
+	 * @param minRow
+	 *            first row
+	 * @param maxColumn
+	 *            last column (inclusive)
+	 * @param maxRow
+	 *            last row (inclusive)
+	 * @param cells
+	 *            output list
+	 */
+	public void getCells(int minColumn, int minRow, int maxColumn, int maxRow,
+			List<GeoElement> cells) {
+		int last = Math.min(maxColumn, columns.length - 1);
+		for (int c = Math.max(minColumn, 0); c <= last; c++) {
+			Column col = columns[c];
+			if (col == null || col.size == 0) {
+				continue;
+			}
+			int index = col.find(minRow);
+			for (int i = index >= 0 ? index : -index - 1; i < col.size
+					&& col.rows[i] <= maxRow; i++) {
+				cells.add(col.cells[i]);
+			}
+		}
+	}
+
+	/**
+	 * @param maxColumn
+	 *            last column to consider
+	 * @param maxRow
+	 *            last row to consider
+	 * @return highest column with cells in the given bounds, -1 if there are
+	 *         none
+	 */
+	public int getHighestUsedColumn(int maxColumn, int maxRow) {
+		for (int c = Math.min(maxColumn, columns.length - 1); c >= 0; c--) {
+			Column col = columns[c];
+			if (col != null && col.size > 0 && col.rows[0] <= maxRow) {
+				return c;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param maxColumn
+	 *            last column to consider
+	 * @param maxRow
+	 *            last row to consider
+	 * @return highest row with cells in the given bounds, -1 if there are
+	 *         none
+	 */
+	public int getHighestUsedRow(int maxColumn, int maxRow) {
+		int highest = -1;
+		int last = Math.min(maxColumn, columns.length - 1);
+		for (int c = 0; c <= last; c++) {
+			Column col = columns[c];
+			if (col == null || col.size == 0) {
+				continue;
+			}
+			int index = col.find(maxRow);
+			// last occupied row not after maxRow
+			int below = index >= 0 ? index : -index - 2;
+			if (below >= 0) {
+				highest = Math.max(highest, col.rows[below]);
+			}
+		}
+		return highest;
+	}
+
+	/**
+	 * @return number of cells
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes all cells and listeners.
+	 */
+	public void clear() {
+		columns = new Column[INITIAL_CAPACITY];
+		size = 0;
+		ranges.clear();
+		if (deferred != null) {
+			deferred.clear();
+		}
+	}
+
+	/**
+	 * Registers a listener for changes in a range.
+	 *
+	 * @param listener
+	 *            listener
+	 * @param minColumn
+	 *            first column
+	 * @param minRow
+	 *            first row
+	 * @param maxColumn
+	 *            last column (inclusive)
+	 * @param maxRow
+	 *            last row (inclusive)
+	 */
+	public void addRangeListener(RangeListener listener, int minColumn,
+			int minRow, int maxColumn, int maxRow) {
+		ranges.add(new Range(listener, minColumn, minRow, maxColumn, maxRow));
+	}
+
+	/**
+	 * @param listener
+	 *            listener to be removed from all its ranges
+	 */
+	public void removeRangeListener(RangeListener listener) {
+		for (int i = ranges.size() - 1; i >= 0; i--) {
+			if (ranges.get(i).listener == listener) {
+				ranges.remove(i);
+			}
+		}
+		if (deferred != null) {
+			deferred.remove(listener);
+		}
+	}
+
+	/**
+	 * Starts collecting the listeners of changed ranges; they get one
+	 * {@link RangeListener#cellsChanged()} call in
+	 * {@link #endDeferringUpdates()}. Calls may be nested.
+	 */
+	public void startDeferringUpdates() {
+		if (deferDepth++ == 0) {
+			deferred = new LinkedHashSet<>();
+		}
+	}
+
+	/**
+	 * Tells the listeners of all ranges changed since
+	 * {@link #startDeferringUpdates()}.
+	 */
+	public void endDeferringUpdates() {
+		if (deferDepth == 0 || --deferDepth > 0) {
+			return;
+		}
+		LinkedHashSet<RangeListener> changed = deferred;
+		deferred = null;
+		for (RangeListener listener : changed) {
+			listener.cellsChanged();
+		}
+	}
+
+	private void fireAdded(GeoElement geo, int column, int row) {
+		// listeners may add or remove ranges
+		for (int i = 0; i < ranges.size(); i++) {
+			Range range = ranges.get(i);
+			if (range.contains(column, row)) {
+				if (deferred != null) {
+					deferred.add(range.listener);
+				} else {
+					range.listener.cellAdded(geo, column, row);
+				}
+			}
+		}
+	}
+
+	private void fireRemoved(GeoElement geo, int column, int row) {
+		for (int i = 0; i < ranges.size(); i++) {
+			Range range = ranges.get(i);
+			if (range.contains(column, row)) {
+				if (deferred != null) {
+					deferred.add(range.listener);
+				} else {
+					range.listener.cellRemoved(geo, column, row);
+				}
+			}
+		}
+	}
+}
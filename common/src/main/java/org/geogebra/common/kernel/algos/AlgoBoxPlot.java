@@ -23,6 +23,7 @@ import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.geos.GeoNumberValue;
 import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.geos.ListStatistics;
 
 /**
  * Boxplot algorithm. See AlgoFunctionAreaSums for implementation.
@@ -282,31 +283,38 @@ public class AlgoBoxPlot extends AlgoElement implements DrawInformationAlgo {
 
 		if (type == TYPE_RAW || type == TYPE_FREQUENCY) {
 
-			AlgoQ1 Q1Algo;
-			AlgoQ3 Q3Algo;
-			AlgoMedian medianAlgo;
+			double median;
+			double Q1;
+			double Q3;
+			double[] values = null;
 
 			if (type == TYPE_RAW) {
-				Q1Algo = new AlgoQ1(cons, list1);
-				medianAlgo = new AlgoMedian(cons, list1);
-				Q3Algo = new AlgoQ3(cons, list1);
+				// sorted values are shared with other statistics of the list
+				ListStatistics stats = list1.isDefined()
+						? list1.getStatistics() : null;
+				int size = stats == null ? 0 : stats.size();
+				median = size > 0 ? stats.getMedian() : Double.NaN;
+				Q1 = size > 1 ? stats.getQ1() : Double.NaN;
+				Q3 = size > 1 ? stats.getQ3() : Double.NaN;
+				values = stats == null ? null : stats.getValues();
 			} else {
-				Q1Algo = new AlgoQ1(cons, list1, freqList);
-				medianAlgo = new AlgoMedian(cons, list1, freqList);
-				Q3Algo = new AlgoQ3(cons, list1, freqList);
+				AlgoQ1 Q1Algo = new AlgoQ1(cons, list1, freqList);
+				AlgoMedian medianAlgo = new AlgoMedian(cons, list1, freqList);
+				AlgoQ3 Q3Algo = new AlgoQ3(cons, list1, freqList);
+				cons.removeFromConstructionList(Q1Algo);
+				cons.removeFromConstructionList(Q3Algo);
+				cons.removeFromConstructionList(medianAlgo);
+
+				median = medianAlgo.getMedian().getDouble();
+				Q1 = Q1Algo.getQ1().getDouble();
+				Q3 = Q3Algo.getQ3().getDouble();
 			}
-			cons.removeFromConstructionList(Q1Algo);
-			cons.removeFromConstructionList(Q3Algo);
-			cons.removeFromConstructionList(medianAlgo);
-
-			double median = medianAlgo.getMedian().getDouble();
-			double Q1 = Q1Algo.getQ1().getDouble();
-			double Q3 = Q3Algo.getQ3().getDouble();
 			double min = Double.MAX_VALUE;
 			double max = -Double.MAX_VALUE;
 
 			for (int i = 0; i < list1.size(); i++) {
-				double x = list1.get(i).evaluateDouble();
+				double x = values != null ? values[i]
+						: list1.get(i).evaluateDouble();
 
 				if (type == TYPE_FREQUENCY
 						&& ((GeoNumeric) freqList.get(i)).getDouble() <= 0) {
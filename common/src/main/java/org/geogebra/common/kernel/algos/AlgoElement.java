@@ -609,6 +609,19 @@ public abstract class AlgoElement extends ConstructionElement
 		// updateTime += (endTime - startTime );
 	}
 
+	/**
+	 * Opt-in flag for level scheduled updates: algorithms returning true may
+	 * have {@link #compute()} called from a worker thread, concurrently with
+	 * other thread safe algorithms that don't depend on them. This requires
+	 * that compute() only reads the input, only writes the output (with no
+	 * notifications) and that update() is not overridden.
+	 * 
+	 * @return whether compute() is thread safe
+	 */
+	public boolean isComputeThreadSafe() {
+		return false;
+	}
+
 	/**
 	 * update input random numbers without label
 	 * 
@@ -131,6 +131,11 @@ public class AlgoJoinPoints extends AlgoElement
 		return Q;
 	}
 
+	@Override
+	public boolean isComputeThreadSafe() {
+		return true;
+	}
+
 	// calc the line g through P and Q
 	@Override
 	public final void compute() {
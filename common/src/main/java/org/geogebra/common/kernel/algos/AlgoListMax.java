@@ -18,6 +18,7 @@ import org.geogebra.common.kernel.commands.Commands;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.geos.ListStatistics;
 
 /**
  * Maximum value of a list.
@@ -90,15 +91,12 @@ public class AlgoListMax extends AlgoElement {
 		double maxVal = Double.NEGATIVE_INFINITY;
 
 		if (freqList == null) {
-			for (int i = 0; i < size; i++) {
-				GeoElement geo = geoList.get(i);
-				if (geo.isNumberValue()) {
-					maxVal = Math.max(maxVal, geo.evaluateDouble());
-				} else {
-					max.setUndefined();
-					return;
-				}
+			ListStatistics stats = geoList.getStatistics();
+			if (stats == null) {
+				max.setUndefined();
+				return;
 			}
+			maxVal = stats.getMax();
 		} else {
 			if (!freqList.isDefined() || freqList.size() != geoList.size()) {
 				max.setUndefined();
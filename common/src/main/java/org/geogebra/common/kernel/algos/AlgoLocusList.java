@@ -18,6 +18,7 @@ import java.util.TreeSet;
 
 import org.geogebra.common.euclidian.EuclidianConstants;
 import org.geogebra.common.kernel.Construction;
+import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.Path;
 import org.geogebra.common.kernel.PathMover;
 import org.geogebra.common.kernel.SegmentType;
@@ -314,6 +315,7 @@ public class AlgoLocusList extends AlgoElement {
 
 		AlgoElement actLocus;
 		GeoLocus actGeo;
+		MyPoint scratch = new MyPoint();
 		for (int i = 0; i < arrLocus.size(); i++) {
 			actLocus = arrLocus.get(i);
 			if (actLocus instanceof AlgoLocusList) {
@@ -324,9 +326,8 @@ public class AlgoLocusList extends AlgoElement {
 				continue;
 			}
 			for (int j = 0; j < actGeo.getPointLength(); j++) {
-				insertPoint(actGeo.getPoints().get(j).x, actGeo.getPoints()
-						.get(j).y, j != 0
-						&& actGeo.getPoints().get(j).getLineTo());
+				MyPoint point = actGeo.getPoint(j, scratch);
+				insertPoint(point.x, point.y, j != 0 && point.getLineTo());
 			}
 			if (actGeo.getPointLength() > 0) {
 				foundDefined = true;
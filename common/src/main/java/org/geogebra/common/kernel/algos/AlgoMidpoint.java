@@ -83,6 +83,11 @@ public class AlgoMidpoint extends AlgoMidpointND
 		return (GeoPoint) super.getQ();
 	}
 
+	@Override
+	public boolean isComputeThreadSafe() {
+		return true;
+	}
+
 	@Override
 	protected void computeMidCoords() {
 
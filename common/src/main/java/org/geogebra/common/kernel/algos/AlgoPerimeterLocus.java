@@ -12,12 +12,11 @@
 
 package org.geogebra.common.kernel.algos;
 
-import java.util.ArrayList;
-
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.commands.Commands;
 import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoLocusND;
 import org.geogebra.common.kernel.geos.GeoLocusNDInterface;
 import org.geogebra.common.kernel.geos.GeoNumeric;
 
@@ -73,20 +72,26 @@ public class AlgoPerimeterLocus extends AlgoElement {
 			return;
 		}
 
-		ArrayList<? extends MyPoint> points = locus.getPoints();
+		GeoLocusND<? extends MyPoint> points = locus.getLocus();
 
-		if (points.size() < 2) {
+		if (points.getPointLength() < 2) {
 			circum.setUndefined();
 			return;
 		}
 
-		MyPoint lastPoint = points.get(0);
+		MyPoint scratch = new MyPoint();
+		MyPoint lastScratch = new MyPoint();
+		MyPoint lastPoint = points.getPoint(0, lastScratch);
 
 		double length = 0;
-		for (int i = 1; i < points.size(); i++) {
-			MyPoint pt = points.get(i);
+		for (int i = 1; i < points.getPointLength(); i++) {
+			MyPoint pt = points.getPoint(i, scratch);
 			length = length + pt.distance(lastPoint);
 			lastPoint = pt;
+			// keep lastPoint, fill the other scratch point next
+			MyPoint swap = scratch;
+			scratch = lastScratch;
+			lastScratch = swap;
 		}
 		circum.setValue(length);
 	}
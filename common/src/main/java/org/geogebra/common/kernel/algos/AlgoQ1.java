@@ -12,14 +12,13 @@ the Free Software Foundation.
 
 package org.geogebra.common.kernel.algos;
 
-import java.util.Arrays;
-
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.arithmetic.NumberValue;
 import org.geogebra.common.kernel.commands.Commands;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.geos.ListStatistics;
 
 /**
  * Sort a list. Adapted from AlgoSort
@@ -106,39 +105,13 @@ public class AlgoQ1 extends AlgoElement {
 		// ========================================
 
 		if (freqList == null) {
-			double[] sortList = new double[size];
-
-			// copy inputList into an array
-			for (int i = 0; i < size; i++) {
-				GeoElement geo = inputList.get(i);
-				if (geo instanceof NumberValue) {
-					sortList[i] = geo.evaluateDouble();
-				} else {
-					Q1.setUndefined();
-					return;
-				}
-			}
-
-			// do the sorting
-			Arrays.sort(sortList);
-
-			switch (size % 4) {
-			case 0:
-				Q1.setValue((sortList[(size) / 4 - 1]
-						+ sortList[(size + 4) / 4 - 1]) / 2);
-				break;
-			case 1:
-				Q1.setValue((sortList[(size - 1) / 4 - 1]
-						+ sortList[(size + 3) / 4 - 1]) / 2);
-				break;
-			case 2:
-				Q1.setValue(sortList[(size + 2) / 4 - 1]);
-				break;
-			default:
-				Q1.setValue(sortList[(size + 1) / 4 - 1]);
-				break;
+			// sorted values are shared with other statistics of the list
+			ListStatistics stats = inputList.getStatistics();
+			if (stats == null) {
+				Q1.setUndefined();
+				return;
 			}
-
+			Q1.setValue(stats.getQ1());
 		}
 
 		// ================================================
@@ -12,14 +12,13 @@ the Free Software Foundation.
 
 package org.geogebra.common.kernel.algos;
 
-import java.util.Arrays;
-
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.arithmetic.NumberValue;
 import org.geogebra.common.kernel.commands.Commands;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.geos.ListStatistics;
 
 /**
  * Sort a list. Adapted from AlgoSort
@@ -106,39 +105,13 @@ public class AlgoQ3 extends AlgoElement {
 		// ========================================
 
 		if (freqList == null) {
-			double[] sortList = new double[size];
-
-			// copy inputList into an array
-			for (int i = 0; i < size; i++) {
-				GeoElement geo = inputList.get(i);
-				if (geo instanceof NumberValue) {
-					sortList[i] = geo.evaluateDouble();
-				} else {
-					Q3.setUndefined();
-					return;
-				}
-			}
-
-			// do the sorting
-			Arrays.sort(sortList);
-
-			switch (size % 4) {
-			case 0:
-				Q3.setValue((sortList[(3 * size) / 4 - 1]
-						+ sortList[(3 * size + 4) / 4 - 1]) / 2);
-				break;
-			case 1:
-				Q3.setValue((sortList[(3 * size + 1) / 4 - 1]
-						+ sortList[(3 * size + 5) / 4 - 1]) / 2);
-				break;
-			case 2:
-				Q3.setValue(sortList[(3 * size + 2) / 4 - 1]);
-				break;
-			default:
-				Q3.setValue(sortList[(3 * size + 3) / 4 - 1]);
-				break;
+			// sorted values are shared with other statistics of the list
+			ListStatistics stats = inputList.getStatistics();
+			if (stats == null) {
+				Q3.setUndefined();
+				return;
 			}
-
+			Q3.setValue(stats.getQ3());
 		}
 
 		// ================================================
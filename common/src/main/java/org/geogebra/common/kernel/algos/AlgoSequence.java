@@ -27,7 +27,9 @@ import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.geos.GeoNumberValue;
 import org.geogebra.common.kernel.geos.GeoNumeric;
 import org.geogebra.common.kernel.kernelND.GeoElementND;
+import org.geogebra.common.plugin.GeoClass;
 import org.geogebra.common.util.DoubleUtil;
+import org.geogebra.common.util.ParallelExecutor;
 import org.geogebra.common.util.debug.Log;
 
 /**
@@ -55,6 +57,9 @@ public class AlgoSequence extends AlgoElement {
 	// we need to check that some Object[] reference didn't cause infinite
 	// update cycle
 	private boolean updateRunning = false;
+	// values of number sequences
+	private double[] values;
+	private ParallelExecutor parallelExecutor;
 
 	/**
 	 * Creates a new algorithm to create a sequence of objects that form a list.
@@ -216,7 +221,8 @@ public class AlgoSequence extends AlgoElement {
 				&& step == last_step);
 
 		// setValues does not work for functions
-		setValuesOnly = setValuesOnly && !expIsFunctionOrCurve;
+		setValuesOnly = setValuesOnly && !expIsFunctionOrCurve
+				&& !isNumberSequence();
 
 		// avoid label creation, might happen e.g. in
 		boolean oldSuppressLabels = cons.isSuppressLabelsActive();
@@ -247,37 +253,45 @@ public class AlgoSequence extends AlgoElement {
 				return;
 			}
 			int n = (int) Math.ceil((to - from) / step) + 1;
-			list.ensureCapacity(n);
-
-			// create the sequence
-			double currentVal = from;
-			while ((step > 0 && currentVal <= to + Kernel.MIN_PRECISION)
-					|| (step < 0 && currentVal >= to - Kernel.MIN_PRECISION)) {
-
-				// check we haven't run out of memory
-				if (kernel.getApplication().freeMemoryIsCritical()) {
-					long mem = kernel.getApplication().freeMemory();
-					list.clearCache();
-					kernel.initUndoInfo(); // clear all undo info
-					Log.debug(
-							"AlgoSequence aborted: free memory reached " + mem);
+			if (isNumberSequence()) {
+				i = createNumbers(from, to, step, n);
+				if (i < 0) {
 					return;
 				}
-
-				// set local var value
-				updateLocalVar(currentVal);
-				addElement(i);
-				currentVal += step;
-				if (DoubleUtil.isInteger(currentVal)) {
-					currentVal = Math.round(currentVal);
+			} else {
+				list.ensureCapacity(n);
+
+				// create the sequence
+				double currentVal = from;
+				while ((step > 0 && currentVal <= to + Kernel.MIN_PRECISION)
+						|| (step < 0 && currentVal >= to - Kernel.MIN_PRECISION)) {
+
+					// check we haven't run out of memory
+					if (kernel.getApplication().freeMemoryIsCritical()) {
+						long mem = kernel.getApplication().freeMemory();
+						list.clearCache();
+						kernel.initUndoInfo(); // clear all undo info
+						Log.debug(
+								"AlgoSequence aborted: free memory reached " + mem);
+						return;
+					}
+
+					// set local var value
+					updateLocalVar(currentVal);
+					addElement(i);
+					currentVal += step;
+					if (DoubleUtil.isInteger(currentVal)) {
+						currentVal = Math.round(currentVal);
+					}
+					i++;
 				}
-				i++;
 			}
 		}
 
 		// if the old list was longer than the new one
 		// we need to set some cached elements to undefined
-		for (int k = oldListSize - 1; k >= i; k--) {
+		int cached = Math.min(oldListSize, list.getCacheSize());
+		for (int k = cached - 1; k >= i; k--) {
 			GeoElement oldElement = list.getCached(k);
 			oldElement.setUndefined();
 			oldElement.update();
@@ -289,6 +303,76 @@ public class AlgoSequence extends AlgoElement {
 		last_step = step;
 	}
 
+	/**
+	 * Numbers are stored in an array rather than as list elements.
+	 */
+	private boolean isNumberSequence() {
+		return expression.getGeoClassType() == GeoClass.NUMERIC
+				&& !(expression.getDrawAlgorithm() instanceof DrawInformationAlgo);
+	}
+
+	/**
+	 * Collects the values of the variable first; if the expression is a term
+	 * in the variable, they are then evaluated without updating the
+	 * construction.
+	 * 
+	 * @return number of values, -1 if aborted
+	 */
+	private int createNumbers(double from, double to, double step,
+			int expectedSize) {
+		if (values == null || values.length < expectedSize) {
+			values = new double[Math.min(expectedSize, 1024)];
+		}
+		double currentVal = from;
+		int i = 0;
+		while ((step > 0 && currentVal <= to + Kernel.MIN_PRECISION)
+				|| (step < 0 && currentVal >= to - Kernel.MIN_PRECISION)) {
+			if (i == values.length) {
+				// check we haven't run out of memory
+				if (kernel.getApplication().freeMemoryIsCritical()) {
+					long mem = kernel.getApplication().freeMemory();
+					list.clearCache();
+					kernel.initUndoInfo(); // clear all undo info
+					Log.debug(
+							"AlgoSequence aborted: free memory reached " + mem);
+					return -1;
+				}
+				double[] newValues = new double[2 * values.length];
+				System.arraycopy(values, 0, newValues, 0, i);
+				values = newValues;
+			}
+			values[i] = currentVal;
+			currentVal += step;
+			if (DoubleUtil.isInteger(currentVal)) {
+				currentVal = Math.round(currentVal);
+			}
+			i++;
+		}
+		NumericSequenceEvaluator evaluator = NumericSequenceEvaluator
+				.create(expressionParentAlgo, var);
+		if (evaluator != null) {
+			evaluator.evaluate(values, i, parallelExecutor != null
+					? parallelExecutor : ParallelExecutor.getPrototype());
+		} else {
+			for (int k = 0; k < i; k++) {
+				updateLocalVar(values[k]);
+				values[k] = expression.isDefined()
+						? ((GeoNumeric) expression).getDouble() : Double.NaN;
+			}
+		}
+		list.setNumericValues(values, i);
+		return i;
+	}
+
+	/**
+	 * @param executor
+	 *            executor for large number sequences, null to use the
+	 *            platform default
+	 */
+	void setParallelExecutor(ParallelExecutor executor) {
+		this.parallelExecutor = executor;
+	}
+
 	private void addElement(int i) {
 		// only add new objects
 		GeoElement listElement = null;
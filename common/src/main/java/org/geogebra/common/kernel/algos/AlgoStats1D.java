@@ -21,6 +21,7 @@ import org.geogebra.common.kernel.geos.GeoAngle.AngleStyle;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.geos.ListStatistics;
 
 /**
  * Mean, variance, sum, sum of squares, standard deviation of a list adapted
@@ -191,8 +192,29 @@ public abstract class AlgoStats1D extends AlgoElement {
 		boolean useMidpoint = false;
 		double n = 0;
 
+		double[] values = geoList.getNumericValues();
+		// sums are shared with other statistics of the whole list
+		ListStatistics stats = geoList2 == null && size == geoList.size()
+				? geoList.getStatistics() : null;
+
 		// list of numbers only, no frequencies
-		if (geoList2 == null) {
+		if (stats != null) {
+			sumVal = stats.getSum();
+			sumSquares = stats.getSumSquares();
+			product = stats.getProduct();
+			values = stats.getValues();
+			n = size;
+		} else if (geoList2 == null && values != null) {
+			double val;
+			for (int i = 0; i < size; i++) {
+				val = values[i];
+				sumVal += val;
+				sumSquares += val * val;
+				product *= val;
+			}
+
+			n = size;
+		} else if (geoList2 == null) {
 			double val;
 			for (int i = 0; i < size; i++) {
 				geo = geoList.get(i);
@@ -271,8 +293,8 @@ public abstract class AlgoStats1D extends AlgoElement {
 			if (geoList2 == null) {
 				double val;
 				for (int i = 0; i < size; i++) {
-					geo = geoList.get(i);
-					val = geo.evaluateDouble();
+					val = values != null ? values[i]
+							: geoList.get(i).evaluateDouble();
 					sumAbsoluteDeviation += Math.abs(mu - val);
 				}
 			}
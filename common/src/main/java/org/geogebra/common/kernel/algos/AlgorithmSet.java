@@ -263,6 +263,11 @@ public class AlgorithmSet implements Iterable<AlgoElement> {
 	 * Updates all algorithms of this set.
 	 */
 	final public void updateAll() {
+		if (head != null && LevelScheduledCascade
+				.isApplicable(head.algo.getKernel(), size)) {
+			LevelScheduledCascade.updateAll(this);
+			return;
+		}
 		Link cur = getHead();
 		while (cur != null) {
 			cur.algo.update();
@@ -0,0 +1,160 @@
+package org.geogebra.common.kernel.algos;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.util.ParallelExecutor;
+
+/**
+ * Updates a set of algorithms level by level: algorithms on the same
+ * dependency level don't depend on each other, so those that are marked as
+ * thread safe ({@link AlgoElement#isComputeThreadSafe()}) can be computed in
+ * parallel. After each level the outputs are updated serially in construction
+ * order, so views get notified from the main thread in a deterministic order.
+ *
+ * Algorithms that are not thread safe act as barriers: they are updated alone
+ * and after everything that precedes them in construction order.
+ */
+public final class LevelScheduledCascade {
+
+	/**
+	 * Minimal number of algorithms to be updated for level scheduling to pay
+	 * off
+	 */
+	public static final int MIN_CASCADE_SIZE = 64;
+
+	/**
+	 * Minimal number of thread safe algorithms in one level to use worker
+	 * threads for it
+	 */
+	public static final int MIN_PARALLEL_LEVEL_SIZE = 32;
+
+	private static final int TASKS_PER_THREAD = 4;
+
+	private LevelScheduledCascade() {
+		// utility class
+	}
+
+	/**
+	 * @param kernel
+	 *            kernel
+	 * @param size
+	 *            number of algos to be updated
+	 * @return whether {@link #updateAll(Iterable)} should be used instead of
+	 *         serial update
+	 */
+	public static boolean isApplicable(Kernel kernel, int size) {
+		return kernel.isParallelCascade() && size >= MIN_CASCADE_SIZE
+				&& ParallelExecutor.getAvailableParallelism() > 1;
+	}
+
+	/**
+	 * Updates all algorithms; the result is the same as calling
+	 * {@link AlgoElement#update()} for each of them in the iteration order.
+	 *
+	 * @param algos
+	 *            algorithms sorted by construction index
+	 */
+	public static void updateAll(Iterable<AlgoElement> algos) {
+		ArrayList<Level> levels = splitIntoLevels(algos);
+		for (Level level : levels) {
+			if (level.threadSafe) {
+				updateInParallel(level.algos);
+			} else {
+				level.algos.get(0).update();
+			}
+		}
+	}
+
+	/**
+	 * @param algos
+	 *            algorithms sorted by construction index
+	 * @return dependency levels
+	 */
+	static ArrayList<Level> splitIntoLevels(Iterable<AlgoElement> algos) {
+		ArrayList<Level> levels = new ArrayList<>();
+		HashMap<AlgoElement, Integer> levelOf = new HashMap<>();
+		int barrier = -1;
+		for (AlgoElement algo : algos) {
+			int index;
+			if (algo.isComputeThreadSafe()) {
+				index = barrier + 1;
+				for (GeoElement geo : algo.getInput()) {
+					Integer parentLevel = levelOf.get(geo.getParentAlgorithm());
+					if (parentLevel != null) {
+						index = Math.max(index, parentLevel + 1);
+					}
+				}
+				if (index == levels.size()) {
+					levels.add(new Level(true));
+				}
+			} else {
+				index = levels.size();
+				barrier = index;
+				levels.add(new Level(false));
+			}
+			levelOf.put(algo, index);
+			levels.get(index).algos.add(algo);
+		}
+		return levels;
+	}
+
+	private static void updateInParallel(final ArrayList<AlgoElement> algos) {
+		final int size = algos.size();
+		for (int i = 0; i < size; i++) {
+			algos.get(i).updateUnlabeledRandomGeos();
+		}
+		int parallelism = ParallelExecutor.getAvailableParallelism();
+		if (size < MIN_PARALLEL_LEVEL_SIZE || parallelism < 2) {
+			for (int i = 0; i < size; i++) {
+				computeIfNotStopped(algos.get(i));
+			}
+		} else {
+			int chunks = Math.min(size, parallelism * TASKS_PER_THREAD);
+			List<Runnable> tasks = new ArrayList<>(chunks);
+			for (int c = 0; c < chunks; c++) {
+				final int from = (int) ((long) size * c / chunks);
+				final int to = (int) ((long) size * (c + 1) / chunks);
+				tasks.add(new Runnable() {
+					@Override
+					public void run() {
+						for (int i = from; i < to; i++) {
+							computeIfNotStopped(algos.get(i));
+						}
+					}
+				});
+			}
+			ParallelExecutor.run(tasks);
+		}
+		// serial commit: notify views in construction order
+		for (int i = 0; i < size; i++) {
+			AlgoElement algo = algos.get(i);
+			if (!algo.doStopUpdateCascade()) {
+				algo.updateDependentGeos();
+			}
+		}
+	}
+
+	protected static void computeIfNotStopped(AlgoElement algo) {
+		if (!algo.doStopUpdateCascade()) {
+			algo.compute();
+		}
+	}
+
+	/**
+	 * Algorithms that can be updated in any order.
+	 */
+	static final class Level {
+		/** algorithms of this level, in construction order */
+		final ArrayList<AlgoElement> algos = new ArrayList<>();
+		/** whether all algorithms are thread safe */
+		final boolean threadSafe;
+
+		Level(boolean threadSafe) {
+			this.threadSafe = threadSafe;
+		}
+	}
+}
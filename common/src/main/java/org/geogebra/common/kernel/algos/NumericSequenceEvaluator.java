@@ -0,0 +1,201 @@
+package org.geogebra.common.kernel.algos;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.arithmetic.ExpressionNode;
+import org.geogebra.common.kernel.arithmetic.ExpressionValue;
+import org.geogebra.common.kernel.arithmetic.FunctionVariable;
+import org.geogebra.common.kernel.arithmetic.Inspecting;
+import org.geogebra.common.kernel.arithmetic.MyDouble;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.util.ParallelExecutor;
+
+/**
+ * Evaluates the expression of a number sequence directly for all values of the
+ * variable, without updating the construction for each value. Only used if the
+ * expression is an arithmetic term in the variable and other numbers.
+ */
+final class NumericSequenceEvaluator {
+
+	/** minimal number of values per task when running in parallel */
+	static final int MIN_CHUNK = 20000;
+
+	private final Kernel kernel;
+	private final ExpressionNode definition;
+	private final GeoNumeric var;
+	private final boolean threadSafe;
+
+	/**
+	 * Finds geos other than numbers and variables or values that need the
+	 * construction for evaluation.
+	 */
+	private static final Inspecting UNSUPPORTED = new Inspecting() {
+		@Override
+		public boolean check(ExpressionValue v) {
+			if (v instanceof ExpressionNode) {
+				return false;
+			}
+			if (v instanceof GeoNumeric) {
+				return false;
+			}
+			return !(v instanceof MyDouble) || v instanceof FunctionVariable;
+		}
+	};
+
+	/**
+	 * Operations that only read their arguments, so that copies of the
+	 * expression may be evaluated at the same time.
+	 */
+	private static final Inspecting NOT_THREAD_SAFE = new Inspecting() {
+		@Override
+		public boolean check(ExpressionValue v) {
+			if (!(v instanceof ExpressionNode)) {
+				return false;
+			}
+			switch (((ExpressionNode) v).getOperation()) {
+			case NO_OPERATION:
+			case PLUS:
+			case MINUS:
+			case MULTIPLY:
+			case DIVIDE:
+			case POWER:
+			case SQRT:
+			case EXP:
+			case LOG:
+			case SIN:
+			case COS:
+			case TAN:
+			case ARCSIN:
+			case ARCCOS:
+			case ARCTAN:
+			case SINH:
+			case COSH:
+			case TANH:
+			case ABS:
+			case SGN:
+			case FLOOR:
+			case CEIL:
+			case ROUND:
+				return false;
+			default:
+				return true;
+			}
+		}
+	};
+
+	private NumericSequenceEvaluator(Kernel kernel, ExpressionNode definition,
+			GeoNumeric var) {
+		this.kernel = kernel;
+		this.definition = definition;
+		this.var = var;
+		this.threadSafe = !definition.inspect(NOT_THREAD_SAFE);
+	}
+
+	/**
+	 * @param expressionParentAlgo
+	 *            parent algo of the sequence expression
+	 * @param var
+	 *            sequence variable
+	 * @return evaluator or null if the expression needs the construction to
+	 *         be updated
+	 */
+	static NumericSequenceEvaluator create(AlgoElement expressionParentAlgo,
+			GeoNumeric var) {
+		if (!(expressionParentAlgo instanceof AlgoDependentNumber)
+				|| !((AlgoDependentNumber) expressionParentAlgo)
+						.isRewriteFormula()) {
+			return null;
+		}
+		// no other algo between var and expression
+		Iterator<AlgoElement> it = var.getAlgoUpdateSet().getIterator();
+		if (!it.hasNext() || it.next() != expressionParentAlgo) {
+			return null;
+		}
+		ExpressionNode definition = ((AlgoDependentNumber) expressionParentAlgo)
+				.getExpression();
+		if (definition == null || definition.inspect(UNSUPPORTED)) {
+			return null;
+		}
+		return new NumericSequenceEvaluator(expressionParentAlgo.getKernel(),
+				definition, var);
+	}
+
+	/**
+	 * Replaces values of the variable by values of the expression.
+	 *
+	 * @param values
+	 *            values of the variable
+	 * @param size
+	 *            number of values
+	 * @param executor
+	 *            executor for large sequences, may be null
+	 */
+	void evaluate(double[] values, int size, ParallelExecutor executor) {
+		int chunks = threadSafe && executor != null
+				? Math.min(executor.getParallelism(), size / MIN_CHUNK)
+				: 1;
+		chunks = Math.max(chunks, 1);
+		ArrayList<Runnable> tasks = new ArrayList<>(chunks);
+		for (int k = 0; k < chunks; k++) {
+			tasks.add(new Chunk(values, k * size / chunks,
+					(k + 1) * size / chunks));
+		}
+		if (chunks < 2) {
+			ParallelExecutor.runSerially(tasks);
+		} else {
+			executor.invokeAll(tasks);
+		}
+	}
+
+	/**
+	 * Copy of the tree that uses its own variable; leaves other than the
+	 * variable are shared.
+	 */
+	private ExpressionValue copy(ExpressionValue ev, MyDouble variable) {
+		if (ev == var) {
+			return variable;
+		}
+		if (ev instanceof ExpressionNode) {
+			ExpressionNode node = (ExpressionNode) ev;
+			if (node.isLeaf()) {
+				return new ExpressionNode(kernel,
+						copy(node.getLeft(), variable));
+			}
+			return new ExpressionNode(kernel, copy(node.getLeft(), variable),
+					node.getOperation(), node.getRight() == null ? null
+							: copy(node.getRight(), variable));
+		}
+		return ev;
+	}
+
+	private class Chunk implements Runnable {
+		private final double[] values;
+		private final int start;
+		private final int end;
+		private final MyDouble variable = new MyDouble(kernel);
+		private final ExpressionValue expression;
+
+		Chunk(double[] values, int start, int end) {
+			this.values = values;
+			this.start = start;
+			this.end = end;
+			// copies are created in the calling thread
+			this.expression = copy(definition, variable);
+		}
+
+		@Override
+		public void run() {
+			for (int i = start; i < end; i++) {
+				variable.set(values[i]);
+				try {
+					values[i] = expression.evaluateDouble();
+				} catch (Throwable t) {
+					// same as undefined element
+					values[i] = Double.NaN;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,408 @@
+package org.geogebra.common.kernel.arithmetic;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.plugin.Operation;
+import org.geogebra.common.util.DoubleUtil;
+import org.geogebra.common.util.MyMath;
+
+/**
+ * Real valued expression compiled to a flat postfix program that is evaluated
+ * on a primitive stack, so that sampling a function does not allocate any
+ * {@link MyDouble} objects.
+ *
+ * Only the numeric subset of operations is supported; leaves (numbers,
+ * function variables, numeric geos) are read through
+ * {@link NumberValue#getDouble()} on every evaluation, so changing a variable
+ * or a slider does not require recompilation. Any structural change of the
+ * expression tree does.
+ */
+public final class CompiledExpression {
+
+	private static final int OP_LOAD = 0;
+	private static final int OP_PLUS = 1;
+	private static final int OP_MINUS = 2;
+	private static final int OP_MULTIPLY = 3;
+	private static final int OP_DIVIDE = 4;
+	private static final int OP_POWER = 5;
+	private static final int OP_POWER_NODE = 6;
+	private static final int OP_SIN = 7;
+	private static final int OP_COS = 8;
+	private static final int OP_TAN = 9;
+	private static final int OP_EXP = 10;
+	private static final int OP_LOG = 11;
+	private static final int OP_LOG10 = 12;
+	private static final int OP_LOG2 = 13;
+	private static final int OP_SQRT = 14;
+	private static final int OP_CBRT = 15;
+	private static final int OP_ABS = 16;
+	private static final int OP_SGN = 17;
+	private static final int OP_SINH = 18;
+	private static final int OP_COSH = 19;
+	private static final int OP_TANH = 20;
+	/** loads a function variable from the arguments, see {@link Evaluator} */
+	private static final int OP_LOAD_VAR = 21;
+
+	private final int[] program;
+	private final NumberValue[] leaves;
+	private final ExpressionNode[] exponents;
+	private final double[] stack;
+
+	private CompiledExpression(int[] program, NumberValue[] leaves,
+			ExpressionNode[] exponents, int maxDepth) {
+		this.program = program;
+		this.leaves = leaves;
+		this.exponents = exponents;
+		this.stack = new double[maxDepth];
+	}
+
+	/**
+	 * @param expression
+	 *            expression
+	 * @return compiled expression or null if the expression contains
+	 *         operations or values that are not supported
+	 */
+	public static CompiledExpression compile(ExpressionNode expression) {
+		if (expression == null) {
+			return null;
+		}
+		Compiler compiler = new Compiler();
+		if (!compiler.emit(expression)) {
+			return null;
+		}
+		return compiler.build();
+	}
+
+	/**
+	 * Evaluates the program; values of all leaves are read at this point.
+	 * Not thread safe, the stack is shared between calls.
+	 *
+	 * @return value of the expression
+	 */
+	public double evaluate() {
+		return execute(program, leaves, exponents, null, stack);
+	}
+
+	/**
+	 * Creates an evaluator that takes the values of the given variables as
+	 * arguments instead of reading them from the variables, and has its own
+	 * stack. Several evaluators of the same expression may be used from
+	 * different threads as long as the expression and its other leaves don't
+	 * change.
+	 *
+	 * @param vars
+	 *            function variables, in the order of the arguments
+	 * @return evaluator, null if the expression contains fractional powers
+	 *         (their exponents are evaluated by the interpreter)
+	 */
+	public Evaluator createEvaluator(FunctionVariable[] vars) {
+		if (exponents.length > 0) {
+			return null;
+		}
+		int[] code = program.clone();
+		int pc = 0;
+		while (pc < code.length) {
+			int op = code[pc++];
+			if (op == OP_LOAD) {
+				NumberValue leaf = leaves[code[pc]];
+				for (int i = 0; i < vars.length; i++) {
+					if (leaf == vars[i]) {
+						code[pc - 1] = OP_LOAD_VAR;
+						code[pc] = i;
+					}
+				}
+				pc++;
+			}
+		}
+		return new Evaluator(code, leaves, stack.length);
+	}
+
+	private static double execute(int[] code, NumberValue[] leaves,
+			ExpressionNode[] exponents, double[] values, double[] st) {
+		int sp = -1;
+		int pc = 0;
+		while (pc < code.length) {
+			int op = code[pc++];
+			switch (op) {
+			case OP_LOAD:
+				st[++sp] = leaves[code[pc++]].getDouble();
+				break;
+			case OP_LOAD_VAR:
+				st[++sp] = values[code[pc++]];
+				break;
+			case OP_PLUS:
+				sp--;
+				st[sp] = st[sp] + st[sp + 1];
+				break;
+			case OP_MINUS:
+				sp--;
+				st[sp] = st[sp] - st[sp + 1];
+				break;
+			case OP_MULTIPLY:
+				sp--;
+				st[sp] = st[sp] * st[sp + 1];
+				break;
+			case OP_DIVIDE:
+				sp--;
+				st[sp] = st[sp] / st[sp + 1];
+				break;
+			case OP_POWER:
+				sp--;
+				st[sp] = power(st[sp], st[sp + 1]);
+				break;
+			case OP_POWER_NODE:
+				sp--;
+				st[sp] = power(st[sp], st[sp + 1], exponents[code[pc++]]);
+				break;
+			case OP_SIN:
+				st[sp] = sin(st[sp]);
+				break;
+			case OP_COS:
+				st[sp] = checkZero(Math.cos(st[sp]));
+				break;
+			case OP_TAN:
+				st[sp] = tan(st[sp]);
+				break;
+			case OP_EXP:
+				st[sp] = Math.exp(st[sp]);
+				break;
+			case OP_LOG:
+				st[sp] = Math.log(st[sp]);
+				break;
+			case OP_LOG10:
+				st[sp] = Math.log(st[sp]) / MyMath.LOG10;
+				break;
+			case OP_LOG2:
+				st[sp] = Math.log(st[sp]) / MyMath.LOG2;
+				break;
+			case OP_SQRT:
+				st[sp] = Math.sqrt(st[sp]);
+				break;
+			case OP_CBRT:
+				st[sp] = MyMath.cbrt(st[sp]);
+				break;
+			case OP_ABS:
+				st[sp] = Math.abs(st[sp]);
+				break;
+			case OP_SGN:
+				st[sp] = MyMath.sgn(st[sp]);
+				break;
+			case OP_SINH:
+				st[sp] = MyMath.sinh(st[sp]);
+				break;
+			case OP_COSH:
+				st[sp] = MyMath.cosh(st[sp]);
+				break;
+			case OP_TANH:
+				st[sp] = MyMath.tanh(st[sp]);
+				break;
+			default:
+				return Double.NaN;
+			}
+		}
+		return st[0];
+	}
+
+	/**
+	 * @return number of instructions (including operands)
+	 */
+	public int getProgramLength() {
+		return program.length;
+	}
+
+	private static double power(double base, double exponent) {
+		// same special case as ExpressionNodeEvaluator.handlePower
+		if (MyDouble.exactEqual(base, Math.E)) {
+			return Math.exp(exponent);
+		}
+		return MyDouble.pow(base, exponent);
+	}
+
+	private static double power(double base, double exponent,
+			ExpressionNode exponentNode) {
+		if (base < 0) {
+			// x^(a/b) := (x^a)^(1/b)
+			Double negPower = exponentNode.calculateNegPower(base);
+			if (negPower != null) {
+				return negPower;
+			}
+		}
+		return power(base, exponent);
+	}
+
+	private static double sin(double val) {
+		double ret = Math.sin(val);
+		// don't want this for eg sin(1.23*10^-9) but we do for eg sin(10pi)
+		return Math.abs(val) > 0.1 ? checkZero(ret) : ret;
+	}
+
+	private static double tan(double val) {
+		// Math.tan() gives a very large number for tan(pi/2)
+		if (DoubleUtil.isEqual(Math.abs(val) % Math.PI, Kernel.PI_HALF)) {
+			return Double.NaN;
+		}
+		double ret = Math.tan(val);
+		return Math.abs(val) > 0.1 ? checkZero(ret) : ret;
+	}
+
+	private static double checkZero(double val) {
+		return DoubleUtil.isZero(val) ? 0 : val;
+	}
+
+	/**
+	 * Evaluates the compiled expression for given values of the function
+	 * variables, see {@link CompiledExpression#createEvaluator}.
+	 */
+	public static final class Evaluator {
+		private final int[] program;
+		private final NumberValue[] leaves;
+		private final double[] stack;
+
+		Evaluator(int[] program, NumberValue[] leaves, int maxDepth) {
+			this.program = program;
+			this.leaves = leaves;
+			this.stack = new double[maxDepth];
+		}
+
+		/**
+		 * @param values
+		 *            values of the function variables
+		 * @return value of the expression
+		 */
+		public double evaluate(double[] values) {
+			return execute(program, leaves, null, values, stack);
+		}
+	}
+
+	/**
+	 * Translates expression tree into postfix code.
+	 */
+	private static class Compiler {
+		private final ArrayList<Integer> code = new ArrayList<>();
+		private final ArrayList<NumberValue> leaves = new ArrayList<>();
+		private final ArrayList<ExpressionNode> exponents = new ArrayList<>();
+		private int depth = 0;
+		private int maxDepth = 0;
+
+		protected Compiler() {
+			// make this visible
+		}
+
+		protected boolean emit(ExpressionValue ev) {
+			if (ev instanceof ExpressionNode) {
+				return emitNode((ExpressionNode) ev);
+			}
+			if (ev instanceof MyDouble || ev instanceof GeoNumeric) {
+				int index = indexOf(ev);
+				code.add(OP_LOAD);
+				code.add(index);
+				depth++;
+				maxDepth = Math.max(maxDepth, depth);
+				return true;
+			}
+			return false;
+		}
+
+		private int indexOf(ExpressionValue leaf) {
+			for (int i = 0; i < leaves.size(); i++) {
+				if (leaves.get(i) == leaf) {
+					return i;
+				}
+			}
+			leaves.add((NumberValue) leaf);
+			return leaves.size() - 1;
+		}
+
+		private boolean emitNode(ExpressionNode node) {
+			if (node.isLeaf()) {
+				return emit(node.getLeft());
+			}
+			Operation operation = node.getOperation();
+			int binary = getBinaryOpcode(operation);
+			if (binary >= 0) {
+				if (!emit(node.getLeft()) || !emit(node.getRight())) {
+					return false;
+				}
+				depth--;
+				if (binary == OP_POWER && node.getRight().isExpressionNode()) {
+					code.add(OP_POWER_NODE);
+					code.add(exponents.size());
+					exponents.add(node.getRight().wrap());
+				} else {
+					code.add(binary);
+				}
+				return true;
+			}
+			int unary = getUnaryOpcode(operation);
+			if (unary >= 0 && emit(node.getLeft())) {
+				code.add(unary);
+				return true;
+			}
+			return false;
+		}
+
+		private static int getBinaryOpcode(Operation operation) {
+			switch (operation) {
+			case PLUS:
+				return OP_PLUS;
+			case MINUS:
+				return OP_MINUS;
+			case MULTIPLY:
+				return OP_MULTIPLY;
+			case DIVIDE:
+				return OP_DIVIDE;
+			case POWER:
+				return OP_POWER;
+			default:
+				return -1;
+			}
+		}
+
+		private static int getUnaryOpcode(Operation operation) {
+			switch (operation) {
+			case SIN:
+				return OP_SIN;
+			case COS:
+				return OP_COS;
+			case TAN:
+				return OP_TAN;
+			case EXP:
+				return OP_EXP;
+			case LOG:
+				return OP_LOG;
+			case LOG10:
+				return OP_LOG10;
+			case LOG2:
+				return OP_LOG2;
+			case SQRT:
+				return OP_SQRT;
+			case CBRT:
+				return OP_CBRT;
+			case ABS:
+				return OP_ABS;
+			case SGN:
+				return OP_SGN;
+			case SINH:
+				return OP_SINH;
+			case COSH:
+				return OP_COSH;
+			case TANH:
+				return OP_TANH;
+			default:
+				return -1;
+			}
+		}
+
+		protected CompiledExpression build() {
+			int[] program = new int[code.size()];
+			for (int i = 0; i < program.length; i++) {
+				program[i] = code.get(i);
+			}
+			return new CompiledExpression(program,
+					leaves.toArray(new NumberValue[0]),
+					exponents.toArray(new ExpressionNode[0]), maxDepth);
+		}
+	}
+}
@@ -215,7 +215,7 @@ public class Function extends FunctionNVar
 		}
 		// NumberValue
 		fVars[0].set(x);
-		return expression.evaluateDouble();
+		return evaluateExpression();
 
 	}
 
@@ -270,6 +270,7 @@ public class Function extends FunctionNVar
 		} else {
 			expression = new ExpressionNode(expression);
 		}
+		invalidateCompiledExpression();
 	}
 
 	/**
@@ -280,7 +281,8 @@ public class Function extends FunctionNVar
 	 */
 	final public void translateY(double vy) {
 		expression = translateY(expression, fVars, vy);
-
+		// the tree may be changed in place
+		invalidateCompiledExpression();
 	}
 
 	/**
@@ -1179,6 +1181,7 @@ public class Function extends FunctionNVar
 	 */
 	public void dilateX(double scale) {
 		dilateX(expression, scale, 0);
+		invalidateCompiledExpression();
 	}
 
 	/**
@@ -39,7 +39,7 @@ import org.geogebra.common.kernel.matrix.Coords;
 import org.geogebra.common.main.MyError;
 import org.geogebra.common.plugin.Operation;
 import org.geogebra.common.util.DoubleUtil;
-import org.geogebra.common.util.MaxSizeHashMap;
+import org.geogebra.common.util.LRUMap;
 import org.geogebra.common.util.MyMath;
 import org.geogebra.common.util.StringUtil;
 
@@ -70,12 +70,16 @@ public class FunctionNVar extends ValidExpression
 	@Weak
 	protected Kernel kernel;
 	private final static int MAX_CAS_EVAL_MAP_SIZE = 100;
-	private MaxSizeHashMap<String, FunctionNVar> casEvalMap;
+	private LRUMap<String, FunctionNVar> casEvalMap;
 	private String shortLHS;
 	private ExpressionNode casEvalExpression;
 	private String casEvalStringSymbolic;
 
 	private boolean forceInequality;
+	/** compiled form of expression, see {@link #evaluateExpression()} */
+	private CompiledExpression compiledExpression;
+	/** expression that compiledExpression was created for */
+	private ExpressionNode compiledFor;
 
 	public boolean isPolynomial() {
 		return polynomial;
@@ -229,6 +233,7 @@ public class FunctionNVar extends ValidExpression
 	public void replaceChildrenByValues(GeoElement geo) {
 		if (expression != null) {
 			expression.replaceChildrenByValues(geo);
+			invalidateCompiledExpression();
 		}
 	}
 
@@ -357,6 +362,7 @@ public class FunctionNVar extends ValidExpression
 			// x, y got polynomials while parsing
 			VariablePolyReplacer s = VariablePolyReplacer.getReplacer(fVar);
 			expression.traverse(s);
+			invalidateCompiledExpression();
 			int replacements = s.getReplacements();
 			isConstantFunction = isConstantFunction && replacements == 0;
 		}
@@ -410,6 +416,7 @@ public class FunctionNVar extends ValidExpression
 			en.setOperation(Operation.MULTIPLY);
 		}
 		undecided.clear();
+		invalidateCompiledExpression();
 	}
 
 	/**
@@ -519,7 +526,7 @@ public class FunctionNVar extends ValidExpression
 				fVars[i].set(vals[i]);
 			}
 		}
-		return expression.evaluateDouble();
+		return evaluateExpression();
 	}
 
 	@Override
@@ -533,7 +540,61 @@ public class FunctionNVar extends ValidExpression
 		fVars[0].set(x);
 		fVars[1].set(y);
 
-		return expression.evaluateDouble();
+		return evaluateExpression();
+	}
+
+	/**
+	 * Evaluates the expression for current values of function variables. For
+	 * pure real expressions this uses a compiled form of the expression tree
+	 * which avoids allocating intermediate values; anything else is evaluated
+	 * by the interpreter. The compiled form is rebuilt whenever the expression
+	 * object changes.
+	 * 
+	 * @return value of the expression
+	 */
+	protected final double evaluateExpression() {
+		updateCompiledExpression();
+		if (compiledExpression == null) {
+			return expression.evaluateDouble();
+		}
+		return compiledExpression.evaluate();
+	}
+
+	/**
+	 * Needs to be called when the expression tree was changed in place.
+	 */
+	public void invalidateCompiledExpression() {
+		compiledFor = null;
+		compiledExpression = null;
+	}
+
+	/**
+	 * @return whether the current expression is evaluated in compiled form
+	 */
+	public boolean isCompiled() {
+		updateCompiledExpression();
+		return compiledExpression != null;
+	}
+
+	/**
+	 * @return evaluator that doesn't change the function variables, so that
+	 *         the function may be evaluated from several threads (one
+	 *         evaluator per thread); null if not supported for this expression
+	 */
+	public CompiledExpression.Evaluator createThreadSafeEvaluator() {
+		if (isBooleanFunction || fVars == null) {
+			return null;
+		}
+		updateCompiledExpression();
+		return compiledExpression == null ? null
+				: compiledExpression.createEvaluator(fVars);
+	}
+
+	private void updateCompiledExpression() {
+		if (compiledFor != expression) {
+			compiledFor = expression;
+			compiledExpression = CompiledExpression.compile(expression);
+		}
 	}
 
 	/**
@@ -725,10 +786,9 @@ public class FunctionNVar extends ValidExpression
 	 * 
 	 * @return CAS map command -> result
 	 */
-	protected MaxSizeHashMap<String, FunctionNVar> getCasEvalMap() {
+	protected LRUMap<String, FunctionNVar> getCasEvalMap() {
 		if (casEvalMap == null) {
-			casEvalMap = new MaxSizeHashMap<>(
-					MAX_CAS_EVAL_MAP_SIZE);
+			casEvalMap = new LRUMap<>(MAX_CAS_EVAL_MAP_SIZE);
 		}
 		return casEvalMap;
 	}
@@ -741,7 +801,7 @@ public class FunctionNVar extends ValidExpression
 	public void printCASevalMapXML(StringBuilder sb) {
 		if (casEvalMap != null) {
 			sb.append("<casMap>\n");
-			for (Entry<String, FunctionNVar> entry : casEvalMap.entrySet()) {
+			for (Entry<String, FunctionNVar> entry : casEvalMap.entries()) {
 				sb.append("\t<entry key=\"");
 				StringUtil.encodeXML(sb, entry.getKey());
 				sb.append("\" val=\"");
@@ -1232,6 +1292,7 @@ public class FunctionNVar extends ValidExpression
 			expression = expression.replace(fVars[1], newY).wrap();
 			expression = expression.replace(fVars[zIndex], newZ).wrap();
 			this.initIneqs(expression);
+			invalidateCompiledExpression();
 			this.translate(s.getX(), s.getY(), s.getZ());
 		} else {
 			this.translate(-s.getX(), -s.getY());
@@ -1258,6 +1319,7 @@ public class FunctionNVar extends ValidExpression
 			double a11) {
 		ExpressionNode dummy = new ExpressionNode();
 		expression.replace(fVars[0], dummy).wrap();
+		invalidateCompiledExpression();
 		MyDouble ma00 = new MyDouble(kernel, a00);
 		MyDouble ma01 = new MyDouble(kernel, a01);
 		MyDouble ma10 = new MyDouble(kernel, a10);
@@ -1331,6 +1393,7 @@ public class FunctionNVar extends ValidExpression
 				CopyReplacer.getReplacer(dummy, newX.divide(newZ), kernel))
 				.wrap();
 		this.initIneqs(expression);
+		invalidateCompiledExpression();
 	}
 
 	@Override
@@ -1340,6 +1403,7 @@ public class FunctionNVar extends ValidExpression
 			return ev;
 		}
 		expression = expression.traverse(t).wrap();
+		invalidateCompiledExpression();
 		return this;
 	}
 
@@ -130,6 +130,31 @@ public interface Traversing {
 		}
 	}
 
+	/**
+	 * Replaces variables by copies, {@link ExpressionValue#deepCopy(Kernel)}
+	 * keeps them shared
+	 *
+	 */
+	public class VariableCopier implements Traversing {
+		private final Kernel kernel;
+
+		/**
+		 * @param kernel
+		 *            kernel for copies
+		 */
+		public VariableCopier(Kernel kernel) {
+			this.kernel = kernel;
+		}
+
+		@Override
+		public ExpressionValue process(ExpressionValue ev) {
+			if (ev instanceof Variable) {
+				return ((Variable) ev).deepCopy(kernel);
+			}
+			return ev;
+		}
+	}
+
 	/**
 	 * Replaces dummy variable with given name
 	 *
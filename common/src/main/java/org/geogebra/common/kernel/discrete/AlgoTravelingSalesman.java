@@ -6,7 +6,6 @@ import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.commands.Commands;
-import org.geogebra.common.kernel.discrete.tsp.TSP;
 import org.geogebra.common.kernel.discrete.tsp.TSPSolver;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
@@ -17,6 +16,10 @@ import org.geogebra.common.kernel.kernelND.GeoPointND;
  *
  */
 public class AlgoTravelingSalesman extends AlgoDiscrete {
+
+	/** keeps the last tour for warm starts */
+	private TSPSolver solver;
+
 	/**
 	 * @param cons
 	 *            construction
@@ -45,25 +48,31 @@ public class AlgoTravelingSalesman extends AlgoDiscrete {
 		}
 
 		double[] inhom = new double[2];
-
-		// Opt3 opt3 = new Opt3();
-		// final BranchBound construction = new BranchBound(500, opt3);
-
-		MyPoint[] nodes = new MyPoint[size];
+		double[] x = new double[size];
+		double[] y = new double[size];
+		int n = 0;
 
 		for (int i = 0; i < size; i++) {
 			GeoElement geo = inputList.get(i);
 			if (geo.isDefined() && geo.isGeoPoint()) {
 				GeoPointND p = (GeoPointND) geo;
 				p.getInhomCoords(inhom);
-				nodes[i] = new MyPoint(inhom[0], inhom[1]);
-				// Log.error(i + " " + nodes[i].toString());
+				x[n] = inhom[0];
+				y[n] = inhom[1];
+				n++;
 			}
 		}
 
-		final TSP tsp = new TSPSolver();
+		if (n < 3) {
+			locus.setUndefined();
+			return;
+		}
+
+		if (solver == null) {
+			solver = new TSPSolver();
+		}
 
-		tsp.solve(nodes);
+		int[] tour = solver.solve(x, y, n);
 
 		if (al == null) {
 			al = new ArrayList<>();
@@ -71,15 +80,13 @@ public class AlgoTravelingSalesman extends AlgoDiscrete {
 			al.clear();
 		}
 
-		for (int i = 0; i < size; i++) {
-			// Log.error(i + " " + nodes[i].toString());
-			nodes[i].setLineTo(i != 0);
-			al.add(nodes[i]);
+		for (int i = 0; i < n; i++) {
+			al.add(new MyPoint(x[tour[i]], y[tour[i]],
+					i == 0 ? SegmentType.MOVE_TO : SegmentType.LINE_TO));
 		}
 
-		// // join up
-		MyPoint n = nodes[0];
-		al.add(new MyPoint(n.getX(), n.getY(), SegmentType.LINE_TO));
+		// join up
+		al.add(new MyPoint(x[tour[0]], y[tour[0]], SegmentType.LINE_TO));
 
 		locus.setPoints(al);
 		locus.setDefined(true);
@@ -0,0 +1,156 @@
+package org.geogebra.common.kernel.discrete;
+
+/**
+ * Undirected multigraph in compressed sparse row form: the edges at vertex v
+ * are stored at positions offsets[v] .. offsets[v + 1] - 1 of the adjacency
+ * arrays. Topology is fixed, edge weights can be changed.
+ */
+public final class CompactGraph {
+
+	private final int vertexCount;
+	private final int[] source;
+	private final int[] target;
+	private final double[] weight;
+	private final int[] offsets;
+	private final int[] neighbours;
+	private final int[] incidentEdges;
+
+	/**
+	 * @param vertexCount
+	 *            number of vertices
+	 * @param source
+	 *            first vertex of each edge
+	 * @param target
+	 *            second vertex of each edge
+	 * @param edgeCount
+	 *            number of edges
+	 */
+	public CompactGraph(int vertexCount, int[] source, int[] target,
+			int edgeCount) {
+		this.vertexCount = vertexCount;
+		this.source = new int[edgeCount];
+		this.target = new int[edgeCount];
+		System.arraycopy(source, 0, this.source, 0, edgeCount);
+		System.arraycopy(target, 0, this.target, 0, edgeCount);
+		weight = new double[edgeCount];
+		offsets = new int[vertexCount + 1];
+		for (int e = 0; e < edgeCount; e++) {
+			offsets[source[e] + 1]++;
+			offsets[target[e] + 1]++;
+		}
+		for (int v = 0; v < vertexCount; v++) {
+			offsets[v + 1] += offsets[v];
+		}
+		neighbours = new int[2 * edgeCount];
+		incidentEdges = new int[2 * edgeCount];
+		int[] fill = new int[vertexCount];
+		System.arraycopy(offsets, 0, fill, 0, vertexCount);
+		for (int e = 0; e < edgeCount; e++) {
+			int a = source[e];
+			int b = target[e];
+			neighbours[fill[a]] = b;
+			incidentEdges[fill[a]++] = e;
+			neighbours[fill[b]] = a;
+			incidentEdges[fill[b]++] = e;
+		}
+	}
+
+	/**
+	 * @return number of vertices
+	 */
+	public int getVertexCount() {
+		return vertexCount;
+	}
+
+	/**
+	 * @return number of edges
+	 */
+	public int getEdgeCount() {
+		return source.length;
+	}
+
+	/**
+	 * @param edge
+	 *            edge index
+	 * @return first vertex
+	 */
+	public int getSource(int edge) {
+		return source[edge];
+	}
+
+	/**
+	 * @param edge
+	 *            edge index
+	 * @return second vertex
+	 */
+	public int getTarget(int edge) {
+		return target[edge];
+	}
+
+	/**
+	 * @param edge
+	 *            edge index
+	 * @param vertex
+	 *            one end of the edge
+	 * @return the other end of the edge
+	 */
+	public int getOpposite(int edge, int vertex) {
+		return source[edge] == vertex ? target[edge] : source[edge];
+	}
+
+	/**
+	 * @param edge
+	 *            edge index
+	 * @return weight, infinite for edges that cannot be used
+	 */
+	public double getWeight(int edge) {
+		return weight[edge];
+	}
+
+	/**
+	 * @param edge
+	 *            edge index
+	 * @param value
+	 *            weight, infinite for edges that cannot be used
+	 */
+	public void setWeight(int edge, double value) {
+		weight[edge] = value;
+	}
+
+	/**
+	 * @param vertex
+	 *            vertex
+	 * @return start of the vertex's adjacency in {@link #getNeighbour(int)}
+	 *         and {@link #getIncidentEdge(int)}
+	 */
+	public int getFirst(int vertex) {
+		return offsets[vertex];
+	}
+
+	/**
+	 * @param vertex
+	 *            vertex
+	 * @return end (exclusive) of the vertex's adjacency
+	 */
+	public int getEnd(int vertex) {
+		return offsets[vertex + 1];
+	}
+
+	/**
+	 * @param position
+	 *            position in adjacency
+	 * @return neighbouring vertex
+	 */
+	public int getNeighbour(int position) {
+		return neighbours[position];
+	}
+
+	/**
+	 * @param position
+	 *            position in adjacency
+	 * @return edge leading to the neighbour
+	 */
+	public int getIncidentEdge(int position) {
+		return incidentEdges[position];
+	}
+}
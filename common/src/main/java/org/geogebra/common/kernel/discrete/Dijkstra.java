@@ -0,0 +1,139 @@
+package org.geogebra.common.kernel.discrete;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra's shortest paths on a {@link CompactGraph} with a binary heap.
+ * The work arrays are kept between runs on graphs of the same size.
+ */
+public final class Dijkstra {
+
+	private double[] distance = new double[0];
+	private int[] previousEdge = new int[0];
+	private int[] heap = new int[0];
+	/** position of each vertex in the heap, -1 if not in heap */
+	private int[] heapPosition = new int[0];
+	private int heapSize;
+
+	/**
+	 * @param graph
+	 *            graph
+	 * @param start
+	 *            start vertex
+	 * @param end
+	 *            end vertex
+	 * @param weighted
+	 *            whether to use edge weights, otherwise each usable edge
+	 *            counts as 1
+	 * @return edges of a shortest path from start to end in order, null if
+	 *         there is no path
+	 */
+	public int[] getPath(CompactGraph graph, int start, int end,
+			boolean weighted) {
+		int n = graph.getVertexCount();
+		if (distance.length != n) {
+			distance = new double[n];
+			previousEdge = new int[n];
+			heap = new int[n];
+			heapPosition = new int[n];
+		}
+		Arrays.fill(distance, Double.POSITIVE_INFINITY);
+		Arrays.fill(previousEdge, -1);
+		Arrays.fill(heapPosition, -1);
+		heapSize = 0;
+		distance[start] = 0;
+		push(start);
+		while (heapSize > 0) {
+			int v = pop();
+			if (v == end) {
+				break;
+			}
+			for (int i = graph.getFirst(v); i < graph.getEnd(v); i++) {
+				int edge = graph.getIncidentEdge(i);
+				double w = graph.getWeight(edge);
+				if (w == Double.POSITIVE_INFINITY) {
+					continue;
+				}
+				int u = graph.getNeighbour(i);
+				double d = distance[v] + (weighted ? w : 1);
+				if (d < distance[u]) {
+					distance[u] = d;
+					previousEdge[u] = edge;
+					if (heapPosition[u] < 0) {
+						push(u);
+					} else {
+						siftUp(heapPosition[u]);
+					}
+				}
+			}
+		}
+		if (start == end || previousEdge[end] < 0) {
+			return null;
+		}
+		int length = 0;
+		for (int v = end; v != start; v = graph
+				.getOpposite(previousEdge[v], v)) {
+			length++;
+		}
+		int[] path = new int[length];
+		for (int v = end; v != start; v = graph
+				.getOpposite(previousEdge[v], v)) {
+			path[--length] = previousEdge[v];
+		}
+		return path;
+	}
+
+	private void push(int v) {
+		heap[heapSize] = v;
+		heapPosition[v] = heapSize;
+		siftUp(heapSize++);
+	}
+
+	private int pop() {
+		int top = heap[0];
+		heapPosition[top] = -1;
+		heapSize--;
+		if (heapSize > 0) {
+			heap[0] = heap[heapSize];
+			heapPosition[heap[0]] = 0;
+			siftDown(0);
+		}
+		return top;
+	}
+
+	private void siftUp(int position) {
+		int pos = position;
+		int v = heap[pos];
+		while (pos > 0) {
+			int parent = (pos - 1) / 2;
+			if (distance[heap[parent]] <= distance[v]) {
+				break;
+			}
+			heap[pos] = heap[parent];
+			heapPosition[heap[pos]] = pos;
+			pos = parent;
+		}
+		heap[pos] = v;
+		heapPosition[v] = pos;
+	}
+
+	private void siftDown(int position) {
+		int pos = position;
+		int v = heap[pos];
+		while (2 * pos + 1 < heapSize) {
+			int child = 2 * pos + 1;
+			if (child + 1 < heapSize
+					&& distance[heap[child + 1]] < distance[heap[child]]) {
+				child++;
+			}
+			if (distance[heap[child]] >= distance[v]) {
+				break;
+			}
+			heap[pos] = heap[child];
+			heapPosition[heap[pos]] = pos;
+			pos = child;
+		}
+		heap[pos] = v;
+		heapPosition[v] = pos;
+	}
+}
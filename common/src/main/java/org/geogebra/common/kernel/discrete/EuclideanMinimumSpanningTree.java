@@ -0,0 +1,334 @@
+package org.geogebra.common.kernel.discrete;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.geogebra.common.kernel.discrete.delaunay.DelaunayTriangulation;
+import org.geogebra.common.kernel.discrete.delaunay.PointDt;
+import org.geogebra.common.kernel.discrete.delaunay.TriangleDt;
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Euclidean minimum spanning tree of a point set in O(n log n): the tree is a
+ * subgraph of the Delaunay triangulation, so Kruskal only needs to look at
+ * the O(n) Delaunay edges.
+ */
+public final class EuclideanMinimumSpanningTree {
+
+	private static final int HILBERT_ORDER = 15;
+
+	private EuclideanMinimumSpanningTree() {
+		// utility class
+	}
+
+	/**
+	 * @param x
+	 *            x-coordinates
+	 * @param y
+	 *            y-coordinates
+	 * @param n
+	 *            number of points
+	 * @return tree edges as pairs of point indices, n-1 edges for n &gt; 0
+	 *         points
+	 */
+	public static int[] compute(double[] x, double[] y, int n) {
+		if (n < 2) {
+			return new int[0];
+		}
+		int[] edges;
+		try {
+			edges = delaunayEdges(x, y, n);
+		} catch (RuntimeException e) {
+			// degenerate input may make the point location walk fail
+			Log.debug("Delaunay triangulation failed: " + e.getMessage());
+			return prim(x, y, n);
+		}
+		if (edges == null) {
+			return chain(x, y, n);
+		}
+		return kruskal(x, y, n, edges);
+	}
+
+	/**
+	 * @param x
+	 *            x-coordinates
+	 * @param y
+	 *            y-coordinates
+	 * @param n
+	 *            number of points
+	 * @return edges of the Delaunay triangulation as pairs of point indices
+	 *         (interior edges twice), each duplicate point connected to its
+	 *         representative; null if all points are collinear
+	 */
+	public static int[] delaunayEdges(double[] x, double[] y, int n) {
+		int[] order = hilbertOrder(x, y, n);
+		DelaunayTriangulation dt = new DelaunayTriangulation();
+		IndexedPoint[] points = new IndexedPoint[n];
+		int[] duplicates = new int[n];
+		int duplicateCount = 0;
+		for (int i = 0; i < n; i++) {
+			int index = order[i];
+			points[index] = new IndexedPoint(x[index], y[index], index);
+			int size = dt.size();
+			dt.insertPoint(points[index]);
+			if (dt.size() == size) {
+				duplicates[duplicateCount++] = index;
+			}
+		}
+		if (dt.allCollinear) {
+			return null;
+		}
+		int[] edges = new int[6 * dt.trianglesSize() + 2 * duplicateCount];
+		int count = 0;
+		Iterator<TriangleDt> it = dt.trianglesIterator();
+		while (it.hasNext()) {
+			TriangleDt triangle = it.next();
+			if (triangle.isHalfplane()) {
+				// hull edges also belong to a proper triangle
+				continue;
+			}
+			int a = ((IndexedPoint) triangle.p1()).index;
+			int b = ((IndexedPoint) triangle.p2()).index;
+			int c = ((IndexedPoint) triangle.p3()).index;
+			edges[count++] = a;
+			edges[count++] = b;
+			edges[count++] = b;
+			edges[count++] = c;
+			edges[count++] = c;
+			edges[count++] = a;
+		}
+		for (int i = 0; i < duplicateCount; i++) {
+			IndexedPoint duplicate = points[duplicates[i]];
+			TriangleDt triangle = dt.find(duplicate);
+			edges[count++] = duplicate.index;
+			edges[count++] = getClosestCorner(triangle, duplicate).index;
+		}
+		return count == edges.length ? edges : Arrays.copyOf(edges, count);
+	}
+
+	/**
+	 * @param x
+	 *            x-coordinates
+	 * @param y
+	 *            y-coordinates
+	 * @param n
+	 *            number of points
+	 * @param delaunayEdges
+	 *            result of {@link #delaunayEdges(double[], double[], int)},
+	 *            or other candidate edges
+	 * @return tree edges as pairs of point indices; a spanning forest if the
+	 *         edges do not connect all points
+	 */
+	public static int[] fromDelaunayEdges(double[] x, double[] y, int n,
+			int[] delaunayEdges) {
+		return kruskal(x, y, n, delaunayEdges);
+	}
+
+	private static IndexedPoint getClosestCorner(TriangleDt triangle,
+			PointDt p) {
+		IndexedPoint closest = null;
+		double closestDistance = Double.POSITIVE_INFINITY;
+		for (PointDt corner : new PointDt[] { triangle.p1(), triangle.p2(),
+				triangle.p3() }) {
+			if (corner != null && corner.distance(p) < closestDistance) {
+				closest = (IndexedPoint) corner;
+				closestDistance = corner.distance(p);
+			}
+		}
+		return closest;
+	}
+
+	/**
+	 * Sorts the points along a Hilbert curve, so that each insertion into the
+	 * triangulation starts its point location walk close to the new point.
+	 */
+	private static int[] hilbertOrder(double[] x, double[] y, int n) {
+		double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < n; i++) {
+			minX = Math.min(minX, x[i]);
+			maxX = Math.max(maxX, x[i]);
+			minY = Math.min(minY, y[i]);
+			maxY = Math.max(maxY, y[i]);
+		}
+		int cells = (1 << HILBERT_ORDER) - 1;
+		double range = Math.max(maxX - minX, maxY - minY);
+		double scale = range > 0 ? cells / range : 0;
+		long[] keys = new long[n];
+		for (int i = 0; i < n; i++) {
+			int cx = (int) ((x[i] - minX) * scale);
+			int cy = (int) ((y[i] - minY) * scale);
+			keys[i] = (hilbertIndex(cx, cy) << 32) | i;
+		}
+		Arrays.sort(keys);
+		int[] order = new int[n];
+		for (int i = 0; i < n; i++) {
+			order[i] = (int) keys[i];
+		}
+		return order;
+	}
+
+	private static long hilbertIndex(int x0, int y0) {
+		int x = x0;
+		int y = y0;
+		long d = 0;
+		for (int s = 1 << (HILBERT_ORDER - 1); s > 0; s >>= 1) {
+			int rx = (x & s) > 0 ? 1 : 0;
+			int ry = (y & s) > 0 ? 1 : 0;
+			d += (long) s * s * ((3 * rx) ^ ry);
+			if (ry == 0) {
+				if (rx == 1) {
+					x = s - 1 - x;
+					y = s - 1 - y;
+				}
+				int t = x;
+				x = y;
+				y = t;
+			}
+		}
+		return d;
+	}
+
+	private static int[] kruskal(double[] x, double[] y, int n,
+			int[] candidates) {
+		int m = candidates.length / 2;
+		double[] weight = new double[m];
+		int[] order = new int[m];
+		for (int i = 0; i < m; i++) {
+			weight[i] = distanceSquared(x, y, candidates[2 * i],
+					candidates[2 * i + 1]);
+			order[i] = i;
+		}
+		heapSort(order, weight);
+		int[] parent = new int[n];
+		int[] rank = new int[n];
+		for (int i = 0; i < n; i++) {
+			parent[i] = i;
+		}
+		int[] tree = new int[2 * (n - 1)];
+		int count = 0;
+		for (int i = 0; i < m && count < tree.length; i++) {
+			int a = candidates[2 * order[i]];
+			int b = candidates[2 * order[i] + 1];
+			int rootA = find(parent, a);
+			int rootB = find(parent, b);
+			if (rootA != rootB) {
+				if (rank[rootA] < rank[rootB]) {
+					parent[rootA] = rootB;
+				} else {
+					parent[rootB] = rootA;
+					if (rank[rootA] == rank[rootB]) {
+						rank[rootA]++;
+					}
+				}
+				tree[count++] = a;
+				tree[count++] = b;
+			}
+		}
+		return count == tree.length ? tree : Arrays.copyOf(tree, count);
+	}
+
+	private static int find(int[] parent, int i) {
+		int root = i;
+		while (parent[root] != root) {
+			// path halving
+			parent[root] = parent[parent[root]];
+			root = parent[root];
+		}
+		return root;
+	}
+
+	/**
+	 * Sorts indices by ascending weight without boxing.
+	 */
+	private static void heapSort(int[] order, double[] weight) {
+		int n = order.length;
+		for (int i = n / 2 - 1; i >= 0; i--) {
+			siftDown(order, weight, i, n);
+		}
+		for (int end = n - 1; end > 0; end--) {
+			int tmp = order[0];
+			order[0] = order[end];
+			order[end] = tmp;
+			siftDown(order, weight, 0, end);
+		}
+	}
+
+	private static void siftDown(int[] order, double[] weight, int start,
+			int end) {
+		int root = start;
+		int value = order[root];
+		while (2 * root + 1 < end) {
+			int child = 2 * root + 1;
+			if (child + 1 < end
+					&& weight[order[child + 1]] > weight[order[child]]) {
+				child++;
+			}
+			if (weight[order[child]] <= weight[value]) {
+				break;
+			}
+			order[root] = order[child];
+			root = child;
+		}
+		order[root] = value;
+	}
+
+	/**
+	 * Spanning tree of collinear points: neighbours along the line.
+	 */
+	private static int[] chain(final double[] x, final double[] y, int n) {
+		Integer[] sorted = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			sorted[i] = i;
+		}
+		Arrays.sort(sorted, (a, b) -> x[a] != x[b] ? Double.compare(x[a], x[b])
+				: Double.compare(y[a], y[b]));
+		int[] tree = new int[2 * (n - 1)];
+		for (int i = 0; i < n - 1; i++) {
+			tree[2 * i] = sorted[i];
+			tree[2 * i + 1] = sorted[i + 1];
+		}
+		return tree;
+	}
+
+	/**
+	 * Dense O(n^2) Prim, used only if the triangulation fails.
+	 */
+	private static int[] prim(double[] x, double[] y, int n) {
+		boolean[] inTree = new boolean[n];
+		double[] best = new double[n];
+		int[] from = new int[n];
+		Arrays.fill(best, Double.POSITIVE_INFINITY);
+		int[] tree = new int[2 * (n - 1)];
+		int current = 0;
+		inTree[0] = true;
+		for (int k = 0; k < n - 1; k++) {
+			int next = -1;
+			for (int i = 0; i < n; i++) {
+				if (inTree[i]) {
+					continue;
+				}
+				double d = distanceSquared(x, y, current, i);
+				if (d < best[i]) {
+					best[i] = d;
+					from[i] = current;
+				}
+				if (next < 0 || best[i] < best[next]) {
+					next = i;
+				}
+			}
+			inTree[next] = true;
+			tree[2 * k] = from[next];
+			tree[2 * k + 1] = next;
+			current = next;
+		}
+		return tree;
+	}
+
+	private static double distanceSquared(double[] x, double[] y, int a,
+			int b) {
+		double dx = x[a] - x[b];
+		double dy = y[a] - y[b];
+		return dx * dx + dy * dy;
+	}
+}
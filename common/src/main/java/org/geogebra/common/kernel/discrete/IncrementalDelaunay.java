@@ -0,0 +1,212 @@
+package org.geogebra.common.kernel.discrete;
+
+import java.util.HashSet;
+import java.util.TreeSet;
+
+import org.geogebra.common.kernel.discrete.delaunay.DelaunayTriangulation;
+import org.geogebra.common.kernel.discrete.delaunay.PointDt;
+import org.geogebra.common.kernel.discrete.delaunay.TriangleDt;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoList;
+import org.geogebra.common.kernel.kernelND.GeoPointND;
+import org.geogebra.common.util.DoubleUtil;
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Delaunay triangulation of a list of points that is kept between updates.
+ * When only a few points moved, they are deleted and inserted again, so
+ * dragging a point does not rebuild the whole triangulation. Otherwise (list
+ * changed, many points moved, a moved point is on the convex hull or
+ * coincides with another point) the triangulation is rebuilt.
+ */
+class IncrementalDelaunay {
+
+	/** rebuild if more than 1/REBUILD_RATIO of the points moved */
+	private static final int REBUILD_RATIO = 8;
+	private static final double DELTA = 0.0000001;
+
+	private final boolean distinctCoords;
+	private DelaunayTriangulation dt;
+	/** input coordinates, NaN for elements that are not defined points */
+	private double[] x = new double[0];
+	private double[] y = new double[0];
+	/** vertex of each input point, null for duplicates */
+	private IndexedPoint[] vertices;
+	private boolean hasDuplicates;
+	private final HashSet<Double> usedX = new HashSet<>();
+	private final HashSet<Double> usedY = new HashSet<>();
+	private int rebuildCount;
+
+	/**
+	 * @param distinctCoords
+	 *            whether vertices need distinct x- and y-coordinates
+	 *            (shifted by a small delta if necessary), as needed for
+	 *            Voronoi cells
+	 */
+	IncrementalDelaunay(boolean distinctCoords) {
+		this.distinctCoords = distinctCoords;
+	}
+
+	/**
+	 * @param list
+	 *            list of points, other elements are ignored
+	 * @return triangulation of the defined points of the list
+	 */
+	DelaunayTriangulation update(GeoList list) {
+		int size = list.size();
+		double[] newX = new double[size];
+		double[] newY = new double[size];
+		double[] inhom = new double[2];
+		for (int i = 0; i < size; i++) {
+			GeoElement geo = list.get(i);
+			if (geo.isDefined() && geo.isGeoPoint()) {
+				((GeoPointND) geo).getInhomCoords(inhom);
+				newX[i] = inhom[0];
+				newY[i] = inhom[1];
+			} else {
+				newX[i] = Double.NaN;
+				newY[i] = Double.NaN;
+			}
+		}
+		return update(newX, newY);
+	}
+
+	/**
+	 * @param newX
+	 *            x-coordinates, NaN for missing points
+	 * @param newY
+	 *            y-coordinates, NaN for missing points
+	 * @return triangulation of the points
+	 */
+	DelaunayTriangulation update(double[] newX, double[] newY) {
+		int size = newX.length;
+		if (dt == null || hasDuplicates || dt.allCollinear
+				|| size != x.length) {
+			return rebuild(newX, newY);
+		}
+		int changed = 0;
+		for (int i = 0; i < size; i++) {
+			if (Double.isNaN(newX[i]) != Double.isNaN(x[i])) {
+				return rebuild(newX, newY);
+			}
+			if (!Double.isNaN(newX[i])
+					&& (newX[i] != x[i] || newY[i] != y[i])) {
+				changed++;
+			}
+		}
+		if (changed * REBUILD_RATIO > size) {
+			return rebuild(newX, newY);
+		}
+		try {
+			for (int i = 0; i < size && changed > 0; i++) {
+				if (!Double.isNaN(newX[i])
+						&& (newX[i] != x[i] || newY[i] != y[i])) {
+					if (!move(i, newX[i], newY[i])) {
+						return rebuild(newX, newY);
+					}
+					changed--;
+				}
+			}
+		} catch (RuntimeException e) {
+			Log.debug("Incremental triangulation failed: " + e.getMessage());
+			return rebuild(newX, newY);
+		}
+		return dt;
+	}
+
+	/**
+	 * Deletes the vertex of point i and inserts it at the new position.
+	 *
+	 * @return whether the point was moved; if not, the triangulation may be
+	 *         changed and has to be rebuilt
+	 */
+	private boolean move(int i, double newX, double newY) {
+		IndexedPoint old = vertices[i];
+		if (coincidesWithOther(i, newX, newY) || !dt.deletePoint(old)) {
+			return false;
+		}
+		x[i] = newX;
+		y[i] = newY;
+		if (distinctCoords) {
+			usedX.remove(old.x());
+			usedY.remove(old.y());
+		}
+		IndexedPoint vertex = createVertex(i);
+		int oldSize = dt.size();
+		// the point location walk starts at the triangle of the deletion
+		dt.insertPoint(vertex);
+		vertices[i] = vertex;
+		return dt.size() > oldSize;
+	}
+
+	/**
+	 * @return whether another input point is at the given position; such a
+	 *         point is a corner of the triangle containing the position
+	 */
+	private boolean coincidesWithOther(int i, double newX, double newY) {
+		TriangleDt t = dt.find(new PointDt(newX, newY));
+		for (PointDt corner : new PointDt[] { t.p1(), t.p2(), t.p3() }) {
+			if (corner != null) {
+				int index = ((IndexedPoint) corner).index;
+				if (index != i && DoubleUtil.isEqual(x[index], newX)
+						&& DoubleUtil.isEqual(y[index], newY)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private DelaunayTriangulation rebuild(double[] newX, double[] newY) {
+		int size = newX.length;
+		x = newX.clone();
+		y = newY.clone();
+		vertices = new IndexedPoint[size];
+		hasDuplicates = false;
+		usedX.clear();
+		usedY.clear();
+		rebuildCount++;
+		// points equal up to Kernel.STANDARD_PRECISION are merged, like the
+		// point comparator of the old Voronoi algorithm did
+		TreeSet<PointDt> inserted = new TreeSet<>(PointDt.getComparator());
+		dt = new DelaunayTriangulation();
+		for (int i = 0; i < size; i++) {
+			if (Double.isNaN(x[i])) {
+				continue;
+			}
+			if (!inserted.add(new PointDt(x[i], y[i]))) {
+				// duplicates are ignored, updates need a full rebuild
+				hasDuplicates = true;
+				continue;
+			}
+			vertices[i] = createVertex(i);
+			dt.insertPoint(vertices[i]);
+		}
+		return dt;
+	}
+
+	private IndexedPoint createVertex(int i) {
+		double vx = x[i];
+		double vy = y[i];
+		if (distinctCoords) {
+			// work around a bug in the Voronoi cells for points with an
+			// equal x or y coordinate
+			while (usedX.contains(vx)) {
+				vx += DELTA;
+			}
+			while (usedY.contains(vy)) {
+				vy += DELTA;
+			}
+			usedX.add(vx);
+			usedY.add(vy);
+		}
+		return new IndexedPoint(vx, vy, i);
+	}
+
+	/**
+	 * @return number of full rebuilds so far
+	 */
+	int getRebuildCount() {
+		return rebuildCount;
+	}
+}
@@ -0,0 +1,24 @@
+package org.geogebra.common.kernel.discrete;
+
+import org.geogebra.common.kernel.discrete.delaunay.PointDt;
+
+/**
+ * Point of a triangulation that remembers its index in the input.
+ */
+class IndexedPoint extends PointDt {
+	/** index in the input */
+	final int index;
+
+	/**
+	 * @param x
+	 *            x-coordinate
+	 * @param y
+	 *            y-coordinate
+	 * @param index
+	 *            index in the input
+	 */
+	IndexedPoint(double x, double y, int index) {
+		super(x, y);
+		this.index = index;
+	}
+}
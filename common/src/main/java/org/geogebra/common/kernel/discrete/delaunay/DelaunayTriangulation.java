@@ -1,6 +1,5 @@
 package org.geogebra.common.kernel.discrete.delaunay;
 
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.TreeSet;
@@ -66,11 +65,6 @@ public class DelaunayTriangulation {
 	private Set<PointDt> _vertices;
 	private Vector<TriangleDt> _triangles;
 
-	// The triangles that were deleted in the last deletePoint iteration.
-	private Vector<TriangleDt> deletedTriangles;
-	// The triangles that were added in the last deletePoint iteration.
-	private Vector<TriangleDt> addedTriangles;
-
 	private int _modCount = 0;
 	private int _modCount2 = 0;
 
@@ -99,8 +93,6 @@ public class DelaunayTriangulation {
 		_bb_max = null;
 		this._vertices = new TreeSet<>(PointDt.getComparator());
 		_triangles = new Vector<>();
-		deletedTriangles = null;
-		addedTriangles = new Vector<>();
 		allCollinear = true;
 		for (int i = 0; ps != null && i < ps.length && ps[i] != null; i++) {
 			this.insertPoint(ps[i]);
@@ -164,53 +156,214 @@ public class DelaunayTriangulation {
 	}
 
 	/**
-	 * Deletes the given point from this.
+	 * Deletes the given point from this: the star of triangles around the
+	 * point is replaced by a Delaunay triangulation of its boundary, built by
+	 * cutting off ears whose circumcircles contain no other boundary point.
 	 * 
 	 * @param pointToDelete
 	 *            The given point to delete.
-	 * 
-	 *            Implementation of the Mostafavia, Gold &amp; Dakowicz
-	 *            algorithm (2002).
-	 * 
-	 *            By Eyal Roth &amp; Doron Ganel (2009).
+	 * @return whether the point was deleted; points on the convex hull cannot
+	 *         be deleted, the triangulation is unchanged in that case
 	 */
-	public void deletePoint(PointDt pointToDelete) {
+	public boolean deletePoint(PointDt pointToDelete) {
+		if (allCollinear || pointToDelete == null) {
+			return false;
+		}
+		TriangleDt first = find(pointToDelete);
+		PointDt v = getCorner(first, pointToDelete);
+		if (v == null || first.halfplane) {
+			return false;
+		}
+		// triangles around v in counterclockwise order
+		Vector<TriangleDt> star = new Vector<>();
+		TriangleDt t = first;
+		do {
+			if (t == null || t.halfplane || star.size() > size()) {
+				// point on the convex hull
+				return false;
+			}
+			star.add(t);
+			t = t.neighbor(v);
+		} while (t != first);
+
+		// boundary of the star, outside[i] is the triangle beyond the edge
+		// ring[i], ring[i + 1]
+		int k = star.size();
+		PointDt[] ring = new PointDt[k];
+		TriangleDt[] outside = new TriangleDt[k];
+		for (int i = 0; i < k; i++) {
+			TriangleDt s = star.elementAt(i);
+			if (s.a == v) {
+				ring[i] = s.b;
+				outside[i] = s.bcnext;
+			} else if (s.b == v) {
+				ring[i] = s.c;
+				outside[i] = s.canext;
+			} else {
+				ring[i] = s.a;
+				outside[i] = s.abnext;
+			}
+		}
+		int[] ears = findEars(ring, orientation(first.a, first.b, first.c));
+		if (ears == null) {
+			return false;
+		}
+
+		int[] next = new int[k];
+		int[] prev = new int[k];
+		for (int i = 0; i < k; i++) {
+			next[i] = (i + 1) % k;
+			prev[i] = (i + k - 1) % k;
+		}
+		TriangleDt added = null;
+		int i0 = 0;
+		for (int ear : ears) {
+			int p = prev[ear];
+			int n = next[ear];
+			added = new TriangleDt(ring[p], ring[ear], ring[n]);
+			link(added, ring[p], ring[ear], outside[p]);
+			link(added, ring[ear], ring[n], outside[ear]);
+			outside[p] = added;
+			next[p] = n;
+			prev[n] = p;
+			i0 = p;
+		}
+		int i1 = next[i0];
+		int i2 = next[i1];
+		added = new TriangleDt(ring[i0], ring[i1], ring[i2]);
+		link(added, ring[i0], ring[i1], outside[i0]);
+		link(added, ring[i1], ring[i2], outside[i1]);
+		link(added, ring[i2], ring[i0], outside[i2]);
+
+		if (star.contains(startTriangle)) {
+			startTriangle = added;
+		}
+		if (star.contains(currT)) {
+			currT = added;
+		}
+		_vertices.remove(v);
+		nPoints--;
+		_modCount++;
+		return true;
+	}
 
-		// Finding the triangles to delete.
-		Vector<PointDt> pointsVec = findConnectedVertices(pointToDelete, true);
-		if (pointsVec == null) {
-			return;
+	private static PointDt getCorner(TriangleDt t, PointDt p) {
+		if (t.a != null && t.a.x == p.x && t.a.y == p.y) {
+			return t.a;
 		}
+		if (t.b != null && t.b.x == p.x && t.b.y == p.y) {
+			return t.b;
+		}
+		if (t.c != null && t.c.x == p.x && t.c.y == p.y) {
+			return t.c;
+		}
+		return null;
+	}
 
-		while (pointsVec.size() >= 3) {
-			// Getting a triangle to add, and saving it.
-			TriangleDt triangle = findTriangle(pointsVec, pointToDelete);
-			addedTriangles.add(triangle);
-
-			// Finding the point on the diagonal (pointToDelete,p)
-			PointDt p = findDiagonal(triangle, pointToDelete);
-
-			for (PointDt tmpP : pointsVec) {
-				if (tmpP.equals(p)) {
-					pointsVec.removeElement(tmpP);
-					break;
+	/**
+	 * @param ring
+	 *            polygon that is star-shaped around the deleted point
+	 * @param sign
+	 *            orientation of the polygon
+	 * @return order in which the polygon vertices are cut off as ears until
+	 *         three are left, null if no ear could be found
+	 */
+	private static int[] findEars(PointDt[] ring, double sign) {
+		int k = ring.length;
+		int[] next = new int[k];
+		int[] prev = new int[k];
+		for (int i = 0; i < k; i++) {
+			next[i] = (i + 1) % k;
+			prev[i] = (i + k - 1) % k;
+		}
+		int[] ears = new int[k - 3];
+		int current = 0;
+		for (int step = 0; step < k - 3; step++) {
+			// prefer an ear with empty circumcircle, otherwise the least
+			// violating one (rounding errors for cocircular points)
+			int best = -1;
+			double bestViolation = Double.POSITIVE_INFINITY;
+			int i = current;
+			for (int count = 0; count < k - step; count++) {
+				PointDt a = ring[prev[i]];
+				PointDt b = ring[i];
+				PointDt c = ring[next[i]];
+				if (orientation(a, b, c) * sign > 0) {
+					double violation = Double.NEGATIVE_INFINITY;
+					for (int j = next[next[i]]; j != prev[i]; j = next[j]) {
+						violation = Math.max(violation,
+								inCircle(a, b, c, ring[j]) * sign);
+					}
+					if (violation <= 0) {
+						best = i;
+						break;
+					}
+					if (violation < bestViolation) {
+						best = i;
+						bestViolation = violation;
+					}
 				}
+				i = next[i];
 			}
-		}
-		// updating the trangulation
-		deleteUpdate(pointToDelete);
-		for (TriangleDt t : deletedTriangles) {
-			if (t == startTriangle) {
-				startTriangle = addedTriangles.elementAt(0);
-				break;
+			if (best < 0) {
+				return null;
 			}
+			ears[step] = best;
+			next[prev[best]] = next[best];
+			prev[next[best]] = prev[best];
+			current = next[best];
 		}
-		_triangles.removeAll(deletedTriangles);
-		_triangles.addAll(addedTriangles);
-		_vertices.remove(pointToDelete);
-		nPoints = nPoints + addedTriangles.size() - deletedTriangles.size();
-		addedTriangles.removeAllElements();
-		deletedTriangles.removeAllElements();
+		return ears;
+	}
+
+	private static double orientation(PointDt a, PointDt b, PointDt c) {
+		return (b.x - a.x) * (c.y - a.y) - (b.y - a.y) * (c.x - a.x);
+	}
+
+	/**
+	 * @return positive if d is inside the circumcircle of a, b, c for
+	 *         positive orientation of a, b, c
+	 */
+	private static double inCircle(PointDt a, PointDt b, PointDt c,
+			PointDt d) {
+		double adx = a.x - d.x;
+		double ady = a.y - d.y;
+		double bdx = b.x - d.x;
+		double bdy = b.y - d.y;
+		double cdx = c.x - d.x;
+		double cdy = c.y - d.y;
+		return (adx * adx + ady * ady) * (bdx * cdy - cdx * bdy)
+				+ (bdx * bdx + bdy * bdy) * (cdx * ady - adx * cdy)
+				+ (cdx * cdx + cdy * cdy) * (adx * bdy - bdx * ady);
+	}
+
+	/**
+	 * Makes t and other neighbours across the edge u, w.
+	 */
+	private static void link(TriangleDt t, PointDt u, PointDt w,
+			TriangleDt other) {
+		setNeighbor(t, u, w, other);
+		setNeighbor(other, u, w, t);
+	}
+
+	private static void setNeighbor(TriangleDt t, PointDt u, PointDt w,
+			TriangleDt neighbor) {
+		if ((t.a == u && t.b == w) || (t.a == w && t.b == u)) {
+			t.abnext = neighbor;
+		} else if ((t.b == u && t.c == w) || (t.b == w && t.c == u)) {
+			t.bcnext = neighbor;
+		} else {
+			t.canext = neighbor;
+		}
+	}
+
+	/**
+	 * @param p
+	 *            point
+	 * @return whether p is a vertex of this triangulation
+	 */
+	public boolean hasVertex(PointDt p) {
+		return _vertices.contains(p);
 	}
 
 	/**
@@ -245,392 +398,6 @@ public class DelaunayTriangulation {
 		}
 	}
 
-	// updates the trangulation after the triangles to be deleted and
-	// the triangles to be added were found
-	// by Doron Ganel & Eyal Roth(2009)
-	private void deleteUpdate(PointDt pointToDelete) {
-		for (TriangleDt addedTriangle1 : addedTriangles) {
-			// update between addedd triangles and deleted triangles
-			for (TriangleDt deletedTriangle : deletedTriangles) {
-				if (shareSegment(addedTriangle1, deletedTriangle)) {
-					updateNeighbor(addedTriangle1, deletedTriangle,
-							pointToDelete);
-				}
-			}
-		}
-		for (TriangleDt addedTriangle1 : addedTriangles) {
-			// update between added triangles
-			for (TriangleDt addedTriangle2 : addedTriangles) {
-				if ((addedTriangle1 != addedTriangle2)
-						&& (shareSegment(addedTriangle1, addedTriangle2))) {
-					updateNeighbor(addedTriangle1, addedTriangle2);
-				}
-			}
-		}
-
-	}
-
-	// checks if the 2 triangles shares a segment
-	// by Doron Ganel & Eyal Roth(2009)
-	private static boolean shareSegment(TriangleDt t1, TriangleDt t2) {
-		int counter = 0;
-		PointDt t1P1 = t1.p1();
-		PointDt t1P2 = t1.p2();
-		PointDt t1P3 = t1.p3();
-		PointDt t2P1 = t2.p1();
-		PointDt t2P2 = t2.p2();
-		PointDt t2P3 = t2.p3();
-
-		if (t1P1.equals(t2P1)) {
-			counter++;
-		}
-		if (t1P1.equals(t2P2)) {
-			counter++;
-		}
-		if (t1P1.equals(t2P3)) {
-			counter++;
-		}
-		if (t1P2.equals(t2P1)) {
-			counter++;
-		}
-		if (t1P2.equals(t2P2)) {
-			counter++;
-		}
-		if (t1P2.equals(t2P3)) {
-			counter++;
-		}
-		if (t1P3.equals(t2P1)) {
-			counter++;
-		}
-		if (t1P3.equals(t2P2)) {
-			counter++;
-		}
-		if (t1P3.equals(t2P3)) {
-			counter++;
-		}
-		if (counter >= 2) {
-			return true;
-		}
-		return false;
-	}
-
-	// update the neighbors of the addedTriangle and deletedTriangle
-	// we assume the 2 triangles share a segment
-	// by Doron Ganel & Eyal Roth(2009)
-	private static void updateNeighbor(TriangleDt addedTriangle,
-			TriangleDt deletedTriangle, PointDt pointToDelete) {
-		PointDt delA = deletedTriangle.p1();
-		PointDt delB = deletedTriangle.p2();
-		PointDt delC = deletedTriangle.p3();
-		PointDt addA = addedTriangle.p1();
-		PointDt addB = addedTriangle.p2();
-		PointDt addC = addedTriangle.p3();
-
-		// updates the neighbor of the deleted triangle to point to the added
-		// triangle
-		// setting the neighbor of the added triangle
-		if (pointToDelete.equals(delA)) {
-			deletedTriangle.next_23().switchneighbors(deletedTriangle,
-					addedTriangle);
-			// AB-BC || BA-BC
-			if ((addA.equals(delB) && addB.equals(delC))
-					|| (addB.equals(delB) && addA.equals(delC))) {
-				addedTriangle.abnext = deletedTriangle.next_23();
-			}
-			// AC-BC || CA-BC
-			else if ((addA.equals(delB) && addC.equals(delC))
-					|| (addC.equals(delB) && addA.equals(delC))) {
-				addedTriangle.canext = deletedTriangle.next_23();
-			}
-			// BC-BC || CB-BC
-			else {
-				addedTriangle.bcnext = deletedTriangle.next_23();
-			}
-		} else if (pointToDelete.equals(delB)) {
-			deletedTriangle.next_31().switchneighbors(deletedTriangle,
-					addedTriangle);
-			// AB-AC || BA-AC
-			if ((addA.equals(delA) && addB.equals(delC))
-					|| (addB.equals(delA) && addA.equals(delC))) {
-				addedTriangle.abnext = deletedTriangle.next_31();
-			}
-			// AC-AC || CA-AC
-			else if ((addA.equals(delA) && addC.equals(delC))
-					|| (addC.equals(delA) && addA.equals(delC))) {
-				addedTriangle.canext = deletedTriangle.next_31();
-			}
-			// BC-AC || CB-AC
-			else {
-				addedTriangle.bcnext = deletedTriangle.next_31();
-			}
-		}
-		// equals c
-		else {
-			deletedTriangle.next_12().switchneighbors(deletedTriangle,
-					addedTriangle);
-			// AB-AB || BA-AB
-			if ((addA.equals(delA) && addB.equals(delB))
-					|| (addB.equals(delA) && addA.equals(delB))) {
-				addedTriangle.abnext = deletedTriangle.next_12();
-			}
-			// AC-AB || CA-AB
-			else if ((addA.equals(delA) && addC.equals(delB))
-					|| (addC.equals(delA) && addA.equals(delB))) {
-				addedTriangle.canext = deletedTriangle.next_12();
-			}
-			// BC-AB || CB-AB
-			else {
-				addedTriangle.bcnext = deletedTriangle.next_12();
-			}
-		}
-	}
-
-	// update the neighbors of the 2 added Triangle s
-	// we assume the 2 triangles share a segment
-	// by Doron Ganel & Eyal Roth(2009)
-	private static void updateNeighbor(TriangleDt addedTriangle1,
-			TriangleDt addedTriangle2) {
-		PointDt A1 = addedTriangle1.p1();
-		PointDt B1 = addedTriangle1.p2();
-		PointDt C1 = addedTriangle1.p3();
-		PointDt A2 = addedTriangle2.p1();
-		PointDt B2 = addedTriangle2.p2();
-		PointDt C2 = addedTriangle2.p3();
-
-		// A1-A2
-		if (A1.equals(A2)) {
-			// A1B1-A2B2
-			if (B1.equals(B2)) {
-				addedTriangle1.abnext = addedTriangle2;
-				addedTriangle2.abnext = addedTriangle1;
-			}
-			// A1B1-A2C2
-			else if (B1.equals(C2)) {
-				addedTriangle1.abnext = addedTriangle2;
-				addedTriangle2.canext = addedTriangle1;
-			}
-			// A1C1-A2B2
-			else if (C1.equals(B2)) {
-				addedTriangle1.canext = addedTriangle2;
-				addedTriangle2.abnext = addedTriangle1;
-			}
-			// A1C1-A2C2
-			else {
-				addedTriangle1.canext = addedTriangle2;
-				addedTriangle2.canext = addedTriangle1;
-			}
-		}
-		// A1-B2
-		else if (A1.equals(B2)) {
-			// A1B1-B2A2
-			if (B1.equals(A2)) {
-				addedTriangle1.abnext = addedTriangle2;
-				addedTriangle2.abnext = addedTriangle1;
-			}
-			// A1B1-B2C2
-			else if (B1.equals(C2)) {
-				addedTriangle1.abnext = addedTriangle2;
-				addedTriangle2.bcnext = addedTriangle1;
-			}
-			// A1C1-B2A2
-			else if (C1.equals(A2)) {
-				addedTriangle1.canext = addedTriangle2;
-				addedTriangle2.abnext = addedTriangle1;
-			}
-			// A1C1-B2C2
-			else {
-				addedTriangle1.canext = addedTriangle2;
-				addedTriangle2.bcnext = addedTriangle1;
-			}
-		}
-		// A1-C2
-		else if (A1.equals(C2)) {
-			// A1B1-C2A2
-			if (B1.equals(A2)) {
-				addedTriangle1.abnext = addedTriangle2;
-				addedTriangle2.canext = addedTriangle1;
-			}
-			// A1B1-C2B2
-			if (B1.equals(B2)) {
-				addedTriangle1.abnext = addedTriangle2;
-				addedTriangle2.bcnext = addedTriangle1;
-			}
-			// A1C1-C2A2
-			if (C1.equals(A2)) {
-				addedTriangle1.canext = addedTriangle2;
-				addedTriangle2.canext = addedTriangle1;
-			}
-			// A1C1-C2B2
-			else {
-				addedTriangle1.canext = addedTriangle2;
-				addedTriangle2.bcnext = addedTriangle1;
-			}
-		}
-		// B1-A2
-		else if (B1.equals(A2)) {
-			// B1A1-A2B2
-			if (A1.equals(B2)) {
-				addedTriangle1.abnext = addedTriangle2;
-				addedTriangle2.abnext = addedTriangle1;
-			}
-			// B1A1-A2C2
-			else if (A1.equals(C2)) {
-				addedTriangle1.abnext = addedTriangle2;
-				addedTriangle2.canext = addedTriangle1;
-			}
-			// B1C1-A2B2
-			else if (C1.equals(B2)) {
-				addedTriangle1.bcnext = addedTriangle2;
-				addedTriangle2.abnext = addedTriangle1;
-			}
-			// B1C1-A2C2
-			else {
-				addedTriangle1.bcnext = addedTriangle2;
-				addedTriangle2.canext = addedTriangle1;
-			}
-		}
-		// B1-B2
-		else if (B1.equals(B2)) {
-			// B1A1-B2A2
-			if (A1.equals(A2)) {
-				addedTriangle1.abnext = addedTriangle2;
-				addedTriangle2.abnext = addedTriangle1;
-			}
-			// B1A1-B2C2
-			else if (A1.equals(C2)) {
-				addedTriangle1.abnext = addedTriangle2;
-				addedTriangle2.bcnext = addedTriangle1;
-			}
-			// B1C1-B2A2
-			else if (C1.equals(A2)) {
-				addedTriangle1.bcnext = addedTriangle2;
-				addedTriangle2.abnext = addedTriangle1;
-			}
-			// B1C1-B2C2
-			else {
-				addedTriangle1.bcnext = addedTriangle2;
-				addedTriangle2.bcnext = addedTriangle1;
-			}
-		}
-		// B1-C2
-		else if (B1.equals(C2)) {
-			// B1A1-C2A2
-			if (A1.equals(A2)) {
-				addedTriangle1.abnext = addedTriangle2;
-				addedTriangle2.canext = addedTriangle1;
-			}
-			// B1A1-C2B2
-			if (A1.equals(B2)) {
-				addedTriangle1.abnext = addedTriangle2;
-				addedTriangle2.bcnext = addedTriangle1;
-			}
-			// B1C1-C2A2
-			if (C1.equals(A2)) {
-				addedTriangle1.bcnext = addedTriangle2;
-				addedTriangle2.canext = addedTriangle1;
-			}
-			// B1C1-C2B2
-			else {
-				addedTriangle1.bcnext = addedTriangle2;
-				addedTriangle2.bcnext = addedTriangle1;
-			}
-		}
-		// C1-A2
-		else if (C1.equals(A2)) {
-			// C1A1-A2B2
-			if (A1.equals(B2)) {
-				addedTriangle1.canext = addedTriangle2;
-				addedTriangle2.abnext = addedTriangle1;
-			}
-			// C1A1-A2C2
-			else if (A1.equals(C2)) {
-				addedTriangle1.canext = addedTriangle2;
-				addedTriangle2.canext = addedTriangle1;
-			}
-			// C1B1-A2B2
-			else if (B1.equals(B2)) {
-				addedTriangle1.bcnext = addedTriangle2;
-				addedTriangle2.abnext = addedTriangle1;
-			}
-			// C1B1-A2C2
-			else {
-				addedTriangle1.bcnext = addedTriangle2;
-				addedTriangle2.canext = addedTriangle1;
-			}
-		}
-		// C1-B2
-		else if (C1.equals(B2)) {
-			// C1A1-B2A2
-			if (A1.equals(A2)) {
-				addedTriangle1.canext = addedTriangle2;
-				addedTriangle2.abnext = addedTriangle1;
-			}
-			// C1A1-B2C2
-			else if (A1.equals(C2)) {
-				addedTriangle1.canext = addedTriangle2;
-				addedTriangle2.bcnext = addedTriangle1;
-			}
-			// C1B1-B2A2
-			else if (B1.equals(A2)) {
-				addedTriangle1.bcnext = addedTriangle2;
-				addedTriangle2.abnext = addedTriangle1;
-			}
-			// C1B1-B2C2
-			else {
-				addedTriangle1.bcnext = addedTriangle2;
-				addedTriangle2.bcnext = addedTriangle1;
-			}
-		}
-		// C1-C2
-		else if (C1.equals(C2)) {
-			// C1A1-C2A2
-			if (A1.equals(A2)) {
-				addedTriangle1.canext = addedTriangle2;
-				addedTriangle2.canext = addedTriangle1;
-			}
-			// C1A1-C2B2
-			if (A1.equals(B2)) {
-				addedTriangle1.canext = addedTriangle2;
-				addedTriangle2.bcnext = addedTriangle1;
-			}
-			// C1B1-C2A2
-			if (B1.equals(A2)) {
-				addedTriangle1.bcnext = addedTriangle2;
-				addedTriangle2.canext = addedTriangle1;
-			}
-			// C1B1-C2B2
-			else {
-				addedTriangle1.bcnext = addedTriangle2;
-				addedTriangle2.bcnext = addedTriangle1;
-			}
-		}
-	}
-
-	// finds the a point on the triangle that if connect it to "point" (creating
-	// a segment)
-	// the other two points of the triangle will be to the left and to the right
-	// of the segment
-	// by Doron Ganel & Eyal Roth(2009)
-	private static PointDt findDiagonal(TriangleDt triangle, PointDt point) {
-		PointDt p1 = triangle.p1();
-		PointDt p2 = triangle.p2();
-		PointDt p3 = triangle.p3();
-
-		if ((p1.pointLineTest(point, p3) == PointDt.LEFT)
-				&& (p2.pointLineTest(point, p3) == PointDt.RIGHT)) {
-			return p3;
-		}
-		if ((p3.pointLineTest(point, p2) == PointDt.LEFT)
-				&& (p1.pointLineTest(point, p2) == PointDt.RIGHT)) {
-			return p2;
-		}
-		if ((p2.pointLineTest(point, p1) == PointDt.LEFT)
-				&& (p3.pointLineTest(point, p1) == PointDt.RIGHT)) {
-			return p1;
-		}
-		return null;
-	}
-
 	/**
 	 * Calculates a Voronoi cell for a given neighborhood in this triangulation.
 	 * A neighborhood is defined by a triangle and one of its corner points.
@@ -1184,64 +951,6 @@ public class DelaunayTriangulation {
 		return null;
 	}
 
-	/*
-	 * Receives a point and returns all the points of the triangles that shares
-	 * point as a corner (Connected vertices to this point).
-	 * 
-	 * Set saveTriangles to true if you wish to save the triangles that were
-	 * found.
-	 * 
-	 * By Doron Ganel & Eyal Roth
-	 */
-	private Vector<PointDt> findConnectedVertices(PointDt point,
-			boolean saveTriangles) {
-		Set<PointDt> pointsSet = new HashSet<>();
-		Vector<PointDt> pointsVec = new Vector<>();
-		Vector<TriangleDt> triangles = null;
-		// Getting one of the neigh
-		TriangleDt triangle = find(point);
-
-		// Validating find result.
-		if (!triangle.isCorner(point)) {
-			Log.error(
-					"findConnectedVertices: Could not find connected vertices since"
-							+ " the first found triangle doesn't share the given point.");
-			return null;
-		}
-
-		triangles = findTriangleNeighborhood(triangle, point);
-		if (triangles == null) {
-			Log.error("Error: can't delete a point on the perimeter");
-			return null;
-		}
-		if (saveTriangles) {
-			deletedTriangles = triangles;
-		}
-
-		for (TriangleDt tmpTriangle : triangles) {
-			PointDt point1 = tmpTriangle.p1();
-			PointDt point2 = tmpTriangle.p2();
-			PointDt point3 = tmpTriangle.p3();
-
-			if (point1.equals(point) && !pointsSet.contains(point2)) {
-				pointsSet.add(point2);
-				pointsVec.add(point2);
-			}
-
-			if (point2.equals(point) && !pointsSet.contains(point3)) {
-				pointsSet.add(point3);
-				pointsVec.add(point3);
-			}
-
-			if (point3.equals(point) && !pointsSet.contains(point1)) {
-				pointsSet.add(point1);
-				pointsVec.add(point1);
-			}
-		}
-
-		return pointsVec;
-	}
-
 	/**
 	 * Walks on a consistent side of triangles until a cycle is achieved.
 	 * 
@@ -1277,67 +986,6 @@ public class DelaunayTriangulation {
 		return triangles;
 	}
 
-	/*
-	 * find triangle to be added to the triangulation
-	 * 
-	 * By: Doron Ganel & Eyal Roth
-	 * 
-	 */
-	private static TriangleDt findTriangle(Vector<PointDt> pointsVec,
-			PointDt p) {
-		PointDt[] arrayPoints = new PointDt[pointsVec.size()];
-		pointsVec.toArray(arrayPoints);
-
-		int size = arrayPoints.length;
-		if (size < 3) {
-			return null;
-		}
-		// if we left with 3 points we return the triangle
-		else if (size == 3) {
-			return new TriangleDt(arrayPoints[0], arrayPoints[1],
-					arrayPoints[2]);
-		} else {
-			for (int i = 0; i <= size - 1; i++) {
-				PointDt p1 = arrayPoints[i];
-				int j = i + 1;
-				int k = i + 2;
-				if (j >= size) {
-					j = 0;
-					k = 1;
-				}
-				// check IndexOutOfBound
-				else if (k >= size) {
-					k = 0;
-				}
-				PointDt p2 = arrayPoints[j];
-				PointDt p3 = arrayPoints[k];
-				// check if the triangle is not re-entrant and not encloses p
-				TriangleDt t = new TriangleDt(p1, p2, p3);
-				if ((calcDet(p1, p2, p3) >= 0) && !t.contains(p)) {
-					if (!t.fallInsideCircumcircle(arrayPoints)) {
-						return t;
-					}
-				}
-				// if there are only 4 points use contains that refers to point
-				// on boundary as outside
-				if (size == 4 && (calcDet(p1, p2, p3) >= 0)
-						&& !t.contains_BoundaryIsOutside(p)) {
-					if (!t.fallInsideCircumcircle(arrayPoints)) {
-						return t;
-					}
-				}
-			}
-		}
-		return null;
-	}
-
-	// TODO: Move this to triangle.
-	// checks if the triangle is not re-entrant
-	private static double calcDet(PointDt A, PointDt B, PointDt P) {
-		return (A.x() * (B.y() - P.y())) - (A.y() * (B.x() - P.x()))
-				+ (B.x() * P.y() - B.y() * P.x());
-	}
-
 	/**
 	 *
 	 * @param p
@@ -1,7 +1,17 @@
 package org.geogebra.common.kernel.discrete.tsp;
 
-import org.geogebra.common.kernel.MyPoint;
-
+/**
+ * Solver for the Euclidean traveling salesman problem.
+ */
 public interface TSP {
-	double solve(MyPoint[] points);
+	/**
+	 * @param x
+	 *            x-coordinates
+	 * @param y
+	 *            y-coordinates
+	 * @param n
+	 *            number of points
+	 * @return point indices in tour order
+	 */
+	int[] solve(double[] x, double[] y, int n);
 }
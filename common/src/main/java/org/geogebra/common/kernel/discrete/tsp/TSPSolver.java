@@ -1,12 +1,297 @@
 package org.geogebra.common.kernel.discrete.tsp;
 
-import org.geogebra.common.kernel.MyPoint;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.geogebra.common.kernel.discrete.CompactGraph;
+import org.geogebra.common.kernel.discrete.EuclideanMinimumSpanningTree;
+import org.geogebra.common.kernel.discrete.tsp.impl.CandidateNeighbours;
 import org.geogebra.common.kernel.discrete.tsp.impl.FLS;
+import org.geogebra.common.util.ParallelExecutor;
+import org.geogebra.common.util.debug.Log;
 
+/**
+ * Euclidean TSP heuristic with a time budget. Candidate neighbours come from
+ * the Delaunay triangulation, initial tours from the minimum spanning tree.
+ * Each restart improves its tour by {@link FLS}; restarts run in parallel if
+ * the platform supports it and the shortest tour wins.
+ *
+ * The last tour is kept: if only a few points moved since the previous call,
+ * the search starts from it and only looks at the moved points.
+ */
 public final class TSPSolver implements TSP {
 
+	/** default time budget in ms */
+	public static final long DEFAULT_TIME_BUDGET = 250;
+	/** warm start if at most 1/WARM_START_RATIO of the points moved */
+	private static final int WARM_START_RATIO = 8;
+	/** update candidates of moved points by brute force up to this count */
+	private static final int MAX_CANDIDATE_UPDATES = 16;
+	/** rebuild candidates after this many warm starts updated them */
+	private static final int MAX_UPDATED_STARTS = 32;
+	private static final int KICKS_PER_POINT = 2;
+	private static final int MIN_KICKS = 100;
+
+	private long timeBudget = DEFAULT_TIME_BUDGET;
+	private ParallelExecutor parallelExecutor;
+
+	private double[] lastX = new double[0];
+	private double[] lastY = new double[0];
+	private int[] lastTour;
+	private CandidateNeighbours lastCandidates;
+	private int updatedStarts;
+
+	/**
+	 * @param timeBudget
+	 *            time in ms after which the search returns the best tour
+	 *            found so far; building the candidates and the initial
+	 *            tour (O(n log n)) is not included
+	 */
+	public void setTimeBudget(long timeBudget) {
+		this.timeBudget = timeBudget;
+	}
+
+	/**
+	 * @param executor
+	 *            executor for the restarts, overrides the prototype
+	 */
+	void setParallelExecutor(ParallelExecutor executor) {
+		this.parallelExecutor = executor;
+	}
+
 	@Override
-	public double solve(final MyPoint[] points) {
-		return FLS.optimise(points);
+	public int[] solve(double[] x, double[] y, int n) {
+		if (n < 4) {
+			lastTour = null;
+			return identity(n);
+		}
+		int[] moved = getMoved(x, y, n);
+		CandidateNeighbours candidates = null;
+		CompactGraph tree = null;
+		if (moved != null && moved.length == 0) {
+			return lastTour.clone();
+		}
+		if (moved != null && moved.length <= MAX_CANDIDATE_UPDATES
+				&& updatedStarts < MAX_UPDATED_STARTS) {
+			// updates keep stale candidates of the other cities
+			candidates = lastCandidates;
+			for (int v : moved) {
+				candidates.update(v, x, y, n);
+			}
+			updatedStarts++;
+		} else {
+			updatedStarts = 0;
+			int[] edges;
+			try {
+				edges = EuclideanMinimumSpanningTree.delaunayEdges(x, y, n);
+			} catch (RuntimeException e) {
+				// degenerate input may make the point location walk fail
+				Log.debug("Delaunay triangulation failed: " + e.getMessage());
+				edges = null;
+				candidates = CandidateNeighbours.nearest(x, y, n);
+				// spanning forest of the candidates, preorder visits all
+				// of its trees
+				tree = createTree(n, EuclideanMinimumSpanningTree
+						.fromDelaunayEdges(x, y, n, candidates.getEdges()));
+			}
+			if (candidates == null) {
+				if (edges == null) {
+					lastTour = null;
+					return collinearTour(x, y, n);
+				}
+				candidates = CandidateNeighbours.fromDelaunayEdges(x, y, n,
+						edges);
+				tree = moved != null ? null
+						: createTree(n, EuclideanMinimumSpanningTree
+								.fromDelaunayEdges(x, y, n, edges));
+			}
+		}
+		long deadline = System.currentTimeMillis() + timeBudget;
+		ParallelExecutor executor = parallelExecutor != null
+				? parallelExecutor : ParallelExecutor.getPrototype();
+		int count = executor == null ? 1 : executor.getParallelism();
+		int kicks = moved != null ? KICKS_PER_POINT * moved.length
+				: Math.max(MIN_KICKS, KICKS_PER_POINT * n);
+		ArrayList<Restart> restarts = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			restarts.add(new Restart(i, x, y, n, candidates, kicks, deadline));
+			if (moved != null) {
+				restarts.get(i).setWarmStart(lastTour, moved);
+			} else {
+				restarts.get(i).setTree(tree);
+			}
+		}
+		if (executor == null || count < 2) {
+			ParallelExecutor.runSerially(restarts);
+		} else {
+			executor.invokeAll(restarts);
+		}
+		Restart best = restarts.get(0);
+		for (Restart restart : restarts) {
+			if (restart.length < best.length) {
+				best = restart;
+			}
+		}
+		lastX = Arrays.copyOf(x, n);
+		lastY = Arrays.copyOf(y, n);
+		lastTour = best.tour;
+		lastCandidates = candidates;
+		return best.tour.clone();
+	}
+
+	/**
+	 * @return points that moved since the last tour, null if the last tour
+	 *         can't be used as warm start
+	 */
+	private int[] getMoved(double[] x, double[] y, int n) {
+		if (lastTour == null || n != lastTour.length) {
+			return null;
+		}
+		int[] moved = new int[n / WARM_START_RATIO];
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			if (x[i] != lastX[i] || y[i] != lastY[i]) {
+				if (count == moved.length) {
+					return null;
+				}
+				moved[count++] = i;
+			}
+		}
+		return Arrays.copyOf(moved, count);
+	}
+
+	private static CompactGraph createTree(int n, int[] edges) {
+		int m = edges.length / 2;
+		int[] source = new int[m];
+		int[] target = new int[m];
+		for (int e = 0; e < m; e++) {
+			source[e] = edges[2 * e];
+			target[e] = edges[2 * e + 1];
+		}
+		return new CompactGraph(n, source, target, m);
+	}
+
+	/**
+	 * Visits the tree depth first, which gives a tour at most twice as long
+	 * as the optimum.
+	 */
+	private static int[] preorder(CompactGraph tree, int root,
+			Random random) {
+		int n = tree.getVertexCount();
+		int[] tour = new int[n];
+		boolean[] visited = new boolean[n];
+		int[] stack = new int[n];
+		int count = 0;
+		for (int start = 0; start < n; start++) {
+			int v0 = (root + start) % n;
+			if (visited[v0]) {
+				continue;
+			}
+			int stackSize = 0;
+			stack[stackSize++] = v0;
+			visited[v0] = true;
+			while (stackSize > 0) {
+				int v = stack[--stackSize];
+				tour[count++] = v;
+				int first = tree.getFirst(v);
+				int degree = tree.getEnd(v) - first;
+				int offset = degree > 1 ? random.nextInt(degree) : 0;
+				for (int i = 0; i < degree; i++) {
+					int u = tree.getNeighbour(first + (offset + i) % degree);
+					if (!visited[u]) {
+						visited[u] = true;
+						stack[stackSize++] = u;
+					}
+				}
+			}
+		}
+		return tour;
+	}
+
+	/**
+	 * For collinear points the shortest tour goes along the line and back.
+	 */
+	private static int[] collinearTour(final double[] x, final double[] y,
+			int n) {
+		Integer[] order = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> x[a] != x[b] ? Double.compare(x[a], x[b])
+				: Double.compare(y[a], y[b]));
+		int[] tour = new int[n];
+		for (int i = 0; i < n; i++) {
+			tour[i] = order[i];
+		}
+		return tour;
+	}
+
+	private static int[] identity(int n) {
+		int[] tour = new int[n];
+		for (int i = 0; i < n; i++) {
+			tour[i] = i;
+		}
+		return tour;
+	}
+
+	/**
+	 * One local search run, started from a spanning tree tour or from the
+	 * previous tour.
+	 */
+	private static final class Restart implements Runnable {
+		private final int index;
+		private final double[] x;
+		private final double[] y;
+		private final int n;
+		private final CandidateNeighbours candidates;
+		private final int kicks;
+		private final long deadline;
+		private CompactGraph tree;
+		private int[] warmTour;
+		private int[] moved;
+
+		private int[] tour;
+		private double length;
+
+		Restart(int index, double[] x, double[] y, int n,
+				CandidateNeighbours candidates, int kicks, long deadline) {
+			this.index = index;
+			this.x = x;
+			this.y = y;
+			this.n = n;
+			this.candidates = candidates;
+			this.kicks = kicks;
+			this.deadline = deadline;
+		}
+
+		void setTree(CompactGraph tree) {
+			this.tree = tree;
+		}
+
+		void setWarmStart(int[] tour, int[] moved) {
+			this.warmTour = tour;
+			this.moved = moved;
+		}
+
+		@Override
+		public void run() {
+			Random random = new Random(index);
+			FLS fls = new FLS(x, y, n, candidates);
+			if (warmTour != null) {
+				fls.setTour(warmTour);
+				for (int v : moved) {
+					fls.activate(v);
+				}
+			} else {
+				fls.setTour(preorder(tree, index == 0 ? 0 : random.nextInt(n),
+						random));
+				fls.activateAll();
+			}
+			fls.search(kicks, random, deadline);
+			tour = new int[n];
+			fls.getTour(tour);
+			length = fls.getLength();
+		}
 	}
 }
@@ -0,0 +1,239 @@
+package org.geogebra.common.kernel.discrete.tsp.impl;
+
+import java.util.Arrays;
+
+import org.geogebra.common.kernel.discrete.CompactGraph;
+
+/**
+ * Candidate neighbours of each city, sorted by distance. The local search
+ * only tries to connect a city to its candidates, so each step takes constant
+ * time instead of O(n).
+ */
+public final class CandidateNeighbours {
+
+	/** maximal number of candidates per city */
+	public static final int MAX_CANDIDATES = 8;
+
+	private final int[] neighbours;
+	private final int[] count;
+
+	private CandidateNeighbours(int n) {
+		neighbours = new int[n * MAX_CANDIDATES];
+		count = new int[n];
+	}
+
+	/**
+	 * Takes the nearest Delaunay neighbours; the optimal tour mostly uses
+	 * Delaunay edges.
+	 *
+	 * @param x
+	 *            x-coordinates
+	 * @param y
+	 *            y-coordinates
+	 * @param n
+	 *            number of cities
+	 * @param delaunayEdges
+	 *            Delaunay edges as pairs of city indices, connecting all
+	 *            cities
+	 * @return candidate neighbours
+	 */
+	public static CandidateNeighbours fromDelaunayEdges(double[] x,
+			double[] y, int n, int[] delaunayEdges) {
+		int m = delaunayEdges.length / 2;
+		int[] source = new int[m];
+		int[] target = new int[m];
+		for (int e = 0; e < m; e++) {
+			source[e] = delaunayEdges[2 * e];
+			target[e] = delaunayEdges[2 * e + 1];
+		}
+		CompactGraph graph = new CompactGraph(n, source, target, m);
+		CandidateNeighbours candidates = new CandidateNeighbours(n);
+		// interior edges are listed twice
+		int[] mark = new int[n];
+		for (int v = 0; v < n; v++) {
+			for (int i = graph.getFirst(v); i < graph.getEnd(v); i++) {
+				candidates.offer(v, graph.getNeighbour(i), x, y, mark);
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * Takes the nearest cities, scanning from each city in both directions
+	 * along the wider axis until the remaining cities are too far away. This
+	 * is O(n log n) unless many cities are close to each other on that axis.
+	 *
+	 * @param x
+	 *            x-coordinates
+	 * @param y
+	 *            y-coordinates
+	 * @param n
+	 *            number of cities
+	 * @return candidate neighbours
+	 */
+	public static CandidateNeighbours nearest(double[] x, double[] y, int n) {
+		final double[] key = range(x, n) >= range(y, n) ? x : y;
+		Integer[] sorted = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			sorted[i] = i;
+		}
+		Arrays.sort(sorted, (a, b) -> Double.compare(key[a], key[b]));
+		CandidateNeighbours candidates = new CandidateNeighbours(n);
+		for (int i = 0; i < n; i++) {
+			int v = sorted[i];
+			for (int j = i - 1; j >= 0; j--) {
+				int u = sorted[j];
+				if (candidates.isFull(v, key[v] - key[u], x, y)) {
+					break;
+				}
+				candidates.insert(v, u, x, y);
+			}
+			for (int j = i + 1; j < n; j++) {
+				int u = sorted[j];
+				if (candidates.isFull(v, key[u] - key[v], x, y)) {
+					break;
+				}
+				candidates.insert(v, u, x, y);
+			}
+		}
+		return candidates;
+	}
+
+	private static double range(double[] coords, int n) {
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < n; i++) {
+			min = Math.min(min, coords[i]);
+			max = Math.max(max, coords[i]);
+		}
+		return max - min;
+	}
+
+	/**
+	 * @return whether v has all candidates and no city at the given distance
+	 *         can replace them
+	 */
+	private boolean isFull(int v, double distance, double[] x, double[] y) {
+		return count[v] == MAX_CANDIDATES
+				&& distance * distance >= distanceSquared(x, y, v,
+						neighbours[v * MAX_CANDIDATES + MAX_CANDIDATES - 1]);
+	}
+
+	/**
+	 * Recomputes the candidates of a moved city by brute force and inserts
+	 * it into the candidates of the cities near its new position, O(n).
+	 * Other cities only lose the moved city if it is no longer among their
+	 * nearest, so they may have fewer candidates than after a rebuild.
+	 *
+	 * @param v
+	 *            city
+	 * @param x
+	 *            x-coordinates
+	 * @param y
+	 *            y-coordinates
+	 * @param n
+	 *            number of cities
+	 */
+	public void update(int v, double[] x, double[] y, int n) {
+		count[v] = 0;
+		for (int u = 0; u < n; u++) {
+			if (u != v) {
+				insert(v, u, x, y);
+				remove(u, v);
+				insert(u, v, x, y);
+			}
+		}
+	}
+
+	/**
+	 * Removes u from the candidates of v, if present.
+	 */
+	private void remove(int v, int u) {
+		int offset = v * MAX_CANDIDATES;
+		for (int i = 0; i < count[v]; i++) {
+			if (neighbours[offset + i] == u) {
+				count[v]--;
+				System.arraycopy(neighbours, offset + i + 1, neighbours,
+						offset + i, count[v] - i);
+				return;
+			}
+		}
+	}
+
+	private void offer(int v, int u, double[] x, double[] y, int[] mark) {
+		if (mark[u] != v + 1) {
+			mark[u] = v + 1;
+			insert(v, u, x, y);
+		}
+	}
+
+	/**
+	 * Inserts u into the sorted candidates of v if it is among the nearest.
+	 */
+	private void insert(int v, int u, double[] x, double[] y) {
+		int offset = v * MAX_CANDIDATES;
+		double d = distanceSquared(x, y, v, u);
+		int pos = count[v];
+		if (pos == MAX_CANDIDATES) {
+			if (distanceSquared(x, y, v,
+					neighbours[offset + pos - 1]) <= d) {
+				return;
+			}
+			pos--;
+		} else {
+			count[v]++;
+		}
+		while (pos > 0 && distanceSquared(x, y, v,
+				neighbours[offset + pos - 1]) > d) {
+			neighbours[offset + pos] = neighbours[offset + pos - 1];
+			pos--;
+		}
+		neighbours[offset + pos] = u;
+	}
+
+	private static double distanceSquared(double[] x, double[] y, int a,
+			int b) {
+		double dx = x[a] - x[b];
+		double dy = y[a] - y[b];
+		return dx * dx + dy * dy;
+	}
+
+	/**
+	 * @param v
+	 *            city
+	 * @return number of candidates of v
+	 */
+	public int getCount(int v) {
+		return count[v];
+	}
+
+	/**
+	 * @param v
+	 *            city
+	 * @param i
+	 *            index, smaller for nearer candidates
+	 * @return i-th candidate of v
+	 */
+	public int get(int v, int i) {
+		return neighbours[v * MAX_CANDIDATES + i];
+	}
+
+	/**
+	 * @return pairs of cities and their candidates
+	 */
+	public int[] getEdges() {
+		int m = 0;
+		for (int c : count) {
+			m += c;
+		}
+		int[] edges = new int[2 * m];
+		int e = 0;
+		for (int v = 0; v < count.length; v++) {
+			for (int i = 0; i < count[v]; i++) {
+				edges[e++] = v;
+				edges[e++] = get(v, i);
+			}
+		}
+		return edges;
+	}
+}
@@ -1,209 +1,450 @@
 package org.geogebra.common.kernel.discrete.tsp.impl;
 
-import org.geogebra.common.kernel.MyPoint;
+import java.util.Arrays;
+import java.util.Random;
 
-// Fast Local Search, 2-Opt "Dont look bits"
+/**
+ * Fast local search with "don't look bits": 2-opt and Or-opt moves towards
+ * candidate neighbours. Only cities in the queue (whose neighbourhood changed
+ * recently) are examined, so the search after a small change is local.
+ *
+ * The tour is stored as an array of cities with the position of each city.
+ * Since the tour is undirected, a path is reversed by reversing its
+ * complement when that is shorter.
+ */
 public final class FLS {
 
+	/** a move has to shorten the tour by more than this */
+	private static final double EPSILON = 1E-10;
+	/** maximal length of the segments swapped by a kick */
+	private static final int MAX_KICK_SEGMENT = 50;
+	/** check the deadline after this many steps (power of 2) */
+	private static final int DEADLINE_CHECK = 128;
+	private static final int MAX_OR_OPT_SEGMENT = 3;
+
+	private final double[] x;
+	private final double[] y;
+	private final int n;
+	private final CandidateNeighbours candidates;
+
+	private final int[] tour;
+	private final int[] pos;
+	private double length;
+
+	/** cities to be examined, as ring buffer */
+	private final int[] queue;
+	private final boolean[] queued;
+	private int queueStart;
+	private int queueSize;
+
+	/** reversals since the last accepted tour as (position, length) */
+	private int[] journal = new int[64];
+	private int journalSize;
+	private boolean recording;
+
 	/**
-	 * 2-Opt a tour. removes 2 edges, then reconstructs a tour. in general (from
-	 * http://en.wikipedia.org/wiki/2-opt): 1. take route[0] to route[i-1] and
-	 * add them in order to new_route 2. take route[i] to route[k] and add them
-	 * in reverse order to new_route 3. take route[k+1] to end and add them in
-	 * order to new_route
-	 *
-	 * note that reverse is called with min(from,to)+1, max(from,to). in a 2-opt
-	 * move, 2 edges are removed, leaving 2 disconnected sub-tours. either one
-	 * of these subtours is then reversed and the 2 subtours reconnected in a
-	 * different (shorter) way.
-	 *
-	 * Bentley, in his experiements on TSP heuristics paper notes that since
-	 * either subtour can be reversed, it is best to reverse the shortest one,
-	 * otherwise an arbitrary reversal will be N/2 array accesses.
+	 * @param x
+	 *            x-coordinates
+	 * @param y
+	 *            y-coordinates
+	 * @param n
+	 *            number of cities
+	 * @param candidates
+	 *            candidate neighbours
+	 */
+	public FLS(double[] x, double[] y, int n,
+			CandidateNeighbours candidates) {
+		this.x = x;
+		this.y = y;
+		this.n = n;
+		this.candidates = candidates;
+		tour = new int[n];
+		pos = new int[n];
+		queue = new int[n];
+		queued = new boolean[n];
+	}
+
+	/**
+	 * Sets the initial tour; no city is queued.
 	 *
-	 * this implementation currently reverses whatever subtour does not wrap
-	 * around -which could be the larger of the two.
+	 * @param initial
+	 *            permutation of the cities
 	 */
-	private static void reverse(final MyPoint[] x, final int from, final int to) {
-		for (int i = from, j = to; i < j; i++, j--) {
-			final MyPoint tmp = x[i];
-			x[i] = x[j];
-			x[j] = tmp;
+	public void setTour(int[] initial) {
+		System.arraycopy(initial, 0, tour, 0, n);
+		for (int i = 0; i < n; i++) {
+			pos[tour[i]] = i;
+		}
+		length = 0;
+		for (int i = 0; i < n; i++) {
+			length += dist(tour[i], next(tour[i]));
 		}
+		clearQueue();
 	}
 
 	/**
-	 * a tour is a circle. wrap around.
+	 * Queues a city and its tour neighbours for examination.
+	 *
+	 * @param city
+	 *            city
+	 */
+	public void activate(int city) {
+		push(prev(city));
+		push(city);
+		push(next(city));
+	}
+
+	/**
+	 * Queues all cities for examination.
 	 */
-	private static int wrap(final int i, final int max) {
-		return (max + i) % max;
+	public void activateAll() {
+		for (int i = 0; i < n; i++) {
+			push(tour[i]);
+		}
 	}
 
 	/**
-	 * cost of a 2-Opt. cost of replacing existing edges (ab), (cd) with new
-	 * edges (ac) (bd). returns the delta of a 2-Opt move. a negative delta
-	 * indicates that performing this 2-Opt will result in a shorter tour, and a
-	 * positive delta indicates that this 2-Opt will result in a longer tour.
+	 * Runs the local search from the queued cities, then tries to escape the
+	 * local optimum by kicks: two short neighbouring segments are swapped
+	 * (double bridge) and the tour is optimised again; the kick is undone if
+	 * it didn't help.
 	 *
-	 * this function is the main hotspot in the optimisation. it is not feasible
-	 * to pre-compute a matrix (a lookup table) for a tour with N cities, since
-	 * this will be O(N^2) and the most compact representation will be
-	 * (N^2-N)/2.
+	 * @param kicks
+	 *            maximal number of kicks
+	 * @param random
+	 *            random generator for kicks
+	 * @param deadline
+	 *            time (ms since epoch) to stop at
+	 */
+	public void search(int kicks, Random random, long deadline) {
+		if (!optimise(deadline) || n < 8) {
+			return;
+		}
+		recording = true;
+		for (int k = 0; k < kicks
+				&& System.currentTimeMillis() < deadline; k++) {
+			double bestLength = length;
+			journalSize = 0;
+			int start = random.nextInt(n);
+			int maxSegment = Math.min(MAX_KICK_SEGMENT, n / 4);
+			int first = 1 + random.nextInt(maxSegment);
+			int second = 1 + random.nextInt(maxSegment);
+			kick(start, first, second);
+			boolean finished = optimise(deadline);
+			if (length > bestLength - EPSILON) {
+				undo(start, first, second);
+				length = bestLength;
+			}
+			if (!finished) {
+				break;
+			}
+		}
+		recording = false;
+		clearQueue();
+	}
+
+	/**
+	 * Improves the tour until no queued city allows an improving move.
 	 *
-	 * good optimisation: most of the time the algorithm is evaluating bad
-	 * moves, in the obvious case where 2 edge exchanges would result in 2
-	 * longer edges, avoid 4 square root operations by comparing squares. this
-	 * results in a 40% speed up in this code.
+	 * @param deadline
+	 *            time (ms since epoch) to stop at
+	 * @return false if stopped because of the deadline
 	 */
-	private static double moveCost(final MyPoint a, final MyPoint b, final MyPoint c,
-			final MyPoint d) {
+	public boolean optimise(long deadline) {
+		int steps = 0;
+		while (queueSize > 0) {
+			if (++steps % DEADLINE_CHECK == 0
+					&& System.currentTimeMillis() >= deadline) {
+				return false;
+			}
+			int city = queue[queueStart];
+			queued[city] = false;
+			queueStart = (queueStart + 1) % n;
+			queueSize--;
+			// an improving move queues the city again
+			if (!twoOpt(city, true) && !twoOpt(city, false)) {
+				orOpt(city);
+			}
+		}
+		return true;
+	}
 
-		// original edges (ab) (cd)
-		final double _ab = a.distanceSq(b), _cd = c.distanceSq(d);
+	/**
+	 * @param result
+	 *            array for the cities in tour order
+	 */
+	public void getTour(int[] result) {
+		System.arraycopy(tour, 0, result, 0, n);
+	}
 
-		// candidate edges (ac) (bd)
-		final double _ac = a.distanceSq(c), _bd = b.distanceSq(d);
+	/**
+	 * @return tour length
+	 */
+	public double getLength() {
+		return length;
+	}
 
-		// triangle of inequality: at least 1 edge will be shorter.
-		// if both will be longer, there will be no improvement.
-		// return a positive delta to indicate no improvement.
-		if (_ab < _ac && _cd < _bd) {
-			return 1;
+	/**
+	 * Tries 2-opt moves replacing the tour edge (a, b) at city a and an
+	 * edge (c, d) at a candidate c by (a, c) and (b, d).
+	 */
+	private boolean twoOpt(int a, boolean forward) {
+		int b = forward ? next(a) : prev(a);
+		double ab = dist(a, b);
+		for (int i = 0; i < candidates.getCount(a); i++) {
+			int c = candidates.get(a, i);
+			double ac = dist(a, c);
+			if (ac >= ab) {
+				break;
+			}
+			int d = forward ? next(c) : prev(c);
+			if (c == b || d == a) {
+				continue;
+			}
+			double delta = ac + dist(b, d) - ab - dist(c, d);
+			if (delta < -EPSILON) {
+				move(a, b, c, d);
+				length += delta;
+				push(a, b, c, d);
+				return true;
+			}
 		}
-
-		// otherwise must calculate distance delta.
-		return (Math.sqrt(_ac) + Math.sqrt(_bd))
-				- (Math.sqrt(_ab) + Math.sqrt(_cd));
+		return false;
 	}
 
 	/**
-	 * set active bits for 4 vertices making up edges ab, cd.
+	 * Tries to move a segment of up to 3 cities starting at city s1 between
+	 * two other neighbouring cities, in either orientation.
 	 */
-	private static void activate(final MyPoint a, final MyPoint b, final MyPoint c,
-			final MyPoint d) {
-		a.setActive(true);
-		b.setActive(true);
-		c.setActive(true);
-		d.setActive(true);
+	private boolean orOpt(int s1) {
+		for (int segment = 1; segment <= MAX_OR_OPT_SEGMENT
+				&& segment + 3 <= n; segment++) {
+			if (orOpt(s1, segment, true)
+					|| (segment > 1 && orOpt(s1, segment, false))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean orOpt(int s1, int segment, boolean forward) {
+		int sL = s1;
+		for (int i = 1; i < segment; i++) {
+			sL = step(sL, forward);
+		}
+		int p = step(s1, !forward);
+		int q = step(sL, forward);
+		double removed = dist(p, s1) + dist(sL, q);
+		double gain = removed - dist(p, q);
+		if (gain <= EPSILON) {
+			return false;
+		}
+		for (int end = 0; end < 2; end++) {
+			int s = end == 0 ? s1 : sL;
+			for (int i = 0; i < candidates.getCount(s); i++) {
+				int c = candidates.get(s, i);
+				if (dist(s, c) >= gain) {
+					break;
+				}
+				if (inSegment(c, s1, segment, forward)) {
+					continue;
+				}
+				if (tryInsert(s1, sL, segment, forward, p, q, c,
+						step(c, forward), removed)
+						|| tryInsert(s1, sL, segment, forward, p, q,
+								step(c, !forward), c, removed)) {
+					return true;
+				}
+			}
+		}
+		return false;
 	}
 
 	/**
-	 * try to find a move from the current city. given the current city, search
-	 * for a 2-opt move that will result in an improvement to the tour length.
-	 * the edge before the current city, (prevPoint,currenPoint) and after
-	 * (currentPoint,nextPoint) are compared to all over edges (c,d), starting
-	 * at (c=currentPoint+2, d=currentPoint+3) until an improvement is found.
+	 * Tries to move the segment s1..sL between p and q to the edge (e, f),
+	 * where f follows e in the direction of the segment.
 	 */
-	private static double findMove(final int current, final MyPoint currentPoint,
-			final MyPoint[] points, final int numCities) {
-
-		// previous and next city index and point object.
-		final int prev = wrap(current - 1, numCities);
-		final int next = wrap(current + 1, numCities);
-		final MyPoint prevPoint = points[prev];
-		final MyPoint nextPoint = points[next];
-
-		// iterate through pairs (i,j) where i = current+2 j = current+3
-		// until i = current+numCities-2, j = current+numCities-1.
-		// if points = {0,1,2,3,4,5,6,7,8,9}, current = 4, this will produce:
-		// (6,7) (7,8) (8,9) (9,0) (0,1) (1,2) (2,3)
-		for (int i = wrap(current + 2, numCities), j = wrap(current + 3,
-				numCities); j != current; i = j, j = wrap(j + 1, numCities)) {
-
-			final MyPoint c = points[i];
-			final MyPoint d = points[j];
-
-			// previous edge:
-			// see if swaping the current 2 edges:
-			// (prevPoint, currentPoint) (c, d) to:
-			// (prevPoint, c) (currentPoint, d)
-			// will result in an improvement. if so, set active bits for
-			// the 4 vertices involved and reverse everything between:
-			// (currentPoint, c).
-			final double delta1 = moveCost(prevPoint, currentPoint, c, d);
-			if (delta1 < 0) {
-				activate(prevPoint, currentPoint, c, d);
-				reverse(points, Math.min(prev, i) + 1, Math.max(prev, i));
-				return delta1;
-			}
+	private boolean tryInsert(int s1, int sL, int segment, boolean forward,
+			int p, int q, int e, int f, double removed) {
+		if (f == p || inSegment(e, s1, segment, forward)
+				|| inSegment(f, s1, segment, forward)) {
+			return false;
+		}
+		double ef = dist(e, f);
+		double straight = dist(e, s1) + dist(sL, f);
+		double reversed = dist(e, sL) + dist(s1, f);
+		double delta = dist(p, q) + Math.min(straight, reversed) - removed
+				- ef;
+		if (delta >= -EPSILON) {
+			return false;
+		}
+		// p s1..sL q .. e f -> p e .. q sL..s1 f
+		move(p, s1, e, f);
+		if (e != q) {
+			// -> p q .. e sL..s1 f
+			move(p, e, q, sL);
+		}
+		if (straight < reversed) {
+			// -> p q .. e s1..sL f
+			move(e, sL, s1, f);
+		}
+		length += delta;
+		push(p, q, e, f);
+		push(s1);
+		push(sL);
+		return true;
+	}
 
-			// next edge:
-			// see if swaping the current 2 edges:
-			// (currentPoint, nextPoint) (c, d) to:
-			// (currentPoint, c) (nextPoint, d)
-			// will result in an improvement. if so, set active bits for
-			// the 4 vertices involved and reverse everything between:
-			// (nextPoint, c).
-			final double delta2 = moveCost(currentPoint, nextPoint, c, d);
-			if (delta2 < 0) {
-				activate(currentPoint, nextPoint, c, d);
-				reverse(points, Math.min(current, i) + 1, Math.max(current, i));
-				return delta2;
+	private boolean inSegment(int city, int s1, int segment,
+			boolean forward) {
+		int s = s1;
+		for (int i = 0; i < segment; i++) {
+			if (s == city) {
+				return true;
 			}
+			s = step(s, forward);
+		}
+		return false;
+	}
 
+	/**
+	 * Replaces edges (a, b) and (c, d) by (a, c) and (b, d), where b follows
+	 * a and d follows c in the same direction.
+	 */
+	private void move(int a, int b, int c, int d) {
+		if (next(a) == b) {
+			reverse(b, c);
+		} else {
+			reverse(c, b);
 		}
-		return 0.0;
 	}
 
 	/**
-	 * optimise a tour.
-	 * 
-	 * @return a 2-Optimal tour.
+	 * Reverses the path from u to v (in tour order), or its complement if
+	 * that is shorter.
 	 */
-	public static double optimise(final MyPoint[] points) {
-
-		// total tour distance
-		double best = distance(points);
-
-		// System.out.printf("tour length = %.4f\n", best);
-
-		// total number of cities in the tour
-		final int numCities = points.length;
-
-		// numCities - visited = total number of active cities.
-		// current = current city being explored.
-		int visited = 0, current = 0;
-
-		// terminate when a full rotation of of static order from city 1:N
-		// has completed without making a move (when all cities are inactive).
-		// the resulting tour (points) will be "2-Optimal" -that is, no further
-		// imrovements are possible (local optima).
-		while (visited < numCities) {
-			final MyPoint currentPoint = points[current];
-			if (currentPoint.isActive()) {
-
-				// from the current city, try to find a move.
-				final double modified = findMove(current, currentPoint, points,
-						numCities);
-
-				// if a move was found, go to previous city.
-				// best is += modified delta.
-				if (modified < 0) {
-					current = wrap(current - 1, numCities);
-					visited = 0;
-					best += modified;
-					continue;
-				}
-				currentPoint.setActive(false);
+	private void reverse(int u, int v) {
+		int i = pos[u];
+		int j = pos[v];
+		int count = j - i;
+		if (count < 0) {
+			count += n;
+		}
+		count++;
+		if (2 * count > n) {
+			i = j + 1 == n ? 0 : j + 1;
+			count = n - count;
+		}
+		reversePositions(i, count);
+		if (recording) {
+			if (journalSize + 2 > journal.length) {
+				journal = Arrays.copyOf(journal, 2 * journal.length);
 			}
+			journal[journalSize++] = i;
+			journal[journalSize++] = count;
+		}
+	}
 
-			// if city is inactive or no moves found, go to next city.
-			current = wrap(current + 1, numCities);
-			visited++;
+	private void reversePositions(int start, int count) {
+		int i = start;
+		int j = (start + count - 1) % n;
+		for (int k = count / 2; k > 0; k--) {
+			int ci = tour[i];
+			int cj = tour[j];
+			tour[i] = cj;
+			pos[cj] = i;
+			tour[j] = ci;
+			pos[ci] = j;
+			i = i + 1 == n ? 0 : i + 1;
+			j = j == 0 ? n - 1 : j - 1;
 		}
-		return best;
 	}
 
 	/**
-	 * Euclidean distance. tour wraps around N-1 to 0.
+	 * Swaps the segments of the given lengths following position start.
 	 */
-	private static double distance(final MyPoint[] points) {
-		final int len = points.length;
-		double d = points[len - 1].distance(points[0]);
-		for (int i = 1; i < len; i++) {
-			d += points[i - 1].distance(points[i]);
+	private void kick(int start, int first, int second) {
+		int a = tour[start];
+		int b1 = tour[(start + 1) % n];
+		int bL = tour[(start + first) % n];
+		int c1 = tour[(start + first + 1) % n];
+		int cL = tour[(start + first + second) % n];
+		int d = tour[(start + first + second + 1) % n];
+		swapSegments(start, first, second);
+		length += dist(a, c1) + dist(cL, b1) + dist(bL, d) - dist(a, b1)
+				- dist(bL, c1) - dist(cL, d);
+		push(a, b1, bL, c1);
+		push(cL);
+		push(d);
+	}
+
+	private void swapSegments(int start, int first, int second) {
+		int[] cities = new int[first + second];
+		for (int i = 0; i < second; i++) {
+			cities[i] = tour[(start + first + 1 + i) % n];
+		}
+		for (int i = 0; i < first; i++) {
+			cities[second + i] = tour[(start + 1 + i) % n];
+		}
+		for (int i = 0; i < cities.length; i++) {
+			int p = (start + 1 + i) % n;
+			tour[p] = cities[i];
+			pos[cities[i]] = p;
+		}
+	}
+
+	/**
+	 * Undoes the reversals since the kick and the kick itself.
+	 */
+	private void undo(int start, int first, int second) {
+		for (int k = journalSize - 2; k >= 0; k -= 2) {
+			reversePositions(journal[k], journal[k + 1]);
 		}
-		return d;
+		journalSize = 0;
+		swapSegments(start, second, first);
+		clearQueue();
+	}
+
+	private void push(int a, int b, int c, int d) {
+		push(a);
+		push(b);
+		push(c);
+		push(d);
 	}
 
+	private void push(int city) {
+		if (!queued[city]) {
+			queued[city] = true;
+			queue[(queueStart + queueSize) % n] = city;
+			queueSize++;
+		}
+	}
+
+	private void clearQueue() {
+		for (int i = 0; i < queueSize; i++) {
+			queued[queue[(queueStart + i) % n]] = false;
+		}
+		queueStart = 0;
+		queueSize = 0;
+	}
+
+	private int next(int city) {
+		int i = pos[city] + 1;
+		return tour[i == n ? 0 : i];
+	}
+
+	private int prev(int city) {
+		int i = pos[city];
+		return tour[i == 0 ? n - 1 : i - 1];
+	}
+
+	private int step(int city, boolean forward) {
+		return forward ? next(city) : prev(city);
+	}
+
+	private double dist(int a, int b) {
+		double dx = x[a] - x[b];
+		double dy = y[a] - y[b];
+		return Math.sqrt(dx * dx + dy * dy);
+	}
 }
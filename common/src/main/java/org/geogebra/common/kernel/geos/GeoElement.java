@@ -56,6 +56,7 @@ import org.geogebra.common.kernel.algos.Algos;
 import org.geogebra.common.kernel.algos.ChartStyleAlgo;
 import org.geogebra.common.kernel.algos.ConstructionElement;
 import org.geogebra.common.kernel.algos.DrawInformationAlgo;
+import org.geogebra.common.kernel.algos.LevelScheduledCascade;
 import org.geogebra.common.kernel.algos.TableAlgo;
 import org.geogebra.common.kernel.arithmetic.Equation;
 import org.geogebra.common.kernel.arithmetic.EquationValue;
@@ -2677,14 +2678,23 @@ public abstract class GeoElement extends ConstructionElement implements GeoEleme
 	 */
 	public static int compareLabels(final String label1,
 			final String label2) {
-		String prefix1 = trailingDigits(label1);
-		String prefix2 = trailingDigits(label2);
-		int comp = prefix1.compareTo(prefix2);
-		if (comp != 0) {
-			return comp;
-		}
-		int suffixLength1 = label1.length() - prefix1.length();
-		int suffixLength2 = label2.length() - prefix2.length();
+		// compare prefixes without creating substrings, labels are compared
+		// often when inserting into the sorted geo sets
+		int prefixLength1 = prefixLength(label1);
+		int prefixLength2 = prefixLength(label2);
+		int minLength = Math.min(prefixLength1, prefixLength2);
+		for (int i = 0; i < minLength; i++) {
+			char c1 = label1.charAt(i);
+			char c2 = label2.charAt(i);
+			if (c1 != c2) {
+				return c1 - c2;
+			}
+		}
+		if (prefixLength1 != prefixLength2) {
+			return prefixLength1 - prefixLength2;
+		}
+		int suffixLength1 = label1.length() - prefixLength1;
+		int suffixLength2 = label2.length() - prefixLength2;
 		if (suffixLength1 != suffixLength2) {
 			return suffixLength1 - suffixLength2;
 		}
@@ -2692,12 +2702,16 @@ public abstract class GeoElement extends ConstructionElement implements GeoEleme
 		return label1.compareTo(label2);
 	}
 
-	private static String trailingDigits(String label1) {
+	/**
+	 * @return length of the label without trailing digits (first character
+	 *         is always part of the prefix)
+	 */
+	private static int prefixLength(String label1) {
 		int i = label1.length() - 1;
 		while (i > 0 && label1.charAt(i) >= '0' && label1.charAt(i) <= '9') {
 			i--;
 		}
-		return label1.substring(0, i + 1);
+		return i + 1;
 	}
 
 	private void doRenameLabel(final String newLabel) {
@@ -3338,6 +3352,11 @@ public abstract class GeoElement extends ConstructionElement implements GeoEleme
 
 		// now we have one nice algorithm set that we can update
 		if (tempSet1.size() > 0) {
+			if (LevelScheduledCascade.isApplicable(
+					tempSet1.first().getKernel(), tempSet1.size())) {
+				LevelScheduledCascade.updateAll(tempSet1);
+				return;
+			}
 			for (AlgoElement algo : tempSet1) {
 				algo.update();
 			}
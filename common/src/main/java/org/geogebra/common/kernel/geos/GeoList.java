@@ -14,6 +14,7 @@ package org.geogebra.common.kernel.geos;
 
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.TreeSet;
 
 import org.geogebra.common.awt.GColor;
@@ -45,6 +46,7 @@ import org.geogebra.common.kernel.arithmetic.ExpressionNodeConstants.StringType;
 import org.geogebra.common.kernel.arithmetic.ExpressionValue;
 import org.geogebra.common.kernel.arithmetic.FunctionalNVar;
 import org.geogebra.common.kernel.arithmetic.ListValue;
+import org.geogebra.common.kernel.arithmetic.MyDouble;
 import org.geogebra.common.kernel.arithmetic.MyList;
 import org.geogebra.common.kernel.arithmetic.NumberValue;
 import org.geogebra.common.kernel.arithmetic.ValidExpression;
@@ -60,6 +62,7 @@ import org.geogebra.common.kernel.matrix.Coords;
 import org.geogebra.common.main.Localization;
 import org.geogebra.common.plugin.EuclidianStyleConstants;
 import org.geogebra.common.plugin.GeoClass;
+import org.geogebra.common.util.DoubleUtil;
 import org.geogebra.common.util.StringUtil;
 import org.geogebra.common.util.debug.Log;
 
@@ -77,8 +80,14 @@ public class GeoList extends GeoElement
 
 	private boolean trace;
 
-	// GeoElement list members
-	private final ArrayList<GeoElement> elements;
+	// GeoElement list members, either objectElements or numbers
+	private List<GeoElement> elements;
+	private final ArrayList<GeoElement> objectElements;
+	// values of a list of numbers, see setNumericValues
+	private NumericListElements numbers;
+	// incremented whenever elements or their values may have changed
+	private int updateVersion;
+	private ListStatistics statistics;
 
 	// lists will often grow and shrink dynamically,
 	// so we keep a cacheList of all old list elements
@@ -154,7 +163,8 @@ public class GeoList extends GeoElement
 		// http://benpryor.com/blog/2008/01/02/dont-call-subclass-methods-from-a-superclass-constructor/
 		setConstructionDefaults(); // init visual settings
 
-		elements = new ArrayList<>(size);
+		objectElements = new ArrayList<>(size);
+		elements = objectElements;
 		cacheList = new ArrayList<>(size);
 		setEuclidianVisible(false);
 		// don't add here, see GGB-264
@@ -256,9 +266,13 @@ public class GeoList extends GeoElement
 	}
 
 	private void copyListElements(final GeoList otherList) {
+		if (otherList.hasNumericValues()) {
+			setNumericValues(otherList.numbers.getValues(), otherList.size());
+			return;
+		}
 		final int otherListSize = otherList.size();
 		ensureCapacity(otherListSize);
-		elements.clear();
+		clear();
 
 		for (int i = 0; i < otherListSize; i++) {
 			final GeoElement otherElement = otherList.get(i);
@@ -367,13 +381,14 @@ public class GeoList extends GeoElement
 		}
 		super.removeColorFunction();
 
-		if ((elements == null) || (elements.size() == 0)) {
+		final List<? extends GeoElement> styled = styledElements();
+		if ((styled == null) || (styled.size() == 0)) {
 			return;
 		}
 
-		final int size = elements.size();
+		final int size = styled.size();
 		for (int i = 0; i < size; i++) {
-			final GeoElement geo = elements.get(i);
+			final GeoElement geo = styled.get(i);
 			if (!geo.isLabelSet()) {
 				geo.removeColorFunction();
 			}
@@ -384,13 +399,14 @@ public class GeoList extends GeoElement
 	public final void setColorFunction(final GeoList col) {
 		super.setColorFunction(col);
 
-		if ((elements == null) || (elements.size() == 0)) {
+		final List<? extends GeoElement> styled = styledElements();
+		if ((styled == null) || (styled.size() == 0)) {
 			return;
 		}
 
-		final int size = elements.size();
+		final int size = styled.size();
 		for (int i = 0; i < size; i++) {
-			final GeoElement geo = elements.get(i);
+			final GeoElement geo = styled.get(i);
 			if (!geo.isLabelSet()) {
 				geo.setColorFunction(col);
 			}
@@ -402,13 +418,14 @@ public class GeoList extends GeoElement
 	public final void setColorSpace(final int colorSpace) {
 		super.setColorSpace(colorSpace);
 
-		if ((elements == null) || (elements.size() == 0)) {
+		final List<? extends GeoElement> styled = styledElements();
+		if ((styled == null) || (styled.size() == 0)) {
 			return;
 		}
 
-		final int size = elements.size();
+		final int size = styled.size();
 		for (int i = 0; i < size; i++) {
-			final GeoElement geo = elements.get(i);
+			final GeoElement geo = styled.get(i);
 			if (!geo.isLabelSet()) {
 				geo.setColorSpace(colorSpace);
 			}
@@ -426,13 +443,14 @@ public class GeoList extends GeoElement
 			throws CircularDefinitionException {
 		super.setShowObjectCondition(bool);
 
-		if ((elements == null) || (elements.size() == 0)) {
+		final List<? extends GeoElement> styled = styledElements();
+		if ((styled == null) || (styled.size() == 0)) {
 			return;
 		}
 
-		final int size = elements.size();
+		final int size = styled.size();
 		for (int i = 0; i < size; i++) {
-			final GeoElement geo = elements.get(i);
+			final GeoElement geo = styled.get(i);
 			if (!geo.isLabelSet()) {
 				geo.setShowObjectCondition(bool);
 			}
@@ -452,12 +470,13 @@ public class GeoList extends GeoElement
 		}
 
 		// set visual style
-		if ((elements == null) || (elements.size() == 0)) {
+		final List<? extends GeoElement> styled = styledElements();
+		if ((styled == null) || (styled.size() == 0)) {
 			return;
 		}
-		final int size = elements.size();
+		final int size = styled.size();
 		for (int i = 0; i < size; i++) {
-			final GeoElement geo = elements.get(i);
+			final GeoElement geo = styled.get(i);
 			if (!geo.isLabelSet()) {
 				geo.setVisualStyle(style, setAuxiliaryProperty);
 			}
@@ -467,13 +486,14 @@ public class GeoList extends GeoElement
 	@Override
 	public void setObjColor(final GColor color) {
 		super.setObjColor(color);
-		if ((elements == null) || (elements.size() == 0)) {
+		final List<? extends GeoElement> styled = styledElements();
+		if ((styled == null) || (styled.size() == 0)) {
 			return;
 		}
 
-		final int size = elements.size();
+		final int size = styled.size();
 		for (int i = 0; i < size; i++) {
-			final GeoElement geo = get(i);
+			final GeoElement geo = styled.get(i);
 			if (!geo.isLabelSet()) {
 				geo.setObjColor(color);
 			}
@@ -484,13 +504,14 @@ public class GeoList extends GeoElement
 	public void setBackgroundColor(final GColor color) {
 		super.setBackgroundColor(color);
 
-		if ((elements == null) || (elements.size() == 0)) {
+		final List<? extends GeoElement> styled = styledElements();
+		if ((styled == null) || (styled.size() == 0)) {
 			return;
 		}
 
-		final int size = elements.size();
+		final int size = styled.size();
 		for (int i = 0; i < size; i++) {
-			final GeoElement geo = get(i);
+			final GeoElement geo = styled.get(i);
 			if (!geo.isLabelSet()) {
 				geo.setBackgroundColor(color);
 			}
@@ -509,9 +530,10 @@ public class GeoList extends GeoElement
 				&& labelOffsetY == 0) {
 			initScreenLocation();
 		}
-		final int size = elements.size();
+		final List<? extends GeoElement> styled = styledElements();
+		final int size = styled.size();
 		for (int i = 0; i < size; i++) {
-			final GeoElement geo = get(i);
+			final GeoElement geo = styled.get(i);
 			setElementEuclidianVisible(geo, visible);
 		}
 	}
@@ -560,13 +582,14 @@ public class GeoList extends GeoElement
 	@Override
 	public void setVisibility(int viewId, boolean setVisible) {
 		super.setVisibility(viewId, setVisible);
-		if ((elements == null) || (elements.size() == 0)) {
+		final List<? extends GeoElement> styled = styledElements();
+		if ((styled == null) || (styled.size() == 0)) {
 			return;
 		}
 
-		final int size = elements.size();
+		final int size = styled.size();
 		for (int i = 0; i < size; i++) {
-			final GeoElement geo = get(i);
+			final GeoElement geo = styled.get(i);
 			if (!geo.isLabelSet()) {
 				geo.setVisibility(viewId, setVisible);
 			}
@@ -588,6 +611,13 @@ public class GeoList extends GeoElement
 	 * @param myList list to copy into
 	 */
 	public void copyListElements(MyList myList) {
+		if (hasNumericValues()) {
+			double[] values = numbers.getValues();
+			for (int i = 0; i < numbers.size(); i++) {
+				myList.addListElement(new MyDouble(kernel, values[i]));
+			}
+			return;
+		}
 		for (GeoElement element : elements) {
 			myList.addListElement(new ExpressionNode(kernel, element));
 		}
@@ -604,14 +634,19 @@ public class GeoList extends GeoElement
 	 */
 	public void setDefined(final boolean flag) {
 		isDefined = flag;
+		updateVersion++;
 
 		if (!isDefined) {
 
 			final int size = elements.size();
-			for (int i = 0; i < size; i++) {
-				final GeoElement geo = elements.get(i);
-				if (!geo.isLabelSet()) {
-					geo.setUndefined();
+			if (hasNumericValues()) {
+				numbers.setViewsUndefined();
+			} else {
+				for (int i = 0; i < size; i++) {
+					final GeoElement geo = elements.get(i);
+					if (!geo.isLabelSet()) {
+						geo.setUndefined();
+					}
 				}
 			}
 
@@ -645,7 +680,112 @@ public class GeoList extends GeoElement
 	 * Clear the list
 	 */
 	public final void clear() {
+		elements = objectElements;
 		elements.clear();
+		updateVersion++;
+	}
+
+	/**
+	 * Replaces the elements of this list by numbers stored in an array;
+	 * GeoNumeric objects are only created for elements accessed by
+	 * {@link #get(int)}. Adding or removing elements afterwards converts the
+	 * list back to objects.
+	 *
+	 * @param values
+	 *            values (copied)
+	 * @param size
+	 *            number of values to use
+	 */
+	public void setNumericValues(double[] values, int size) {
+		if (numbers == null) {
+			numbers = new NumericListElements(this);
+		}
+		objectElements.clear();
+		numbers.setValues(values, size);
+		elements = numbers;
+		updateVersion++;
+		elementType = GeoClass.NUMERIC;
+		if (size > 0) {
+			isDrawable = true;
+			updateDrawableFlag(numbers.getFlyweight(0));
+		}
+	}
+
+	/**
+	 * Fast access for list of numbers set by
+	 * {@link #setNumericValues(double[], int)}.
+	 *
+	 * @return values of this list (only the first size() entries are valid,
+	 *         must not be modified) or null if elements are stored as objects
+	 */
+	public double[] getNumericValues() {
+		return hasNumericValues() ? numbers.getValues() : null;
+	}
+
+	/**
+	 * @return counter of changes to this list
+	 */
+	int getUpdateVersion() {
+		return updateVersion;
+	}
+
+	/**
+	 * Statistics shared by all one-variable statistics algos of this list,
+	 * recomputed after the list changed.
+	 *
+	 * @return statistics or null if some element is not a number
+	 */
+	public ListStatistics getStatistics() {
+		if (statistics == null) {
+			statistics = new ListStatistics(this);
+		}
+		return statistics.refresh() ? statistics : null;
+	}
+
+	private boolean hasNumericValues() {
+		return numbers != null && elements == numbers;
+	}
+
+	/**
+	 * @return elements that need to be updated when style of this list
+	 *         changes; for numbers stored in array only the existing views
+	 */
+	private List<? extends GeoElement> styledElements() {
+		return hasNumericValues() ? numbers.getViews() : elements;
+	}
+
+	/**
+	 * Convert numbers stored in array to objects before the list is modified.
+	 */
+	private void ensureObjectElements() {
+		if (!hasNumericValues()) {
+			return;
+		}
+		objectElements.clear();
+		for (int i = 0; i < numbers.size(); i++) {
+			GeoElement geo = numbers.get(i);
+			objectElements.add(geo);
+			if (i < cacheList.size()) {
+				cacheList.set(i, geo);
+			} else {
+				cacheList.add(geo);
+			}
+		}
+		elements = objectElements;
+	}
+
+	/**
+	 * Sets style of a new element stored in array, see {@link #add}
+	 *
+	 * @param geo
+	 *            element
+	 */
+	void initElementView(GeoNumeric geo) {
+		geo.setParentAlgorithm(getParentAlgorithm());
+		applyVisualStyle(geo);
+		geo.setViewFlags(getViewSet());
+		geo.setVisibleInView3D(this);
+		geo.setVisibleInViewForPlane(this);
 	}
 
 	/**
@@ -672,8 +812,10 @@ public class GeoList extends GeoElement
 	 *            geo to be added
 	 */
 	public final void add(final GeoElementND geo) {
+		ensureObjectElements();
 		// add geo to end of list
 		elements.add(geo.toGeoElement());
+		updateVersion++;
 
 		if (elements.size() == 1) {
 			setTypeStringForXML(geo.getXMLtypeString());
@@ -735,7 +877,9 @@ public class GeoList extends GeoElement
 	 *            element to be removed
 	 */
 	public final void remove(final GeoElement geo) {
+		ensureObjectElements();
 		elements.remove(geo);
+		updateVersion++;
 
 	}
 
@@ -761,7 +905,9 @@ public class GeoList extends GeoElement
 	 *            position of element to be removed
 	 */
 	public final void remove(final int index) {
+		ensureObjectElements();
 		elements.remove(index);
+		updateVersion++;
 
 	}
 
@@ -797,6 +943,12 @@ public class GeoList extends GeoElement
 	@Override
 	public double[] toDouble(int offset) {
 		int length = elements.size();
+		if (hasNumericValues() && offset <= length) {
+			final double[] valueArray = new double[length - offset];
+			System.arraycopy(numbers.getValues(), offset, valueArray, 0,
+					valueArray.length);
+			return valueArray;
+		}
 		try {
 			final double[] valueArray = new double[length - offset];
 			for (int i = offset; i < length; i++) {
@@ -815,7 +967,7 @@ public class GeoList extends GeoElement
 	 *            capcity to ensure
 	 */
 	final public void ensureCapacity(final int size) {
-		elements.ensureCapacity(size);
+		objectElements.ensureCapacity(size);
 		cacheList.ensureCapacity(size);
 	}
 
@@ -865,7 +1017,7 @@ public class GeoList extends GeoElement
 		final int lastIndex = elements.size() - 1;
 		if (lastIndex > -1) {
 			for (int i = 0; i < lastIndex; i++) {
-				final GeoElement geo = elements.get(i);
+				final GeoElement geo = getForOutput(i);
 
 				sbBuildValueString
 						.append(geo.getAlgebraDescriptionRegrOut(tpl));
@@ -873,7 +1025,7 @@ public class GeoList extends GeoElement
 			}
 
 			// last element
-			final GeoElement geo = elements.get(lastIndex);
+			final GeoElement geo = getForOutput(lastIndex);
 			sbBuildValueString.append(geo.getAlgebraDescriptionRegrOut(tpl));
 		}
 
@@ -898,14 +1050,14 @@ public class GeoList extends GeoElement
 		final int lastIndex = elements.size() - 1;
 		if (lastIndex > -1) {
 			for (int i = 0; i < lastIndex; i++) {
-				final GeoElement geo = elements.get(i);
+				final GeoElement geo = getForOutput(i);
 				sbBuildValueString.append(geo.toOutputValueString(tpl));
 				tpl.getComma(sbBuildValueString, getLoc());
 				tpl.appendOptionalSpace(sbBuildValueString);
 			}
 
 			// last element
-			final GeoElement geo = elements.get(lastIndex);
+			final GeoElement geo = getForOutput(lastIndex);
 			sbBuildValueString.append(geo.toOutputValueString(tpl));
 		}
 
@@ -914,6 +1066,16 @@ public class GeoList extends GeoElement
 		return sbBuildValueString;
 	}
 
+	/**
+	 * @param i
+	 *            index
+	 * @return element for string output, for numbers stored in array it may
+	 *         be reused for the next element
+	 */
+	private GeoElement getForOutput(int i) {
+		return hasNumericValues() ? numbers.getFlyweight(i) : elements.get(i);
+	}
+
 	@Override
 	public boolean isGeoList() {
 		return true;
@@ -1062,6 +1224,7 @@ public class GeoList extends GeoElement
 	 */
 	@Override
 	public void update(boolean drag) {
+		updateVersion++;
 		super.update(drag);
 
 		// update information on whether this path is fit for AlgoLocus
@@ -1123,6 +1286,17 @@ public class GeoList extends GeoElement
 			return false;
 		}
 
+		if (hasNumericValues() && list.hasNumericValues()) {
+			double[] values = numbers.getValues();
+			double[] otherValues = list.numbers.getValues();
+			for (int i = 0; i < elements.size(); i++) {
+				if (!DoubleUtil.isEqual(values[i], otherValues[i])) {
+					return false;
+				}
+			}
+			return true;
+		}
+
 		// check each element
 		for (int i = 0; i < list.elements.size(); i++) {
 			final GeoElement geoA = elements.get(i);
@@ -1139,19 +1313,20 @@ public class GeoList extends GeoElement
 
 	@Override
 	public void setZero() {
-		elements.clear();
+		clear();
 	}
 
 	@Override
 	public void setLineThickness(final int thickness) {
 		super.setLineThickness(thickness);
 
-		if ((elements == null) || (elements.size() == 0)) {
+		final List<? extends GeoElement> styled = styledElements();
+		if ((styled == null) || (styled.size() == 0)) {
 			return;
 		}
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < styled.size(); i++) {
+			final GeoElement geo = styled.get(i);
 			if (!geo.isLabelSet()) {
 				geo.setLineThickness(thickness);
 			}
@@ -1186,12 +1361,13 @@ public class GeoList extends GeoElement
 	public void setLineType(final int type) {
 		super.setLineType(type);
 
-		if ((elements == null) || (elements.size() == 0)) {
+		final List<? extends GeoElement> styled = styledElements();
+		if ((styled == null) || (styled.size() == 0)) {
 			return;
 		}
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < styled.size(); i++) {
+			final GeoElement geo = styled.get(i);
 			if (!geo.isLabelSet()) {
 				geo.setLineType(type);
 			}
@@ -1203,12 +1379,13 @@ public class GeoList extends GeoElement
 	public void setLineTypeHidden(final int type) {
 		super.setLineTypeHidden(type);
 
-		if ((elements == null) || (elements.size() == 0)) {
+		final List<? extends GeoElement> styled = styledElements();
+		if ((styled == null) || (styled.size() == 0)) {
 			return;
 		}
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < styled.size(); i++) {
+			final GeoElement geo = styled.get(i);
 			if (!geo.isLabelSet()) {
 				geo.setLineTypeHidden(type);
 			}
@@ -1219,12 +1396,13 @@ public class GeoList extends GeoElement
 	@Override
 	public void setPointSize(final int size) {
 		pointSize = size;
-		if ((elements == null) || (elements.size() == 0)) {
+		final List<? extends GeoElement> styled = styledElements();
+		if ((styled == null) || (styled.size() == 0)) {
 			return;
 		}
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < styled.size(); i++) {
+			final GeoElement geo = styled.get(i);
 			if (!geo.isLabelSet() && (geo instanceof PointProperties)) {
 				((PointProperties) geo).setPointSize(size);
 			}
@@ -1240,12 +1418,13 @@ public class GeoList extends GeoElement
 	public void setPointStyle(final int style) {
 		pointStyle = style;
 
-		if ((elements == null) || (elements.size() == 0)) {
+		final List<? extends GeoElement> styled = styledElements();
+		if ((styled == null) || (styled.size() == 0)) {
 			return;
 		}
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < styled.size(); i++) {
+			final GeoElement geo = styled.get(i);
 			if (!geo.isLabelSet() && (geo instanceof PointProperties)) {
 				((PointProperties) geo).setPointStyle(style);
 			}
@@ -1269,9 +1448,10 @@ public class GeoList extends GeoElement
 
 				// set all the other elements in the list
 				// if appropriate
-				if (elements.size() > 1) {
-					for (int i = 1; i < elements.size(); i++) {
-						final GeoElement geo = elements.get(i);
+				final List<? extends GeoElement> styled = styledElements();
+				if (styled.size() > 1) {
+					for (int i = 1; i < styled.size(); i++) {
+						final GeoElement geo = styled.get(i);
 						if (!geo.isLabelSet()) {
 							geo.setAlphaValue(alpha);
 						}
@@ -1297,12 +1477,13 @@ public class GeoList extends GeoElement
 
 		super.setAlphaValue(alpha);
 
-		if ((elements == null) || (elements.size() == 0)) {
+		final List<? extends GeoElement> styled = styledElements();
+		if ((styled == null) || (styled.size() == 0)) {
 			return;
 		}
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < styled.size(); i++) {
+			final GeoElement geo = styled.get(i);
 			if (!geo.isLabelSet()) {
 				geo.setAlphaValue(alpha);
 			}
@@ -1397,12 +1578,13 @@ public class GeoList extends GeoElement
 	public void setFontSizeMultiplier(final double size) {
 		fontSizeD = size;
 
-		if ((elements == null) || (elements.size() == 0)) {
+		final List<? extends GeoElement> styled = styledElements();
+		if ((styled == null) || (styled.size() == 0)) {
 			return;
 		}
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < styled.size(); i++) {
+			final GeoElement geo = styled.get(i);
 			if ((geo instanceof TextProperties) && !geo.isLabelSet()) {
 				((TextProperties) geo).setFontSizeMultiplier(size);
 			}
@@ -1418,12 +1600,13 @@ public class GeoList extends GeoElement
 	public void setFontStyle(final int fontStyle) {
 		this.fontStyle = fontStyle;
 
-		if ((elements == null) || (elements.size() == 0)) {
+		final List<? extends GeoElement> styled = styledElements();
+		if ((styled == null) || (styled.size() == 0)) {
 			return;
 		}
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < styled.size(); i++) {
+			final GeoElement geo = styled.get(i);
 			if ((geo instanceof TextProperties) && !geo.isLabelSet()) {
 				((TextProperties) geo).setFontStyle(fontStyle);
 			}
@@ -1444,8 +1627,8 @@ public class GeoList extends GeoElement
 	public void setPrintDecimals(final int printDecimals,
 			final boolean update) {
 		this.printDecimals = printDecimals;
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < styledElements().size(); i++) {
+			final GeoElement geo = styledElements().get(i);
 			if ((geo instanceof TextProperties) && !geo.isLabelSet()) {
 				((TextProperties) geo).setPrintDecimals(printDecimals, update);
 			}
@@ -1455,8 +1638,8 @@ public class GeoList extends GeoElement
 	@Override
 	public void setPrintFigures(final int printFigures, final boolean update) {
 		this.printFigures = printFigures;
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < styledElements().size(); i++) {
+			final GeoElement geo = styledElements().get(i);
 			if ((geo instanceof TextProperties) && !geo.isLabelSet()) {
 				((TextProperties) geo).setPrintFigures(printFigures, update);
 			}
@@ -1477,8 +1660,8 @@ public class GeoList extends GeoElement
 	@Override
 	public void setSerifFont(final boolean serifFont) {
 		this.serifFont = serifFont;
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < styledElements().size(); i++) {
+			final GeoElement geo = styledElements().get(i);
 			if ((geo instanceof TextProperties) && !geo.isLabelSet()) {
 				((TextProperties) geo).setSerifFont(serifFont);
 			}
@@ -1488,8 +1671,8 @@ public class GeoList extends GeoElement
 	@Override
 	public void setHatchingAngle(final int angle) {
 		super.setHatchingAngle(angle);
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < styledElements().size(); i++) {
+			final GeoElement geo = styledElements().get(i);
 			if (!geo.isLabelSet()) {
 				geo.setHatchingAngle(angle);
 			}
@@ -1499,8 +1682,8 @@ public class GeoList extends GeoElement
 	@Override
 	public void setHatchingDistance(final int distance) {
 		super.setHatchingDistance(distance);
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < styledElements().size(); i++) {
+			final GeoElement geo = styledElements().get(i);
 			if (!geo.isLabelSet()) {
 				geo.setHatchingDistance(distance);
 			}
@@ -1510,8 +1693,8 @@ public class GeoList extends GeoElement
 	@Override
 	public void setFillType(final FillType type) {
 		super.setFillType(type);
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < styledElements().size(); i++) {
+			final GeoElement geo = styledElements().get(i);
 			if (!geo.isLabelSet()) {
 				geo.setFillType(type);
 			}
@@ -1521,8 +1704,8 @@ public class GeoList extends GeoElement
 	@Override
 	public void setFillImage(final String filename) {
 		super.setFillImage(filename);
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < styledElements().size(); i++) {
+			final GeoElement geo = styledElements().get(i);
 			if (!geo.isLabelSet()) {
 				geo.setFillImage(filename);
 			}
@@ -1532,8 +1715,8 @@ public class GeoList extends GeoElement
 	@Override
 	public void setImageFileName(final String filename) {
 		super.setImageFileName(filename);
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < styledElements().size(); i++) {
+			final GeoElement geo = styledElements().get(i);
 			if (!geo.isLabelSet()) {
 				geo.setImageFileName(filename);
 			}
@@ -2127,7 +2310,7 @@ public class GeoList extends GeoElement
 	 *         list
 	 */
 	final static public TraceModesEnum getTraceModes(
-			ArrayList<GeoElement> geos) {
+			List<GeoElement> geos) {
 
 		TraceModesEnum traceModes = null;
 
@@ -2258,6 +2441,10 @@ public class GeoList extends GeoElement
 	 * @return number of actions that were performed
 	 */
 	public int performScriptActions(EvalInfo info) {
+		if (hasNumericValues()) {
+			// numbers only
+			return 0;
+		}
 		int actions = 0;
 		for (int i = 0; i < size(); i++) {
 			if (get(i) instanceof GeoScriptAction) {
@@ -2589,8 +2776,8 @@ public class GeoList extends GeoElement
 	public void setShowOnAxis(boolean showOnAxis) {
 		this.showOnAxis = showOnAxis;
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < styledElements().size(); i++) {
+			final GeoElement geo = styledElements().get(i);
 			if (!geo.isLabelSet() && (geo instanceof InequalityProperties)) {
 				((InequalityProperties) geo).setShowOnAxis(showOnAxis);
 			}
@@ -2666,7 +2853,7 @@ public class GeoList extends GeoElement
 			newAngleStyle = AngleStyle.ANTICLOCKWISE;
 		}
 
-		for (GeoElement geo : elements) {
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet() && (geo instanceof AngleProperties)) {
 				((AngleProperties) geo).setAngleStyle(angleStyle);
 			}
@@ -2715,7 +2902,7 @@ public class GeoList extends GeoElement
 			setAngleStyle(AngleStyle.NOTREFLEX);
 		}
 
-		for (GeoElement geo : elements) {
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet() && (geo instanceof AngleProperties)) {
 				((AngleProperties) geo).setAllowReflexAngle(allowReflexAngle);
 			}
@@ -2733,7 +2920,7 @@ public class GeoList extends GeoElement
 	public void setEmphasizeRightAngle(boolean emphasizeRightAngle) {
 		this.emphasizeRightAngle = emphasizeRightAngle;
 
-		for (GeoElement geo : elements) {
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet() && (geo instanceof AngleProperties)) {
 				((AngleProperties) geo)
 						.setEmphasizeRightAngle(emphasizeRightAngle);
@@ -2756,7 +2943,7 @@ public class GeoList extends GeoElement
 			setAngleStyle(AngleStyle.ANTICLOCKWISE);
 		}
 
-		for (GeoElement geo : elements) {
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet() && (geo instanceof AngleProperties)) {
 				((AngleProperties) geo).setForceReflexAngle(forceReflexAngle);
 			}
@@ -2768,7 +2955,7 @@ public class GeoList extends GeoElement
 		setDecorationType(type, GeoAngle.getDecoTypes().length);
 
 		if (elements != null) {
-			for (GeoElement geo : elements) {
+			for (GeoElement geo : styledElements()) {
 				if (!geo.isLabelSet()) {
 					if (geo instanceof AngleProperties) {
 						((AngleProperties) geo).setDecorationType(type);
@@ -2791,7 +2978,7 @@ public class GeoList extends GeoElement
 	public void setArcSize(int i) {
 		arcSize = i;
 
-		for (GeoElement geo : elements) {
+		for (GeoElement geo : styledElements()) {
 			if (!geo.isLabelSet() && (geo instanceof AngleProperties)) {
 				((AngleProperties) geo).setArcSize(i);
 			}
@@ -2953,12 +3140,13 @@ public class GeoList extends GeoElement
 	public void setLineOpacity(int lineOpacity) {
 		this.lineOpacity = lineOpacity;
 
-		if ((elements == null) || (elements.size() == 0)) {
+		final List<? extends GeoElement> styled = styledElements();
+		if ((styled == null) || (styled.size() == 0)) {
 			return;
 		}
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < styled.size(); i++) {
+			final GeoElement geo = styled.get(i);
 			if (!geo.isLabelSet()) {
 				geo.setLineOpacity(lineOpacity);
 			}
@@ -3131,7 +3319,9 @@ public class GeoList extends GeoElement
 	 *            new element
 	 */
 	public void setListElement(int i, GeoElement element) {
+		ensureObjectElements();
 		this.elements.set(i, element);
+		updateVersion++;
 		this.applyVisualStyle(element);
 		// this.elementType = element.getGeoClassType();
 		isDrawable = true;
@@ -12,24 +12,33 @@ the Free Software Foundation.
 
 package org.geogebra.common.kernel.geos;
 
+import java.util.ArrayList;
+
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.MyPointBuffer;
 import org.geogebra.common.kernel.PathParameter;
 import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.advanced.AlgoSlopeField;
 import org.geogebra.common.kernel.arithmetic.ValueType;
+import org.geogebra.common.kernel.kernelND.GeoElementND;
 import org.geogebra.common.kernel.kernelND.GeoPointND;
 import org.geogebra.common.kernel.kernelND.GeoSegmentND;
 import org.geogebra.common.kernel.matrix.Coords;
 
 /**
- * Locus of points
+ * Locus of points. Points added by {@link #insertPoint} are stored in
+ * primitive arrays; point objects are only created when the list of points is
+ * requested by {@link #getPoints()}.
  * 
  * @author Markus
  */
 public class GeoLocus extends GeoLocusND<MyPoint> {
 	private Coords changingPoint;
 	private boolean drawArrows = false;
+	private final MyPointBuffer pointBuffer = new MyPointBuffer();
+	/** whether points are in pointBuffer rather than myPointList */
+	private boolean buffered = false;
 
 	/**
 	 * Creates new locus
@@ -51,7 +60,77 @@ public class GeoLocus extends GeoLocusND<MyPoint> {
 	 * @param segmentType used segment type
 	 */
 	public void insertPoint(double x, double y, SegmentType segmentType) {
-		myPointList.add(new MyPoint(x, y, segmentType));
+		if (!buffered && myPointList.isEmpty()) {
+			buffered = true;
+		}
+		if (buffered) {
+			pointBuffer.add(x, y, segmentType);
+		} else {
+			myPointList.add(new MyPoint(x, y, segmentType));
+		}
+	}
+
+	/**
+	 * @return points of this locus if they are stored in arrays, null if they
+	 *         are stored as list of objects
+	 */
+	public MyPointBuffer getPointBuffer() {
+		return buffered ? pointBuffer : null;
+	}
+
+	/**
+	 * Converts the points to objects; afterwards the list may be modified by
+	 * the caller.
+	 */
+	@Override
+	public ArrayList<MyPoint> getPoints() {
+		if (buffered) {
+			myPointList.clear();
+			pointBuffer.addTo(myPointList);
+			pointBuffer.clear();
+			buffered = false;
+		}
+		return myPointList;
+	}
+
+	@Override
+	public void setPoints(ArrayList<MyPoint> al) {
+		clearBuffer();
+		super.setPoints(al);
+	}
+
+	@Override
+	public void clearPoints() {
+		clearBuffer();
+		super.clearPoints();
+	}
+
+	private void clearBuffer() {
+		pointBuffer.clear();
+		buffered = false;
+	}
+
+	@Override
+	public int getPointLength() {
+		return buffered ? pointBuffer.size() : super.getPointLength();
+	}
+
+	@Override
+	public MyPoint getPoint(int i, MyPoint scratch) {
+		return buffered ? pointBuffer.get(i, scratch)
+				: super.getPoint(i, scratch);
+	}
+
+	@Override
+	public void set(GeoElementND geo) {
+		if (geo instanceof GeoLocus && ((GeoLocus) geo).buffered) {
+			super.set(geo);
+			pointBuffer.set(((GeoLocus) geo).pointBuffer);
+			buffered = true;
+			return;
+		}
+		clearBuffer();
+		super.set(geo);
 	}
 
 	/**
@@ -107,10 +107,23 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 	 * @return number of valid points in x and y arrays.
 	 */
 	@Override
-	final public int getPointLength() {
+	public int getPointLength() {
 		return myPointList.size();
 	}
 
+	/**
+	 * @param i
+	 *            index
+	 * @param scratch
+	 *            point that may be filled and returned to avoid allocation
+	 * @return i-th point of this locus, only valid until scratch is reused;
+	 *         unlike {@link #getPoints()} this doesn't need a point object
+	 *         per point
+	 */
+	public MyPoint getPoint(int i, MyPoint scratch) {
+		return myPointList.get(i);
+	}
+
 	/**
 	 * Clears list of points defining this locus
 	 */
@@ -180,7 +193,7 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 
 	@Override
 	public double getMaxParameter() {
-		return myPointList.size() - 1;
+		return getPointLength() - 1;
 	}
 
 	@Override
@@ -190,9 +203,10 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 
 	@Override
 	public boolean isClosedPath() {
-		if (myPointList.size() > 0) {
-			MyPoint first = myPointList.get(0);
-			MyPoint last = myPointList.get(myPointList.size() - 1);
+		int size = getPointLength();
+		if (size > 0) {
+			MyPoint first = getPoint(0, new MyPoint());
+			MyPoint last = getPoint(size - 1, new MyPoint());
 			return first.isEqual(last);
 		}
 		return false;
@@ -237,8 +251,8 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 			return null;
 		}
 
-		MyPoint locusPoint = myPointList.get(closestPointIndex);
-		MyPoint locusPoint2 = myPointList.get(closestPointIndex + 1);
+		MyPoint locusPoint = getPoint(closestPointIndex, new MyPoint());
+		MyPoint locusPoint2 = getPoint(closestPointIndex + 1, new MyPoint());
 
 		closestSegment.setCoords(locusPoint, locusPoint2);
 
@@ -271,7 +285,7 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 	 * Returns the point of this locus that is closest to current point infos.
 	 */
 	private void getClosestLine() {
-		int size = myPointList.size();
+		int size = getPointLength();
 		if (size == 0) {
 			return;
 		}
@@ -285,9 +299,11 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 		GeoSegmentND segment = newGeoSegment();
 
 		// search for closest point
+		MyPoint scratch = new MyPoint();
+		MyPoint scratch2 = new MyPoint();
 		for (int i = 0; i < size - 1; i++) {
-			MyPoint locusPoint = myPointList.get(i);
-			MyPoint locusPoint2 = myPointList.get(i + 1);
+			MyPoint locusPoint = getPoint(i, scratch);
+			MyPoint locusPoint2 = getPoint(i + 1, scratch2);
 
 			// not a line, just a move (eg Voronoi Diagram)
 			if (locusPoint2.getSegmentType() == SegmentType.MOVE_TO) {
@@ -335,18 +351,19 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 
 		// check n and n+1 are in a sensible range
 		// might occur if locus has changed no of segments/points
-		if (myPointList.size() == 0) {
+		int size = getPointLength();
+		if (size == 0) {
 			P.setUndefined();
 			return;
-		} else if (myPointList.size() == 1) {
-			MyPoint p0 = myPointList.get(0);
+		} else if (size == 1) {
+			MyPoint p0 = getPoint(0, new MyPoint());
 			P.set(1, 0, p0, p0);
 			return;
-		} else if (n >= myPointList.size() || n < 0) {
-			n = (n < 0) ? 0 : myPointList.size() - 1;
+		} else if (n >= size || n < 0) {
+			n = (n < 0) ? 0 : size - 1;
 		}
-		MyPoint locusPoint = myPointList.get(n);
-		MyPoint locusPoint2 = myPointList.get((n + 1) % myPointList.size());
+		MyPoint locusPoint = getPoint(n, new MyPoint());
+		MyPoint locusPoint2 = getPoint((n + 1) % size, new MyPoint());
 		P.set(t, 1 - t, locusPoint, locusPoint2);
 	}
 
@@ -363,12 +380,13 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 
 		// check n and n+1 are in a sensible range
 		// might occur if locus has changed no of segments/points
-		if (n >= myPointList.size() || n < 0) {
-			n = (n < 0) ? 0 : myPointList.size() - 1;
+		int size = getPointLength();
+		if (n >= size || n < 0) {
+			n = (n < 0) ? 0 : size - 1;
 		}
 
-		MyPoint locusPoint = myPointList.get(n);
-		MyPoint locusPoint2 = myPointList.get((n + 1) % myPointList.size());
+		MyPoint locusPoint = getPoint(n, new MyPoint());
+		MyPoint locusPoint2 = getPoint((n + 1) % size, new MyPoint());
 
 		P.set(t, 1 - t, locusPoint, locusPoint2);
 	}
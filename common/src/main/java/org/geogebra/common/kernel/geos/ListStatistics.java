@@ -0,0 +1,258 @@
+package org.geogebra.common.kernel.geos;
+
+import java.util.Arrays;
+
+import org.geogebra.common.kernel.arithmetic.NumberValue;
+
+/**
+ * One-variable statistics of a list of numbers, shared by all statistics
+ * algos using the same list. Values are reloaded when the list changes; sorted
+ * copy and sums are only computed when needed, at most once per change.
+ */
+public final class ListStatistics {
+
+	private final GeoList list;
+	private boolean loaded;
+	private int version;
+	private boolean numeric;
+	private int size;
+	private double[] values = new double[0];
+
+	private double[] sorted;
+	private boolean sortedValid;
+
+	private boolean sumsValid;
+	private double sum;
+	private double sumSquares;
+	private double product;
+	private double min;
+	private double max;
+
+	/**
+	 * @param list
+	 *            list
+	 */
+	ListStatistics(GeoList list) {
+		this.list = list;
+	}
+
+	/**
+	 * Reloads the values if the list changed.
+	 *
+	 * @return whether all elements are numbers
+	 */
+	boolean refresh() {
+		int currentVersion = list.getUpdateVersion();
+		if (loaded && version == currentVersion) {
+			return numeric;
+		}
+		loaded = true;
+		version = currentVersion;
+		sortedValid = false;
+		sumsValid = false;
+		size = list.size();
+		if (values.length < size) {
+			values = new double[size];
+		}
+		double[] numbers = list.getNumericValues();
+		numeric = true;
+		if (numbers != null) {
+			System.arraycopy(numbers, 0, values, 0, size);
+		} else {
+			for (int i = 0; i < size; i++) {
+				GeoElement geo = list.get(i);
+				if (!(geo instanceof NumberValue)) {
+					numeric = false;
+					break;
+				}
+				values[i] = geo.evaluateDouble();
+			}
+		}
+		return numeric;
+	}
+
+	/**
+	 * @return number of values
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return values in list order, only the first size() entries are valid,
+	 *         must not be modified
+	 */
+	public double[] getValues() {
+		return values;
+	}
+
+	/**
+	 * @return values in ascending order (NaN last), only the first size()
+	 *         entries are valid, must not be modified
+	 */
+	public double[] getSorted() {
+		if (!sortedValid) {
+			if (sorted == null || sorted.length < size) {
+				sorted = new double[values.length];
+			}
+			System.arraycopy(values, 0, sorted, 0, size);
+			Arrays.sort(sorted, 0, size);
+			sortedValid = true;
+		}
+		return sorted;
+	}
+
+	private void computeSums() {
+		if (sumsValid) {
+			return;
+		}
+		// compensated (Kahan) summation
+		double s = 0;
+		double c = 0;
+		double s2 = 0;
+		double c2 = 0;
+		double prod = 1;
+		double lo = Double.POSITIVE_INFINITY;
+		double hi = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < size; i++) {
+			double val = values[i];
+			double y = val - c;
+			double t = s + y;
+			c = (t - s) - y;
+			s = t;
+			double y2 = val * val - c2;
+			double t2 = s2 + y2;
+			c2 = (t2 - s2) - y2;
+			s2 = t2;
+			prod *= val;
+			lo = Math.min(lo, val);
+			hi = Math.max(hi, val);
+		}
+		sum = s;
+		sumSquares = s2;
+		product = prod;
+		min = lo;
+		max = hi;
+		sumsValid = true;
+	}
+
+	/**
+	 * @return sum of values
+	 */
+	public double getSum() {
+		computeSums();
+		return sum;
+	}
+
+	/**
+	 * @return sum of squares
+	 */
+	public double getSumSquares() {
+		computeSums();
+		return sumSquares;
+	}
+
+	/**
+	 * @return product of values
+	 */
+	public double getProduct() {
+		computeSums();
+		return product;
+	}
+
+	/**
+	 * @return minimum, NaN if some value is NaN
+	 */
+	public double getMin() {
+		computeSums();
+		return min;
+	}
+
+	/**
+	 * @return maximum, NaN if some value is NaN
+	 */
+	public double getMax() {
+		computeSums();
+		return max;
+	}
+
+	/**
+	 * @return median
+	 */
+	public double getMedian() {
+		double[] sortList = getSorted();
+		if (size % 2 == 0) {
+			return (sortList[size / 2] + sortList[size / 2 - 1]) / 2;
+		}
+		return sortList[(size - 1) / 2];
+	}
+
+	/**
+	 * @return lower quartile (needs at least 2 values)
+	 */
+	public double getQ1() {
+		double[] sortList = getSorted();
+		switch (size % 4) {
+		case 0:
+			return (sortList[size / 4 - 1] + sortList[(size + 4) / 4 - 1]) / 2;
+		case 1:
+			return (sortList[(size - 1) / 4 - 1] + sortList[(size + 3) / 4 - 1])
+					/ 2;
+		case 2:
+			return sortList[(size + 2) / 4 - 1];
+		default:
+			return sortList[(size + 1) / 4 - 1];
+		}
+	}
+
+	/**
+	 * @return upper quartile (needs at least 2 values)
+	 */
+	public double getQ3() {
+		double[] sortList = getSorted();
+		switch (size % 4) {
+		case 0:
+			return (sortList[(3 * size) / 4 - 1]
+					+ sortList[(3 * size + 4) / 4 - 1]) / 2;
+		case 1:
+			return (sortList[(3 * size + 1) / 4 - 1]
+					+ sortList[(3 * size + 5) / 4 - 1]) / 2;
+		case 2:
+			return sortList[(3 * size + 2) / 4 - 1];
+		default:
+			return sortList[(3 * size + 3) / 4 - 1];
+		}
+	}
+
+	/**
+	 * Percentile estimated like the legacy method of Apache Commons Math;
+	 * undefined values are ignored.
+	 *
+	 * @param p
+	 *            percentage, 0 &lt; p &lt;= 100
+	 * @return percentile, NaN if no value is defined
+	 */
+	public double getPercentile(double p) {
+		double[] sortList = getSorted();
+		// NaN values are sorted last
+		int defined = size;
+		while (defined > 0 && Double.isNaN(sortList[defined - 1])) {
+			defined--;
+		}
+		if (defined == 0) {
+			return Double.NaN;
+		}
+		double pos = p == 100 ? defined : p / 100 * (defined + 1);
+		if (pos < 1) {
+			return sortList[0];
+		}
+		if (pos >= defined) {
+			return sortList[defined - 1];
+		}
+		double fpos = Math.floor(pos);
+		int intPos = (int) fpos;
+		double lower = sortList[intPos - 1];
+		double upper = sortList[intPos];
+		return lower + (pos - fpos) * (upper - lower);
+	}
+}
@@ -0,0 +1,148 @@
+package org.geogebra.common.kernel.geos;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.geogebra.common.kernel.Construction;
+
+/**
+ * Elements of a list of numbers, stored in a double array. A GeoNumeric is
+ * only created for elements that are accessed as geos; it stays in sync with
+ * the array in both directions.
+ */
+class NumericListElements extends AbstractList<GeoElement>
+		implements RandomAccess {
+
+	private final GeoList owner;
+	private double[] values = new double[16];
+	private int size;
+	private GeoNumeric[] views;
+	/** created views in creation order, for style updates */
+	private final ArrayList<GeoNumeric> createdViews = new ArrayList<>();
+	private GeoNumeric flyweight;
+
+	/**
+	 * Number backed by the array.
+	 */
+	private class ElementView extends GeoNumeric {
+		private final int index;
+		/** false while the superclass constructor runs */
+		private boolean attached;
+
+		ElementView(Construction cons, int index) {
+			super(cons, values[index]);
+			this.index = index;
+			attached = true;
+		}
+
+		@Override
+		public void setValue(double x, boolean changeAnimationValue) {
+			super.setValue(x, changeAnimationValue);
+			if (attached && index < size) {
+				values[index] = getValue();
+			}
+		}
+	}
+
+	/**
+	 * @param owner
+	 *            list
+	 */
+	NumericListElements(GeoList owner) {
+		this.owner = owner;
+	}
+
+	/**
+	 * @param newValues
+	 *            values (copied)
+	 * @param newSize
+	 *            number of values to use
+	 */
+	void setValues(double[] newValues, int newSize) {
+		if (values.length < newSize) {
+			values = new double[Math.max(newSize, 2 * values.length)];
+		}
+		System.arraycopy(newValues, 0, values, 0, newSize);
+		size = newSize;
+		for (GeoNumeric view : createdViews) {
+			int index = ((ElementView) view).index;
+			if (index >= size) {
+				// like unused elements of list cache
+				view.setUndefined();
+			} else if (view.getValue() != values[index]) {
+				view.setValue(values[index]);
+			}
+		}
+	}
+
+	/**
+	 * @return backing array, only the first size() entries are valid
+	 */
+	double[] getValues() {
+		return values;
+	}
+
+	@Override
+	public GeoElement get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index);
+		}
+		if (views == null || views.length <= index) {
+			GeoNumeric[] newViews = new GeoNumeric[values.length];
+			if (views != null) {
+				System.arraycopy(views, 0, newViews, 0, views.length);
+			}
+			views = newViews;
+		}
+		if (views[index] == null) {
+			GeoNumeric view = new ElementView(owner.getConstruction(), index);
+			// register first: style of the list may depend on first element
+			views[index] = view;
+			createdViews.add(view);
+			owner.initElementView(view);
+		}
+		return views[index];
+	}
+
+	/**
+	 * Shared number for output, valid until the next call.
+	 *
+	 * @param index
+	 *            index
+	 * @return number with value of given element
+	 */
+	GeoNumeric getFlyweight(int index) {
+		if (views != null && index < views.length && views[index] != null) {
+			return views[index];
+		}
+		if (flyweight == null) {
+			flyweight = new GeoNumeric(owner.getConstruction());
+			owner.initElementView(flyweight);
+		}
+		flyweight.setValue(values[index]);
+		return flyweight;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return views created so far
+	 */
+	List<GeoNumeric> getViews() {
+		return createdViews;
+	}
+
+	/**
+	 * Makes all existing views undefined.
+	 */
+	void setViewsUndefined() {
+		for (GeoNumeric view : createdViews) {
+			view.setUndefined();
+		}
+	}
+}
@@ -13,6 +13,7 @@ import org.apache.commons.math3.linear.RealMatrix;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.EuclidianViewCE;
 import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.PathMover;
 import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.StringTemplate;
@@ -52,6 +53,9 @@ import org.geogebra.common.kernel.matrix.Coords;
 import org.geogebra.common.plugin.GeoClass;
 import org.geogebra.common.plugin.Operation;
 import org.geogebra.common.util.DoubleUtil;
+import org.geogebra.common.util.GTimer;
+import org.geogebra.common.util.GTimerListener;
+import org.geogebra.common.util.ParallelExecutor;
 import org.geogebra.common.util.StringUtil;
 import org.geogebra.common.util.debug.Log;
 
@@ -74,6 +78,10 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 	 * Border mask
 	 */
 	static final int[] MASK = { 0x9, 0xC, 0x6, 0x3 };
+	/** changes of curve within this time (ms) are plotted as preview */
+	private static final int PREVIEW_INTERVAL = 200;
+	/** preview is only used if plotting takes longer than this (ms) */
+	private static final int PREVIEW_MIN_PLOT_TIME = 20;
 
 	/* The input expression. */
 	private FunctionNVar expression;
@@ -111,6 +119,14 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 
 	private double[] eval = new double[2];
 	private boolean calcPath = true;
+	/* Copy of coefficients / expression used for the cached path */
+	private double[][][] plottedCoeff;
+	private String plottedExpression;
+	private long lastCurveChange;
+	private long lastPlotTime;
+	private GTimer refineTimer;
+	private boolean previewEnabled = true;
+	private ParallelExecutor parallelExecutor;
 
 	/**
 	 * Construct an empty Implicit Curve Object
@@ -742,9 +758,27 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 			viewBounds = new double[] { -10, 10, -10, 10, 10, 10 };
 		}
 
+		long now = System.currentTimeMillis();
+		boolean preview = false;
+		if (updatePlottedCurve()) {
+			// cached cells are only valid for the same curve
+			quadTree.clearCache();
+			// curve changes quickly (e.g. drag) and plotting is slow
+			preview = previewEnabled
+					&& now - lastCurveChange < PREVIEW_INTERVAL
+					&& lastPlotTime > PREVIEW_MIN_PLOT_TIME;
+			lastCurveChange = now;
+		}
+		quadTree.setPreview(preview);
 		updatePathQuadTree(viewBounds[0], viewBounds[3],
 				viewBounds[1] - viewBounds[0], viewBounds[3] - viewBounds[2],
 				viewBounds[4], viewBounds[5]);
+		if (!preview) {
+			lastPlotTime = System.currentTimeMillis() - now;
+		}
+		if (quadTree.hasPreviewCells()) {
+			scheduleRefinement();
+		}
 		/*
 		 * TODO (some speedup): Consider not running the QuadTree algorithm if
 		 * the path is just a single point (see below).
@@ -795,13 +829,103 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 		}
 	}
 
+	/**
+	 * Stores the current coefficients / expression for comparison with the
+	 * next update.
+	 * 
+	 * @return whether the curve changed since last plot
+	 */
+	private boolean updatePlottedCurve() {
+		boolean changed;
+		if (coeffSquarefree != null) {
+			changed = plottedExpression != null
+					|| !Arrays.deepEquals(coeffSquarefree, plottedCoeff);
+			plottedExpression = null;
+			if (changed) {
+				plottedCoeff = new double[coeffSquarefree.length][][];
+				for (int i = 0; i < coeffSquarefree.length; i++) {
+					plottedCoeff[i] = new double[coeffSquarefree[i].length][];
+					for (int j = 0; j < coeffSquarefree[i].length; j++) {
+						plottedCoeff[i][j] = Arrays.copyOf(
+								coeffSquarefree[i][j],
+								coeffSquarefree[i][j].length);
+					}
+				}
+			}
+			return changed;
+		}
+		StringBuilder sb = new StringBuilder();
+		for (int factor = 0; factor < factorLength(); ++factor) {
+			sb.append(getFactor(factor)
+					.toValueString(StringTemplate.maxPrecision));
+			sb.append(';');
+		}
+		String expressionString = sb.toString();
+		changed = plottedCoeff != null
+				|| !expressionString.equals(plottedExpression);
+		plottedCoeff = null;
+		plottedExpression = expressionString;
+		return changed;
+	}
+
+	private void scheduleRefinement() {
+		if (refineTimer == null) {
+			refineTimer = kernel.getApplication()
+					.newTimer(new GTimerListener() {
+						@Override
+						public void onRun() {
+							if (isDefined() && isLabelSet()
+									&& quadTree.hasPreviewCells()) {
+								updatePath();
+								updateRepaint();
+							}
+						}
+					}, PREVIEW_INTERVAL);
+		}
+		refineTimer.stop();
+		refineTimer.start();
+	}
+
+	/**
+	 * @return whether the curve may be evaluated from several threads at the
+	 *         same time (polynomials only)
+	 */
+	protected boolean isEvaluationThreadSafe() {
+		return coeff != null && coeffSquarefree != null;
+	}
+
+	/**
+	 * @param executor
+	 *            executor for plotting, null to use the platform default
+	 */
+	void setParallelExecutor(ParallelExecutor executor) {
+		this.parallelExecutor = executor;
+	}
+
+	/**
+	 * @param previewEnabled
+	 *            whether quick changes of slow curves may be plotted coarsely
+	 *            first; plotting doesn't depend on timing when disabled
+	 */
+	public void setPreviewEnabled(boolean previewEnabled) {
+		this.previewEnabled = previewEnabled;
+	}
+
+	@Override
+	public void doRemove() {
+		if (refineTimer != null) {
+			refineTimer.stop();
+		}
+		super.doRemove();
+	}
+
 	private static double get(double[] ds, int i) {
 		return ds.length > i ? ds[i] : 0;
 	}
 
 	private void updatePathQuadTree(double x, double y, double w, double h,
 			double scaleX, double scaleY) {
-		locus.getPoints().clear();
+		locus.clearPoints();
 		quadTree.updatePath(x, y - h, w, h, scaleX, scaleY);
 	}
 
@@ -900,7 +1024,7 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 
 	@Override
 	public void pointChanged(GeoPointND PI) {
-		if (locus.getPoints().size() > 0) {
+		if (locus.getPointLength() > 0) {
 			locusPointChanged(PI);
 		}
 	}
@@ -926,7 +1050,7 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 			return;
 		}
 
-		if (locus.getPoints().size() > 0) {
+		if (locus.getPointLength() > 0) {
 			locusPathChanged(PI);
 		}
 	}
@@ -1674,170 +1798,367 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 	private class WebExperimentalQuadTree extends QuadTree {
 		private static final int RES_COARSE = 8;
 		private static final int MAX_SPLIT = 40;
-		private int plotDepth;
-		private int segmentCheckDepth;
+		/** plot depth for preview while the curve is changing */
+		private static final int PREVIEW_DEPTH = 1;
+		private int plotDepth = 3;
+		private int segmentCheckDepth = 2;
+		/** whether plot depth was adjusted to device speed */
+		private boolean speedKnown;
+		private int currentPlotDepth;
+		private int currentCheckDepth;
+		private Timer timer = Timer.newTimer();
+		private final QuadTreeCache cache = new QuadTreeCache();
+		private boolean preview;
+		private boolean previewCells;
+		private double cellWidth;
+		private double cellHeight;
+		private long minX;
+		private long minY;
 		private int sw;
 		private int sh;
-		private Rect[][] grid;
-		private Timer timer = Timer.newTimer();
+		private Rect[] rects;
+		/** cells that are not cached (or cached with lower depth) */
+		private boolean[] needed;
+		/** cells computed in parallel, not yet added to the cache */
+		private QuadTreeCache.Cell[] computed;
+		private int[] forces;
+		private ArrayList<RowBand> bands;
 
 		public WebExperimentalQuadTree() {
 			super(GeoImplicitCurve.this);
 		}
 
+		@Override
+		public void setPreview(boolean preview) {
+			this.preview = preview;
+		}
+
+		@Override
+		public boolean hasPreviewCells() {
+			return previewCells;
+		}
+
+		@Override
+		public void clearCache() {
+			cache.clear();
+		}
+
+		private ParallelExecutor getExecutor() {
+			return parallelExecutor != null ? parallelExecutor
+					: ParallelExecutor.getPrototype();
+		}
+
 		@Override
 		public void updatePath() {
+			previewCells = false;
+			if (w * scaleX < RES_COARSE || h * scaleY < RES_COARSE) {
+				return;
+			}
+			// grid aligned to world coordinates, cell size is a power of 2 so
+			// that it stays the same for small zooms
+			cellWidth = cellSize(w, scaleX);
+			cellHeight = cellSize(h, scaleY);
+			cache.setCellSize(cellWidth, cellHeight);
+			minX = (long) Math.floor(x / cellWidth);
+			minY = (long) Math.floor(y / cellHeight);
+			sw = (int) ((long) Math.ceil((x + w) / cellWidth) - minX);
+			sh = (int) ((long) Math.ceil((y + h) / cellHeight) - minY);
+			if (sw <= 0 || sh <= 0) {
+				return;
+			}
+			int depth = preview ? PREVIEW_DEPTH : plotDepth;
+			int checkDepth = preview ? Math.min(PREVIEW_DEPTH, segmentCheckDepth)
+					: segmentCheckDepth;
 			for (int factor = 0; factor < factorLength(); ++factor) {
 				try {
 					evaluateImplicitCurve(0, 0, factor);
 				} catch (Throwable e) {
 					continue;
 				}
-				this.sw = Math.min(MAX_SPLIT, (int) (w * scaleX / RES_COARSE));
-				this.sh = Math.min(MAX_SPLIT, (int) (h * scaleY / RES_COARSE));
-				if (sw == 0 || sh == 0) {
-					return;
+				timer.reset();
+				int fresh = findCellsToCompute(factor, depth);
+				runBands(factor, false);
+				timer.record();
+				if (!speedKnown && !preview && 2 * fresh >= sw * sh) {
+					speedKnown = true;
+					if (timer.elapse * MAX_SPLIT * MAX_SPLIT <= 10 * fresh) {
+						// Fast device optimize for UX
+						plotDepth = 3;
+						segmentCheckDepth = 2;
+						LIST_THRESHOLD = 48;
+					} else {
+						// Slow device detected reduce parameters
+						plotDepth = 2;
+						segmentCheckDepth = 1;
+						LIST_THRESHOLD = 24;
+					}
+					depth = plotDepth;
+					checkDepth = segmentCheckDepth;
+				}
+				currentPlotDepth = depth;
+				currentCheckDepth = checkDepth;
+				runBands(factor, true);
+				for (int i = 0; i < sh; i++) {
+					for (int j = 0; j < sw; j++) {
+						plotCell(i, j, factor);
+					}
 				}
 
-				this.grid = new Rect[sh][sw];
+				timer.record();
 
-				double frx = w / sw;
-				double fry = h / sh;
+				if (timer.elapse >= 500) {
+					// I can't do anything more. I've been working for 500 ms
+					// Therefore I am tired
+					break;
+				} else if (timer.elapse >= 300) {
+					// I am exhausted, reducing load!
+					depth -= 1;
+					checkDepth -= 1;
+				}
+			}
+			// keep the neighborhood of the view for panning back
+			cache.retain(minX - sw, minX + 2 * sw, minY - sh, minY + 2 * sh,
+					4 * sw * sh * factorLength());
+			rects = null;
+			needed = null;
+			computed = null;
+			bands = null;
+		}
+
+		/**
+		 * Splits the grid into bands of rows, each band evaluates its own
+		 * corners. For polynomials the bands are computed in parallel if the
+		 * platform supports it; segments are added to the path in row order
+		 * afterwards, so the result doesn't depend on the number of threads.
+		 */
+		private void createBands() {
+			ParallelExecutor executor = getExecutor();
+			int parallelism = executor == null || !isEvaluationThreadSafe()
+					? 1 : executor.getParallelism();
+			// more bands than threads to balance empty and busy rows
+			int count = parallelism < 2 ? 1
+					: Math.max(1, Math.min(4 * parallelism, sh / 2));
+			bands = new ArrayList<>(count);
+			for (int k = 0; k < count; k++) {
+				bands.add(new RowBand(k * sh / count, (k + 1) * sh / count));
+			}
+		}
 
-				double[] vertices = new double[sw + 1];
-				double[] xcoords = new double[sw + 1];
-				double[] ycoords = new double[sh + 1];
-				double cur, prev;
+		private void runBands(int factor, boolean plot) {
+			for (RowBand band : bands) {
+				band.start(factor, plot);
+			}
+			ParallelExecutor executor = getExecutor();
+			if (executor == null || bands.size() < 2) {
+				ParallelExecutor.runSerially(bands);
+			} else {
+				executor.invokeAll(bands);
+			}
+		}
 
-				for (int i = 0; i <= sw; i++) {
-					xcoords[i] = x + i * frx;
+		private RowBand getBand(int row) {
+			for (RowBand band : bands) {
+				if (row < band.to) {
+					return band;
 				}
+			}
+			return bands.get(bands.size() - 1);
+		}
 
-				for (int i = 0; i <= sh; i++) {
-					ycoords[i] = y + i * fry;
-				}
+		private double cellSize(double length, double scale) {
+			double size = Math.max(length / MAX_SPLIT, RES_COARSE / scale);
+			return Math.pow(2, Math.round(Math.log(size) / Math.log(2)));
+		}
 
-				for (int i = 0; i <= sw; i++) {
-					vertices[i] = evaluateImplicitCurve(xcoords[i], ycoords[0],
+		/**
+		 * Marks cells that are not cached.
+		 * 
+		 * @return number of cells to be computed
+		 */
+		private int findCellsToCompute(int factor, int depth) {
+			rects = new Rect[sw * sh];
+			needed = new boolean[sw * sh];
+			computed = new QuadTreeCache.Cell[sw * sh];
+			forces = new int[sw * sh];
+			createBands();
+			int fresh = 0;
+			for (int i = 0; i < sh; i++) {
+				for (int j = 0; j < sw; j++) {
+					QuadTreeCache.Cell cell = cache.get(minX + j, minY + i,
 							factor);
+					if (cell == null || cell.depth < depth) {
+						needed[i * sw + j] = true;
+						fresh++;
+					}
 				}
+			}
+			return fresh;
+		}
 
-				// initialize grid configuration at the search depth
-				int i, j;
-				double dx, dy, fx, fy;
-				// debug = true;
-				timer.reset();
-				for (i = 1; i <= sh; i++) {
-					prev = evaluateImplicitCurve(xcoords[0], ycoords[i],
-							factor);
-					fy = ycoords[i] - 0.5 * fry;
-					for (j = 1; j <= sw; j++) {
-						cur = evaluateImplicitCurve(xcoords[j], ycoords[i],
-								factor);
-						Rect rect = new Rect(j - 1, i - 1, frx, fry, false);
-						rect.coords.val[0] = xcoords[j - 1];
-						rect.coords.val[1] = ycoords[i - 1];
-						rect.evals[0] = vertices[j - 1];
-						rect.evals[1] = vertices[j];
-						rect.evals[2] = cur;
-						rect.evals[3] = prev;
-						rect.status = edgeConfig(rect);
-						rect.shares = 0xff;
-						fx = xcoords[j] - 0.5 * frx;
-						dx = derivativeX(fx, fy);
-						dy = derivativeY(fx, fy);
-						dx = Math.abs(dx) + Math.abs(dy);
-						if (DoubleUtil.isZero(dx, 0.001)) {
-							rect.singular = true;
+		/**
+		 * Rows of the grid with own corner values, so that several bands can
+		 * be computed at the same time.
+		 */
+		private class RowBand implements Runnable {
+			private final int from;
+			private final int to;
+			private final double[] corners;
+			private final boolean[] cornerKnown;
+			private int factor;
+			private boolean plot;
+
+			RowBand(int from, int to) {
+				this.from = from;
+				this.to = to;
+				corners = new double[(to - from + 1) * (sw + 1)];
+				cornerKnown = new boolean[corners.length];
+			}
+
+			void start(int factor0, boolean plot0) {
+				this.factor = factor0;
+				this.plot = plot0;
+			}
+
+			@Override
+			public void run() {
+				for (int i = from; i < to; i++) {
+					for (int j = 0; j < sw; j++) {
+						int index = i * sw + j;
+						if (!needed[index]) {
+							continue;
+						}
+						if (plot) {
+							computed[index] = computeCell(rects[index], false,
+									factor);
+						} else {
+							rects[index] = createRect(i, j, factor);
 						}
-						this.grid[i - 1][j - 1] = rect;
-						vertices[j - 1] = prev;
-						prev = cur;
 					}
-					vertices[sw] = prev;
 				}
+			}
 
-				timer.record();
-
-				if (timer.elapse <= 10) {
-					// Fast device optimize for UX
-					plotDepth = 3;
-					segmentCheckDepth = 2;
-					LIST_THRESHOLD = 48;
-				} else {
-					// Slow device detected reduce parameters
-					plotDepth = 2;
-					segmentCheckDepth = 1;
-					LIST_THRESHOLD = 24;
+			Rect createRect(int i, int j, int factor0) {
+				double x1 = (minX + j) * cellWidth;
+				double y1 = (minY + i) * cellHeight;
+				Rect rect = new Rect(j, i, cellWidth, cellHeight, false);
+				rect.coords.val[0] = x1;
+				rect.coords.val[1] = y1;
+				rect.evals[0] = corner(i, j, factor0);
+				rect.evals[1] = corner(i, j + 1, factor0);
+				rect.evals[2] = corner(i + 1, j + 1, factor0);
+				rect.evals[3] = corner(i + 1, j, factor0);
+				rect.status = edgeConfig(rect);
+				rect.shares = 0xff;
+				double fx = x1 + 0.5 * cellWidth;
+				double fy = y1 + 0.5 * cellHeight;
+				double dx = Math.abs(derivativeX(fx, fy))
+						+ Math.abs(derivativeY(fx, fy));
+				if (DoubleUtil.isZero(dx, 0.001)) {
+					rect.singular = true;
 				}
+				return rect;
+			}
 
-				for (i = 0; i < sh; i++) {
-					for (j = 0; j < sw; j++) {
-						if (grid[i][j].status != EMPTY) {
-							plot(grid[i][j], 0, factor);
-						}
-					}
+			private double corner(int i, int j, int factor0) {
+				int index = (i - from) * (sw + 1) + j;
+				if (!cornerKnown[index]) {
+					corners[index] = evaluateImplicitCurve(
+							(minX + j) * cellWidth, (minY + i) * cellHeight,
+							factor0);
+					cornerKnown[index] = true;
 				}
+				return corners[index];
+			}
+		}
 
-				timer.record();
+		/**
+		 * @return segments of the cell, the cell is only plotted if it has
+		 *         sign changes, is singular or forced by a neighbor
+		 */
+		QuadTreeCache.Cell computeCell(Rect rect, boolean forced,
+				int factor) {
+			QuadTreeCache.Cell cell = new QuadTreeCache.Cell();
+			if (rect.status != EMPTY || forced) {
+				plot(rect, 0, factor, cell, new MyPoint[2]);
+				cell.plotted = true;
+				cell.depth = currentPlotDepth;
+			} else {
+				// nothing to refine
+				cell.depth = Integer.MAX_VALUE;
+			}
+			return cell;
+		}
 
-				if (timer.elapse >= 500) {
-					// I can't do anything more. I've been working for 500 ms
-					// Therefore I am tired
-					return;
-				} else if (timer.elapse >= 300) {
-					// I am exhausted, reducing load!
-					plotDepth -= 1;
-					segmentCheckDepth -= 1;
+		/**
+		 * Adds segments of a cell to the path, cell is computed if it's not
+		 * cached.
+		 */
+		private void plotCell(int i, int j, int factor) {
+			boolean forced = (j > 0 && (forces[i * sw + j - 1] & 0x4) != 0)
+					|| (i > 0 && (forces[(i - 1) * sw + j] & 0x2) != 0);
+			QuadTreeCache.Cell cell = computed[i * sw + j];
+			if (cell == null) {
+				cell = cache.get(minX + j, minY + i, factor);
+			}
+			if (cell == null || cell.depth < currentPlotDepth
+					|| (forced && !cell.plotted)) {
+				Rect rect = rects[i * sw + j];
+				if (rect == null) {
+					rect = getBand(i).createRect(i, j, factor);
 				}
+				cell = computeCell(rect, forced, factor);
+				cache.put(minX + j, minY + i, factor, cell);
+			} else if (computed[i * sw + j] != null) {
+				cache.put(minX + j, minY + i, factor, cell);
+			}
+			if (cell.depth < plotDepth) {
+				previewCells = true;
+			}
+			forces[i * sw + j] = cell.forces;
+			double[] segments = cell.segments;
+			for (int k = 0; k < cell.length; k += 4) {
+				addSegment(
+						new MyPoint(segments[k], segments[k + 1],
+								SegmentType.MOVE_TO),
+						new MyPoint(segments[k + 2], segments[k + 3],
+								SegmentType.LINE_TO));
 			}
 		}
 
-		public void createTree(Rect r, int depth, int factor) {
+		private void createTree(Rect r, int depth, int factor,
+				QuadTreeCache.Cell cell, MyPoint[] segment) {
 			Rect[] n = r.split(GeoImplicitCurve.this, factor);
-			plot(n[0], depth, factor);
-			plot(n[1], depth, factor);
-			plot(n[2], depth, factor);
-			plot(n[3], depth, factor);
+			plot(n[0], depth, factor, cell, segment);
+			plot(n[1], depth, factor, cell, segment);
+			plot(n[2], depth, factor, cell, segment);
+			plot(n[3], depth, factor, cell, segment);
 		}
 
-		public void plot(Rect r, int depth, int factor) {
-			if (depth < segmentCheckDepth) {
-				createTree(r, depth + 1, factor);
+		private void plot(Rect r, int depth, int factor,
+				QuadTreeCache.Cell cell, MyPoint[] segment) {
+			if (depth < currentCheckDepth) {
+				createTree(r, depth + 1, factor, cell, segment);
 				return;
 			}
 			int e = edgeConfig(r);
-			if (grid[r.y][r.x].singular || e != EMPTY) {
-				if (depth >= plotDepth) {
-					if (addSegment(r, factor) == T0101) {
-						createTree(r, depth + 1, factor);
+			if (r.singular || e != EMPTY) {
+				if (depth >= currentPlotDepth) {
+					int status = createSegment(r, factor, segment);
+					if (status == T0101) {
+						createTree(r, depth + 1, factor, cell, segment);
 						return;
 					}
-					if (r.x != 0 && (e & r.shares & 0x1) != 0) {
-						nonempty(r.y, r.x - 1);
-
-					}
-					if (r.x + 1 != sw && (e & r.shares & 0x4) != 0) {
-						nonempty(r.y, r.x + 1);
-					}
-					if (r.y != 0 && (e & r.shares & 0x8) != 0) {
-						nonempty(r.y - 1, r.x);
-					}
-					if (r.y + 1 != sh && (e & r.shares & 0x2) != 0) {
-						nonempty(r.y + 1, r.x);
+					if (status == VALID) {
+						cell.addSegment(segment[0].x, segment[0].y,
+								segment[1].x, segment[1].y);
 					}
+					cell.forces |= e & r.shares & 0xf;
 				} else {
-					createTree(r, depth + 1, factor);
+					createTree(r, depth + 1, factor, cell, segment);
 				}
 			}
 		}
 
-		private void nonempty(int ry, int rx) {
-			if (grid[ry][rx].status == EMPTY) {
-				grid[ry][rx].status = 1;
-			}
-		}
-
 		@Override
 		public void polishPointOnPath(GeoPointND pt) {
 			pt.updateCoords();
@@ -1934,7 +2255,7 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 
 	@Override
 	public boolean isOnScreen() {
-		return defined && locus.isDefined() && locus.getPoints().size() > 0;
+		return defined && locus.isDefined() && locus.getPointLength() > 0;
 	}
 
 	@Override
@@ -2452,6 +2773,6 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 
 	@Override
 	public void replaceChildrenByValues(GeoElement var) {
-		this.expression.getFunctionExpression().replaceChildrenByValues(var);
+		this.expression.replaceChildrenByValues(var);
 	}
 }
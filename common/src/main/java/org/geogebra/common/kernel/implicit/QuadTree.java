@@ -1,12 +1,12 @@
 package org.geogebra.common.kernel.implicit;
 
-import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 
 import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.SegmentType;
+import org.geogebra.common.kernel.geos.GeoLocus;
 import org.geogebra.common.kernel.kernelND.GeoPointND;
 import org.geogebra.common.kernel.matrix.Coords;
 import org.geogebra.common.util.DoubleUtil;
@@ -78,9 +78,10 @@ abstract class QuadTree {
 	protected double h;
 	protected double scaleX;
 	protected double scaleY;
-	protected ArrayList<MyPoint> locusPoints;
+	protected GeoLocus locus;
 	private LinkedList<PointList> openList = new LinkedList<>();
-	private MyPoint[] pts = new MyPoint[2];
+	/** end points of the last segment found by createSegment */
+	protected MyPoint[] pts = new MyPoint[2];
 	private PointList p1;
 	private PointList p2;
 	private MyPoint temp;
@@ -121,13 +122,19 @@ abstract class QuadTree {
 		itr1 = openList.listIterator();
 		while (itr1.hasNext()) {
 			p1 = itr1.next();
-			locusPoints.add(p1.start);
-			locusPoints.addAll(p1.pts);
-			locusPoints.add(p1.end);
+			insertPoint(p1.start);
+			for (MyPoint pt : p1.pts) {
+				insertPoint(pt);
+			}
+			insertPoint(p1.end);
 		}
 		openList.clear();
 	}
 
+	private void insertPoint(MyPoint pt) {
+		locus.insertPoint(pt.x, pt.y, pt.getSegmentType());
+	}
+
 	private static boolean equal(MyPoint q1, MyPoint q2) {
 		return DoubleUtil.isEqual(q1.x, q2.x, 1e-10)
 				&& DoubleUtil.isEqual(q1.y, q2.y, 1e-10);
@@ -136,48 +143,79 @@ abstract class QuadTree {
 	public int addSegment(Rect r, int factor) {
 		int status = createSegment(r, factor);
 		if (status == VALID) {
-			if (pts[0].x > pts[1].x) {
-				temp = pts[0];
-				pts[0] = pts[1];
-				pts[1] = temp;
-			}
-			itr1 = openList.listIterator();
-			itr2 = openList.listIterator();
-			boolean flag1 = false, flag2 = false;
-			while (itr1.hasNext()) {
-				p1 = itr1.next();
-				if (equal(pts[1], p1.start)) {
-					flag1 = true;
-					break;
-				}
-			}
+			addSegment(pts[0], pts[1]);
+		}
+		return status;
+	}
 
-			while (itr2.hasNext()) {
-				p2 = itr2.next();
-				if (equal(pts[0], p2.end)) {
-					flag2 = true;
-					break;
-				}
+	/**
+	 * Adds segment to the path, joining it with open segments if possible
+	 * 
+	 * @param start
+	 *            start point
+	 * @param end
+	 *            end point
+	 */
+	public void addSegment(MyPoint start, MyPoint end) {
+		pts[0] = start;
+		pts[1] = end;
+		if (pts[0].x > pts[1].x) {
+			temp = pts[0];
+			pts[0] = pts[1];
+			pts[1] = temp;
+		}
+		itr1 = openList.listIterator();
+		itr2 = openList.listIterator();
+		boolean flag1 = false, flag2 = false;
+		while (itr1.hasNext()) {
+			p1 = itr1.next();
+			if (equal(pts[1], p1.start)) {
+				flag1 = true;
+				break;
 			}
+		}
 
-			if (flag1 && flag2) {
-				itr1.remove();
-				p2.mergeTo(p1);
-			} else if (flag1) {
-				p1.extendBack(pts[0]);
-			} else if (flag2) {
-				p2.extendFront(pts[1]);
-			} else {
-				openList.addFirst(new PointList(pts[0], pts[1]));
-			}
-			if (openList.size() > LIST_THRESHOLD) {
-				abortList();
+		while (itr2.hasNext()) {
+			p2 = itr2.next();
+			if (equal(pts[0], p2.end)) {
+				flag2 = true;
+				break;
 			}
 		}
-		return status;
+
+		if (flag1 && flag2) {
+			itr1.remove();
+			p2.mergeTo(p1);
+		} else if (flag1) {
+			p1.extendBack(pts[0]);
+		} else if (flag2) {
+			p2.extendFront(pts[1]);
+		} else {
+			openList.addFirst(new PointList(pts[0], pts[1]));
+		}
+		if (openList.size() > LIST_THRESHOLD) {
+			abortList();
+		}
 	}
 
 	public int createSegment(Rect r, int factor) {
+		return createSegment(r, factor, pts);
+	}
+
+	/**
+	 * Same as {@link #createSegment(Rect, int)}, but the end points are
+	 * stored in given array so that several cells can be processed at the
+	 * same time.
+	 * 
+	 * @param r
+	 *            rectangle
+	 * @param factor
+	 *            factor index
+	 * @param out
+	 *            array for the start and end point
+	 * @return segment status
+	 */
+	protected int createSegment(Rect r, int factor, MyPoint[] out) {
 		int gridType = config(r);
 		if (gridType == T0101 || gridType == T_INV) {
 			return gridType;
@@ -191,39 +229,39 @@ abstract class QuadTree {
 		switch (gridType) {
 		// one or three corners are inside / outside
 		case T0001:
-			pts[0] = new MyPoint(x1,
+			out[0] = new MyPoint(x1,
 					GeoImplicitCurve.interpolate(bl, tl, y2,
 					y1), SegmentType.MOVE_TO);
-			pts[1] = new MyPoint(GeoImplicitCurve.interpolate(bl, br, x1, x2),
+			out[1] = new MyPoint(GeoImplicitCurve.interpolate(bl, br, x1, x2),
 					y2, SegmentType.LINE_TO);
 			q1 = minAbs(bl, tl);
 			q2 = minAbs(bl, br);
 			break;
 
 		case T0010:
-			pts[0] = new MyPoint(x2,
+			out[0] = new MyPoint(x2,
 					GeoImplicitCurve.interpolate(br, tr, y2,
 					y1), SegmentType.MOVE_TO);
-			pts[1] = new MyPoint(GeoImplicitCurve.interpolate(br, bl, x2, x1),
+			out[1] = new MyPoint(GeoImplicitCurve.interpolate(br, bl, x2, x1),
 					y2, SegmentType.LINE_TO);
 			q1 = minAbs(br, tr);
 			q2 = minAbs(br, bl);
 			break;
 
 		case T0100:
-			pts[0] = new MyPoint(x2, GeoImplicitCurve.interpolate(tr, br, y1,
+			out[0] = new MyPoint(x2, GeoImplicitCurve.interpolate(tr, br, y1,
 					y2), SegmentType.MOVE_TO);
-			pts[1] = new MyPoint(GeoImplicitCurve.interpolate(tr, tl, x2, x1),
+			out[1] = new MyPoint(GeoImplicitCurve.interpolate(tr, tl, x2, x1),
 					y1, SegmentType.LINE_TO);
 			q1 = minAbs(tr, br);
 			q2 = minAbs(tr, tl);
 			break;
 
 		case T0111:
-			pts[0] = new MyPoint(x1,
+			out[0] = new MyPoint(x1,
 					GeoImplicitCurve.interpolate(tl, bl, y1, y2),
 					SegmentType.MOVE_TO);
-			pts[1] = new MyPoint(GeoImplicitCurve.interpolate(tl, tr, x1, x2),
+			out[1] = new MyPoint(GeoImplicitCurve.interpolate(tl, tr, x1, x2),
 					y1, SegmentType.LINE_TO);
 			q1 = minAbs(bl, tl);
 			q2 = minAbs(tl, tr);
@@ -231,9 +269,9 @@ abstract class QuadTree {
 
 		// two consecutive corners are inside / outside
 		case T0011:
-			pts[0] = new MyPoint(x1, GeoImplicitCurve.interpolate(tl, bl, y1,
+			out[0] = new MyPoint(x1, GeoImplicitCurve.interpolate(tl, bl, y1,
 					y2), SegmentType.MOVE_TO);
-			pts[1] = new MyPoint(x2,
+			out[1] = new MyPoint(x2,
 					GeoImplicitCurve.interpolate(tr, br, y1, y2),
 					SegmentType.LINE_TO);
 			q1 = minAbs(tl, bl);
@@ -241,9 +279,9 @@ abstract class QuadTree {
 			break;
 
 		case T0110:
-			pts[0] = new MyPoint(GeoImplicitCurve.interpolate(tl, tr, x1, x2),
+			out[0] = new MyPoint(GeoImplicitCurve.interpolate(tl, tr, x1, x2),
 					y1, SegmentType.MOVE_TO);
-			pts[1] = new MyPoint(GeoImplicitCurve.interpolate(bl, br, x1, x2),
+			out[1] = new MyPoint(GeoImplicitCurve.interpolate(bl, br, x1, x2),
 					y2, SegmentType.LINE_TO);
 			q1 = minAbs(tl, tr);
 			q2 = minAbs(bl, br);
@@ -253,9 +291,9 @@ abstract class QuadTree {
 		}
 		// check continuity of the function between P1 and P2
 		double p = Math.abs(this.geoImplicitCurve
-				.evaluateImplicitCurve(pts[0].x, pts[0].y, factor));
+				.evaluateImplicitCurve(out[0].x, out[0].y, factor));
 		double q = Math.abs(this.geoImplicitCurve
-				.evaluateImplicitCurve(pts[1].x, pts[1].y, factor));
+				.evaluateImplicitCurve(out[1].x, out[1].y, factor));
 		if ((p <= q1 && q <= q2)) {
 			return VALID;
 		}
@@ -291,7 +329,7 @@ abstract class QuadTree {
 		this.h = height;
 		this.scaleX = slX;
 		this.scaleY = slY;
-		this.locusPoints = this.geoImplicitCurve.getLocus().getPoints();
+		this.locus = this.geoImplicitCurve.getLocus();
 		this.updatePath();
 		this.abortList();
 	}
@@ -343,6 +381,28 @@ abstract class QuadTree {
 
 	public abstract void updatePath();
 
+	/**
+	 * @param preview
+	 *            whether to use lower resolution for faster update
+	 */
+	public void setPreview(boolean preview) {
+		// only for cached quadtrees
+	}
+
+	/**
+	 * @return whether some parts of the path were plotted in preview mode
+	 */
+	public boolean hasPreviewCells() {
+		return false;
+	}
+
+	/**
+	 * Forgets cached results, needed when the curve changes.
+	 */
+	public void clearCache() {
+		// only for cached quadtrees
+	}
+
 	static class PointList {
 		MyPoint start;
 		MyPoint end;
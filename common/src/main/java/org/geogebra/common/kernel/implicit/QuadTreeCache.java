@@ -0,0 +1,177 @@
+package org.geogebra.common.kernel.implicit;
+
+import java.util.HashMap;
+import java.util.Iterator;
+
+/**
+ * Results of the quadtree algorithm for grid cells in world coordinates. The
+ * grid is aligned to multiples of the cell size, so cells computed for one
+ * view can be reused after panning or zooming as long as the cell size stays
+ * the same.
+ */
+class QuadTreeCache {
+
+	private final HashMap<Key, Cell> cells = new HashMap<>();
+	private final Key probe = new Key();
+	private double cellWidth;
+	private double cellHeight;
+
+	/**
+	 * Segments found in one grid cell.
+	 */
+	static final class Cell {
+		/** segment end points (x1, y1, x2, y2, ...) */
+		double[] segments = new double[0];
+		/** number of used values in segments */
+		int length;
+		/** depth of the quadtree used for this cell */
+		int depth;
+		/** whether the cell was plotted (not skipped as empty) */
+		boolean plotted;
+		/** neighbors that must be plotted, same mask as Rect.shares */
+		int forces;
+
+		/**
+		 * @param x1
+		 *            start x
+		 * @param y1
+		 *            start y
+		 * @param x2
+		 *            end x
+		 * @param y2
+		 *            end y
+		 */
+		void addSegment(double x1, double y1, double x2, double y2) {
+			if (length + 4 > segments.length) {
+				double[] bigger = new double[Math.max(16, 2 * segments.length)];
+				System.arraycopy(segments, 0, bigger, 0, length);
+				segments = bigger;
+			}
+			segments[length++] = x1;
+			segments[length++] = y1;
+			segments[length++] = x2;
+			segments[length++] = y2;
+		}
+	}
+
+	private static final class Key {
+		long x;
+		long y;
+		int factor;
+
+		Key() {
+			// probe
+		}
+
+		Key(Key other) {
+			x = other.x;
+			y = other.y;
+			factor = other.factor;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return x == other.x && y == other.y && factor == other.factor;
+		}
+
+		@Override
+		public int hashCode() {
+			return (int) (x * 31 + y) * 31 + factor;
+		}
+	}
+
+	/**
+	 * Removes all cells if the cell size changed.
+	 *
+	 * @param width
+	 *            cell width
+	 * @param height
+	 *            cell height
+	 */
+	void setCellSize(double width, double height) {
+		if (width != cellWidth || height != cellHeight) {
+			clear();
+			cellWidth = width;
+			cellHeight = height;
+		}
+	}
+
+	/**
+	 * @param x
+	 *            column index
+	 * @param y
+	 *            row index
+	 * @param factor
+	 *            factor index
+	 * @return cached cell or null
+	 */
+	Cell get(long x, long y, int factor) {
+		probe.x = x;
+		probe.y = y;
+		probe.factor = factor;
+		return cells.get(probe);
+	}
+
+	/**
+	 * @param x
+	 *            column index
+	 * @param y
+	 *            row index
+	 * @param factor
+	 *            factor index
+	 * @param cell
+	 *            cell
+	 */
+	void put(long x, long y, int factor, Cell cell) {
+		probe.x = x;
+		probe.y = y;
+		probe.factor = factor;
+		cells.put(new Key(probe), cell);
+	}
+
+	/**
+	 * Forgets cells outside of given range if the cache is too big.
+	 *
+	 * @param minX
+	 *            min column
+	 * @param maxX
+	 *            max column (exclusive)
+	 * @param minY
+	 *            min row
+	 * @param maxY
+	 *            max row (exclusive)
+	 * @param maxSize
+	 *            max number of cells
+	 */
+	void retain(long minX, long maxX, long minY, long maxY, int maxSize) {
+		if (cells.size() <= maxSize) {
+			return;
+		}
+		Iterator<Key> it = cells.keySet().iterator();
+		while (it.hasNext()) {
+			Key key = it.next();
+			if (key.x < minX || key.x >= maxX || key.y < minY
+					|| key.y >= maxY) {
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Removes all cells.
+	 */
+	void clear() {
+		cells.clear();
+	}
+
+	/**
+	 * @return number of cached cells
+	 */
+	int size() {
+		return cells.size();
+	}
+}
@@ -0,0 +1,144 @@
+package org.geogebra.common.kernel.parser;
+
+import java.util.Locale;
+
+import org.geogebra.common.kernel.Construction;
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.arithmetic.ExpressionNode;
+import org.geogebra.common.kernel.arithmetic.Traversing.VariableCopier;
+import org.geogebra.common.kernel.arithmetic.ValidExpression;
+import org.geogebra.common.util.LRUMap;
+
+/**
+ * Parsed expressions for strings that are parsed again on every file load,
+ * undo and redo. Only results that do not depend on the construction are
+ * cached, i.e. the parser must not have looked up any labels or function
+ * variables (see {@link Construction#getLookupCount()}). Callers get a deep
+ * copy of the cached expression.
+ *
+ * The cache is cleared when the language or the command names change.
+ */
+public class ParseCache {
+
+	/** maximal number of cached expressions */
+	public static final int MAX_SIZE = 10000;
+
+	private final Kernel kernel;
+	private final LRUMap<String, ValidExpression> cache = new LRUMap<>(
+			MAX_SIZE);
+	private final VariableCopier variableCopier;
+	private Locale locale;
+	private boolean enabled = true;
+
+	/**
+	 * @param kernel
+	 *            kernel
+	 */
+	public ParseCache(Kernel kernel) {
+		this.kernel = kernel;
+		variableCopier = new VariableCopier(kernel);
+	}
+
+	/**
+	 * @param parser
+	 *            parser
+	 * @param exp
+	 *            expression
+	 * @return result of {@link Parser#parseGeoGebraExpression(String)}
+	 * @throws ParseException
+	 *             if the expression is not valid
+	 */
+	public ValidExpression parseGeoGebraExpression(Parser parser, String exp)
+			throws ParseException {
+		return parse(parser, exp, false);
+	}
+
+	/**
+	 * @param parser
+	 *            parser
+	 * @param exp
+	 *            command argument
+	 * @return result of {@link Parser#parseCmdExpression(String)}
+	 * @throws ParseException
+	 *             if the expression is not valid
+	 */
+	public ExpressionNode parseCmdExpression(Parser parser, String exp)
+			throws ParseException {
+		return (ExpressionNode) parse(parser, exp, true);
+	}
+
+	private ValidExpression parse(Parser parser, String exp, boolean command)
+			throws ParseException {
+		if (!enabled) {
+			return command ? parser.parseCmdExpression(exp)
+					: parser.parseGeoGebraExpression(exp);
+		}
+		Locale current = kernel.getLocalization().getLocale();
+		if (!current.equals(locale)) {
+			cache.clear();
+			locale = current;
+		}
+		Construction cons = kernel.getConstruction();
+		// the parser reads these settings
+		String key = (command ? "C" : "E")
+				+ (kernel.getLoadingMode() ? "L" : "-")
+				+ (cons.isFileLoading() ? "F" : "-")
+				+ (kernel.getAlgebraProcessor().enableStructures() ? "S" : "-")
+				+ exp;
+		ValidExpression template = cache.get(key);
+		if (template != null) {
+			return copy(template);
+		}
+		int lookups = cons.getLookupCount();
+		ValidExpression parsed = command ? parser.parseCmdExpression(exp)
+				: parser.parseGeoGebraExpression(exp);
+		if (cons.getLookupCount() == lookups && parsed.getLabel() == null) {
+			cache.put(key, copy(parsed));
+		}
+		return parsed;
+	}
+
+	private ValidExpression copy(ValidExpression exp) {
+		// deepCopy shares variables
+		return (ValidExpression) exp.deepCopy(kernel).traverse(variableCopier);
+	}
+
+	/**
+	 * Removes all expressions, e.g. when the command names change.
+	 */
+	public void clear() {
+		cache.clear();
+	}
+
+	/**
+	 * @param enabled
+	 *            whether to use the cache
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+		if (!enabled) {
+			cache.clear();
+		}
+	}
+
+	/**
+	 * @return number of expressions taken from the cache
+	 */
+	public long getHits() {
+		return cache.getHits();
+	}
+
+	/**
+	 * @return number of expressions that had to be parsed
+	 */
+	public long getMisses() {
+		return cache.getMisses();
+	}
+
+	/**
+	 * @return number of cached expressions
+	 */
+	public int size() {
+		return cache.size();
+	}
+}
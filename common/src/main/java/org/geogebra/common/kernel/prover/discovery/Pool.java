@@ -11,7 +11,7 @@ import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.geos.GeoPoint;
 import org.geogebra.common.kernel.prover.AlgoProveDetails;
 import org.geogebra.common.kernel.prover.Combinations;
-import org.geogebra.common.util.MaxSizeHashMap;
+import org.geogebra.common.util.LRUMap;
 import org.geogebra.common.util.debug.Log;
 
 public class Pool {
@@ -24,13 +24,14 @@ public class Pool {
     public ArrayList<EqualLongSegments> equalLongSegments = new ArrayList<>();
     public ArrayList<OrthogonalParallelLines> orthogonalParallelLines = new ArrayList<>();
 
-    public MaxSizeHashMap<String, GeoList> algoProveDetailsCache = new MaxSizeHashMap<>(5000);
+    public LRUMap<String, GeoList> algoProveDetailsCache = new LRUMap<>(5000);
     private boolean enabled = false;
 
     public GeoList AlgoProveDetailsCached (GeoElement root, String command) {
         // String command = root.getParentAlgorithm().toString();
-        if (algoProveDetailsCache.containsKey(command)) {
-            return algoProveDetailsCache.get(command);
+        GeoList cached = algoProveDetailsCache.get(command);
+        if (cached != null) {
+            return cached;
         }
         AlgoProveDetails apd = new AlgoProveDetails(root.getConstruction(), root, false, true);
         apd.compute();
@@ -18,6 +18,7 @@ import java.util.Iterator;
 import org.geogebra.common.awt.GPoint;
 import org.geogebra.common.gui.view.spreadsheet.CellRange;
 import org.geogebra.common.kernel.Construction;
+import org.geogebra.common.kernel.SpreadsheetCellIndex;
 import org.geogebra.common.kernel.StringTemplate;
 import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.algos.Algos;
@@ -34,7 +35,8 @@ import org.geogebra.common.kernel.geos.GeoListForCellRange;
  * @author Markus Hohenwarter
  * @since 29.06.2008
  */
-public class AlgoCellRange extends AlgoElement {
+public class AlgoCellRange extends AlgoElement
+		implements SpreadsheetCellIndex.RangeListener {
 
 	private GeoListForCellRange geoList; // output list of range
 	private String startCell; // start cell name
@@ -97,6 +99,7 @@ public class AlgoCellRange extends AlgoElement {
 
 		super.remove();
 
+		cons.getSpreadsheetCells().removeRangeListener(this);
 		cons.getApplication().getSpreadsheetTableModel().getCellRangeManager()
 				.unregisterCellRangeListenerAlgo(this);
 
@@ -133,6 +136,19 @@ public class AlgoCellRange extends AlgoElement {
 		geoList.updateRepaint();
 	}
 
+	/**
+	 * Rebuilds the list from the cells currently in range.
+	 */
+	public void rebuildList() {
+		if (removed) {
+			return;
+		}
+		listItems = initCellRangeList(startCoords, endCoords);
+		updateList();
+		update();
+		geoList.updateRepaint();
+	}
+
 	private void updateList() {
 		geoList.clear();
 		for (GeoElement geo : listItems) {
@@ -156,26 +172,28 @@ public class AlgoCellRange extends AlgoElement {
 
 	}
 
-	/**
-	 * add geo at location into the list
-	 * 
-	 * @param geo
-	 *            element
-	 * @param loc
-	 *            location on spreadsheet
-	 */
-	public void addToList(GeoElement geo, GPoint loc) {
-
+	@Override
+	public void cellAdded(GeoElement geo, int column, int row) {
 		// check if we just add at the end of the list
-		if (loc.x >= maxExistingCol && loc.y > maxExistingRow) {
-			maxExistingCol = loc.x;
-			maxExistingRow = loc.y;
+		if (column >= maxExistingCol && row > maxExistingRow) {
+			maxExistingCol = column;
+			maxExistingRow = row;
 			addToList(geo);
 		} else { // recompute the list
 			updateList(geo, false);
 		}
 	}
 
+	@Override
+	public void cellRemoved(GeoElement geo, int column, int row) {
+		updateList(geo, true);
+	}
+
+	@Override
+	public void cellsChanged() {
+		rebuildList();
+	}
+
 	private void addToList(GeoElement geo) {
 
 		listItems.add(geo);
@@ -216,6 +234,14 @@ public class AlgoCellRange extends AlgoElement {
 
 		setDependenciesOutputOnly();
 
+		if (startCoords != null && endCoords != null) {
+			cons.getSpreadsheetCells().addRangeListener(this,
+					Math.min(startCoords.x, endCoords.x),
+					Math.min(startCoords.y, endCoords.y),
+					Math.max(startCoords.x, endCoords.x),
+					Math.max(startCoords.y, endCoords.y));
+		}
+
 		// see this.getClassName() for better solution
 		// change input now for XML saving
 		// input = new GeoElement[2];
@@ -253,31 +279,24 @@ public class AlgoCellRange extends AlgoElement {
 		maxExistingRow = minRow - 1;
 
 		// build the list
-		for (int colIndex = minCol; colIndex <= maxCol; colIndex++) {
-			for (int rowIndex = minRow; rowIndex <= maxRow; rowIndex++) {
-				// get cell object for col, row
-				String cellLabel = GeoElementSpreadsheet
-						.getSpreadsheetCellName(colIndex, rowIndex);
-				GeoElement geo = kernel.lookupLabel(cellLabel);
-
-				// create missing object in cell range
-				if (geo == null || geo.isEmptySpreadsheetCell()) {
-					// geo = cons
-					// .createSpreadsheetGeoElement(startCell, cellLabel);
-					continue;
-				}
-
-				// we got the cell object, add it to the list
-				listItems1.add(geo);
-				maxExistingCol = colIndex;
-				maxExistingRow = rowIndex; // we want max existing row in max
-											// col
-
-				// make sure that this cell object cannot be renamed by the user
-				// renaming would move the object outside of our range
-				// geo.addCellRangeUser();
+		cons.getSpreadsheetCells().getCells(minCol, minRow, maxCol, maxRow,
+				listItems1);
+		int kept = 0;
+		for (int i = 0; i < listItems1.size(); i++) {
+			GeoElement geo = listItems1.get(i);
+			if (!geo.isEmptySpreadsheetCell()) {
+				listItems1.set(kept++, geo);
 			}
 		}
+		listItems1.subList(kept, listItems1.size()).clear();
+
+		// we want max existing row in max col
+		if (!listItems1.isEmpty()) {
+			GPoint last = GeoElementSpreadsheet.spreadsheetIndices(
+					listItems1.get(listItems1.size() - 1).getLabelSimple());
+			maxExistingCol = last.x;
+			maxExistingRow = last.y;
+		}
 
 		return listItems1;
 	}
@@ -12,14 +12,12 @@ the Free Software Foundation.
 
 package org.geogebra.common.kernel.statistics;
 
-import java.util.Arrays;
-
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.algos.AlgoElement;
-import org.geogebra.common.kernel.arithmetic.NumberValue;
 import org.geogebra.common.kernel.commands.Commands;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
+import org.geogebra.common.kernel.geos.ListStatistics;
 
 /**
  * Mode of a list. Adapted from AlgoSort
@@ -82,21 +80,13 @@ public class AlgoMode extends AlgoElement {
 			return;
 		}
 
-		double[] sortList = new double[size];
-
-		// copy inputList into an array
-		for (int i = 0; i < size; i++) {
-			GeoElement geo = inputList.get(i);
-			if (geo instanceof NumberValue) {
-				sortList[i] = geo.evaluateDouble();
-			} else {
-				outputList.setUndefined();
-				return;
-			}
+		// sorted values are shared with other statistics of the list
+		ListStatistics stats = inputList.getStatistics();
+		if (stats == null) {
+			outputList.setUndefined();
+			return;
 		}
-
-		// do the sorting
-		Arrays.sort(sortList);
+		double[] sortList = stats.getSorted();
 
 		// check what the longest run of equal numbers is
 		int maxRun = 1;
@@ -12,14 +12,13 @@ the Free Software Foundation.
 
 package org.geogebra.common.kernel.statistics;
 
-import org.apache.commons.math3.stat.descriptive.rank.Percentile;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.algos.AlgoElement;
-import org.geogebra.common.kernel.arithmetic.NumberValue;
 import org.geogebra.common.kernel.commands.Commands;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.geos.ListStatistics;
 
 /**
  * Returns the percentile for a given percentage in a list of numbers
@@ -31,8 +30,6 @@ public class AlgoPercentile extends AlgoElement {
 	private GeoNumeric value; // input
 	private GeoNumeric result; // output
 	private int size;
-	private Percentile percentile;
-	private double[] inputArray;
 	private double val;
 
 	/**
@@ -102,25 +99,13 @@ public class AlgoPercentile extends AlgoElement {
 		// ==========================
 		// compute result
 
-		inputArray = new double[size];
-
-		// load input value array from geoList
-		for (int i = 0; i < size; i++) {
-			GeoElement geo = inputList.get(i);
-			if (geo instanceof NumberValue) {
-				inputArray[i] = geo.evaluateDouble();
-			} else {
-				result.setUndefined();
-				return;
-			}
-		}
-
-		if (percentile == null) {
-			percentile = new Percentile();
+		// sorted values are shared with other statistics of the list
+		ListStatistics stats = inputList.getStatistics();
+		if (stats == null) {
+			result.setUndefined();
+			return;
 		}
-
-		percentile.setData(inputArray);
-		result.setValue(percentile.evaluate(val));
+		result.setValue(stats.getPercentile(val));
 	}
 
 }
@@ -9,7 +9,6 @@ import org.geogebra.common.kernel.commands.Commands;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.geos.GeoNumberValue;
-import org.geogebra.common.kernel.geos.GeoNumeric;
 import org.geogebra.common.kernel.kernelND.GeoElementND;
 
 /**
@@ -26,6 +25,7 @@ public class AlgoRandomUniformList extends AlgoElement
 	private GeoNumberValue length;
 	// output
 	private GeoList list;
+	private double[] values;
 
 	/**
 	 * @param cons
@@ -75,27 +75,6 @@ public class AlgoRandomUniformList extends AlgoElement
 		return list;
 	}
 
-	private void ensureListSize(int n) {
-
-		// TODO: is suppress labels needed here?
-		boolean oldSuppressLabels = cons.isSuppressLabelsActive();
-		cons.setSuppressLabelCreation(true);
-
-		if (list.size() < n) {
-			for (int i = list.size(); i < n; i++) {
-				list.add(new GeoNumeric(cons));
-			}
-
-		} else if (list.size() > n) {
-			for (int i = n - 1; i < list.size(); i++) {
-				list.remove(i);
-			}
-		}
-
-		cons.setSuppressLabelCreation(oldSuppressLabels);
-
-	}
-
 	@Override
 	public void compute() {
 
@@ -108,24 +87,28 @@ public class AlgoRandomUniformList extends AlgoElement
 			return;
 		}
 
-		ensureListSize((int) length.getDouble());
-
-		for (int i = 0; i < list.size(); i++) {
-			((GeoNumeric) list.get(i)).setValue(cons.getApplication()
-					.randomUniform(a.getDouble(), b.getDouble()));
+		int n = (int) length.getDouble();
+		if (values == null || values.length < n) {
+			values = new double[n];
 		}
-
+		for (int i = 0; i < n; i++) {
+			values[i] = cons.getApplication().randomUniform(a.getDouble(),
+					b.getDouble());
+		}
+		list.setNumericValues(values, n);
+		list.setDefined(true);
 	}
 
 	@Override
 	public boolean setRandomValue(GeoElementND d) {
-		if (d instanceof ListValue) {
+		if (d instanceof ListValue && list.getNumericValues() != null) {
 			ListValue lv = (ListValue) d;
 			int size = Math.min(list.size(), lv.size());
 			for (int i = 0; i < size; i++) {
-				((GeoNumeric) list.get(i)).setValue(Math.max(a.getDouble(),
-						Math.min(lv.getListElement(i).evaluateDouble(), b.getDouble())));
+				values[i] = Math.max(a.getDouble(), Math.min(
+						lv.getListElement(i).evaluateDouble(), b.getDouble()));
 			}
+			list.setNumericValues(values, list.size());
 			return true;
 		}
 		return false;
@@ -1,9 +1,7 @@
 package org.geogebra.common.kernel.statistics;
 
-import java.util.ArrayList;
-
 import org.geogebra.common.awt.GPoint;
-import org.geogebra.common.gui.view.spreadsheet.RelativeCopy;
+import org.geogebra.common.gui.view.spreadsheet.CellBatch;
 import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.StringTemplate;
@@ -39,6 +37,17 @@ public class CmdFillCells extends CommandProcessor {
 		if (!info.isScripting()) {
 			return new GeoElement[0];
 		}
+		// views are told about new cells at the end
+		CellBatch batch = new CellBatch(app);
+		batch.start();
+		try {
+			return fill(c, batch);
+		} finally {
+			batch.end();
+		}
+	}
+
+	private GeoElement[] fill(Command c, CellBatch batch) throws MyError {
 		int n = c.getArgumentNumber();
 		GeoElement[] arg;
 
@@ -87,9 +96,10 @@ public class CmdFillCells extends CommandProcessor {
 
 					GeoLocus locus = (GeoLocus) geo;
 
-					ArrayList<MyPoint> al = locus.getPoints();
+					MyPoint scratch = new MyPoint();
 
-					int length = Math.min(al.size(), maxRow - minRow);
+					int length = Math.min(locus.getPointLength(),
+							maxRow - minRow);
 
 					for (int i = 0; i < length; i++) {
 						int row = i + minRow;
@@ -102,7 +112,7 @@ public class CmdFillCells extends CommandProcessor {
 							removePossibleGeo(GeoElementSpreadsheet
 									.getSpreadsheetCellName(minCol + 1, row));
 
-							MyPoint p = al.get(i);
+							MyPoint p = locus.getPoint(i, scratch);
 
 							kernel.getGeoElementSpreadsheet()
 									.setSpreadsheetCell(app, row, minCol,
@@ -137,8 +147,7 @@ public class CmdFillCells extends CommandProcessor {
 								// change to eg A2+1, A3+1, A4+1 etc
 								// FillCells[B1:B7,A1] doesn't change A1
 								// use FillCells[B1:B7,A1+0] for that
-								RelativeCopy.doCopyNoStoringUndoInfo0(kernel,
-										app, geo, null, col - minCol,
+								batch.copyRelative(geo, null, col - minCol,
 										row - minRow, minRow, minCol);
 
 								// old code
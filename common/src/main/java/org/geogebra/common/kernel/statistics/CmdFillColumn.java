@@ -1,5 +1,6 @@
 package org.geogebra.common.kernel.statistics;
 
+import org.geogebra.common.gui.view.spreadsheet.CellBatch;
 import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.kernel.arithmetic.Command;
 import org.geogebra.common.kernel.commands.CommandProcessor;
@@ -29,6 +30,17 @@ public class CmdFillColumn extends CommandProcessor {
 		if (!info.isScripting()) {
 			return new GeoElement[0];
 		}
+		// views are told about new cells at the end
+		CellBatch batch = new CellBatch(app);
+		batch.start();
+		try {
+			return fill(c);
+		} finally {
+			batch.end();
+		}
+	}
+
+	private GeoElement[] fill(Command c) throws MyError {
 		int n = c.getArgumentNumber();
 		boolean[] ok = new boolean[n];
 		GeoElement[] arg;
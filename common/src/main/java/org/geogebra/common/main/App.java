@@ -1005,6 +1005,9 @@ public abstract class App implements UpdateSelection, AppInterface, EuclidianHos
 				fillCommandDict();
 			}
 		}
+		if (kernel != null) {
+			kernel.clearParseCache();
+		}
 	}
 
 	/**
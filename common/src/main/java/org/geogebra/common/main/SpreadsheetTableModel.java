@@ -5,6 +5,7 @@ import org.geogebra.common.gui.view.spreadsheet.CellFormat;
 import org.geogebra.common.gui.view.spreadsheet.CellFormatInterface;
 import org.geogebra.common.gui.view.spreadsheet.MyTableInterface;
 import org.geogebra.common.kernel.ModeSetter;
+import org.geogebra.common.kernel.SpreadsheetCellIndex;
 import org.geogebra.common.kernel.UpdateLocationView;
 import org.geogebra.common.kernel.geos.GProperty;
 import org.geogebra.common.kernel.geos.GeoElement;
@@ -126,51 +127,16 @@ public abstract class SpreadsheetTableModel implements UpdateLocationView {
 	}
 
 	/**
-	 * Updates highestUsedColumn and highestUsedRow
+	 * Updates highestUsedColumn and highestUsedRow after a cell was removed
 	 */
 	private void updateHighestUsedColAndRow(int col, int row) {
-
-		if (col == highestUsedColumn) {
-			boolean updatedHighestUsedColumn = false;
-			for (int c = highestUsedColumn; c >= 0; c--) {
-				boolean columnEmpty = true;
-				for (int r = 0; r <= highestUsedRow; r++) {
-					if (getValueAt(r, c) != null) {
-						// column not empty
-						columnEmpty = false;
-						break;
-					}
-				}
-				if (!columnEmpty) {
-					highestUsedColumn = c;
-					updatedHighestUsedColumn = true;
-					break;
-				}
-			}
-			if (!updatedHighestUsedColumn) {
-				highestUsedColumn = -1;
-			}
-		}
-		if (row == highestUsedRow) {
-			boolean updatedHighestUsedRow = false;
-			for (int r = highestUsedRow; r >= 0; r--) {
-				boolean rowEmpty = true;
-				for (int c = 0; c <= highestUsedColumn; c++) {
-					if (getValueAt(r, c) != null) {
-						// row not empty
-						rowEmpty = false;
-						break;
-					}
-				}
-				if (!rowEmpty) {
-					highestUsedRow = r;
-					updatedHighestUsedRow = true;
-					break;
-				}
-			}
-			if (!updatedHighestUsedRow) {
-				highestUsedRow = -1;
-			}
+		if (col == highestUsedColumn || row == highestUsedRow) {
+			SpreadsheetCellIndex cells = app.getKernel().getConstruction()
+					.getSpreadsheetCells();
+			int maxColumn = app.getMaxSpreadsheetColumnsVisible() - 1;
+			int maxRow = app.getMaxSpreadsheetRowsVisible() - 1;
+			highestUsedColumn = cells.getHighestUsedColumn(maxColumn, maxRow);
+			highestUsedRow = cells.getHighestUsedRow(maxColumn, maxRow);
 		}
 	}
 
@@ -188,12 +154,6 @@ public abstract class SpreadsheetTableModel implements UpdateLocationView {
 	@Override
 	public void add(GeoElement geo) {
 		update(geo);
-		addToCellRangeAlgos(geo);
-	}
-
-	private void addWithoutTrace(GeoElement geo) {
-		updateWithoutTrace(geo);
-		addToCellRangeAlgos(geo);
 	}
 
 	@Override
@@ -201,7 +161,6 @@ public abstract class SpreadsheetTableModel implements UpdateLocationView {
 		GPoint location = geo.getSpreadsheetCoords();
 		if (location != null) {
 			doRemove(location.y, location.x);
-			cellRangeManager.updateCellRangeAlgos(geo, location, true);
 		}
 	}
 
@@ -210,9 +169,8 @@ public abstract class SpreadsheetTableModel implements UpdateLocationView {
 		GPoint location = geo.getOldSpreadsheetCoords();
 		if (location != null) {
 			doRemove(location.y, location.x);
-			cellRangeManager.updateCellRangeAlgos(geo, location, true);
 		}
-		addWithoutTrace(geo);
+		updateWithoutTrace(geo);
 	}
 
 	private void doRemove(int row, int col) {
@@ -234,14 +192,6 @@ public abstract class SpreadsheetTableModel implements UpdateLocationView {
 
 	}
 
-	private void addToCellRangeAlgos(GeoElement geo) {
-		GPoint location = geo.getSpreadsheetCoords();
-		if (location != null) {
-			cellRangeManager.addToCellRangeAlgos(geo, location);
-		}
-
-	}
-
 	private void updateWithoutTrace(GeoElement geo) {
 		GPoint location = geo.getSpreadsheetCoords();
 
@@ -14,6 +14,7 @@ import org.geogebra.common.plugin.EventType;
 public class DefaultUndoManager extends UndoManager {
 
 	private ArrayList<UndoPossibleListener> mListener = new ArrayList<>();
+	private final DeltaEncoder deltaEncoder = new DeltaEncoder();
 
 	/**
 	 * @param cons
@@ -45,7 +46,7 @@ public class DefaultUndoManager extends UndoManager {
      *            string builder with construction XML
      */
     private synchronized void doStoreUndoInfo(final StringBuilder undoXML) {
-        AppState appStateToAdd = new StringAppState(undoXML.toString());
+        AppState appStateToAdd = deltaEncoder.encode(undoXML);
         UndoCommand command = createUndoCommand(appStateToAdd);
         maybeStoreUndoCommand(command);
         pruneStateList();
@@ -53,10 +54,66 @@ public class DefaultUndoManager extends UndoManager {
         updateUndoActions();
     }
 
+    @Override
+    public synchronized void clearUndoInfo() {
+        super.clearUndoInfo();
+        deltaEncoder.reset();
+    }
+
+    @Override
+    protected long getMemoryUsage() {
+        if (undoInfoList.isEmpty()) {
+            return 0;
+        }
+        // states sharing a base are consecutive, the current base is kept
+        DeltaAppState.Snapshot currentBase = getBase(undoInfoList.getLast());
+        DeltaAppState.Snapshot lastBase = null;
+        long size = 0;
+        for (UndoCommand command : undoInfoList) {
+            size += getDeltaSize(command);
+            DeltaAppState.Snapshot base = getBase(command);
+            if (base != null && base != lastBase && base != currentBase) {
+                size += base.size;
+            }
+            lastBase = base;
+        }
+        return size;
+    }
+
+    @Override
+    protected long getReleasedMemory(UndoCommand oldest, UndoCommand next) {
+        DeltaAppState.Snapshot base = getBase(oldest);
+        long size = getDeltaSize(oldest);
+        if (base != null && base != getBase(next)) {
+            size += base.size;
+        }
+        return size;
+    }
+
+    private static DeltaAppState.Snapshot getBase(UndoCommand command) {
+        return command.getAppState() instanceof DeltaAppState
+                ? ((DeltaAppState) command.getAppState()).getBase() : null;
+    }
+
+    private static long getDeltaSize(UndoCommand command) {
+        return command.getAppState() instanceof DeltaAppState
+                ? ((DeltaAppState) command.getAppState()).getDeltaSize() : 0;
+    }
+
     protected UndoCommand createUndoCommand(AppState appState) {
     	return new UndoCommand(appState);
     }
 
+	@Override
+	protected boolean loadUndoInfoIncrementally(AppState state,
+			String slideID) {
+		if (!isIncrementalUndo() || state == null || slideID != null) {
+			return false;
+		}
+		String xml = state.getXml();
+		return xml != null && new IncrementalUndo(construction).apply(xml);
+	}
+
     @Override
 	protected void loadUndoInfo(AppState state, String slideID) {
         try {
@@ -0,0 +1,133 @@
+package org.geogebra.common.main.undo;
+
+import java.util.Arrays;
+
+/**
+ * App state stored as a difference to a shared base snapshot. The XML is split
+ * into chunks (one top level tag with its indented content, e.g. one
+ * &lt;element&gt; or &lt;command&gt;) and only the chunks that differ from
+ * the base are kept. The full XML is only rebuilt when needed for undo/redo.
+ */
+public class DeltaAppState implements AppState {
+
+	/** rough per-object overhead in bytes, used for memory estimates */
+	static final int OBJECT_OVERHEAD = 40;
+
+	private Snapshot base;
+	/** triples (base start, deleted count, inserted count) */
+	private int[] ops;
+	private String[] inserted;
+
+	/**
+	 * @param base
+	 *            base snapshot
+	 * @param ops
+	 *            triples (base start, deleted count, inserted count), sorted
+	 *            by base start
+	 * @param inserted
+	 *            inserted chunks of all operations
+	 */
+	DeltaAppState(Snapshot base, int[] ops, String[] inserted) {
+		this.base = base;
+		this.ops = ops;
+		this.inserted = inserted;
+	}
+
+	@Override
+	public String getXml() {
+		if (base == null) {
+			return null;
+		}
+		String[] chunks = base.chunks;
+		StringBuilder sb = new StringBuilder(base.length + 1024);
+		int next = 0;
+		int insertedIndex = 0;
+		for (int i = 0; i < ops.length; i += 3) {
+			int start = ops[i];
+			for (int j = next; j < start; j++) {
+				sb.append(chunks[j]);
+			}
+			int end = insertedIndex + ops[i + 2];
+			for (int j = insertedIndex; j < end; j++) {
+				sb.append(inserted[j]);
+			}
+			insertedIndex = end;
+			next = start + ops[i + 1];
+		}
+		for (int j = next; j < chunks.length; j++) {
+			sb.append(chunks[j]);
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public void delete() {
+		base = null;
+		ops = null;
+		inserted = null;
+	}
+
+	@Override
+	public boolean equalsTo(AppState state) {
+		if (state == null || base == null) {
+			return false;
+		}
+		if (state instanceof DeltaAppState
+				&& ((DeltaAppState) state).base == base) {
+			// the difference to a given base is unique
+			DeltaAppState other = (DeltaAppState) state;
+			return Arrays.equals(ops, other.ops)
+					&& Arrays.equals(inserted, other.inserted);
+		}
+		String xml = state.getXml();
+		return xml != null && xml.equals(getXml());
+	}
+
+	/**
+	 * @return base snapshot, null if deleted
+	 */
+	Snapshot getBase() {
+		return base;
+	}
+
+	/**
+	 * @return whether this state is equal to its base
+	 */
+	public boolean isSnapshot() {
+		return ops != null && ops.length == 0;
+	}
+
+	/**
+	 * @return estimated memory used by this state (without base) in bytes
+	 */
+	public long getDeltaSize() {
+		if (inserted == null) {
+			return 0;
+		}
+		long size = OBJECT_OVERHEAD + 4L * ops.length;
+		for (String chunk : inserted) {
+			size += OBJECT_OVERHEAD + 2L * chunk.length();
+		}
+		return size;
+	}
+
+	/**
+	 * Full XML split into chunks, shared by several states.
+	 */
+	static final class Snapshot {
+		final String[] chunks;
+		final int length;
+		final long size;
+
+		Snapshot(String[] chunks) {
+			this.chunks = chunks;
+			int chars = 0;
+			for (String chunk : chunks) {
+				chars += chunk.length();
+			}
+			this.length = chars;
+			this.size = 2L * chars
+					+ (long) (OBJECT_OVERHEAD + 4) * chunks.length;
+		}
+	}
+}
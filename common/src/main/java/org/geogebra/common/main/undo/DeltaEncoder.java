@@ -0,0 +1,277 @@
+package org.geogebra.common.main.undo;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.main.undo.DeltaAppState.Snapshot;
+
+/**
+ * Creates {@link DeltaAppState}s from construction XML. All states share the
+ * current base snapshot until the accumulated difference gets too big, then the
+ * next state becomes the new base.
+ */
+public class DeltaEncoder {
+
+	/** maximal number of edits found by the diff, more edits are merged */
+	private static final int MAX_EDITS = 256;
+
+	/** make new base when delta is bigger than this part of base */
+	private static final double REBASE_RATIO = 0.25;
+
+	/** make new base after this many states */
+	private static final int REBASE_INTERVAL = 50;
+
+	private Snapshot base;
+	private int statesSinceRebase;
+
+	/**
+	 * @param xml
+	 *            construction XML
+	 * @return state for given XML
+	 */
+	public DeltaAppState encode(CharSequence xml) {
+		Chunks chunks = new Chunks(xml.toString());
+		if (base == null || statesSinceRebase >= REBASE_INTERVAL) {
+			return rebase(chunks);
+		}
+		ArrayList<Integer> ops = new ArrayList<>();
+		ArrayList<String> inserted = new ArrayList<>();
+		diff(base.chunks, chunks, ops, inserted);
+		DeltaAppState state = new DeltaAppState(base, toArray(ops),
+				inserted.toArray(new String[0]));
+		if (state.getDeltaSize() > REBASE_RATIO * base.size) {
+			return rebase(chunks);
+		}
+		statesSinceRebase++;
+		return state;
+	}
+
+	/**
+	 * Forget the base, next state will be a full snapshot.
+	 */
+	public void reset() {
+		base = null;
+		statesSinceRebase = 0;
+	}
+
+	private DeltaAppState rebase(Chunks chunks) {
+		String[] strings = new String[chunks.size()];
+		for (int i = 0; i < strings.length; i++) {
+			strings[i] = chunks.get(i);
+		}
+		base = new Snapshot(strings);
+		statesSinceRebase = 0;
+		return new DeltaAppState(base, new int[0], new String[0]);
+	}
+
+	/**
+	 * Computes operations that turn old chunks into new ones.
+	 */
+	private static void diff(String[] a, Chunks b, ArrayList<Integer> ops,
+			ArrayList<String> inserted) {
+		int prefix = 0;
+		int minLength = Math.min(a.length, b.size());
+		while (prefix < minLength && b.matches(prefix, a[prefix])) {
+			prefix++;
+		}
+		int suffix = 0;
+		while (suffix < minLength - prefix && b.matches(b.size() - 1 - suffix,
+				a[a.length - 1 - suffix])) {
+			suffix++;
+		}
+		int aEnd = a.length - suffix;
+		int bEnd = b.size() - suffix;
+		if (aEnd == bEnd && diffAligned(a, b, prefix, aEnd, ops, inserted)) {
+			return;
+		}
+		int[] matches = findMatches(a, b, prefix, aEnd, prefix, bEnd);
+		int lastA = prefix;
+		int lastB = prefix;
+		if (matches != null) {
+			for (int i = 0; i < matches.length; i += 2) {
+				addOp(b, lastA, matches[i], lastB, matches[i + 1], ops,
+						inserted);
+				lastA = matches[i] + 1;
+				lastB = matches[i + 1] + 1;
+			}
+		}
+		addOp(b, lastA, aEnd, lastB, bEnd, ops, inserted);
+	}
+
+	/**
+	 * Replaces chunks at the same positions, used when most of the chunks
+	 * stay in place (e.g. after moving a point).
+	 *
+	 * @return false if there are too many differences
+	 */
+	private static boolean diffAligned(String[] a, Chunks b, int from, int to,
+			ArrayList<Integer> ops, ArrayList<String> inserted) {
+		boolean[] changed = new boolean[to - from];
+		int changedCount = 0;
+		for (int i = from; i < to; i++) {
+			if (!b.matches(i, a[i])) {
+				changed[i - from] = true;
+				changedCount++;
+			}
+		}
+		if (changedCount > Math.max(MAX_EDITS, (to - from) / 4)) {
+			return false;
+		}
+		int i = from;
+		while (i < to) {
+			if (!changed[i - from]) {
+				i++;
+				continue;
+			}
+			int start = i;
+			while (i < to && changed[i - from]) {
+				i++;
+			}
+			addOp(b, start, i, start, i, ops, inserted);
+		}
+		return true;
+	}
+
+	private static void addOp(Chunks b, int aFrom, int aTo, int bFrom,
+			int bTo, ArrayList<Integer> ops, ArrayList<String> inserted) {
+		if (aFrom == aTo && bFrom == bTo) {
+			return;
+		}
+		ops.add(aFrom);
+		ops.add(aTo - aFrom);
+		ops.add(bTo - bFrom);
+		for (int j = bFrom; j < bTo; j++) {
+			inserted.add(b.get(j));
+		}
+	}
+
+	/**
+	 * Myers' diff restricted to {@link #MAX_EDITS} edits.
+	 *
+	 * @return pairs of indices (in a, in b) of matching chunks in increasing
+	 *         order or null if there are too many differences
+	 */
+	private static int[] findMatches(String[] a, Chunks b, int aFrom,
+			int aTo, int bFrom, int bTo) {
+		int n = aTo - aFrom;
+		int m = bTo - bFrom;
+		int max = Math.min(n + m, MAX_EDITS);
+		int offset = max + 1;
+		int[] v = new int[2 * max + 3];
+		ArrayList<int[]> trace = new ArrayList<>();
+		for (int d = 0; d <= max; d++) {
+			trace.add(v.clone());
+			for (int k = -d; k <= d; k += 2) {
+				int x;
+				if (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])) {
+					x = v[offset + k + 1];
+				} else {
+					x = v[offset + k - 1] + 1;
+				}
+				int y = x - k;
+				while (x < n && y < m && b.matches(bFrom + y, a[aFrom + x])) {
+					x++;
+					y++;
+				}
+				v[offset + k] = x;
+				if (x >= n && y >= m) {
+					return backtrack(trace, offset, n, m, aFrom, bFrom);
+				}
+			}
+		}
+		return null;
+	}
+
+	private static int[] backtrack(ArrayList<int[]> trace, int offset, int n,
+			int m, int aFrom, int bFrom) {
+		ArrayList<Integer> reversed = new ArrayList<>();
+		int x = n;
+		int y = m;
+		for (int d = trace.size() - 1; d >= 0; d--) {
+			int[] v = trace.get(d);
+			int k = x - y;
+			int prevK;
+			if (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])) {
+				prevK = k + 1;
+			} else {
+				prevK = k - 1;
+			}
+			int prevX = d == 0 ? 0 : v[offset + prevK];
+			int prevY = d == 0 ? 0 : prevX - prevK;
+			while (x > prevX && y > prevY) {
+				x--;
+				y--;
+				reversed.add(bFrom + y);
+				reversed.add(aFrom + x);
+			}
+			x = prevX;
+			y = prevY;
+		}
+		int[] matches = new int[reversed.size()];
+		for (int i = 0; i < matches.length; i++) {
+			matches[i] = reversed.get(matches.length - 1 - i);
+		}
+		return matches;
+	}
+
+	private static int[] toArray(ArrayList<Integer> list) {
+		int[] array = new int[list.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = list.get(i);
+		}
+		return array;
+	}
+
+	/**
+	 * XML split into chunks without copying; each chunk starts with a line
+	 * that is not indented and contains all the following indented lines.
+	 */
+	static final class Chunks {
+		private final String xml;
+		private final int[] starts;
+		private final int size;
+
+		/**
+		 * @param xml
+		 *            XML
+		 */
+		Chunks(String xml) {
+			this.xml = xml;
+			int[] found = new int[64];
+			int count = 0;
+			found[count++] = 0;
+			int lineEnd = xml.indexOf('\n');
+			while (lineEnd >= 0 && lineEnd < xml.length() - 1) {
+				char next = xml.charAt(lineEnd + 1);
+				if (next != '\t' && next != ' ') {
+					if (count == found.length) {
+						int[] bigger = new int[2 * count];
+						System.arraycopy(found, 0, bigger, 0, count);
+						found = bigger;
+					}
+					found[count++] = lineEnd + 1;
+				}
+				lineEnd = xml.indexOf('\n', lineEnd + 1);
+			}
+			this.starts = found;
+			this.size = xml.isEmpty() ? 0 : count;
+		}
+
+		int size() {
+			return size;
+		}
+
+		private int end(int i) {
+			return i + 1 < size ? starts[i + 1] : xml.length();
+		}
+
+		String get(int i) {
+			return xml.substring(starts[i], end(i));
+		}
+
+		boolean matches(int i, String chunk) {
+			int start = starts[i];
+			return end(i) - start == chunk.length()
+					&& xml.regionMatches(start, chunk, 0, chunk.length());
+		}
+	}
+}
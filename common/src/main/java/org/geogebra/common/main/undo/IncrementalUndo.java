@@ -0,0 +1,449 @@
+package org.geogebra.common.main.undo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.TreeSet;
+
+import org.geogebra.common.kernel.Construction;
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.algos.AlgoElement;
+import org.geogebra.common.kernel.algos.ConstructionElement;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.main.MyError;
+import org.geogebra.common.main.undo.DeltaEncoder.Chunks;
+import org.geogebra.common.plugin.ScriptManager;
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Loads an undo state by only changing the construction elements that differ
+ * from the current construction, so that unchanged elements keep their
+ * identity (selection, open dialogs) and undo does not rebuild the whole
+ * construction.
+ *
+ * Supported changes are: changed free elements and changed styles of
+ * dependent elements (updated in place), elements removed together with all
+ * their dependents and elements added at the end of the construction. For
+ * anything else, or if the result does not match the stored state,
+ * {@link #apply(String)} returns false and the state must be reloaded.
+ */
+class IncrementalUndo {
+
+	private final Construction cons;
+	private final Kernel kernel;
+
+	/**
+	 * @param cons
+	 *            construction
+	 */
+	IncrementalUndo(Construction cons) {
+		this.cons = cons;
+		this.kernel = cons.getKernel();
+	}
+
+	/**
+	 * @param targetXml
+	 *            XML of the state to load
+	 * @return whether the construction was changed to the given state; if
+	 *         not, it may be partially changed and has to be reloaded
+	 */
+	boolean apply(String targetXml) {
+		State current = State.parse(cons.getCurrentUndoXML(true).toString());
+		State target = State.parse(targetXml);
+		if (current == null || target == null
+				|| !current.outside.toString()
+						.equals(target.outside.toString())) {
+			return false;
+		}
+		ArrayList<Item> changed = new ArrayList<>();
+		ArrayList<Item> added = new ArrayList<>();
+		HashSet<String> kept = new HashSet<>();
+		for (Item item : target.items) {
+			Item old = current.byKey.get(item.key);
+			if (old != null && (old.text.equals(item.text)
+					|| canChangeInPlace(old, item))) {
+				kept.add(item.key);
+				if (!old.text.equals(item.text)) {
+					changed.add(item);
+				}
+			} else {
+				added.add(item);
+			}
+		}
+		ArrayList<Item> removed = new ArrayList<>();
+		ArrayList<String> order = new ArrayList<>();
+		for (Item item : current.items) {
+			if (kept.contains(item.key)) {
+				order.add(item.key);
+			} else {
+				removed.add(item);
+			}
+		}
+		for (Item item : added) {
+			order.add(item.key);
+		}
+		// added elements end up at the end of the construction
+		for (int i = 0; i < order.size(); i++) {
+			if (!order.get(i).equals(target.items.get(i).key)) {
+				return false;
+			}
+		}
+		if (changed.isEmpty() && added.isEmpty() && removed.isEmpty()) {
+			return true;
+		}
+		if (!canRemove(removed)) {
+			return false;
+		}
+		ScriptManager scriptManager = kernel.getApplication()
+				.getScriptManager();
+		if (scriptManager != null) {
+			scriptManager.disableListeners();
+		}
+		try {
+			return apply(target, changed, added, removed);
+		} catch (Exception | MyError e) {
+			Log.debug("Incremental undo failed: " + e.getMessage());
+			return false;
+		} finally {
+			if (scriptManager != null) {
+				scriptManager.enableListeners();
+			}
+		}
+	}
+
+	private boolean apply(State target, ArrayList<Item> changed,
+			ArrayList<Item> added, ArrayList<Item> removed) throws Exception {
+		for (int i = removed.size() - 1; i >= 0; i--) {
+			GeoElement geo = kernel.lookupLabel(removed.get(i).labels[0]);
+			// may be gone already as dependent of another removed item
+			if (geo != null) {
+				getConstructionElement(geo).remove();
+			}
+		}
+		for (Item item : changed) {
+			if (item.header == null) {
+				// e.g. a point that was defined as (1, 2) and then moved
+				GeoElement geo = kernel.lookupLabel(item.key);
+				if (geo != null && geo.isIndependent()) {
+					geo.setDefinition(null);
+				}
+			}
+		}
+		if (!changed.isEmpty() || !added.isEmpty()) {
+			StringBuilder sb = new StringBuilder(target.header);
+			sb.append("<construction>\n");
+			for (Item item : changed) {
+				sb.append(item.isCommand() ? item.getElementsXML()
+						: item.text);
+			}
+			for (Item item : added) {
+				sb.append(item.text);
+			}
+			sb.append("</construction>\n</geogebra>\n");
+			cons.setFileLoading(true);
+			try {
+				cons.getXMLio().processXMLString(sb.toString(), false, false,
+						true, false);
+			} finally {
+				cons.setFileLoading(false);
+			}
+		}
+		ArrayList<GeoElement> updated = new ArrayList<>();
+		HashSet<Item> check = new HashSet<>(added);
+		for (Item item : changed) {
+			check.add(item);
+			for (String label : item.labels) {
+				GeoElement geo = kernel.lookupLabel(label);
+				if (geo == null) {
+					return false;
+				}
+				updated.add(geo);
+			}
+		}
+		if (!updated.isEmpty()) {
+			GeoElement.updateCascade(updated, new TreeSet<AlgoElement>(),
+					true);
+			for (GeoElement geo : updated) {
+				for (GeoElement child : geo.getAllChildren()) {
+					if (child.isLabelSet()) {
+						Item item = target.byLabel.get(child.getLabelSimple());
+						if (item == null) {
+							return false;
+						}
+						check.add(item);
+					}
+				}
+			}
+		}
+		kernel.notifyRepaint();
+		for (Item item : removed) {
+			for (String label : item.labels) {
+				if (!target.byLabel.containsKey(label)
+						&& kernel.lookupLabel(label) != null) {
+					return false;
+				}
+			}
+		}
+		StringBuilder sb = new StringBuilder();
+		for (Item item : check) {
+			GeoElement geo = kernel.lookupLabel(item.labels[0]);
+			if (geo == null) {
+				return false;
+			}
+			sb.setLength(0);
+			getConstructionElement(geo).getXML(true, sb);
+			if (!item.text.contentEquals(sb)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean canChangeInPlace(Item old, Item item) {
+		if (!old.sameLabels(item)) {
+			return false;
+		}
+		if (old.isCommand() || item.isCommand()) {
+			return old.isCommand() && item.isCommand()
+					&& old.header.equals(item.header);
+		}
+		// redefining a free element keeps the object
+		GeoElement geo = kernel.lookupLabel(old.key);
+		return geo != null && geo.isIndependent();
+	}
+
+	/**
+	 * Removed items must take all their dependents with them.
+	 */
+	private boolean canRemove(ArrayList<Item> removed) {
+		HashSet<String> labels = new HashSet<>();
+		for (Item item : removed) {
+			if (item.labels.length == 0) {
+				return false;
+			}
+			for (String label : item.labels) {
+				labels.add(label);
+			}
+		}
+		for (Item item : removed) {
+			GeoElement geo = kernel.lookupLabel(item.labels[0]);
+			if (geo == null) {
+				return false;
+			}
+			for (GeoElement child : geo.getAllChildren()) {
+				if (child.isLabelSet()
+						&& !labels.contains(child.getLabelSimple())) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static ConstructionElement getConstructionElement(
+			GeoElement geo) {
+		AlgoElement algo = geo.getParentAlgorithm();
+		return algo == null ? geo : algo;
+	}
+
+	/**
+	 * One construction element: &lt;expression&gt; or &lt;command&gt; with
+	 * its &lt;element&gt;s or a single &lt;element&gt;.
+	 */
+	private static final class Item {
+		/** first label, whole XML for commands without labeled output */
+		final String key;
+		/** expression or command, may be null */
+		final String header;
+		final String[] labels;
+		final ArrayList<String> elements = new ArrayList<>();
+		String text;
+
+		Item(String header, String[] labels) {
+			this.header = header;
+			this.labels = labels;
+			this.key = labels.length == 0 ? header : labels[0];
+		}
+
+		boolean isCommand() {
+			return header != null && header.startsWith("<command");
+		}
+
+		boolean accepts(String label) {
+			if (isCommand()) {
+				for (String output : labels) {
+					if (output.equals(label)) {
+						return true;
+					}
+				}
+				return false;
+			}
+			return header != null && elements.isEmpty()
+					&& labels[0].equals(label);
+		}
+
+		boolean sameLabels(Item other) {
+			if (labels.length != other.labels.length) {
+				return false;
+			}
+			for (int i = 0; i < labels.length; i++) {
+				if (!labels[i].equals(other.labels[i])) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		String getElementsXML() {
+			StringBuilder sb = new StringBuilder();
+			for (String element : elements) {
+				sb.append(element);
+			}
+			return sb.toString();
+		}
+
+		void finish() {
+			text = header == null ? getElementsXML()
+					: header + getElementsXML();
+		}
+	}
+
+	/**
+	 * Construction XML split into items and everything else.
+	 */
+	private static final class State {
+		/** XML declaration and &lt;geogebra&gt; tag */
+		final StringBuilder header = new StringBuilder();
+		/** all chunks that are not part of an item */
+		final StringBuilder outside = new StringBuilder();
+		final ArrayList<Item> items = new ArrayList<>();
+		final HashMap<String, Item> byKey = new HashMap<>();
+		final HashMap<String, Item> byLabel = new HashMap<>();
+
+		/**
+		 * @return state, null if the XML contains unsupported labels
+		 */
+		static State parse(String xml) {
+			State state = new State();
+			boolean inConstruction = false;
+			Item item = null;
+			for (String chunk : getTags(xml)) {
+				if (!inConstruction) {
+					if (chunk.startsWith("<?xml")
+							|| chunk.startsWith("<geogebra")) {
+						state.header.append(chunk);
+					}
+					inConstruction = chunk.startsWith("<construction");
+					state.outside.append(chunk);
+					continue;
+				}
+				if (chunk.startsWith("<element ")) {
+					String label = getAttribute(chunk, "label");
+					if (label == null) {
+						return null;
+					}
+					if (item == null || !item.accepts(label)) {
+						item = state.add(null, new String[] { label });
+					}
+					item.elements.add(chunk);
+				} else if (chunk.startsWith("<expression ")) {
+					String label = getAttribute(chunk, "label");
+					if (label == null) {
+						return null;
+					}
+					item = state.add(chunk, new String[] { label });
+				} else if (chunk.startsWith("<command ")) {
+					String[] labels = getOutputLabels(chunk);
+					if (labels == null) {
+						return null;
+					}
+					item = state.add(chunk, labels);
+				} else {
+					inConstruction = !chunk.startsWith("</construction");
+					state.outside.append(chunk);
+					item = null;
+				}
+			}
+			for (Item added : state.items) {
+				added.finish();
+				if (state.byKey.put(added.key, added) != null) {
+					return null;
+				}
+			}
+			return state;
+		}
+
+		/**
+		 * @return chunks of the XML with closing tags joined to the
+		 *         previous chunk, e.g. one &lt;element&gt; each
+		 */
+		private static ArrayList<String> getTags(String xml) {
+			Chunks chunks = new Chunks(xml);
+			ArrayList<String> tags = new ArrayList<>();
+			for (int i = 0; i < chunks.size(); i++) {
+				String chunk = chunks.get(i);
+				int last = tags.size() - 1;
+				if (last >= 0 && chunk.startsWith("</")
+						&& !chunk.startsWith("</construction")
+						&& !chunk.startsWith("</geogebra")) {
+					tags.set(last, tags.get(last) + chunk);
+				} else {
+					tags.add(chunk);
+				}
+			}
+			return tags;
+		}
+
+		private Item add(String header, String[] labels) {
+			Item item = new Item(header, labels);
+			items.add(item);
+			for (String label : labels) {
+				byLabel.put(label, item);
+			}
+			return item;
+		}
+
+		/**
+		 * @return value of the attribute in the first line, null if missing
+		 *         or encoded
+		 */
+		private static String getAttribute(String chunk, String name) {
+			int lineEnd = chunk.indexOf('\n');
+			int start = chunk.indexOf(" " + name + "=\"");
+			if (start < 0 || (lineEnd >= 0 && start > lineEnd)) {
+				return null;
+			}
+			start += name.length() + 3;
+			int end = chunk.indexOf('"', start);
+			if (end < 0) {
+				return null;
+			}
+			String value = chunk.substring(start, end);
+			return value.indexOf('&') >= 0 ? null : value;
+		}
+
+		/**
+		 * @return non-empty labels of &lt;output&gt;, null if encoded
+		 */
+		private static String[] getOutputLabels(String chunk) {
+			int start = chunk.indexOf("\t<output ");
+			ArrayList<String> labels = new ArrayList<>();
+			if (start >= 0) {
+				int end = chunk.indexOf('\n', start);
+				int pos = chunk.indexOf("=\"", start);
+				while (pos >= 0 && pos < end) {
+					int valueEnd = chunk.indexOf('"', pos + 2);
+					String label = chunk.substring(pos + 2, valueEnd);
+					if (label.indexOf('&') >= 0) {
+						return null;
+					}
+					if (!label.isEmpty()) {
+						labels.add(label);
+					}
+					pos = chunk.indexOf("=\"", valueEnd);
+				}
+			}
+			return labels.toArray(new String[0]);
+		}
+	}
+}
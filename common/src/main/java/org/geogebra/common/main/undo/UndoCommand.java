@@ -82,6 +82,9 @@ public class UndoCommand {
 	 */
 	public void redo(final UndoManager undoManager) {
 		if (appState != null) {
+			if (undoManager.loadUndoInfoIncrementally(appState, slideID)) {
+				return;
+			}
 			undoManager.resetBeforeReload();
 			undoManager.loadUndoInfo(appState, slideID);
 			undoManager.restoreAfterReload();
@@ -143,8 +146,12 @@ public class UndoCommand {
 				}
 			});
 		} else {
-			undoManager.resetBeforeReload();
 			UndoCommand checkpoint = undoManager.getCheckpoint(slideID);
+			if (checkpoint != null && undoManager
+					.loadUndoInfoIncrementally(checkpoint, slideID, this)) {
+				return;
+			}
+			undoManager.resetBeforeReload();
 			if (checkpoint != null) {
 				undoManager.loadUndoInfo(checkpoint, slideID, this);
 			} else {
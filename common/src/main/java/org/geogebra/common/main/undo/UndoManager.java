@@ -28,6 +28,11 @@ public abstract class UndoManager {
 	 */
 	private static final int MAX_CAPACITY = 100;
 
+	/**
+	 * default memory budget for stored states in bytes
+	 */
+	public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+
 	/** application */
 	@Weak
 	public App app;
@@ -41,6 +46,8 @@ public abstract class UndoManager {
 	private boolean storeUndoInfoNeededForProperties = false;
 	private List<UndoInfoStoredListener> undoInfoStoredListeners;
 	private final List<ActionExecutor> executors = new ArrayList<>();
+	private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+	private boolean incrementalUndo = true;
 
 	/**
 	 * @param cons
@@ -303,6 +310,68 @@ public abstract class UndoManager {
 		replayActions(cmd, slideId, until);
 	}
 
+	/**
+	 * Loads a state by only changing the elements that differ from the
+	 * current construction, see {@link #loadUndoInfoIncrementally}.
+	 *
+	 * @param cmd
+	 *            checkpoint
+	 * @param slideId
+	 *            slide identifier
+	 * @param until
+	 *            command to undo
+	 * @return whether the state was loaded
+	 */
+	protected boolean loadUndoInfoIncrementally(UndoCommand cmd,
+			String slideId, UndoCommand until) {
+		boolean afterCheckpoint = false;
+		for (UndoCommand command : undoInfoList) {
+			if (command == until) {
+				return loadUndoInfoIncrementally(extractFromCommand(cmd),
+						slideId);
+			}
+			if (afterCheckpoint && command.getAction() != null) {
+				// actions would need to be replayed
+				return false;
+			}
+			afterCheckpoint |= command == cmd;
+		}
+		return false;
+	}
+
+	/**
+	 * Loads a state by only changing the elements that differ from the
+	 * current construction, so that unchanged elements keep their identity.
+	 * Used instead of {@link #loadUndoInfo(AppState, String)} (and without
+	 * {@link #resetBeforeReload()}) when possible.
+	 *
+	 * @param state
+	 *            stored state
+	 * @param slideID
+	 *            slide identifier
+	 * @return whether the state was loaded; if not, it has to be reloaded
+	 */
+	protected boolean loadUndoInfoIncrementally(AppState state,
+			String slideID) {
+		return false;
+	}
+
+	/**
+	 * @return whether undo may only change the elements that differ
+	 */
+	public boolean isIncrementalUndo() {
+		return incrementalUndo;
+	}
+
+	/**
+	 * @param incrementalUndo
+	 *            whether undo may only change the elements that differ
+	 *            instead of reloading the construction
+	 */
+	public void setIncrementalUndo(boolean incrementalUndo) {
+		this.incrementalUndo = incrementalUndo;
+	}
+
 	/**
 	 * @param cmd undo command
 	 * @return app state associated with the command
@@ -360,19 +429,14 @@ public abstract class UndoManager {
 
 		// delete first if too many in list
 		if (undoInfoList.size() > MAX_CAPACITY) {
-			// use iterator to delete to avoid
-			// ConcurrentModificationException
-			// go to beginning of list
-			while (iterator.hasPrevious()) {
-				appState = iterator.previous();
-			}
-
-			iterator.remove();
-			appState.delete();
-
-			while (iterator.hasNext()) {
-				iterator.next();
-			}
+			removeOldest();
+		}
+		// keep at least current and previous state
+		long usage = getMemoryUsage();
+		while (undoInfoList.size() > 2 && usage > memoryBudget) {
+			usage -= getReleasedMemory(undoInfoList.getFirst(),
+					undoInfoList.get(1));
+			removeOldest();
 		}
 		EmbedManager manager = app.getEmbedManager();
 		if (manager != null) {
@@ -381,6 +445,55 @@ public abstract class UndoManager {
 		// debugStates();
 	}
 
+	private void removeOldest() {
+		// use iterator to delete to avoid
+		// ConcurrentModificationException
+		// go to beginning of list
+		int steps = iterator.previousIndex();
+		UndoCommand appState = null;
+		while (iterator.hasPrevious()) {
+			appState = iterator.previous();
+		}
+		if (appState == null) {
+			return;
+		}
+		iterator.remove();
+		appState.delete();
+
+		for (int i = 0; i < steps; i++) {
+			iterator.next();
+		}
+	}
+
+	/**
+	 * @return estimated memory used by stored states in bytes, 0 if unknown;
+	 *         memory shared with the current state is not counted as it
+	 *         cannot be released
+	 */
+	protected long getMemoryUsage() {
+		return 0;
+	}
+
+	/**
+	 * @param oldest
+	 *            oldest stored command
+	 * @param next
+	 *            command that becomes the oldest when the oldest is removed
+	 * @return estimated memory released by removing the oldest command
+	 */
+	protected long getReleasedMemory(UndoCommand oldest, UndoCommand next) {
+		return 0;
+	}
+
+	/**
+	 * @param memoryBudget
+	 *            maximal memory for stored states in bytes; older states are
+	 *            removed when exceeded
+	 */
+	public void setMemoryBudget(long memoryBudget) {
+		this.memoryBudget = memoryBudget;
+	}
+
 	/**
 	 * This stores the undo command, if the state changed.
 	 *
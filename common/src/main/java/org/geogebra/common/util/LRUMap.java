@@ -1,23 +1,249 @@
 package org.geogebra.common.util;
 
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
-public class LRUMap<K, V> extends LinkedHashMap<K, V> {
+/**
+ * Map that keeps only the least recently used entries. The map is limited
+ * both by number of entries and by total weight of the entries (e.g. length
+ * of cached strings). All access is synchronized so that the map can be
+ * shared as a cache by several threads; hit, miss and eviction counts are
+ * collected for diagnostics.
+ *
+ * @param <K>
+ *            key type
+ * @param <V>
+ *            value type
+ */
+public class LRUMap<K, V> {
 
 	private static final int MAX_ENTRIES = 100;
 
 	/**
-	 * https://docs.oracle.com/javase/6/docs/api/java/util/LinkedHashMap.html#
-	 * removeEldestEntry(java.util.Map.Entry)
-	 * 
-	 * @param eldest
-	 *            entry
-	 * @return whether eldest enry should be removed
+	 * Computes weight of map entries.
+	 *
+	 * @param <K>
+	 *            key type
+	 * @param <V>
+	 *            value type
 	 */
-	@Override
-	protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
-		return size() > MAX_ENTRIES;
+	public interface Weigher<K, V> {
+		/**
+		 * @param key
+		 *            key
+		 * @param value
+		 *            value, may be null
+		 * @return weight of the entry, non-negative
+		 */
+		long weigh(K key, V value);
 	}
 
-}
\ No newline at end of file
+	private final LinkedHashMap<K, V> map = new LinkedHashMap<>(16, 0.75f,
+			true);
+	private final int maxEntries;
+	private final long maxWeight;
+	private final Weigher<? super K, ? super V> weigher;
+	private long weight;
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	/**
+	 * Creates map with at most 100 entries.
+	 */
+	public LRUMap() {
+		this(MAX_ENTRIES);
+	}
+
+	/**
+	 * @param maxEntries
+	 *            maximal number of entries
+	 */
+	public LRUMap(int maxEntries) {
+		this(maxEntries, Long.MAX_VALUE, null);
+	}
+
+	/**
+	 * @param maxEntries
+	 *            maximal number of entries
+	 * @param maxWeight
+	 *            maximal total weight of entries
+	 * @param weigher
+	 *            computes weight of entries, null to only limit the number of
+	 *            entries
+	 */
+	public LRUMap(int maxEntries, long maxWeight,
+			Weigher<? super K, ? super V> weigher) {
+		this.maxEntries = maxEntries;
+		this.maxWeight = maxWeight;
+		this.weigher = weigher;
+	}
+
+	/**
+	 * @param maxEntries
+	 *            maximal number of entries
+	 * @param maxChars
+	 *            maximal total length of keys and values
+	 * @return map of strings limited by length of the strings
+	 */
+	public static LRUMap<String, String> forStrings(int maxEntries,
+			long maxChars) {
+		return new LRUMap<>(maxEntries, maxChars,
+				new Weigher<String, String>() {
+					@Override
+					public long weigh(String key, String value) {
+						return key.length()
+								+ (value == null ? 0 : value.length());
+					}
+				});
+	}
+
+	/**
+	 * Looks up a value and marks it as most recently used.
+	 *
+	 * @param key
+	 *            key
+	 * @return stored value or null
+	 */
+	public synchronized V get(K key) {
+		V value = map.get(key);
+		if (value != null || map.containsKey(key)) {
+			hits++;
+		} else {
+			misses++;
+		}
+		return value;
+	}
+
+	/**
+	 * @param key
+	 *            key
+	 * @return whether there is an entry for the key; does not change the
+	 *         order of entries or the statistics
+	 */
+	public synchronized boolean containsKey(K key) {
+		return map.containsKey(key);
+	}
+
+	/**
+	 * Stores a value; least recently used entries are evicted if the map gets
+	 * too big. Entries heavier than the whole map are not stored.
+	 *
+	 * @param key
+	 *            key
+	 * @param value
+	 *            value, may be null
+	 * @return previous value
+	 */
+	public synchronized V put(K key, V value) {
+		V old = remove(key);
+		long entryWeight = weigh(key, value);
+		if (entryWeight > maxWeight) {
+			return old;
+		}
+		map.put(key, value);
+		weight += entryWeight;
+		Iterator<Map.Entry<K, V>> it = map.entrySet().iterator();
+		while ((map.size() > maxEntries || weight > maxWeight)
+				&& it.hasNext()) {
+			Map.Entry<K, V> eldest = it.next();
+			weight -= weigh(eldest.getKey(), eldest.getValue());
+			it.remove();
+			evictions++;
+		}
+		return old;
+	}
+
+	/**
+	 * @param key
+	 *            key
+	 * @return removed value or null
+	 */
+	public synchronized V remove(K key) {
+		if (!map.containsKey(key)) {
+			return null;
+		}
+		V old = map.remove(key);
+		weight -= weigh(key, old);
+		return old;
+	}
+
+	private long weigh(K key, V value) {
+		return weigher == null ? 0 : weigher.weigh(key, value);
+	}
+
+	/**
+	 * Removes all entries, statistics are kept.
+	 */
+	public synchronized void clear() {
+		map.clear();
+		weight = 0;
+	}
+
+	/**
+	 * @return number of entries
+	 */
+	public synchronized int size() {
+		return map.size();
+	}
+
+	/**
+	 * @return total weight of entries
+	 */
+	public synchronized long getWeight() {
+		return weight;
+	}
+
+	/**
+	 * @return copy of the entries, from least to most recently used
+	 */
+	public synchronized ArrayList<Map.Entry<K, V>> entries() {
+		ArrayList<Map.Entry<K, V>> entries = new ArrayList<>(map.size());
+		for (Map.Entry<K, V> entry : map.entrySet()) {
+			entries.add(new AbstractMap.SimpleImmutableEntry<>(entry));
+		}
+		return entries;
+	}
+
+	/**
+	 * @return number of successful lookups
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return number of failed lookups
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return number of entries removed to keep the map small
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * @return ratio of successful lookups, 0 if there were no lookups
+	 */
+	public synchronized double getHitRatio() {
+		long lookups = hits + misses;
+		return lookups == 0 ? 0 : hits / (double) lookups;
+	}
+
+	/**
+	 * Resets hit, miss and eviction counters.
+	 */
+	public synchronized void resetStatistics() {
+		hits = 0;
+		misses = 0;
+		evictions = 0;
+	}
+
+}
@@ -0,0 +1,81 @@
+package org.geogebra.common.util;
+
+import java.util.List;
+
+/**
+ * Runs independent tasks on multiple cores where the platform supports it.
+ * Platforms without threads (web) don't set a prototype; callers then fall
+ * back to {@link #runSerially(List)}.
+ */
+public abstract class ParallelExecutor {
+	private static volatile ParallelExecutor prototype;
+
+	private static final Object lock = new Object();
+
+	/**
+	 * @return executor, might be null
+	 */
+	public static ParallelExecutor getPrototype() {
+		return prototype;
+	}
+
+	/**
+	 * @param p
+	 *            prototype
+	 */
+	public static void setPrototypeIfNull(ParallelExecutor p) {
+		synchronized (lock) {
+			if (prototype == null) {
+				prototype = p;
+			}
+		}
+	}
+
+	/**
+	 * @return number of tasks that may run at the same time
+	 */
+	public abstract int getParallelism();
+
+	/**
+	 * Runs all tasks and returns when all of them are finished. The first
+	 * exception thrown by a task is rethrown.
+	 * 
+	 * @param tasks
+	 *            independent tasks
+	 */
+	public abstract void invokeAll(List<? extends Runnable> tasks);
+
+	/**
+	 * Runs all tasks using the prototype if available, serially otherwise.
+	 * 
+	 * @param tasks
+	 *            independent tasks
+	 */
+	public static void run(List<? extends Runnable> tasks) {
+		ParallelExecutor executor = getPrototype();
+		if (executor == null || tasks.size() < 2) {
+			runSerially(tasks);
+		} else {
+			executor.invokeAll(tasks);
+		}
+	}
+
+	/**
+	 * @return number of tasks that may run at the same time using the
+	 *         prototype, 1 if there is none
+	 */
+	public static int getAvailableParallelism() {
+		ParallelExecutor executor = getPrototype();
+		return executor == null ? 1 : executor.getParallelism();
+	}
+
+	/**
+	 * @param tasks
+	 *            tasks to be run one after another in the current thread
+	 */
+	public static void runSerially(List<? extends Runnable> tasks) {
+		for (Runnable task : tasks) {
+			task.run();
+		}
+	}
+}
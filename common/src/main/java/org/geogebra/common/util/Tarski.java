@@ -19,11 +19,12 @@ public abstract class Tarski {
 		return "?";
 	}
 
-	public MaxSizeHashMap<String, String> tarskiResultCache = new MaxSizeHashMap<>(5000);
+	public LRUMap<String, String> tarskiResultCache = new LRUMap<>(5000);
 
 	public String evalCached (String command) {
-		if (tarskiResultCache.containsKey(command)) {
-			return tarskiResultCache.get(command);
+		String cached = tarskiResultCache.get(command);
+		if (cached != null) {
+			return cached;
 		}
 		String ret = eval(command);
 
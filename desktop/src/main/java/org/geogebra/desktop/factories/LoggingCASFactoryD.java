@@ -6,6 +6,7 @@ import java.util.Map.Entry;
 import org.geogebra.common.cas.CASparser;
 import org.geogebra.common.cas.giac.CASgiac.CustomFunctions;
 import org.geogebra.common.factories.CASFactory;
+import org.geogebra.common.jre.cas.giac.GiacDiskCache;
 import org.geogebra.common.kernel.CASGenericInterface;
 import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.util.AsyncOperation;
@@ -15,24 +16,54 @@ import org.geogebra.desktop.cas.giac.CASgiacD;
 
 public class LoggingCASFactoryD extends CASFactory {
 	private static HashMap<String, String> rawResponses = new HashMap<>();
+	/** maximal number of Giac calls waiting for a worker */
+	private static final int CAS_QUEUE_CAPACITY = 64;
+	private final GiacDiskCache diskCache;
+	private final int workerCount;
+
+	/**
+	 * Factory without persistent cache
+	 */
+	public LoggingCASFactoryD() {
+		this(null, 0);
+	}
+
+	/**
+	 * @param diskCache
+	 *            persistent cache for Giac results, may be null
+	 * @param workerCount
+	 *            number of Giac worker threads, 0 for one thread per call
+	 */
+	public LoggingCASFactoryD(GiacDiskCache diskCache, int workerCount) {
+		this.diskCache = diskCache;
+		this.workerCount = workerCount;
+	}
 
 	@Override
 	public CASGenericInterface newGiac(CASparser parser, Kernel kernel) {
-		return new CASgiacD(parser){
-			private String lastInput;
+		CASgiacD giac = new CASgiacD(parser) {
+			// input and output are logged by the same (worker) thread
+			private final ThreadLocal<String> lastInput = new ThreadLocal<>();
 
 			@Override
 			protected void debug(String prefix, String giacString) {
 				if (prefix.contains("input")) {
-					lastInput = giacString;
+					lastInput.set(giacString);
 				} else {
-					rawResponses.put(lastInput,
-							StringUtil.toJavaString(giacString));
-					lastInput = null;
+					synchronized (rawResponses) {
+						rawResponses.put(lastInput.get(),
+								StringUtil.toJavaString(giacString));
+					}
+					lastInput.remove();
 				}
 				Log.debug(prefix + giacString);
 			}
 		};
+		giac.setDiskCache(diskCache, kernel);
+		if (workerCount > 0) {
+			giac.setWorkerCount(workerCount, CAS_QUEUE_CAPACITY);
+		}
+		return giac;
 	}
 
 	public static void printResponses(AsyncOperation<String> sh) {
@@ -8,12 +8,15 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.URL;
 
 import org.geogebra.common.gui.view.spreadsheet.CellRange;
 import org.geogebra.common.gui.view.spreadsheet.CopyPasteCut;
 import org.geogebra.common.gui.view.spreadsheet.DataImport;
 import org.geogebra.common.gui.view.spreadsheet.RelativeCopy;
+import org.geogebra.common.gui.view.spreadsheet.StreamingDataImport;
+import org.geogebra.common.jre.io.DataImportReader;
 import org.geogebra.common.kernel.StringTemplate;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.main.App;
@@ -161,8 +164,46 @@ public class CopyPasteCutD extends CopyPasteCut {
 
 	}
 
+	/**
+	 * Imports a data file. If the target range is a single cell, the file is
+	 * imported while it is read, otherwise the data is pasted repeatedly to
+	 * fill the range.
+	 * 
+	 * @param url
+	 *            file URL
+	 * @param targetRange
+	 *            target cells
+	 * @param clearSpreadsheet
+	 *            whether to delete all cells first
+	 * @return success
+	 */
 	public boolean pasteFromURL(URL url, CellRange targetRange,
 			boolean clearSpreadsheet) {
+		if (targetRange.getMinColumn() != targetRange.getMaxColumn()
+				|| targetRange.getMinRow() != targetRange.getMaxRow()) {
+			return pasteFromURLMultiple(url, targetRange, clearSpreadsheet);
+		}
+		try {
+			Reader input = new InputStreamReader(url.openStream(),
+					Charsets.getUtf8());
+			try {
+				if (clearSpreadsheet) {
+					deleteAll();
+				}
+				StreamingDataImport dataImport = new StreamingDataImport(app,
+						targetRange.getMinColumn(), targetRange.getMinRow());
+				return DataImportReader.read(input, dataImport);
+			} finally {
+				input.close();
+			}
+		} catch (IOException ex) {
+			ex.printStackTrace();
+			return false;
+		}
+	}
+
+	private boolean pasteFromURLMultiple(URL url, CellRange targetRange,
+			boolean clearSpreadsheet) {
 
 		// read file
 		StringBuilder contents = new StringBuilder();
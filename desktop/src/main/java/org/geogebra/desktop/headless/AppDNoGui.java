@@ -1,5 +1,6 @@
 package org.geogebra.desktop.headless;
 
+import java.io.File;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Locale;
@@ -11,6 +12,7 @@ import org.geogebra.common.euclidian.EuclidianView;
 import org.geogebra.common.euclidian3D.EuclidianView3DInterface;
 import org.geogebra.common.factories.UtilFactory;
 import org.geogebra.common.io.MyXMLio;
+import org.geogebra.common.jre.cas.giac.GiacDiskCache;
 import org.geogebra.common.jre.gui.MyImageJre;
 import org.geogebra.common.jre.headless.App3DCompanionHeadless;
 import org.geogebra.common.jre.headless.AppCommon;
@@ -58,6 +60,11 @@ import org.geogebra.desktop.util.ImageManagerD;
  */
 public class AppDNoGui extends AppCommon implements AppDI {
 
+	/** default size limit of the Giac cache file in MB */
+	private static final long GIAC_CACHE_MB = 256;
+	/** Giac results shared by all apps, set by ggb.giacCache property */
+	private static GiacDiskCache giacDiskCache;
+
 	private DrawEquationD drawEquation;
 	private GgbAPIJre ggbapi;
 	private SoundManager soundManager;
@@ -77,7 +84,54 @@ public class AppDNoGui extends AppCommon implements AppDI {
 
 		UtilFactory.setPrototypeIfNull(new UtilFactoryD());
 		loginOperation = new LoginOperationD(this);
-		setCASFactory(new LoggingCASFactoryD());
+		setCASFactory(new LoggingCASFactoryD(getGiacDiskCache(),
+				getCASWorkerCount()));
+	}
+
+	/**
+	 * Persistent Giac cache is enabled by -Dggb.giacCache=path, size limit
+	 * can be changed by -Dggb.giacCacheMB=size
+	 *
+	 * @return persistent Giac cache, null if disabled
+	 */
+	private static synchronized GiacDiskCache getGiacDiskCache() {
+		String path = System.getProperty("ggb.giacCache");
+		if (path == null || giacDiskCache != null) {
+			return giacDiskCache;
+		}
+		long megabytes = GIAC_CACHE_MB;
+		try {
+			megabytes = Long.parseLong(
+					System.getProperty("ggb.giacCacheMB", "" + GIAC_CACHE_MB));
+		} catch (NumberFormatException e) {
+			Log.warn("Invalid Giac cache size");
+		}
+		final GiacDiskCache cache = new GiacDiskCache(new File(path),
+				megabytes * 1024 * 1024);
+		Runtime.getRuntime().addShutdownHook(new Thread() {
+			@Override
+			public void run() {
+				cache.close();
+				Log.info(cache.toString());
+			}
+		});
+		giacDiskCache = cache;
+		return cache;
+	}
+
+	/**
+	 * Giac worker threads are enabled by -Dggb.casWorkers=count
+	 *
+	 * @return number of Giac workers per CAS, 0 if disabled
+	 */
+	private static int getCASWorkerCount() {
+		try {
+			return Math.max(0,
+					Integer.parseInt(System.getProperty("ggb.casWorkers", "0")));
+		} catch (NumberFormatException e) {
+			Log.warn("Invalid number of CAS workers");
+			return 0;
+		}
 	}
 
 	public void addExternalImage(String name, MyImageJre img) {
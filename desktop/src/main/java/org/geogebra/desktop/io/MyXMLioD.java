@@ -52,6 +52,7 @@ public class MyXMLioD extends MyXMLioJre {
 	 */
 	public MyXMLioD(Kernel kernel, Construction cons) {
 		super(kernel, cons);
+		setWriteSnapshot(Boolean.getBoolean("ggb.snapshot"));
 	}
 
 	@Override
@@ -62,6 +63,7 @@ public class MyXMLioD extends MyXMLioJre {
 		// before we process the XML file, that's why we
 		// read the XML file into a buffer first
 		byte[] xmlFileBuffer = null;
+		byte[] snapshotBuffer = null;
 		byte[] macroXmlFileBuffer = null;
 		byte[] defaults2dXmlFileBuffer = null;
 		byte[] defaults3dXmlFileBuffer = null;
@@ -90,6 +92,8 @@ public class MyXMLioD extends MyXMLioJre {
 				xmlFileBuffer = UtilD.loadIntoMemory(zip);
 				xmlFound = true;
 				handler = getGGBHandler();
+			} else if (name.equals(XML_FILE_SNAPSHOT)) {
+				snapshotBuffer = UtilD.loadIntoMemory(zip);
 			} else if (name.equals(XML_FILE_DEFAULTS_2D)) {
 				// load defaults xml file into memory first
 				defaults2dXmlFileBuffer = UtilD.loadIntoMemory(zip);
@@ -156,7 +160,8 @@ public class MyXMLioD extends MyXMLioJre {
 		if (!isGGTfile && xmlFileBuffer != null) {
 			kernel.getConstruction().setFileLoading(true);
 			app.getCompanion().resetEuclidianViewForPlaneIds();
-			processXMLBuffer(xmlFileBuffer, !macroXMLfound, isGGTfile);
+			processXMLBuffer(xmlFileBuffer, snapshotBuffer, !macroXMLfound,
+					isGGTfile);
 			kernel.getConstruction().setFileLoading(false);
 		}
 
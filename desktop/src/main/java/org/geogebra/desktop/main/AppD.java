@@ -142,6 +142,7 @@ import org.geogebra.common.jre.kernel.commands.CommandDispatcher3DJre;
 import org.geogebra.common.jre.kernel.commands.CommandDispatcherJre;
 import org.geogebra.common.jre.main.TemplateHelper;
 import org.geogebra.common.jre.util.Base64;
+import org.geogebra.common.jre.util.ParallelExecutorJre;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.kernel.Macro;
@@ -174,6 +175,7 @@ import org.geogebra.common.util.GTimer;
 import org.geogebra.common.util.GTimerListener;
 import org.geogebra.common.util.LowerCaseDictionary;
 import org.geogebra.common.util.NormalizerMinimal;
+import org.geogebra.common.util.ParallelExecutor;
 import org.geogebra.common.util.StringUtil;
 import org.geogebra.common.util.Util;
 import org.geogebra.common.util.debug.Log;
@@ -724,6 +726,10 @@ public class AppD extends App implements KeyEventDispatcher, AppDI {
 			UtilFactory.setPrototypeIfNull(new UtilFactoryD());
 		}
 
+		if (ParallelExecutor.getPrototype() == null) {
+			ParallelExecutor.setPrototypeIfNull(new ParallelExecutorJre());
+		}
+
 		if (StringUtil.getPrototype() == null) {
 			StringUtil.setPrototypeIfNull(new StringUtilD());
 		}
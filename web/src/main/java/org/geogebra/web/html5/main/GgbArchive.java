@@ -20,6 +20,8 @@ public class GgbArchive {
 	 */
 	public GgbArchive(GgbFile ggbFile, boolean is3D) {
 		construction = ggbFile.remove(MyXMLio.XML_FILE);
+		// the web app reads the XML, the snapshot would be taken for an image
+		ggbFile.remove(MyXMLio.XML_FILE_SNAPSHOT);
 		macros = ggbFile.remove(MyXMLio.XML_FILE_MACRO);
 		defaults2d = ggbFile.remove(MyXMLio.XML_FILE_DEFAULTS_2D);
 		defaults3d = is3D